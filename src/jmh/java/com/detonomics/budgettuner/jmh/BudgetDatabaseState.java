@@ -0,0 +1,131 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.detonomics.budgettuner.dao.BudgetTotalsDao;
+import com.detonomics.budgettuner.dao.BudgetYearDao;
+import com.detonomics.budgettuner.dao.ExpenseCategoryDao;
+import com.detonomics.budgettuner.dao.MinistryDao;
+import com.detonomics.budgettuner.dao.MinistryExpenseDao;
+import com.detonomics.budgettuner.dao.RevenueCategoryDao;
+import com.detonomics.budgettuner.dao.SummaryDao;
+import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetModificationServiceImpl;
+import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.ingestion.SyntheticBudgetGenerator;
+import com.detonomics.budgettuner.util.ingestion.SyntheticBudgetShape;
+
+/**
+ * Synthetic database shared by the benchmarks of one trial, with the DAOs and
+ * the modification service wired as the application wires them. The size is
+ * set with {@code -p years=..,ministries=..,categories=..}; the revenue
+ * hierarchy and the scenarios otherwise follow
+ * {@link SyntheticBudgetShape#defaults()}.
+ */
+@State(Scope.Benchmark)
+public class BudgetDatabaseState {
+
+    /** Number of budgets in the database. */
+    @Param({"5"})
+    public int years;
+
+    /** Ministries per budget. */
+    @Param({"50"})
+    public int ministries;
+
+    /** Expense categories per budget. */
+    @Param({"20"})
+    public int categories;
+
+    /** Revenue levels below the top-level categories. */
+    @Param({"3"})
+    public int revenueDepth;
+
+    /** Cloned scenarios besides the original budgets. */
+    @Param({"0"})
+    public int scenarios;
+
+    SyntheticBudgetGenerator generator;
+    Path dbFile;
+    DatabaseManager dbManager;
+    SummaryDao summaryDao;
+    RevenueCategoryDao revenueDao;
+    ExpenseCategoryDao expenseDao;
+    MinistryDao ministryDao;
+    MinistryExpenseDao ministryExpenseDao;
+    BudgetTotalsDao budgetTotalsDao;
+    BudgetYearDao budgetYearDao;
+    BudgetModificationServiceImpl modificationService;
+    int[] budgetIDs;
+
+    /**
+     * Generate the database and open it.
+     *
+     * @throws Exception If the database cannot be built
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        SyntheticBudgetShape d = SyntheticBudgetShape.defaults();
+        generator = new SyntheticBudgetGenerator(new SyntheticBudgetShape(d.firstYear(), years, ministries,
+                categories, d.revenueRoots(), d.revenueFanOut(), revenueDepth, scenarios, d.seed()));
+        dbFile = Files.createTempFile("budgettuner-jmh", ".db");
+        Files.delete(dbFile);
+        generator.writeDatabase(dbFile.toString());
+        dbManager = new DatabaseManager(dbFile.toString());
+        summaryDao = new SummaryDao(dbManager);
+        revenueDao = new RevenueCategoryDao(dbManager);
+        expenseDao = new ExpenseCategoryDao(dbManager);
+        ministryDao = new MinistryDao(dbManager);
+        ministryExpenseDao = new MinistryExpenseDao(dbManager);
+        budgetTotalsDao = new BudgetTotalsDao(dbManager);
+        budgetYearDao = new BudgetYearDao(dbManager, summaryDao, revenueDao, expenseDao, ministryDao,
+                ministryExpenseDao);
+        modificationService = new BudgetModificationServiceImpl(dbManager, budgetYearDao, revenueDao, expenseDao,
+                ministryDao, ministryExpenseDao, summaryDao);
+        List<Summary> summaries = summaryDao.loadAllSummaries();
+        budgetIDs = summaries.stream().mapToInt(Summary::getBudgetID).toArray();
+    }
+
+    /**
+     * Pick a budget of the database.
+     *
+     * @param n Any counter
+     * @return Budget ID
+     */
+    int budgetID(final int n) {
+        return budgetIDs[Math.floorMod(n, budgetIDs.length)];
+    }
+
+    /**
+     * Close and remove the database.
+     *
+     * @throws Exception If the files cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        dbManager.close();
+        delete(dbFile);
+    }
+
+    /**
+     * Remove a database together with its WAL side files.
+     *
+     * @param dbFile Database file
+     * @throws IOException If a file cannot be deleted
+     */
+    static void delete(final Path dbFile) throws IOException {
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.BudgetYear;
+
+/**
+ * Load budget years with five independent queries per budget or with the
+ * single-snapshot bulk loader. Budgets are loaded in pairs, as the comparison
+ * screen does, and then all at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class BudgetYearLoadBenchmark {
+
+    /** Loader: per-query or bulk. */
+    @Param({"per-query", "bulk"})
+    public String loader;
+
+    private int next;
+
+    /**
+     * Load the next pair of budgets.
+     *
+     * @param db Synthetic database
+     * @return Loaded budgets
+     */
+    @Benchmark
+    public Map<Integer, BudgetYear> loadPair(final BudgetDatabaseState db) {
+        int n = next;
+        next += 2;
+        return load(db, List.of(db.budgetID(n), db.budgetID(n + 1)));
+    }
+
+    /**
+     * Load every budget of the database.
+     *
+     * @param db Synthetic database
+     * @return Loaded budgets
+     */
+    @Benchmark
+    public Map<Integer, BudgetYear> loadAll(final BudgetDatabaseState db) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id : db.budgetIDs) {
+            ids.add(id);
+        }
+        return load(db, ids);
+    }
+
+    private Map<Integer, BudgetYear> load(final BudgetDatabaseState db, final List<Integer> ids) {
+        if ("bulk".equals(loader)) {
+            return db.budgetYearDao.loadBudgetYearsByID(ids);
+        }
+        Map<Integer, BudgetYear> budgets = new HashMap<>();
+        for (int id : ids) {
+            budgets.put(id, new BudgetYear(db.summaryDao.loadSummary(id), db.revenueDao.loadRevenues(id),
+                    db.expenseDao.loadExpenses(id), db.ministryDao.loadMinistries(id),
+                    db.ministryExpenseDao.loadMinistryExpenses(id)));
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,156 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+
+/**
+ * Compare every pair of budgets for every comparison type, the way the
+ * comparison screen used to (two table loads and hash maps per comparison)
+ * and over a {@link BudgetAnalytics} snapshot. The snapshot load is measured
+ * separately, since it is paid once per write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComparisonBenchmark {
+
+    /**
+     * Snapshot of the database, loaded once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Snapshot {
+        BudgetAnalytics analytics;
+
+        /**
+         * Load the snapshot and check it against the table loads.
+         *
+         * @param db Synthetic database
+         */
+        @Setup(Level.Trial)
+        public void load(final BudgetDatabaseState db) {
+            analytics = new BudgetAnalytics(db.budgetTotalsDao.loadSnapshot());
+            if (compareAll(db, analytics) != compareAllFromDao(db)) {
+                throw new IllegalStateException("Snapshot comparison differs from the DAO comparison");
+            }
+        }
+    }
+
+    /**
+     * Compare every pair by loading both budgets' rows per comparison.
+     *
+     * @param db Synthetic database
+     * @return Checksum of the compared lines
+     */
+    @Benchmark
+    public long compareFromDao(final BudgetDatabaseState db) {
+        return compareAllFromDao(db);
+    }
+
+    /**
+     * Load the snapshot the comparisons run over.
+     *
+     * @param db Synthetic database
+     * @return Loaded analytics
+     */
+    @Benchmark
+    public BudgetAnalytics loadSnapshot(final BudgetDatabaseState db) {
+        return new BudgetAnalytics(db.budgetTotalsDao.loadSnapshot());
+    }
+
+    /**
+     * Compare every pair over the snapshot.
+     *
+     * @param db       Synthetic database
+     * @param snapshot Loaded snapshot
+     * @return Checksum of the compared lines
+     */
+    @Benchmark
+    public long compareFromSnapshot(final BudgetDatabaseState db, final Snapshot snapshot) {
+        return compareAll(db, snapshot.analytics);
+    }
+
+    private static long compareAll(final BudgetDatabaseState db, final BudgetAnalytics analytics) {
+        long checksum = 0;
+        for (int first : db.budgetIDs) {
+            for (int second : db.budgetIDs) {
+                for (AnalysisType type : AnalysisType.values()) {
+                    for (BudgetAnalytics.LineComparison line : analytics.compare(type, first, second)) {
+                        checksum = checksum * 31 + line.code() + line.firstAmount() - line.secondAmount();
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * The comparison screen as it used to run: per comparison, both budgets'
+     * rows are loaded, keyed by code into hash maps, and the union of codes is
+     * sorted.
+     */
+    private static long compareAllFromDao(final BudgetDatabaseState db) {
+        long checksum = 0;
+        for (int first : db.budgetIDs) {
+            for (int second : db.budgetIDs) {
+                for (AnalysisType type : AnalysisType.values()) {
+                    Map<Long, Long> amounts1 = load(db, type, first);
+                    Map<Long, Long> amounts2 = load(db, type, second);
+                    TreeSet<Long> codes = new TreeSet<>(amounts1.keySet());
+                    codes.addAll(amounts2.keySet());
+                    for (long code : codes) {
+                        checksum = checksum * 31 + code + amounts1.getOrDefault(code, 0L)
+                                - amounts2.getOrDefault(code, 0L);
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static Map<Long, Long> load(final BudgetDatabaseState db, final AnalysisType type, final int budgetID) {
+        Map<Long, Long> amounts = new HashMap<>();
+        switch (type) {
+            case REVENUE -> {
+                for (RevenueCategory rc : db.revenueDao.loadRevenues(budgetID)) {
+                    if (rc.getParentID() == 0) {
+                        amounts.put(rc.getCode(), rc.getAmount());
+                    }
+                }
+            }
+            case EXPENSE -> {
+                for (ExpenseCategory ec : db.expenseDao.loadExpenses(budgetID)) {
+                    amounts.put(ec.getCode(), ec.getAmount());
+                }
+            }
+            case MINISTRY -> {
+                for (Ministry m : db.ministryDao.loadMinistries(budgetID)) {
+                    amounts.put(m.getCode(), m.getTotalBudget());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        }
+        return amounts;
+    }
+}
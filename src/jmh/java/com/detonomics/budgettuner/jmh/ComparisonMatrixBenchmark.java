@@ -0,0 +1,104 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.service.BudgetComparisonEngine;
+import com.detonomics.budgettuner.service.ComparisonMatrix;
+
+/**
+ * Compare every budget of the database at once, for every comparison type,
+ * with one worker or with one worker per core. Raise {@code -p years} and
+ * {@code -p scenarios} for a matrix with many columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ComparisonMatrixBenchmark {
+
+    /** Engine: sequential or parallel. */
+    @Param({"sequential", "parallel"})
+    public String engine;
+
+    private ExecutorService executor;
+    private BudgetComparisonEngine comparisonEngine;
+    private BudgetSnapshot snapshot;
+    private List<Integer> ids;
+
+    /**
+     * Load the snapshot and start the engine's workers.
+     *
+     * @param db Synthetic database
+     */
+    @Setup(Level.Trial)
+    public void start(final BudgetDatabaseState db) {
+        snapshot = db.budgetTotalsDao.loadSnapshot();
+        ids = new ArrayList<>();
+        for (int id : db.budgetIDs) {
+            ids.add(id);
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(cores);
+        BudgetComparisonEngine sequential = new BudgetComparisonEngine(Runnable::run, 1);
+        BudgetComparisonEngine parallel = new BudgetComparisonEngine(executor, cores);
+        if (compareAll(sequential) != compareAll(parallel)) {
+            throw new IllegalStateException("Parallel comparison differs from the sequential one");
+        }
+        comparisonEngine = "parallel".equals(engine) ? parallel : sequential;
+    }
+
+    /**
+     * Build the comparison matrix of every type.
+     *
+     * @return Checksum of the matrices
+     */
+    @Benchmark
+    public long compareAll() {
+        return compareAll(comparisonEngine);
+    }
+
+    /**
+     * Stop the engine's workers.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        executor.shutdown();
+    }
+
+    private long compareAll(final BudgetComparisonEngine comparison) {
+        long checksum = 0;
+        for (AnalysisType type : AnalysisType.values()) {
+            ComparisonMatrix matrix = comparison.compare(snapshot, type, ids);
+            for (int r = 0; r < matrix.rowCount(); r++) {
+                checksum = checksum * 31 + matrix.code(r) + matrix.min(r) + matrix.max(r)
+                        + Math.round(matrix.stddev(r));
+            }
+            for (int r : matrix.rankedByChange()) {
+                checksum = checksum * 31 + r;
+            }
+        }
+        return checksum;
+    }
+}
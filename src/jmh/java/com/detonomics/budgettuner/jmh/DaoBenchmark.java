@@ -0,0 +1,82 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.BudgetYear;
+
+/**
+ * Reads and single-row writes through the DAOs and the database manager.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DaoBenchmark {
+
+    private static final String MINISTRY_TOTALS_SQL = """
+            SELECT m.code, SUM(me.amount) AS total
+            FROM Ministries m JOIN MinistryExpenses me ON me.ministry_id = m.ministry_id
+            WHERE m.budget_id = ?
+            GROUP BY m.code
+            """;
+
+    /**
+     * Counter cycling the benchmarks through the budgets and amounts.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /**
+     * Load a complete budget with all its categories and ministries.
+     *
+     * @param db     Synthetic database
+     * @param cursor Budget to load next
+     * @return Loaded budget
+     */
+    @Benchmark
+    public BudgetYear loadBudgetYear(final BudgetDatabaseState db, final Cursor cursor) {
+        return db.budgetYearDao.loadBudgetYear(db.budgetID(cursor.next++));
+    }
+
+    /**
+     * Change one leaf revenue, which rescales its ancestors, in its own
+     * transaction.
+     *
+     * @param db     Synthetic database
+     * @param cursor Budget and amount to write next
+     * @return Count of records affected
+     */
+    @Benchmark
+    public int setRevenueAmount(final BudgetDatabaseState db, final Cursor cursor) {
+        int n = cursor.next++;
+        return db.revenueDao.setRevenueAmount(db.budgetID(n), db.generator.firstLeafRevenueCode(0),
+                1_000_000L + (n & 1));
+    }
+
+    /**
+     * Aggregate the ministry expense lines of one budget.
+     *
+     * @param db     Synthetic database
+     * @param cursor Budget to query next
+     * @return Result rows
+     */
+    @Benchmark
+    public List<Map<String, Object>> executeQuery(final BudgetDatabaseState db, final Cursor cursor) {
+        return db.dbManager.executeQuery(MINISTRY_TOTALS_SQL, db.budgetID(cursor.next++));
+    }
+}
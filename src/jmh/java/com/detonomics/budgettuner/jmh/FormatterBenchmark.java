@@ -0,0 +1,129 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+import com.detonomics.budgettuner.util.BudgetFormatter;
+
+/**
+ * Side-by-side comparison tables of two budgets loaded from the synthetic
+ * database. The revenue, expense and ministry tables format the line
+ * comparisons of a loaded analytics snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FormatterBenchmark {
+
+    /**
+     * The first two budgets of the database, loaded once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Pair {
+        BudgetYear first;
+        BudgetYear second;
+        BudgetAnalytics analytics;
+
+        /**
+         * Load the budgets and the snapshot the line comparisons run on.
+         *
+         * @param db Synthetic database
+         */
+        @Setup(Level.Trial)
+        public void load(final BudgetDatabaseState db) {
+            first = db.budgetYearDao.loadBudgetYear(db.budgetID(0));
+            second = db.budgetYearDao.loadBudgetYear(db.budgetID(1));
+            analytics = new BudgetAnalytics(db.budgetTotalsDao.loadSnapshot());
+        }
+
+        String comparison(final AnalysisType type) {
+            return BudgetFormatter.getFormattedComparison(type,
+                    analytics.compareAllLines(type, first.getSummary().getBudgetID(),
+                            second.getSummary().getBudgetID()),
+                    firstYear(), secondYear());
+        }
+
+        int firstYear() {
+            return first.getSummary().getBudgetYear();
+        }
+
+        int secondYear() {
+            return second.getSummary().getBudgetYear();
+        }
+    }
+
+    /**
+     * Compare revenue categories.
+     *
+     * @param pair Budgets to compare
+     * @return Formatted table
+     */
+    @Benchmark
+    public String comparativeRevenues(final Pair pair) {
+        return pair.comparison(AnalysisType.REVENUE);
+    }
+
+    /**
+     * Compare expense categories.
+     *
+     * @param pair Budgets to compare
+     * @return Formatted table
+     */
+    @Benchmark
+    public String comparativeExpenditures(final Pair pair) {
+        return pair.comparison(AnalysisType.EXPENSE);
+    }
+
+    /**
+     * Compare ministry totals.
+     *
+     * @param pair Budgets to compare
+     * @return Formatted table
+     */
+    @Benchmark
+    public String comparativeMinistries(final Pair pair) {
+        return pair.comparison(AnalysisType.MINISTRY);
+    }
+
+    /**
+     * Compare the expense lines of every ministry.
+     *
+     * @param pair Budgets to compare
+     * @return Formatted table
+     */
+    @Benchmark
+    public String comparativeMinistryExpenses(final Pair pair) {
+        return BudgetFormatter.getFormattedComparativeMinistryExpenses(pair.first.getMinistries(),
+                pair.first.getExpenses(), pair.first.getMinistryExpenses(), pair.second.getMinistries(),
+                pair.second.getExpenses(), pair.second.getMinistryExpenses(), pair.firstYear(),
+                pair.secondYear());
+    }
+
+    /**
+     * Compare the expense lines of every ministry through the budgets' ID
+     * indexes.
+     *
+     * @param pair Budgets to compare
+     * @return Formatted table
+     */
+    @Benchmark
+    public String comparativeMinistryExpensesIndexed(final Pair pair) {
+        return BudgetFormatter.getFormattedComparativeMinistryExpenses(pair.first, pair.second);
+    }
+}
@@ -0,0 +1,106 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.util.ingestion.JsonToSQLite;
+import com.detonomics.budgettuner.util.ingestion.SyntheticBudgetGenerator;
+import com.detonomics.budgettuner.util.ingestion.SyntheticBudgetShape;
+
+/**
+ * Store one budget JSON document in an empty database, as the last step of
+ * the ingestion pipeline does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class IngestionBenchmark {
+
+    /** Ministries in the document. */
+    @Param({"50"})
+    public int ministries;
+
+    /** Expense categories in the document. */
+    @Param({"20"})
+    public int categories;
+
+    /** Revenue levels below the top-level categories. */
+    @Param({"3"})
+    public int revenueDepth;
+
+    private Path json;
+    private Path dbFile;
+
+    /**
+     * Write the document once per trial.
+     *
+     * @throws Exception If the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void writeDocument() throws Exception {
+        SyntheticBudgetShape d = SyntheticBudgetShape.defaults();
+        SyntheticBudgetGenerator generator = new SyntheticBudgetGenerator(new SyntheticBudgetShape(d.firstYear(),
+                1, ministries, categories, d.revenueRoots(), d.revenueFanOut(), revenueDepth, 0, d.seed()));
+        json = generator.writeJson(Files.createTempDirectory("budgettuner-jmh")).getFirst();
+    }
+
+    /**
+     * Pick a fresh database file for every invocation.
+     *
+     * @throws Exception If the file name cannot be reserved
+     */
+    @Setup(Level.Invocation)
+    public void newDatabase() throws Exception {
+        dbFile = Files.createTempFile("budgettuner-jmh", ".db");
+        Files.delete(dbFile);
+    }
+
+    /**
+     * Create the schema and store the document.
+     *
+     * @throws Exception If parsing or storing fails
+     */
+    @Benchmark
+    public void processAndStoreBudget() throws Exception {
+        new JsonToSQLite(dbFile.toString()).processAndStoreBudget(json.toString());
+    }
+
+    /**
+     * Remove the database of the last invocation.
+     *
+     * @throws Exception If the files cannot be deleted
+     */
+    @TearDown(Level.Invocation)
+    public void deleteDatabase() throws Exception {
+        BudgetDatabaseState.delete(dbFile);
+    }
+
+    /**
+     * Remove the document and its directory.
+     *
+     * @throws Exception If the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteDocument() throws Exception {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(json.getParent());
+    }
+}
@@ -0,0 +1,194 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.MinistryExpense;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.ingestion.SyntheticBudgetGenerator;
+
+/**
+ * Scenario operations of the modification service: cloning a budget, next
+ * to the row-by-row clone it replaced, and applying a batch of edits to it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ModificationBenchmark {
+
+    /** Revenue and ministry expense lines changed by one edit batch. */
+    private static final int EDITS = 10;
+
+    /**
+     * Clone created by the last invocation, removed again outside the timed
+     * section so the database keeps its size.
+     */
+    @State(Scope.Thread)
+    public static class Clones {
+        int created;
+        int clone = -1;
+
+        /**
+         * Delete the clone of the last invocation.
+         *
+         * @param db Synthetic database
+         */
+        @TearDown(Level.Invocation)
+        public void deleteClone(final BudgetDatabaseState db) {
+            if (clone >= 0) {
+                db.budgetYearDao.deleteBudget(clone);
+                clone = -1;
+            }
+        }
+    }
+
+    /**
+     * Edit batches alternating between two sets of amounts.
+     */
+    @State(Scope.Thread)
+    public static class Edits {
+        int next;
+    }
+
+    /**
+     * Copy a budget with all its categories and ministry lines.
+     *
+     * @param db     Synthetic database
+     * @param clones Clone bookkeeping
+     * @return ID of the clone
+     */
+    @Benchmark
+    public int cloneBudget(final BudgetDatabaseState db, final Clones clones) {
+        int n = clones.created++;
+        clones.clone = db.modificationService.cloneBudget(db.budgetID(n), "Σενάριο " + n);
+        return clones.clone;
+    }
+
+    /**
+     * Copy a budget the way the modification screen used to, one row at a
+     * time.
+     *
+     * @param db     Synthetic database
+     * @param clones Clone bookkeeping
+     * @return ID of the clone
+     * @throws SQLException If the transaction fails
+     */
+    @Benchmark
+    public int cloneBudgetRowByRow(final BudgetDatabaseState db, final Clones clones) throws SQLException {
+        int n = clones.created++;
+        clones.clone = db.dbManager.inTransaction(conn -> {
+            return rowByRowClone(db, conn, db.budgetID(n), "Σενάριο " + n);
+        });
+        return clones.clone;
+    }
+
+    /**
+     * Apply revenue and ministry expense edits, with every aggregate kept in
+     * step, in one transaction.
+     *
+     * @param db    Synthetic database
+     * @param edits Batch to apply next
+     */
+    @Benchmark
+    public void updateBudgetAmounts(final BudgetDatabaseState db, final Edits edits) {
+        int n = edits.next++;
+        Map<Long, Long> revenues = new HashMap<>();
+        Map<String, Long> ministryLines = new HashMap<>();
+        for (int i = 0; i < EDITS; i++) {
+            long amount = 1_000_000L + i + (n & 1);
+            revenues.put(db.generator.firstLeafRevenueCode(i % db.generator.shape().revenueRoots()), amount);
+            ministryLines.put(SyntheticBudgetGenerator.ministryCode(i % db.ministries) + ":"
+                    + SyntheticBudgetGenerator.expenseCode(i % db.categories), amount);
+        }
+        db.modificationService.updateBudgetAmounts(db.budgetID(n), revenues, ministryLines);
+    }
+
+    /*
+     * The clone as it used to run below the header: one INSERT per row, a
+     * last_insert_rowid() round trip per ministry and category, and a lookup
+     * plus UPDATE per revenue child to repair parent_id.
+     */
+    private static int rowByRowClone(final BudgetDatabaseState state, final Connection conn, final int sourceID,
+            final String title) {
+        DatabaseManager db = state.dbManager;
+        BudgetYear source = state.budgetYearDao.loadBudgetYear(sourceID);
+        int newID = state.budgetYearDao.cloneBudgetHeader(conn, sourceID, title);
+
+        String insertRevenue = "INSERT INTO RevenueCategories (budget_id, code, name, amount, parent_id) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        List<RevenueCategory> revenues = source.getRevenues();
+        for (RevenueCategory rc : revenues) {
+            if (rc.getParentID() == 0) {
+                db.executeUpdate(conn, insertRevenue, newID, String.valueOf(rc.getCode()), rc.getName(),
+                        rc.getAmount(), null);
+            }
+        }
+        for (RevenueCategory rc : revenues) {
+            if (rc.getParentID() != 0) {
+                db.executeUpdate(conn, insertRevenue, newID, String.valueOf(rc.getCode()), rc.getName(),
+                        rc.getAmount(), 0);
+            }
+        }
+        for (RevenueCategory rc : revenues) {
+            if (rc.getParentID() != 0) {
+                long parentCode = revenues.stream().filter(p -> p.getRevenueID() == rc.getParentID())
+                        .findFirst().map(RevenueCategory::getCode).orElse(0L);
+                List<Map<String, Object>> parent = db.executeQuery(conn, "SELECT revenue_category_id "
+                        + "FROM RevenueCategories WHERE budget_id = ? AND code_num = ?", newID, parentCode);
+                int parentID = parent.isEmpty() ? 0 : (Integer) parent.getFirst().get("revenue_category_id");
+                db.executeUpdate(conn, "UPDATE RevenueCategories SET parent_id = ? WHERE budget_id = ? "
+                        + "AND code_num = ?", parentID, newID, rc.getCode());
+            }
+        }
+
+        Map<Integer, Integer> ministryIDs = new HashMap<>();
+        for (Ministry m : source.getMinistries()) {
+            db.executeUpdate(conn, "INSERT INTO Ministries (code, name, regular_budget, public_investment_budget, "
+                    + "total_budget, budget_id) VALUES (?, ?, ?, ?, ?, ?)", m.getCode(), m.getName(),
+                    m.getRegularBudget(), m.getPublicInvestmentBudget(), m.getTotalBudget(), newID);
+            ministryIDs.put(m.getMinistryID(), lastInsertID(db, conn));
+        }
+        Map<Integer, Integer> expenseIDs = new HashMap<>();
+        for (ExpenseCategory ec : source.getExpenses()) {
+            db.executeUpdate(conn, "INSERT INTO ExpenseCategories (code, name, amount, budget_id) "
+                    + "VALUES (?, ?, ?, ?)", ec.getCode(), ec.getName(), ec.getAmount(), newID);
+            expenseIDs.put(ec.getExpenseID(), lastInsertID(db, conn));
+        }
+        for (MinistryExpense me : source.getMinistryExpenses()) {
+            Integer ministryID = ministryIDs.get(me.getMinistryID());
+            Integer expenseID = expenseIDs.get(me.getExpenseCategoryID());
+            if (ministryID != null && expenseID != null) {
+                db.executeUpdate(conn, "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) "
+                        + "VALUES (?, ?, ?)", ministryID, expenseID, me.getAmount());
+            }
+        }
+        return newID;
+    }
+
+    private static int lastInsertID(final DatabaseManager db, final Connection conn) {
+        return ((Number) db.executeQuery(conn, "SELECT last_insert_rowid() as id").getFirst().get("id"))
+                .intValue();
+    }
+}
@@ -0,0 +1,132 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.util.ingestion.GeneratedPdf;
+import com.detonomics.budgettuner.util.ingestion.PdfToText;
+
+/**
+ * Extract the text of a generated PDF of budget-like tables, as the first
+ * step of the ingestion pipeline does. The strategies are the original
+ * in-memory path (whole-document string, regex cleaning, one write), serial
+ * streaming and page-range parallel streaming; their outputs are checked to
+ * be identical before measuring. Add {@code -prof gc} to the JMH options to
+ * compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 50;
+
+    /** Pages in the document. */
+    @Param({"600"})
+    public int pages;
+
+    /** Extraction strategy: in-memory, serial or parallel. */
+    @Param({"in-memory", "serial", "parallel"})
+    public String strategy;
+
+    private Path dir;
+    private Path pdf;
+    private PdfToText extractor;
+
+    /**
+     * Write the document once per trial and check the strategy against the
+     * in-memory output.
+     *
+     * @throws Exception If the document cannot be written or read
+     */
+    @Setup(Level.Trial)
+    public void writeDocument() throws Exception {
+        PdfToText.configureLoggers();
+        dir = Files.createTempDirectory("budgettuner-jmh");
+        pdf = dir.resolve("GeneratedBudget.pdf");
+        GeneratedPdf.write(pdf, pages, LINES_PER_PAGE);
+        extractor = switch (strategy) {
+            case "in-memory" -> null;
+            case "serial" -> new PdfToText(1);
+            case "parallel" -> new PdfToText(Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        };
+        Path expected = inMemory(pdf, dir.resolve("expected"));
+        if (Files.mismatch(expected, extract()) != -1) {
+            throw new IllegalStateException("Strategy " + strategy + " produced different text");
+        }
+    }
+
+    /**
+     * Extract the document into a text file.
+     *
+     * @return Path of the written text
+     * @throws IOException If the document cannot be read or the text written
+     */
+    @Benchmark
+    public Path extract() throws IOException {
+        if (extractor == null) {
+            return inMemory(pdf, dir.resolve("out"));
+        }
+        return extractor.extractAndSaveText(pdf.toString(), dir.resolve("out"));
+    }
+
+    /**
+     * Remove the document and every extracted text.
+     *
+     * @throws Exception If the files cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteDocument() throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /*
+     * PdfToText as it used to run: the whole document as one string, a regex
+     * compile per line while cleaning, and a second full-size string written
+     * in one go.
+     */
+    private static Path inMemory(final Path pdf, final Path outDir) throws IOException {
+        String raw;
+        try (PDDocument document = PDDocument.load(new File(pdf.toString()))) {
+            raw = new PDFTextStripper().getText(document);
+        }
+        String cleaned = raw.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .map(line -> line.replaceAll("\\s+", " "))
+                .collect(Collectors.joining("\n"));
+        Files.createDirectories(outDir);
+        return Files.writeString(outDir.resolve("GeneratedBudget.txt"), cleaned, StandardCharsets.UTF_8);
+    }
+}
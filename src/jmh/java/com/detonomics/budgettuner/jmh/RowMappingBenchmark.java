@@ -0,0 +1,59 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Materialize the category rows of one budget as column maps or through the
+ * typed row mappers the DAOs use. Add {@code -prof gc} to the JMH options to
+ * compare allocation per budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class RowMappingBenchmark {
+
+    /** Row materialization: maps or row-mappers. */
+    @Param({"maps", "row-mappers"})
+    public String rows;
+
+    private int next;
+
+    /**
+     * Load the revenues, expenses, ministries and ministry lines of the next
+     * budget.
+     *
+     * @param db   Synthetic database
+     * @param hole Sink for the loaded rows
+     */
+    @Benchmark
+    public void loadBudgetRows(final BudgetDatabaseState db, final Blackhole hole) {
+        int id = db.budgetID(next++);
+        if ("maps".equals(rows)) {
+            hole.consume(db.dbManager.executeQuery("SELECT * FROM RevenueCategories WHERE budget_id = ?", id));
+            hole.consume(db.dbManager.executeQuery("SELECT * FROM ExpenseCategories WHERE budget_id = ?", id));
+            hole.consume(db.dbManager.executeQuery("SELECT * FROM Ministries WHERE budget_id = ?", id));
+            hole.consume(db.dbManager.executeQuery("SELECT ME.* FROM MinistryExpenses ME "
+                    + "JOIN Ministries MI ON ME.ministry_id = MI.ministry_id WHERE MI.budget_id = ?", id));
+        } else {
+            hole.consume(db.revenueDao.loadRevenues(id));
+            hole.consume(db.expenseDao.loadExpenses(id));
+            hole.consume(db.ministryDao.loadMinistries(id));
+            hole.consume(db.ministryExpenseDao.loadMinistryExpenses(id));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.model.BudgetEdits;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.MinistryExpense;
+
+/**
+ * Save a scenario that edits every ministry expense line of a budget, with
+ * the per-line updates the modification screen used to run or with the
+ * batched edit path. Each invocation works on a fresh clone made outside the
+ * timed section.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class ScenarioUpdateBenchmark {
+
+    /** Update path: per-line or batched. */
+    @Param({"per-line", "batched"})
+    public String update;
+
+    private Map<String, Long> ministryUpdates;
+    private BudgetEdits edits;
+    private int clone = -1;
+
+    /**
+     * Build the scenario from the first budget.
+     *
+     * @param db Synthetic database
+     */
+    @Setup(Level.Trial)
+    public void buildScenario(final BudgetDatabaseState db) {
+        BudgetYear source = db.budgetYearDao.loadBudgetYear(db.budgetID(0));
+        Map<Integer, Long> ministryCodes = new HashMap<>();
+        for (Ministry m : source.getMinistries()) {
+            ministryCodes.put(m.getMinistryID(), m.getCode());
+        }
+        Map<Integer, Long> expenseCodes = new HashMap<>();
+        for (ExpenseCategory ec : source.getExpenses()) {
+            expenseCodes.put(ec.getExpenseID(), ec.getCode());
+        }
+        ministryUpdates = new HashMap<>();
+        edits = new BudgetEdits();
+        for (MinistryExpense me : source.getMinistryExpenses()) {
+            long ministryCode = ministryCodes.get(me.getMinistryID());
+            long expenseCode = expenseCodes.get(me.getExpenseCategoryID());
+            long amount = me.getAmount() + me.getAmount() / 10 + 1;
+            ministryUpdates.put(ministryCode + ":" + expenseCode, amount);
+            edits.setMinistryExpense(ministryCode, expenseCode, amount);
+        }
+    }
+
+    /**
+     * Clone the first budget for the next invocation.
+     *
+     * @param db Synthetic database
+     */
+    @Setup(Level.Invocation)
+    public void cloneSource(final BudgetDatabaseState db) {
+        clone = db.modificationService.cloneBudget(db.budgetID(0), "Σενάριο");
+    }
+
+    /**
+     * Save the scenario's edits to the clone.
+     *
+     * @param db Synthetic database
+     * @throws SQLException If the transaction fails
+     */
+    @Benchmark
+    public void save(final BudgetDatabaseState db) throws SQLException {
+        if ("batched".equals(update)) {
+            db.modificationService.applyBudgetEdits(clone, edits);
+            return;
+        }
+        db.dbManager.inTransaction(conn -> {
+            perLineUpdate(db, conn, clone, ministryUpdates);
+            List<Map<String, Object>> total = db.dbManager.executeQuery(conn,
+                    "SELECT SUM(total_budget) AS total FROM Ministries WHERE budget_id = ?", clone);
+            long totalExpenses = ((Number) total.getFirst().get("total")).longValue();
+            db.dbManager.executeUpdate(conn, "UPDATE Budgets SET total_expenses = ?, "
+                    + "budget_result = total_revenue - ? WHERE budget_id = ?", totalExpenses, totalExpenses, clone);
+            return null;
+        });
+    }
+
+    /**
+     * Delete the clone of the last invocation.
+     *
+     * @param db Synthetic database
+     */
+    @TearDown(Level.Invocation)
+    public void deleteClone(final BudgetDatabaseState db) {
+        db.budgetYearDao.deleteBudget(clone);
+        clone = -1;
+    }
+
+    /*
+     * The ministry part of a save as it used to run: per edited line, a fetch
+     * of the old amount, an UPDATE resolving both codes by subquery, a category
+     * delta UPDATE and a ministry id lookup before the ministry delta UPDATE.
+     * The budget's expense total is then summed again from the ministries.
+     */
+    private static void perLineUpdate(final BudgetDatabaseState db, final Connection conn, final int budgetID,
+            final Map<String, Long> ministryUpdates) {
+        for (Map.Entry<String, Long> entry : ministryUpdates.entrySet()) {
+            String[] parts = entry.getKey().split(":");
+            long minCode = Long.parseLong(parts[0]);
+            long expCode = Long.parseLong(parts[1]);
+            long newAmount = entry.getValue();
+
+            List<Map<String, Object>> res = db.dbManager.executeQuery(conn, "SELECT amount FROM MinistryExpenses "
+                    + "WHERE ministry_id = (SELECT ministry_id FROM Ministries WHERE budget_id = ? AND code_num = ?) "
+                    + "AND expense_category_id = (SELECT expense_category_id FROM ExpenseCategories "
+                    + "WHERE budget_id = ? AND code_num = ?)", budgetID, minCode, budgetID, expCode);
+            long oldAmount = res.isEmpty() ? 0 : ((Number) res.getFirst().get("amount")).longValue();
+
+            db.ministryExpenseDao.updateExpenseAmount(conn, budgetID, minCode, expCode, newAmount);
+            long delta = newAmount - oldAmount;
+            if (delta != 0) {
+                db.dbManager.executeUpdate(conn, "UPDATE ExpenseCategories SET amount = amount + ? "
+                        + "WHERE budget_id = ? AND code_num = ?", delta, budgetID, expCode);
+                List<Map<String, Object>> mRes = db.dbManager.executeQuery(conn,
+                        "SELECT ministry_id FROM Ministries WHERE budget_id = ? AND code_num = ?", budgetID, minCode);
+                if (!mRes.isEmpty()) {
+                    db.dbManager.executeUpdate(conn, "UPDATE Ministries SET total_budget = total_budget + ?, "
+                            + "regular_budget = regular_budget + ? WHERE ministry_id = ?", delta, delta,
+                            ((Number) mRes.getFirst().get("ministry_id")).intValue());
+                }
+            }
+        }
+    }
+}
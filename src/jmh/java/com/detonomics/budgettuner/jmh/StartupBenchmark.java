@@ -0,0 +1,173 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.util.StartupProbe;
+
+/**
+ * Cold start of the CLI (time to the main menu) or the GUI (time to the first
+ * frame) in a fresh JVM per invocation. The front end runs with the startup
+ * probe enabled, which makes it exit once its first screen is up, in a
+ * scratch directory holding a copy of the bundled database.
+ *
+ * <p>
+ * Pass the application jar with {@code -p jar=<path>} to start from it, and
+ * add {@code -p cds=appcds} to record an AppCDS archive with a training run
+ * and start with it, as the {@code appcds} Maven profile does for the shaded
+ * jar. Without a jar the benchmark class path is used, which class-data
+ * sharing cannot archive. The GUI ({@code -p frontEnd=gui}) needs a display.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String CLI_MAIN = "com.detonomics.budgettuner.controller.BudgetTunerCLI";
+    private static final String GUI_MAIN = "com.detonomics.budgettuner.controller.Launcher";
+    private static final String BUNDLED_DB = "/com/detonomics/budgettuner/database/BudgetDB.db";
+
+    /** Front end: cli or gui. */
+    @Param({"cli"})
+    public String frontEnd;
+
+    /** Application jar, or empty for the benchmark class path. */
+    @Param({""})
+    public String jar;
+
+    /** Class-data sharing: off or appcds (needs a jar). */
+    @Param({"off"})
+    public String cds;
+
+    private Path workDir;
+    private String classPath;
+    private String mainClass;
+    private List<String> jvmOptions;
+
+    /**
+     * Prepare the scratch directory and, for AppCDS, record the archive.
+     *
+     * @throws IOException          If the database cannot be copied
+     * @throws InterruptedException If a training run is interrupted
+     */
+    @Setup(Level.Trial)
+    public void prepare() throws IOException, InterruptedException {
+        boolean appCds = "appcds".equals(cds);
+        if (appCds && jar.isEmpty()) {
+            throw new IllegalStateException("AppCDS needs the application jar: -p jar=<path>");
+        }
+        classPath = jar.isEmpty() ? absoluteClassPath() : new File(jar).getAbsolutePath();
+        mainClass = "gui".equals(frontEnd) ? GUI_MAIN : CLI_MAIN;
+        workDir = Files.createTempDirectory("budgettuner-startup");
+        copyDatabase(workDir);
+        jvmOptions = List.of();
+        if (appCds) {
+            Path archive = workDir.resolve("app.jsa");
+            launch(List.of("-XX:ArchiveClassesAtExit=" + archive));
+            jvmOptions = List.of("-XX:SharedArchiveFile=" + archive);
+        }
+        // One untimed run creates the database side files and warms the OS caches.
+        launch(jvmOptions);
+    }
+
+    /**
+     * Start the front end and wait for it to exit.
+     *
+     * @return Time to the first screen the front end reported, in ms
+     * @throws IOException          If the JVM cannot be started
+     * @throws InterruptedException If the run is interrupted
+     */
+    @Benchmark
+    public long start() throws IOException, InterruptedException {
+        return launch(jvmOptions);
+    }
+
+    /**
+     * Delete the scratch directory.
+     *
+     * @throws IOException If a file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private long launch(final List<String> options) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-D" + StartupProbe.PROPERTY + "=true");
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass);
+
+        Process process = new ProcessBuilder(command).directory(workDir.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        long reported = -1;
+        try (BufferedReader err = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            for (String line = err.readLine(); line != null; line = err.readLine()) {
+                if (line.startsWith(StartupProbe.PREFIX) && reported < 0) {
+                    reported = Long.parseLong(line.replaceAll(".*: (-?\\d+) ms$", "$1"));
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || reported < 0) {
+            throw new IllegalStateException("Startup run failed with exit code " + exit + ": " + command);
+        }
+        return reported;
+    }
+
+    private static void copyDatabase(final Path dir) throws IOException {
+        Path dbFile = dir.resolve("data/output/BudgetDB.db");
+        Files.createDirectories(dbFile.getParent());
+        try (InputStream in = StartupBenchmark.class.getResourceAsStream(BUNDLED_DB)) {
+            if (in == null) {
+                throw new IOException("Bundled database not found: " + BUNDLED_DB);
+            }
+            Files.copy(in, dbFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String absoluteClassPath() {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            entries.add(new File(entry).getAbsolutePath());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
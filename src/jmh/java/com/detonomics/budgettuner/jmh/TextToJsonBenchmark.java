@@ -0,0 +1,109 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.util.ingestion.ChunkedTextToJson;
+import com.detonomics.budgettuner.util.ingestion.ITextToJson;
+import com.detonomics.budgettuner.util.ingestion.RetryPolicy;
+import com.detonomics.budgettuner.util.ingestion.SampleBudgetText;
+import com.detonomics.budgettuner.util.ingestion.StubModelServer;
+import com.detonomics.budgettuner.util.ingestion.TextToJson;
+
+/**
+ * Convert budget text to JSON offline, whole-document or section-chunked,
+ * through the real Gemini client talking to a local stub server. The stub
+ * answers after a fixed overhead plus a delay proportional to the text it
+ * receives, a rough stand-in for model latency growing with input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Thread)
+public class TextToJsonBenchmark {
+
+    private static final long OVERHEAD_MILLIS = 150;
+    private static final int CHARS_PER_MILLI = 20;
+
+    /** Ministries in the document. */
+    @Param({"40"})
+    public int ministries;
+
+    /** Revenue codes in the document. */
+    @Param({"600"})
+    public int revenueCodes;
+
+    /** Parser: whole or chunked. */
+    @Param({"whole", "chunked"})
+    public String parser;
+
+    /** Concurrent model calls of the chunked parser. */
+    @Param({"4"})
+    public int workers;
+
+    private StubModelServer server;
+    private ITextToJson converter;
+    private Path txt;
+    private Path json;
+
+    /**
+     * Write the document and start the stub server once per trial.
+     *
+     * @throws Exception If the file cannot be written or the server cannot start
+     */
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        Path dir = Files.createTempDirectory("budgettuner-jmh");
+        txt = Files.writeString(dir.resolve("budget.txt"), SampleBudgetText.build(ministries, revenueCodes),
+                StandardCharsets.UTF_8);
+        json = dir.resolve("budget.json");
+        server = new StubModelServer(SampleBudgetText::reply,
+                text -> OVERHEAD_MILLIS + text.length() / CHARS_PER_MILLI, 0);
+        converter = switch (parser) {
+            case "whole" -> new TextToJson(server.model());
+            case "chunked" -> new ChunkedTextToJson(server.model(), workers, RetryPolicy.defaults());
+            default -> throw new IllegalArgumentException("Unknown parser: " + parser);
+        };
+    }
+
+    /**
+     * Convert the document.
+     *
+     * @throws Exception If a model call or the conversion fails
+     */
+    @Benchmark
+    public void textFileToJson() throws Exception {
+        converter.textFileToJson(txt, json);
+    }
+
+    /**
+     * Stop the server and remove the files.
+     *
+     * @throws Exception If the files cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void stopServer() throws Exception {
+        server.close();
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(txt);
+        Files.deleteIfExists(txt.getParent());
+    }
+}
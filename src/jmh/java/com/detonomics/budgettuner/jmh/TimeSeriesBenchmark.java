@@ -0,0 +1,133 @@
+package com.detonomics.budgettuner.jmh;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.service.BudgetTimeSeries;
+import com.detonomics.budgettuner.util.DatabaseManager;
+
+/**
+ * Build the time series of every revenue, expense category and ministry code
+ * across all budgets. The baseline runs one query per code, as a per-code
+ * chart would without the series engine; the engine builds every series from
+ * one snapshot load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TimeSeriesBenchmark {
+
+    private static final Map<AnalysisType, String> TABLES = Map.of(
+            AnalysisType.REVENUE, "RevenueCategories",
+            AnalysisType.EXPENSE, "ExpenseCategories",
+            AnalysisType.MINISTRY, "Ministries");
+
+    /**
+     * Snapshot and series of the database, built once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Series {
+        BudgetSnapshot snapshot;
+        BudgetTimeSeries series;
+
+        /**
+         * Build the series and check them against the per-code queries.
+         *
+         * @param db Synthetic database
+         */
+        @Setup(Level.Trial)
+        public void build(final BudgetDatabaseState db) {
+            snapshot = db.budgetTotalsDao.loadSnapshot();
+            series = BudgetTimeSeries.allBudgets(snapshot);
+            if (perCodeQueries(db.dbManager, series) != checksum(series)) {
+                throw new IllegalStateException("Per-code queries differ from the series engine");
+            }
+        }
+    }
+
+    /**
+     * Query every code's series separately.
+     *
+     * @param db     Synthetic database
+     * @param series Codes to query
+     * @return Checksum of the series points
+     */
+    @Benchmark
+    public long perCodeQueries(final BudgetDatabaseState db, final Series series) {
+        return perCodeQueries(db.dbManager, series.series);
+    }
+
+    /**
+     * Load a snapshot and build every series from it.
+     *
+     * @param db Synthetic database
+     * @return Built series
+     */
+    @Benchmark
+    public BudgetTimeSeries loadAndBuild(final BudgetDatabaseState db) {
+        return BudgetTimeSeries.allBudgets(db.budgetTotalsDao.loadSnapshot());
+    }
+
+    /**
+     * Build every series from a loaded snapshot.
+     *
+     * @param series Loaded snapshot
+     * @return Built series
+     */
+    @Benchmark
+    public BudgetTimeSeries build(final Series series) {
+        return BudgetTimeSeries.allBudgets(series.snapshot);
+    }
+
+    private static long checksum(final BudgetTimeSeries series) {
+        long checksum = 0;
+        for (AnalysisType type : AnalysisType.values()) {
+            for (long code : series.codes(type)) {
+                BudgetTimeSeries.Series s = series.series(type, code);
+                for (int p = 0; p < s.size(); p++) {
+                    if (s.has(p)) {
+                        checksum = checksum * 31 + s.budgetID(p) + s.value(p);
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static long perCodeQueries(final DatabaseManager dbManager, final BudgetTimeSeries codes) {
+        long checksum = 0;
+        for (AnalysisType type : AnalysisType.values()) {
+            String amount = type == AnalysisType.MINISTRY ? "t.total_budget" : "t.amount";
+            // MIN(id) keeps the first row of a code repeated within a budget.
+            String sql = "SELECT t.budget_id, " + amount + " AS amount FROM " + TABLES.get(type) + " t "
+                    + "JOIN Budgets b ON b.budget_id = t.budget_id WHERE t.code_num = ? AND t.rowid IN "
+                    + "(SELECT MIN(rowid) FROM " + TABLES.get(type) + " WHERE code_num = ? GROUP BY budget_id) "
+                    + "ORDER BY b.budget_year, b.budget_id";
+            for (long code : codes.codes(type)) {
+                List<Map<String, Object>> rows = dbManager.executeQuery(sql, code, code);
+                for (Map<String, Object> row : rows) {
+                    checksum = checksum * 31 + ((Number) row.get("budget_id")).intValue()
+                            + ((Number) row.get("amount")).longValue();
+                }
+            }
+        }
+        return checksum;
+    }
+}
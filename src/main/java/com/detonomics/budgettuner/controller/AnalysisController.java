@@ -3,15 +3,14 @@ package com.detonomics.budgettuner.controller;
 import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.MinistryExpense;
-import com.detonomics.budgettuner.model.Summary;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.util.BudgetFormatter;
+import com.detonomics.budgettuner.util.ReusableView;
 import com.detonomics.budgettuner.util.ViewManager;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import java.util.stream.Collectors;
 
@@ -27,7 +26,7 @@ import javafx.stage.Popup;
 /**
  * Handle detailed visualization for revenues, expenses, and ministries.
  */
-public final class AnalysisController {
+public final class AnalysisController implements ReusableView {
 
     @FXML
     private Label titleLabel;
@@ -50,10 +49,11 @@ public final class AnalysisController {
 
     private BudgetYear budget;
     private AnalysisType analysisType;
-    private final Popup popup = new Popup();
+    // Created on first hover, since a window must be built on the JavaFX thread.
+    private Popup popup;
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
 
     /**
      * Initialize with navigation and data services.
@@ -62,7 +62,7 @@ public final class AnalysisController {
      * @param dataService Budget data provider
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public AnalysisController(final ViewManager viewManager, final BudgetDataService dataService) {
+    public AnalysisController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
     }
@@ -79,6 +79,20 @@ public final class AnalysisController {
         loadAnalysisData();
     }
 
+    /**
+     * Clear the figures of the previous budget while the new ones load.
+     */
+    @Override
+    public void resetView() {
+        if (popup != null) {
+            popup.hide();
+        }
+        diffAmountLabel.setText("");
+        perfLabel.setText("");
+        pieChart.getData().clear();
+        itemsBox.getChildren().clear();
+    }
+
     private void loadAnalysisData() {
         if (budget == null) {
             return;
@@ -121,25 +135,21 @@ public final class AnalysisController {
         totalTitleLabel.setText("Σύνολο");
         totalAmountLabel.setText(BudgetFormatter.formatAmount(totalAmount));
 
+        setupList();
+        long total = totalAmount;
+        viewManager.load(dataService.loadAnalytics(), analytics -> showAnalytics(analytics, total));
+    }
+
+    private void showAnalytics(final BudgetAnalytics analytics, final long totalAmount) {
         // Compare against previous fiscal year
+        int currentYear = budget.getSummary().getBudgetYear();
         int prevYear = currentYear - 1;
-        List<Summary> allSummaries = dataService.loadAllSummaries();
-        Summary prevSummary = allSummaries.stream()
-                .filter(s -> s.getBudgetYear() == prevYear)
-                .filter(s -> s.getSourceTitle().equals("Προϋπολογισμός " + s.getBudgetYear()))
-                .findFirst()
-                .orElse(null);
+        int prevBudgetID = analytics.findBudgetID(prevYear, "Προϋπολογισμός " + prevYear);
 
         diffTitleLabel.setText("Διαφορά (vs " + prevYear + ")");
 
-        if (prevSummary != null) {
-            long prevAmount = 0;
-
-            if (analysisType == AnalysisType.REVENUE) {
-                prevAmount = prevSummary.getTotalRevenues();
-            } else {
-                prevAmount = prevSummary.getTotalExpenses();
-            }
+        if (prevBudgetID != -1) {
+            long prevAmount = analytics.budgetTotal(analysisType, prevBudgetID);
 
             long diff = totalAmount - prevAmount;
             double perf = 0.0;
@@ -174,42 +184,38 @@ public final class AnalysisController {
             perfLabel.setText("-");
         }
 
-        setupCharts(totalAmount);
-        setupList();
+        setupCharts(analytics);
+    }
+
+    private static boolean isLoan(final String name) {
+        return name.equalsIgnoreCase("ΔΑΝΕΙΑ") || name.equals("Δάνεια");
     }
 
-    private void setupCharts(final long totalAmount) {
+    private void setupCharts(final BudgetAnalytics analytics) {
         pieChart.getData().clear();
+        pieChart.setTitle("");
 
+        int budgetID = budget.getSummary().getBudgetID();
         List<DataPoint> dataPoints = new ArrayList<>();
 
-        if (analysisType == AnalysisType.REVENUE) {
-            pieChart.setTitle("");
-            budget.getRevenues().stream()
-                    .filter(r -> r.getParentID() == 0)
-                    .filter(r -> !r.getName().equalsIgnoreCase("ΔΑΝΕΙΑ") && !r.getName().equals("Δάνεια"))
-                    .forEach(r -> dataPoints.add(new DataPoint(r.getName(), r.getAmount())));
-        } else if (analysisType == AnalysisType.EXPENSE) {
-            pieChart.setTitle("");
-            budget.getExpenses().stream()
-                    .filter(e -> !e.getName().equalsIgnoreCase("ΔΑΝΕΙΑ") && !e.getName().equals("Δάνεια"))
-                    .forEach(e -> dataPoints.add(new DataPoint(e.getName(), e.getAmount())));
+        if (analysisType == AnalysisType.REVENUE || analysisType == AnalysisType.EXPENSE) {
+            analytics.ranked(analysisType, budgetID).stream()
+                    .filter(line -> !isLoan(line.name()))
+                    .forEach(line -> dataPoints.add(new DataPoint(line.name(), line.amount())));
         } else if (analysisType == AnalysisType.MINISTRY) {
-            pieChart.setTitle("");
-
             // Exclude loans from Ministry of Finance for clarity
-            long loanAmount = budget.getExpenses().stream()
-                    .filter(e -> e.getName().equalsIgnoreCase("ΔΑΝΕΙΑ") || e.getName().equals("Δάνεια"))
-                    .mapToLong(e -> e.getAmount())
+            long loanAmount = analytics.ranked(AnalysisType.EXPENSE, budgetID).stream()
+                    .filter(line -> isLoan(line.name()))
+                    .mapToLong(BudgetAnalytics.Line::amount)
                     .sum();
 
-            budget.getMinistries().forEach(m -> {
-                long amount = m.getTotalBudget();
-                if (m.getName().toUpperCase().contains("ΟΙΚΟΝΟΜ")) {
+            analytics.ranked(AnalysisType.MINISTRY, budgetID).forEach(line -> {
+                long amount = line.amount();
+                if (line.name().toUpperCase().contains("ΟΙΚΟΝΟΜ")) {
                     amount -= loanAmount;
                 }
                 if (amount > 0) {
-                    dataPoints.add(new DataPoint(m.getName(), amount));
+                    dataPoints.add(new DataPoint(line.name(), amount));
                 }
             });
         }
@@ -244,13 +250,18 @@ public final class AnalysisController {
                 String text = getFormattedText(data, chartTotal);
                 Label label = new Label(text);
                 label.setStyle("-fx-background-color: rgba(0,0,0,0.8); -fx-text-fill: white; -fx-padding: 5;");
+                if (popup == null) {
+                    popup = new Popup();
+                }
                 popup.getContent().clear();
                 popup.getContent().add(label);
                 popup.show(data.getNode().getScene().getWindow(), event.getScreenX() + 10, event.getScreenY() + 10);
             });
             data.getNode().setOnMouseExited(event -> {
                 data.getNode().setStyle("-fx-opacity: 1.0; -fx-cursor: default;");
-                popup.hide();
+                if (popup != null) {
+                    popup.hide();
+                }
             });
         }
     }
@@ -291,19 +302,11 @@ public final class AnalysisController {
         itemsBox.getChildren().clear();
 
         if (analysisType == AnalysisType.REVENUE) {
-            Map<Integer, List<com.detonomics.budgettuner.model.RevenueCategory>> childrenMap = new HashMap<>();
-            for (com.detonomics.budgettuner.model.RevenueCategory cat : budget.getRevenues()) {
-                childrenMap.computeIfAbsent(cat.getParentID(), k -> new ArrayList<>()).add(cat);
-            }
-
-            childrenMap.values().forEach(list -> list.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount())));
-
-            List<com.detonomics.budgettuner.model.RevenueCategory> roots = childrenMap.getOrDefault(0,
-                    new ArrayList<>());
+            List<com.detonomics.budgettuner.model.RevenueCategory> roots = byAmount(budget.getRevenueRoots());
 
             for (int i = 0; i < roots.size(); i++) {
                 com.detonomics.budgettuner.model.RevenueCategory root = roots.get(i);
-                itemsBox.getChildren().add(buildRevenueNode(root, childrenMap));
+                itemsBox.getChildren().add(buildRevenueNode(root));
                 if (i < roots.size() - 1) {
                     itemsBox.getChildren().add(new javafx.scene.control.Separator());
                 }
@@ -323,23 +326,21 @@ public final class AnalysisController {
             }
 
         } else if (analysisType == AnalysisType.MINISTRY) {
-            Map<Integer, String> expenseMap = new HashMap<>();
-            budget.getExpenses().forEach(e -> expenseMap.put(e.getExpenseID(), e.getName()));
-
             List<com.detonomics.budgettuner.model.Ministry> ministries = budget.getMinistries().stream()
                     .sorted((a, b) -> Long.compare(b.getTotalBudget(), a.getTotalBudget()))
                     .collect(Collectors.toList());
 
             for (int i = 0; i < ministries.size(); i++) {
                 com.detonomics.budgettuner.model.Ministry m = ministries.get(i);
-                List<MinistryExpense> mExpenses = budget.getMinistryExpenses().stream()
-                        .filter(me -> me.getMinistryID() == m.getMinistryID())
+                List<MinistryExpense> mExpenses = budget.getMinistryExpenses(m.getMinistryID()).stream()
                         .sorted((me1, me2) -> Long.compare(me2.getAmount(), me1.getAmount()))
                         .collect(Collectors.toList());
 
                 List<DataPoint> childItems = new ArrayList<>();
                 for (MinistryExpense me : mExpenses) {
-                    String expenseName = expenseMap.getOrDefault(me.getExpenseCategoryID(), "Άγνωστο Έξοδο");
+                    com.detonomics.budgettuner.model.ExpenseCategory category = budget
+                            .getExpenseCategory(me.getExpenseCategoryID());
+                    String expenseName = category != null ? category.getName() : "Άγνωστο Έξοδο";
                     childItems.add(new DataPoint(expenseName, me.getAmount()));
                 }
 
@@ -357,12 +358,18 @@ public final class AnalysisController {
         itemsBox.getChildren().add(createSimpleItemBox(name, amount));
     }
 
-    private Node buildRevenueNode(final com.detonomics.budgettuner.model.RevenueCategory cat,
-            final Map<Integer, List<com.detonomics.budgettuner.model.RevenueCategory>> childrenMap) {
+    private static List<com.detonomics.budgettuner.model.RevenueCategory> byAmount(
+            final List<com.detonomics.budgettuner.model.RevenueCategory> categories) {
+        List<com.detonomics.budgettuner.model.RevenueCategory> sorted = new ArrayList<>(categories);
+        sorted.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount()));
+        return sorted;
+    }
 
-        List<com.detonomics.budgettuner.model.RevenueCategory> children = childrenMap.get(cat.getRevenueID());
+    private Node buildRevenueNode(final com.detonomics.budgettuner.model.RevenueCategory cat) {
+        List<com.detonomics.budgettuner.model.RevenueCategory> children = byAmount(
+                budget.getRevenueChildren(cat.getRevenueID()));
 
-        if (children == null || children.isEmpty()) {
+        if (children.isEmpty()) {
             return createSimpleItemBox(cat.getName(), cat.getAmount());
         } else {
             TitledPane pane = createTitledPane(cat.getName(), cat.getAmount());
@@ -379,7 +386,7 @@ public final class AnalysisController {
                     contentBox.setPadding(new javafx.geometry.Insets(5, 0, 5, 20));
 
                     for (com.detonomics.budgettuner.model.RevenueCategory child : children) {
-                        contentBox.getChildren().add(buildRevenueNode(child, childrenMap));
+                        contentBox.getChildren().add(buildRevenueNode(child));
                     }
                     pane.setContent(contentBox);
                 }
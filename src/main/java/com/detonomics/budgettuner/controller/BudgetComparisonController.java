@@ -1,7 +1,7 @@
 package com.detonomics.budgettuner.controller;
 
 import com.detonomics.budgettuner.model.Summary;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.util.BudgetFormatter;
 import com.detonomics.budgettuner.util.ViewManager;
 
@@ -61,9 +61,11 @@ public final class BudgetComparisonController {
 
     private List<Summary> allSummaries;
     private boolean isUpdating = false;
+    private Summary preselected1;
+    private Summary preselected2;
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
 
     /**
      * Initialize with navigation and data services.
@@ -72,7 +74,7 @@ public final class BudgetComparisonController {
      * @param dataService Budget data provider
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public BudgetComparisonController(final ViewManager viewManager, final BudgetDataService dataService) {
+    public BudgetComparisonController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
     }
@@ -82,8 +84,6 @@ public final class BudgetComparisonController {
      */
     @FXML
     public void initialize() {
-        allSummaries = dataService.loadAllSummaries();
-
         StringConverter<Summary> converter = new StringConverter<>() {
             @Override
             public String toString(final Summary object) {
@@ -101,9 +101,6 @@ public final class BudgetComparisonController {
         year1ComboBox.setConverter(converter);
         year2ComboBox.setConverter(converter);
 
-        year1ComboBox.setItems(FXCollections.observableArrayList(allSummaries));
-        year2ComboBox.setItems(FXCollections.observableArrayList(allSummaries));
-
         year1ComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null && !isUpdating) {
                 isUpdating = true;
@@ -120,15 +117,35 @@ public final class BudgetComparisonController {
                 isUpdating = false;
             }
         });
+
+        viewManager.load(dataService.loadAllSummaries(), this::showSummaries);
+    }
+
+    private void showSummaries(final List<Summary> summaries) {
+        allSummaries = summaries;
+        year1ComboBox.setItems(FXCollections.observableArrayList(allSummaries));
+        year2ComboBox.setItems(FXCollections.observableArrayList(allSummaries));
+        applyPreselection();
     }
 
     /**
-     * Set the initial budgets to compare.
+     * Set the initial budgets to compare, once the budget list has loaded.
      *
      * @param s1 Baseline budget summary
      * @param s2 Target budget summary
      */
     public void setPreselectedYears(final Summary s1, final Summary s2) {
+        preselected1 = s1;
+        preselected2 = s2;
+        // Summaries may still be loading; they apply the selection on arrival.
+        if (allSummaries != null) {
+            applyPreselection();
+        }
+    }
+
+    private void applyPreselection() {
+        Summary s1 = preselected1;
+        Summary s2 = preselected2;
         if (s1 != null) {
             for (Summary s : year1ComboBox.getItems()) {
                 if (s.getBudgetYear() == s1.getBudgetYear()) {
@@ -1,8 +1,8 @@
 package com.detonomics.budgettuner.controller;
 
-import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.Summary;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
+import com.detonomics.budgettuner.util.ReusableView;
 import com.detonomics.budgettuner.util.ViewManager;
 
 import java.util.ArrayList;
@@ -29,7 +29,7 @@ import javafx.util.Callback;
 /**
  * Manage the budget selection screen.
  */
-public final class BudgetController {
+public final class BudgetController implements ReusableView {
 
         @FXML
         private ListView<String> budgetList;
@@ -38,8 +38,8 @@ public final class BudgetController {
         private TextField searchField;
 
         private final ViewManager viewManager;
-        private final BudgetDataService dataService;
-        private List<Summary> budgetSummaries;
+        private final AsyncBudgetDataService dataService;
+        private List<Summary> budgetSummaries = new ArrayList<>();
         private ObservableList<String> items;
 
         /**
@@ -49,7 +49,7 @@ public final class BudgetController {
          * @param dataService Budget data provider
          */
         @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-        public BudgetController(final ViewManager viewManager, final BudgetDataService dataService) {
+        public BudgetController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
                 this.viewManager = viewManager;
                 this.dataService = dataService;
         }
@@ -100,8 +100,23 @@ public final class BudgetController {
                 });
         }
 
+        /**
+         * Clear the search and reload the budgets, which may have changed
+         * since the last visit.
+         */
+        @Override
+        public void resetView() {
+                searchField.clear();
+                budgetList.getSelectionModel().clearSelection();
+                loadBudgetsFromDatabase();
+        }
+
         private void loadBudgetsFromDatabase() {
-                budgetSummaries = new ArrayList<>(dataService.loadAllSummaries());
+                viewManager.load(dataService.loadAllSummaries(), this::showBudgets);
+        }
+
+        private void showBudgets(final List<Summary> summaries) {
+                budgetSummaries = new ArrayList<>(summaries);
                 budgetSummaries.sort(Comparator.comparing(Summary::getBudgetYear).reversed());
 
                 items = FXCollections.observableArrayList();
@@ -138,10 +153,9 @@ public final class BudgetController {
                 }
 
                 int budgetId = summaryOpt.get().getBudgetID();
-                final BudgetYear budget = dataService.loadBudgetYear(budgetId);
-
-                viewManager.switchScene("budget-details-view.fxml", "Λεπτομέρειες Προϋπολογισμού",
-                                (BudgetDetailsController controller) -> controller.setContext(budget));
+                viewManager.load(dataService.loadBudgetYear(budgetId), budget -> viewManager.switchScene(
+                                "budget-details-view.fxml", "Λεπτομέρειες Προϋπολογισμού",
+                                (BudgetDetailsController controller) -> controller.setContext(budget)));
         }
 
         /**
@@ -207,22 +221,20 @@ public final class BudgetController {
         }
 
         private void deleteBudget(final String sourceTitle) {
-                try {
-                        Optional<Summary> summaryOpt = budgetSummaries.stream()
-                                        .filter(s -> s.getSourceTitle().equals(sourceTitle))
-                                        .findFirst();
-
-                        if (summaryOpt.isPresent()) {
-                                int budgetId = summaryOpt.get().getBudgetID();
-                                dataService.deleteBudget(budgetId);
-                                loadBudgetsFromDatabase();
-                        }
-                } catch (Exception e) {
-                        System.err.println("Error deleting budget: " + e.getMessage());
-                        Alert error = new Alert(Alert.AlertType.ERROR);
-                        error.setTitle("Σφάλμα");
-                        error.setContentText("Αποτυχία διαγραφής: " + e.getMessage());
-                        error.show();
+                Optional<Summary> summaryOpt = budgetSummaries.stream()
+                                .filter(s -> s.getSourceTitle().equals(sourceTitle))
+                                .findFirst();
+
+                if (summaryOpt.isPresent()) {
+                        int budgetId = summaryOpt.get().getBudgetID();
+                        viewManager.load(dataService.deleteBudget(budgetId), ignored -> loadBudgetsFromDatabase(),
+                                        e -> {
+                                                System.err.println("Error deleting budget: " + e.getMessage());
+                                                Alert error = new Alert(Alert.AlertType.ERROR);
+                                                error.setTitle("Σφάλμα");
+                                                error.setContentText("Αποτυχία διαγραφής: " + e.getMessage());
+                                                error.show();
+                                        });
                 }
         }
 }
@@ -4,6 +4,7 @@ import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetYear;
 
 import com.detonomics.budgettuner.util.BudgetFormatter;
+import com.detonomics.budgettuner.util.ReusableView;
 import com.detonomics.budgettuner.util.ViewManager;
 
 import javafx.event.ActionEvent;
@@ -16,7 +17,7 @@ import javafx.scene.layout.VBox;
 /**
  * Handle the dashboard for a specific budget year.
  */
-public final class BudgetDetailsController {
+public final class BudgetDetailsController implements ReusableView {
 
         @FXML
         private Label titleLabel;
@@ -46,6 +47,7 @@ public final class BudgetDetailsController {
          * @param viewManager Application view coordinator
          * @param dataService Budget data provider
          */
+        @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
         public BudgetDetailsController(final ViewManager viewManager) {
                 this.viewManager = viewManager;
         }
@@ -60,6 +62,15 @@ public final class BudgetDetailsController {
                 updateUI();
         }
 
+        /**
+         * Close the side menu left open by the previous visit.
+         */
+        @Override
+        public void resetView() {
+                menuOverlay.setVisible(false);
+                menuDrawer.setVisible(false);
+        }
+
         private void updateUI() {
                 if (budget == null) {
                         return;
@@ -83,8 +94,7 @@ public final class BudgetDetailsController {
         private void setupLists() {
                 // Render top 5 revenue sources
                 topRevenuesBox.getChildren().clear();
-                budget.getRevenues().stream()
-                                .filter(r -> r.getParentID() == 0)
+                budget.getRevenueRoots().stream()
                                 .sorted((a, b) -> Long.compare(b.getAmount(), a.getAmount()))
                                 .limit(5)
                                 .forEach(r -> topRevenuesBox.getChildren()
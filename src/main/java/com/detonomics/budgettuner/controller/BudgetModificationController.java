@@ -1,15 +1,16 @@
 package com.detonomics.budgettuner.controller;
 
+import com.detonomics.budgettuner.model.BudgetEdits;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.model.MinistryExpense;
 import com.detonomics.budgettuner.model.RevenueCategory;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.service.BudgetModificationService;
 import com.detonomics.budgettuner.util.BudgetFormatter;
 import com.detonomics.budgettuner.util.ViewManager;
 
-import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -37,6 +38,10 @@ import java.util.stream.Collectors;
  */
 public final class BudgetModificationController {
 
+    /** Identifies one ministry's spending line by its two codes. */
+    private record ExpenseLineKey(long ministryCode, long expenseCategoryCode) {
+    }
+
     @FXML
     private Label titleLabel;
     @FXML
@@ -55,13 +60,13 @@ public final class BudgetModificationController {
     private Button cancelButton;
 
     private BudgetYear budget;
-    private final Map<String, TextField> expenseFields = new HashMap<>();
+    private final Map<ExpenseLineKey, TextField> expenseFields = new HashMap<>();
     private final Map<Long, TextField> revenueFields = new HashMap<>();
-    private final Map<String, Long> originalExpenseAmounts = new HashMap<>();
+    private final Map<ExpenseLineKey, Long> originalExpenseAmounts = new HashMap<>();
     private final Map<Long, Long> originalRevenueAmounts = new HashMap<>();
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
     private final BudgetModificationService modificationService;
 
     /**
@@ -72,7 +77,7 @@ public final class BudgetModificationController {
      * @param modificationService Budget cloning and editing logic
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public BudgetModificationController(final ViewManager viewManager, final BudgetDataService dataService,
+    public BudgetModificationController(final ViewManager viewManager, final AsyncBudgetDataService dataService,
             final BudgetModificationService modificationService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
@@ -103,20 +108,8 @@ public final class BudgetModificationController {
             revenueFields.clear();
             originalRevenueAmounts.clear();
 
-            Map<Integer, List<RevenueCategory>> childrenMap = new HashMap<>();
-            for (RevenueCategory cat : budget.getRevenues()) {
-                childrenMap.computeIfAbsent(cat.getParentID(), k -> new ArrayList<>()).add(cat);
-            }
-
-            childrenMap.values().forEach(list -> list.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount())));
-
-            List<RevenueCategory> roots = childrenMap.getOrDefault(0, new ArrayList<>());
-            if (childrenMap.containsKey(null)) {
-                roots.addAll(childrenMap.get(null));
-            }
-
-            for (RevenueCategory root : roots) {
-                revenueList.getChildren().add(buildRevenueNode(root, childrenMap));
+            for (RevenueCategory root : byAmount(budget.getRevenueRoots())) {
+                revenueList.getChildren().add(buildRevenueNode(root));
             }
         }
 
@@ -128,11 +121,16 @@ public final class BudgetModificationController {
         }
     }
 
-    private Node buildRevenueNode(final RevenueCategory cat,
-            final Map<Integer, List<RevenueCategory>> childrenMap) {
-        List<RevenueCategory> children = childrenMap.get(cat.getRevenueID());
+    private static List<RevenueCategory> byAmount(final List<RevenueCategory> categories) {
+        List<RevenueCategory> sorted = new ArrayList<>(categories);
+        sorted.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount()));
+        return sorted;
+    }
+
+    private Node buildRevenueNode(final RevenueCategory cat) {
+        List<RevenueCategory> children = byAmount(budget.getRevenueChildren(cat.getRevenueID()));
 
-        if (children == null || children.isEmpty()) {
+        if (children.isEmpty()) {
             return createLeafItemBox(cat.getName(), cat.getAmount(), cat.getCode(), true);
         } else {
             TitledPane pane = createTitledPane(cat.getName(), cat.getAmount(), cat.getCode(), true);
@@ -141,7 +139,7 @@ public final class BudgetModificationController {
             contentBox.setPadding(new Insets(5, 0, 5, 20));
 
             for (RevenueCategory child : children) {
-                contentBox.getChildren().add(buildRevenueNode(child, childrenMap));
+                contentBox.getChildren().add(buildRevenueNode(child));
             }
             pane.setContent(contentBox);
             return pane;
@@ -149,14 +147,10 @@ public final class BudgetModificationController {
     }
 
     private void setupMinistryList() {
-        Map<Integer, String> expenseCategoryMap = new HashMap<>();
-        budget.getExpenses().forEach(e -> expenseCategoryMap.put(e.getExpenseID(), e.getName()));
-
         budget.getMinistries().stream()
                 .sorted((a, b) -> Long.compare(b.getTotalBudget(), a.getTotalBudget()))
                 .forEach(m -> {
-                    List<MinistryExpense> mExpenses = budget.getMinistryExpenses().stream()
-                            .filter(me -> me.getMinistryID() == m.getMinistryID())
+                    List<MinistryExpense> mExpenses = budget.getMinistryExpenses(m.getMinistryID()).stream()
                             .sorted((me1, me2) -> Long.compare(me2.getAmount(), me1.getAmount()))
                             .collect(Collectors.toList());
 
@@ -165,16 +159,13 @@ public final class BudgetModificationController {
                     contentBox.setPadding(new Insets(5, 0, 5, 20));
 
                     for (MinistryExpense me : mExpenses) {
-                        String expenseName = expenseCategoryMap.getOrDefault(me.getExpenseCategoryID(), "Άγνωστο");
+                        ExpenseCategory category = budget.getExpenseCategory(me.getExpenseCategoryID());
+                        String expenseName = category != null ? category.getName() : "Άγνωστο";
 
                         long minCode = m.getCode();
-                        long expCode = budget.getExpenses().stream()
-                                .filter(e -> e.getExpenseID() == me.getExpenseCategoryID())
-                                .map(ExpenseCategory::getCode)
-                                .findFirst()
-                                .orElse(0L);
+                        long expCode = category != null ? category.getCode() : 0L;
 
-                        String compoundKey = minCode + ":" + expCode;
+                        ExpenseLineKey compoundKey = new ExpenseLineKey(minCode, expCode);
                         originalExpenseAmounts.put(compoundKey, me.getAmount());
 
                         contentBox.getChildren().add(
@@ -269,7 +260,8 @@ public final class BudgetModificationController {
         return hbox;
     }
 
-    private HBox createMinistryExpenseItemBox(final String name, final long amount, final String compoundKey) {
+    private HBox createMinistryExpenseItemBox(final String name, final long amount,
+            final ExpenseLineKey compoundKey) {
         HBox hbox = new HBox(20);
         hbox.setPadding(new Insets(15));
 
@@ -307,15 +299,20 @@ public final class BudgetModificationController {
             return;
         }
 
-        if (sourceTitleExists(sourceTitle)) {
-            showInlineError("Υπάρχει ήδη προϋπολογισμός με αυτόν τον τίτλο.");
-            return;
-        }
-
-        if (!validateInputs()) {
-            return;
-        }
+        // The title check reads the database, so the rest of the save
+        // continues once the summaries arrive.
+        viewManager.load(dataService.loadAllSummaries(), summaries -> {
+            if (sourceTitleExists(summaries, sourceTitle)) {
+                showInlineError("Υπάρχει ήδη προϋπολογισμός με αυτόν τον τίτλο.");
+                return;
+            }
+            if (validateInputs()) {
+                saveScenario(sourceTitle);
+            }
+        });
+    }
 
+    private void saveScenario(final String sourceTitle) {
         statusLabel.setText("Παρακαλώ περιμένετε, αποθήκευση σε εξέλιξη...");
         statusLabel.setStyle("-fx-text-fill: #1565C0; -fx-font-weight: bold;");
         statusLabel.setVisible(true);
@@ -323,52 +320,45 @@ public final class BudgetModificationController {
         saveButton.setDisable(true);
         cancelButton.setDisable(true);
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                Map<Long, Long> revenueUpdates = new HashMap<>();
-                for (Map.Entry<Long, TextField> entry : revenueFields.entrySet()) {
-                    long code = entry.getKey();
-                    long newAmount = Long.parseLong(entry.getValue().getText());
-                    long originalAmount = originalRevenueAmounts.getOrDefault(code, -1L);
-                    if (newAmount != originalAmount) {
-                        revenueUpdates.put(code, newAmount);
-                    }
-                }
-
-                Map<String, Long> ministryUpdates = new HashMap<>();
-                for (Map.Entry<String, TextField> entry : expenseFields.entrySet()) {
-                    long newAmount = Long.parseLong(entry.getValue().getText());
-                    long originalAmount = originalExpenseAmounts.getOrDefault(entry.getKey(), -1L);
-
-                    if (newAmount != originalAmount) {
-                        ministryUpdates.put(entry.getKey(), newAmount);
-                    }
-                }
-
-                int sourceBudgetId = budget.getSummary().getBudgetID();
-                int newBudgetId = modificationService.cloneBudget(sourceBudgetId, sourceTitle);
+        // Read the fields here; JavaFX controls belong to the application thread.
+        BudgetEdits edits = new BudgetEdits();
+        for (Map.Entry<Long, TextField> entry : revenueFields.entrySet()) {
+            long code = entry.getKey();
+            long newAmount = Long.parseLong(entry.getValue().getText());
+            long originalAmount = originalRevenueAmounts.getOrDefault(code, -1L);
+            if (newAmount != originalAmount) {
+                edits.setRevenue(code, newAmount);
+            }
+        }
 
-                if (newBudgetId != -1) {
-                    modificationService.updateBudgetAmounts(newBudgetId, revenueUpdates, ministryUpdates);
+        for (Map.Entry<ExpenseLineKey, TextField> entry : expenseFields.entrySet()) {
+            long newAmount = Long.parseLong(entry.getValue().getText());
+            long originalAmount = originalExpenseAmounts.getOrDefault(entry.getKey(), -1L);
 
-                    Platform.runLater(this::navigateToWelcome);
-                } else {
-                    throw new RuntimeException("Failed to clone budget.");
-                }
+            if (newAmount != originalAmount) {
+                edits.setMinistryExpense(entry.getKey().ministryCode(),
+                        entry.getKey().expenseCategoryCode(), newAmount);
+            }
+        }
 
-            } catch (RuntimeException e) {
-                Platform.runLater(() -> {
-                    statusLabel.setVisible(false);
-                    saveButton.setDisable(false);
-                    cancelButton.setDisable(false);
-
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Σφάλμα");
-                    alert.setHeaderText("Αποτυχία αποθήκευσης");
-                    alert.setContentText("Παρουσιάστηκε σφάλμα κατά την αποθήκευση: " + e.getMessage());
-                    alert.showAndWait();
+        int sourceBudgetId = budget.getSummary().getBudgetID();
+        CompletableFuture<Void> save = dataService
+                .cloneBudgetWithEdits(modificationService, sourceBudgetId, sourceTitle, edits)
+                .thenAccept(newBudgetId -> {
+                    if (newBudgetId == -1) {
+                        throw new RuntimeException("Failed to clone budget.");
+                    }
                 });
-            }
+        viewManager.load(save, ignored -> navigateToWelcome(), e -> {
+            statusLabel.setVisible(false);
+            saveButton.setDisable(false);
+            cancelButton.setDisable(false);
+
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Σφάλμα");
+            alert.setHeaderText("Αποτυχία αποθήκευσης");
+            alert.setContentText("Παρουσιάστηκε σφάλμα κατά την αποθήκευση: " + e.getMessage());
+            alert.showAndWait();
         });
     }
 
@@ -388,8 +378,8 @@ public final class BudgetModificationController {
         navigateToWelcome();
     }
 
-    private boolean sourceTitleExists(final String sourceTitle) {
-        return dataService.loadAllSummaries().stream()
+    private static boolean sourceTitleExists(final List<Summary> summaries, final String sourceTitle) {
+        return summaries.stream()
                 .anyMatch(s -> s.getSourceTitle().equalsIgnoreCase(sourceTitle));
     }
 
@@ -1,15 +1,22 @@
 package com.detonomics.budgettuner.controller;
 
+import com.detonomics.budgettuner.dao.DaoConfig;
+import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.SqlSequence;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
 import com.detonomics.budgettuner.service.BudgetDataService;
-import com.detonomics.budgettuner.service.BudgetDataServiceImpl;
+import com.detonomics.budgettuner.service.BudgetServices;
+import com.detonomics.budgettuner.service.BudgetTimeSeries;
+import com.detonomics.budgettuner.service.ComparisonMatrix;
 import com.detonomics.budgettuner.util.BudgetFormatter;
+import com.detonomics.budgettuner.util.StartupProbe;
 
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -18,6 +25,9 @@ import java.util.Scanner;
  */
 public final class BudgetTunerCLI {
 
+    private static final int TIME_SERIES_WINDOW = 3;
+    private static final int TOP_CHANGES = 10;
+
     /**
      * Default constructor.
      */
@@ -30,36 +40,20 @@ public final class BudgetTunerCLI {
      * @param args Command line arguments
      */
     public static void main(final String[] args) {
-        // Wire up the database and Data Access Objects
-        com.detonomics.budgettuner.util.DatabaseManager dbManager = new com.detonomics.budgettuner.util.DatabaseManager(
-                com.detonomics.budgettuner.dao.DaoConfig.getDbPath());
-
-        com.detonomics.budgettuner.dao.SummaryDao summaryDao =
-                new com.detonomics.budgettuner.dao.SummaryDao(dbManager);
-        com.detonomics.budgettuner.dao.RevenueCategoryDao revenueCategoryDao =
-                new com.detonomics.budgettuner.dao.RevenueCategoryDao(dbManager);
-        com.detonomics.budgettuner.dao.ExpenseCategoryDao expenseCategoryDao =
-                new com.detonomics.budgettuner.dao.ExpenseCategoryDao(dbManager);
-        com.detonomics.budgettuner.dao.MinistryDao ministryDao =
-                new com.detonomics.budgettuner.dao.MinistryDao(dbManager);
-        com.detonomics.budgettuner.dao.MinistryExpenseDao ministryExpenseDao =
-                new com.detonomics.budgettuner.dao.MinistryExpenseDao(dbManager);
-        com.detonomics.budgettuner.dao.BudgetTotalsDao budgetTotalsDao =
-                new com.detonomics.budgettuner.dao.BudgetTotalsDao(dbManager);
-        com.detonomics.budgettuner.dao.SqlSequenceDao sqlSequenceDao =
-                new com.detonomics.budgettuner.dao.SqlSequenceDao(dbManager);
-
-        com.detonomics.budgettuner.dao.BudgetYearDao budgetYearDao =
-                new com.detonomics.budgettuner.dao.BudgetYearDao(dbManager, summaryDao,
-                revenueCategoryDao, expenseCategoryDao, ministryDao, ministryExpenseDao);
-
-        BudgetDataService service = new BudgetDataServiceImpl(budgetYearDao, revenueCategoryDao,
-                expenseCategoryDao,
-                ministryDao, ministryExpenseDao, summaryDao, budgetTotalsDao, sqlSequenceDao);
-
-        // Launch the interactive shell
-        BudgetTunerCLI app = new BudgetTunerCLI();
-        app.run(service, System.in, System.out);
+        try (BudgetServices services = new BudgetServices(DaoConfig.getDbPath(), 0, message -> {
+        })) {
+            BudgetDataService service;
+            try {
+                service = services.dataService();
+            } catch (IllegalStateException e) {
+                System.err.println(e.getMessage());
+                return;
+            }
+
+            // Launch the interactive shell
+            BudgetTunerCLI app = new BudgetTunerCLI();
+            app.run(service, System.in, System.out);
+        }
     }
 
     /**
@@ -100,8 +94,16 @@ public final class BudgetTunerCLI {
                 out.println("1. Επιλογή Έτους για Προβολή");
                 out.println("2. Σύγκριση Δύο Ετών");
                 out.println("3. Εισαγωγή Νέου Έτους");
+                out.println("4. Διαχρονική Εξέλιξη Κωδικού");
+                out.println("5. Σύγκριση Όλων των Προϋπολογισμών");
                 out.println("0. Έξοδος");
                 out.print("Επιλογή: ");
+                if (StartupProbe.isEnabled()) {
+                    // Measuring startup only: stop at the first menu.
+                    out.flush();
+                    StartupProbe.reached("menu");
+                    return;
+                }
 
                 if (scanner.hasNextInt()) {
                     choice = scanner.nextInt();
@@ -151,8 +153,8 @@ public final class BudgetTunerCLI {
 
                         // 2. Enter Comparison Menu
 
-                        handleCompareBudgetsMenu(scanner, budget1, budget2,
-                                year1, year2, out);
+                        handleCompareBudgetsMenu(scanner, dataService.loadAnalytics(),
+                                budget1, budget2, year1, year2, out);
                         break;
 
                     case 3:
@@ -179,6 +181,14 @@ public final class BudgetTunerCLI {
                         }
                         break;
 
+                    case 4:
+                        handleTimeSeries(scanner, dataService, out);
+                        break;
+
+                    case 5:
+                        handleCompareAll(scanner, dataService, out);
+                        break;
+
                     case 0:
                         out.println("Έξοδος από την εφαρμογή.");
                         mainMenurunning = false;
@@ -192,6 +202,97 @@ public final class BudgetTunerCLI {
         }
     }
 
+    /**
+     * Show the amounts of one code across every stored budget.
+     *
+     * @param scanner     Input scanner
+     * @param dataService The service layer for data retrieval
+     * @param out         Output stream
+     */
+    private void handleTimeSeries(final Scanner scanner,
+            final BudgetDataService dataService,
+            final PrintStream out) {
+        AnalysisType type = selectAnalysisType(scanner, out);
+        if (type == null) {
+            return;
+        }
+
+        out.print("Εισάγετε τον κωδικό: ");
+        if (!scanner.hasNextLong()) {
+            scanner.nextLine();
+            out.println("Άκυρος κωδικός.");
+            return;
+        }
+        long code = scanner.nextLong();
+        scanner.nextLine();
+
+        BudgetTimeSeries.Series series = dataService.loadAnalytics()
+                .timeSeries().series(type, code);
+        if (series == null) {
+            out.println("Ο κωδικός " + code
+                    + " δεν βρέθηκε σε κανέναν προϋπολογισμό.");
+        } else {
+            out.println(BudgetFormatter.getFormattedTimeSeries(series,
+                    TIME_SERIES_WINDOW));
+        }
+    }
+
+    /**
+     * Compare every stored budget, scenarios included, line by line.
+     *
+     * @param scanner     Input scanner
+     * @param dataService The service layer for data retrieval
+     * @param out         Output stream
+     */
+    private void handleCompareAll(final Scanner scanner,
+            final BudgetDataService dataService,
+            final PrintStream out) {
+        AnalysisType type = selectAnalysisType(scanner, out);
+        if (type == null) {
+            return;
+        }
+
+        // Columns follow the chronological order of the time series.
+        BudgetTimeSeries budgets = dataService.loadAnalytics().timeSeries();
+        List<Integer> budgetIDs = new ArrayList<>();
+        for (int p = 0; p < budgets.pointCount(); p++) {
+            budgetIDs.add(budgets.budgetID(p));
+        }
+        ComparisonMatrix matrix = dataService.compareBudgets(type, budgetIDs);
+        out.println(BudgetFormatter.getFormattedComparisonMatrix(matrix,
+                TOP_CHANGES));
+    }
+
+    /**
+     * Ask which table to analyse.
+     *
+     * @param scanner Input scanner
+     * @param out     Output stream
+     * @return Selected table, or null after reporting an invalid choice
+     */
+    private AnalysisType selectAnalysisType(final Scanner scanner,
+            final PrintStream out) {
+        out.println("1. Έσοδα");
+        out.println("2. Έξοδα");
+        out.println("3. Φορείς");
+        out.print("Επιλογή: ");
+        AnalysisType type = null;
+        if (scanner.hasNextInt()) {
+            int typeChoice = scanner.nextInt();
+            type = switch (typeChoice) {
+                case 1 -> AnalysisType.REVENUE;
+                case 2 -> AnalysisType.EXPENSE;
+                case 3 -> AnalysisType.MINISTRY;
+                default -> null;
+            };
+        }
+        scanner.nextLine();
+        if (type == null) {
+            out.println("Μη έγκυρη επιλογή.");
+        }
+        return type;
+    }
+
     /**
      * Prompt the user until a valid year is selected.
      *
@@ -297,10 +398,7 @@ public final class BudgetTunerCLI {
                 case 5:
                     out.println("\n--- ΔΑΠΑΝΕΣ ΦΟΡΕΩΝ ΠΡΟϋΠΟΛΟΓΙΣΜΟΥ ("
                             + year + ") ---");
-                    out.println(BudgetFormatter.getFormattedMinistryExpenses(
-                            budget.getMinistries(),
-                            budget.getExpenses(),
-                            budget.getMinistryExpenses()));
+                    out.println(BudgetFormatter.getFormattedMinistryExpenses(budget));
                     break;
                 case 6:
                     out.println("Αλλαγή έτους προϋπολογισμού...");
@@ -326,14 +424,16 @@ public final class BudgetTunerCLI {
     /**
      * Manage the Comparison Submenu.
      *
-     * @param scanner Input scanner
-     * @param budget1 First budget
-     * @param budget2 Second budget
-     * @param year1   First year
-     * @param year2   Second year
-     * @param out     Output stream
+     * @param scanner   Input scanner
+     * @param analytics Snapshot the line comparisons run on
+     * @param budget1   First budget
+     * @param budget2   Second budget
+     * @param year1     First year
+     * @param year2     Second year
+     * @param out       Output stream
      */
     private void handleCompareBudgetsMenu(final Scanner scanner,
+            final BudgetAnalytics analytics,
             final BudgetYear budget1,
             final BudgetYear budget2,
             final int year1, final int year2,
@@ -379,21 +479,16 @@ public final class BudgetTunerCLI {
                     }
                     break;
                 case 2:
-                    out.println(BudgetFormatter.getFormattedComparativeRevenues(
-                            budget1.getRevenues(),
-                            budget2.getRevenues(), year1, year2));
+                    out.println(formatComparison(analytics, AnalysisType.REVENUE,
+                            budget1, budget2, year1, year2));
                     break;
                 case 3:
-                    out.println(BudgetFormatter
-                            .getFormattedComparativeExpenditures(
-                                    budget1.getExpenses(),
-                                    budget2.getExpenses(), year1, year2));
+                    out.println(formatComparison(analytics, AnalysisType.EXPENSE,
+                            budget1, budget2, year1, year2));
                     break;
                 case 4:
-                    out.println(BudgetFormatter
-                            .getFormattedComparativeMinistries(
-                                    budget1.getMinistries(),
-                                    budget2.getMinistries(), year1, year2));
+                    out.println(formatComparison(analytics, AnalysisType.MINISTRY,
+                            budget1, budget2, year1, year2));
                     break;
                 case 5:
                     compareRunning = false;
@@ -404,4 +499,14 @@ public final class BudgetTunerCLI {
             }
         }
     }
+
+    private static String formatComparison(final BudgetAnalytics analytics,
+            final AnalysisType type, final BudgetYear budget1,
+            final BudgetYear budget2, final int year1, final int year2) {
+        return BudgetFormatter.getFormattedComparison(type,
+                analytics.compareAllLines(type,
+                        budget1.getSummary().getBudgetID(),
+                        budget2.getSummary().getBudgetID()),
+                year1, year2);
+    }
 }
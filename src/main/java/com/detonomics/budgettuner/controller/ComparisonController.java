@@ -1,7 +1,7 @@
 package com.detonomics.budgettuner.controller;
 
 import com.detonomics.budgettuner.model.BudgetYear;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.util.ViewManager;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
@@ -11,8 +11,11 @@ import javafx.scene.chart.XYChart;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Handle initial selection for comparing different budget years.
@@ -42,7 +45,8 @@ public class ComparisonController {
     private BarChart<String, Number> comparisonChart;
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
+    private CompletableFuture<Map<Integer, BudgetYear>> pendingComparison;
 
     /**
      * Initialize with navigation and data services.
@@ -51,7 +55,7 @@ public class ComparisonController {
      * @param dataService Budget data provider
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public ComparisonController(final ViewManager viewManager, final BudgetDataService dataService) {
+    public ComparisonController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
     }
@@ -68,7 +72,11 @@ public class ComparisonController {
     }
 
     private void loadYears() {
-        List<Integer> years = dataService.loadBudgetYears();
+        viewManager.load(dataService.loadBudgetYears(), this::showYears);
+    }
+
+    private void showYears(final List<Integer> loadedYears) {
+        List<Integer> years = new ArrayList<>(loadedYears);
         years.sort(Comparator.reverseOrder());
 
         yearSelectorA.setItems(FXCollections.observableArrayList(years));
@@ -90,16 +98,33 @@ public class ComparisonController {
             return;
         }
 
-        int idA = dataService.loadBudgetIDByYear(yearA);
-        int idB = dataService.loadBudgetIDByYear(yearB);
+        // A newer selection supersedes a comparison still loading.
+        if (pendingComparison != null) {
+            pendingComparison.cancel(false);
+        }
+        pendingComparison = dataService.read("year-pair:" + yearA + ":" + yearB, service -> {
+            int idA = service.loadBudgetIDByYear(yearA);
+            int idB = service.loadBudgetIDByYear(yearB);
+            return idA == -1 || idB == -1 ? Map.of() : service.loadBudgetYearsByID(List.of(idA, idB));
+        });
+        viewManager.load(pendingComparison, budgets -> showComparison(budgets, yearA, yearB));
+    }
 
-        if (idA == -1 || idB == -1) {
+    private void showComparison(final Map<Integer, BudgetYear> budgets, final int yearA, final int yearB) {
+        BudgetYear budgetA = null;
+        BudgetYear budgetB = null;
+        for (BudgetYear budget : budgets.values()) {
+            if (budget.getSummary().getBudgetYear() == yearA) {
+                budgetA = budget;
+            }
+            if (budget.getSummary().getBudgetYear() == yearB) {
+                budgetB = budget;
+            }
+        }
+        if (budgetA == null || budgetB == null) {
             return;
         }
 
-        BudgetYear budgetA = dataService.loadBudgetYear(idA);
-        BudgetYear budgetB = dataService.loadBudgetYear(idB);
-
         updateLabels(budgetA, budgetB);
         updateChart(budgetA, budgetB, yearA, yearB);
     }
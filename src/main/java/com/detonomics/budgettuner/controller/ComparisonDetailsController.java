@@ -1,19 +1,14 @@
 package com.detonomics.budgettuner.controller;
 
-import com.detonomics.budgettuner.model.ExpenseCategory;
-import com.detonomics.budgettuner.model.Ministry;
-import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.Summary;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
+import com.detonomics.budgettuner.service.ComparisonMatrix;
 import com.detonomics.budgettuner.util.BudgetFormatter;
+import com.detonomics.budgettuner.util.ReusableView;
 import com.detonomics.budgettuner.util.ViewManager;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -27,7 +22,7 @@ import javafx.scene.layout.VBox;
 /**
  * Handle line-by-line comparison of two selected budgets.
  */
-public final class ComparisonDetailsController {
+public final class ComparisonDetailsController implements ReusableView {
 
     /**
      * Categories available for granular comparison.
@@ -57,7 +52,7 @@ public final class ComparisonDetailsController {
     private Summary s2;
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
 
     /**
      * Initialize with navigation and data services.
@@ -66,7 +61,7 @@ public final class ComparisonDetailsController {
      * @param dataService Budget data provider
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public ComparisonDetailsController(final ViewManager viewManager, final BudgetDataService dataService) {
+    public ComparisonDetailsController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
     }
@@ -92,65 +87,44 @@ public final class ComparisonDetailsController {
 
         createHeaderRow(s1.getSourceTitle(), s2.getSourceTitle());
 
-        Map<Long, String> names = new HashMap<>();
-        Map<Long, Long> amounts1 = new HashMap<>();
-        Map<Long, Long> amounts2 = new HashMap<>();
-
-        if (type == ComparisonType.REVENUE) {
-            loadRevenueData(s1.getBudgetID(), amounts1, names);
-            loadRevenueData(s2.getBudgetID(), amounts2, names);
-        } else if (type == ComparisonType.EXPENSE) {
-            loadExpenseData(s1.getBudgetID(), amounts1, names);
-            loadExpenseData(s2.getBudgetID(), amounts2, names);
-        } else {
-            loadMinistryData(s1.getBudgetID(), amounts1, names);
-            loadMinistryData(s2.getBudgetID(), amounts2, names);
-        }
-
-        Set<Long> allCodes = new HashSet<>();
-        allCodes.addAll(amounts1.keySet());
-        allCodes.addAll(amounts2.keySet());
-
-        List<Long> sortedCodes = allCodes.stream().sorted().collect(Collectors.toList());
+        AnalysisType table = switch (type) {
+            case REVENUE -> AnalysisType.REVENUE;
+            case EXPENSE -> AnalysisType.EXPENSE;
+            case MINISTRY -> AnalysisType.MINISTRY;
+        };
+        viewManager.load(dataService.compareBudgets(table, List.of(s1.getBudgetID(), s2.getBudgetID())),
+                this::showRows);
+    }
 
-        for (Long code : sortedCodes) {
-            String name = names.getOrDefault(code, "Unknown (" + code + ")");
-            long v1 = amounts1.getOrDefault(code, 0L);
-            long v2 = amounts2.getOrDefault(code, 0L);
-            createRow(name, v1, v2);
-        }
+    /**
+     * Clear the rows of the previous comparison.
+     */
+    @Override
+    public void resetView() {
+        titleLabel.setText("");
+        itemsBox.getChildren().clear();
     }
 
-    private void loadRevenueData(final int budgetId, final Map<Long, Long> amounts, final Map<Long, String> names) {
-        if (budgetId == -1) {
-            return;
-        }
-        for (RevenueCategory rc : dataService.loadRevenues(budgetId)) {
-            if (rc.getParentID() == 0) {
-                amounts.put(rc.getCode(), rc.getAmount());
-                names.putIfAbsent(rc.getCode(), rc.getName());
-            }
+    private void showRows(final ComparisonMatrix matrix) {
+        // A budget that no longer exists has no column; its amounts show as 0.
+        int first = columnOf(matrix, s1.getBudgetID());
+        int second = columnOf(matrix, s2.getBudgetID());
+        for (int row = 0; row < matrix.rowCount(); row++) {
+            createRow(matrix.name(row), amountOrZero(matrix, row, first), amountOrZero(matrix, row, second));
         }
     }
 
-    private void loadExpenseData(final int budgetId, final Map<Long, Long> amounts, final Map<Long, String> names) {
-        if (budgetId == -1) {
-            return;
-        }
-        for (ExpenseCategory ec : dataService.loadExpenses(budgetId)) {
-            amounts.put(ec.getCode(), ec.getAmount());
-            names.putIfAbsent(ec.getCode(), ec.getName());
+    private static int columnOf(final ComparisonMatrix matrix, final int budgetID) {
+        for (int column = 0; column < matrix.columnCount(); column++) {
+            if (matrix.budgetID(column) == budgetID) {
+                return column;
+            }
         }
+        return -1;
     }
 
-    private void loadMinistryData(final int budgetId, final Map<Long, Long> amounts, final Map<Long, String> names) {
-        if (budgetId == -1) {
-            return;
-        }
-        for (Ministry m : dataService.loadMinistries(budgetId)) {
-            amounts.put(m.getCode(), m.getTotalBudget());
-            names.putIfAbsent(m.getCode(), m.getName());
-        }
+    private static long amountOrZero(final ComparisonMatrix matrix, final int row, final int column) {
+        return column >= 0 && matrix.has(row, column) ? matrix.value(row, column) : 0;
     }
 
     private void createHeaderRow(final String title1, final String title2) {
@@ -1,11 +1,12 @@
 package com.detonomics.budgettuner.controller;
 
-import com.detonomics.budgettuner.service.BudgetDataService;
-import com.detonomics.budgettuner.service.BudgetDataServiceImpl;
-import com.detonomics.budgettuner.service.BudgetModificationService;
-import com.detonomics.budgettuner.service.BudgetModificationServiceImpl;
+import com.detonomics.budgettuner.dao.DaoConfig;
+import com.detonomics.budgettuner.service.BudgetServices;
+import com.detonomics.budgettuner.util.StartupProbe;
 import com.detonomics.budgettuner.util.ViewManager;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.awt.Taskbar;
@@ -21,6 +22,8 @@ public final class GuiApp extends Application {
         public static final int DEFAULT_WIDTH = 1000;
         /** Standard resolution height. */
         public static final int DEFAULT_HEIGHT = 800;
+        /** Interval between background WAL checkpoints. */
+        private static final long CHECKPOINT_INTERVAL_MILLIS = 60_000;
 
         /**
          * Initialize the application instance.
@@ -36,38 +39,10 @@ public final class GuiApp extends Application {
          */
         @Override
         public void start(final Stage stage) throws IOException {
-                com.detonomics.budgettuner.util.DatabaseManager dbManager =
-                        new com.detonomics.budgettuner.util.DatabaseManager(
-                                com.detonomics.budgettuner.dao.DaoConfig.getDbPath());
-
-                com.detonomics.budgettuner.dao.SummaryDao summaryDao =
-                        new com.detonomics.budgettuner.dao.SummaryDao(dbManager);
-                com.detonomics.budgettuner.dao.RevenueCategoryDao revenueCategoryDao =
-                        new com.detonomics.budgettuner.dao.RevenueCategoryDao(dbManager);
-                com.detonomics.budgettuner.dao.ExpenseCategoryDao expenseCategoryDao =
-                        new com.detonomics.budgettuner.dao.ExpenseCategoryDao(dbManager);
-                com.detonomics.budgettuner.dao.MinistryDao ministryDao =
-                        new com.detonomics.budgettuner.dao.MinistryDao(dbManager);
-                com.detonomics.budgettuner.dao.MinistryExpenseDao ministryExpenseDao =
-                        new com.detonomics.budgettuner.dao.MinistryExpenseDao(dbManager);
-                com.detonomics.budgettuner.dao.BudgetTotalsDao budgetTotalsDao =
-                        new com.detonomics.budgettuner.dao.BudgetTotalsDao(dbManager);
-                com.detonomics.budgettuner.dao.SqlSequenceDao sqlSequenceDao =
-                        new com.detonomics.budgettuner.dao.SqlSequenceDao(dbManager);
-
-                com.detonomics.budgettuner.dao.BudgetYearDao budgetYearDao =
-                        new com.detonomics.budgettuner.dao.BudgetYearDao(dbManager, summaryDao,
-                        revenueCategoryDao, expenseCategoryDao, ministryDao, ministryExpenseDao);
-
-                BudgetDataService dataService = new BudgetDataServiceImpl(budgetYearDao, revenueCategoryDao,
-                                expenseCategoryDao,
-                                ministryDao, ministryExpenseDao, summaryDao, budgetTotalsDao, sqlSequenceDao);
-                BudgetModificationService modificationService =
-                        new BudgetModificationServiceImpl(dbManager, budgetYearDao,
-                        revenueCategoryDao, expenseCategoryDao, ministryDao,
-                        ministryExpenseDao, summaryDao);
-
-                ViewManager viewManager = new ViewManager(stage, dataService, modificationService);
+                // The database is opened by the first data request, off the JavaFX thread.
+                BudgetServices services = new BudgetServices(DaoConfig.getDbPath(), CHECKPOINT_INTERVAL_MILLIS,
+                                System.out::println);
+                ViewManager viewManager = new ViewManager(stage, services);
 
                 // Set application identity for OS taskbars
                 try {
@@ -99,10 +74,28 @@ public final class GuiApp extends Application {
                 stage.setMaximized(true);
                 stage.setResizable(true);
 
-                stage.setOnCloseRequest(event -> {
-                        javafx.application.Platform.exit();
-                        System.exit(0);
-                });
+                stage.setOnCloseRequest(event -> exit(viewManager, services));
+
+                if (StartupProbe.isEnabled()) {
+                        Scene scene = stage.getScene();
+                        scene.addPostLayoutPulseListener(new Runnable() {
+                                @Override
+                                public void run() {
+                                        scene.removePostLayoutPulseListener(this);
+                                        StartupProbe.reached("first frame");
+                                        Platform.runLater(() -> exit(viewManager, services));
+                                }
+                        });
+                } else {
+                        viewManager.preloadLikelyViews();
+                }
+        }
+
+        private static void exit(final ViewManager viewManager, final BudgetServices services) {
+                viewManager.shutdown();
+                services.close();
+                Platform.exit();
+                System.exit(0);
         }
 
         /**
@@ -1,6 +1,6 @@
 package com.detonomics.budgettuner.controller;
 
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.util.ViewManager;
 
 import javafx.animation.Animation;
@@ -8,11 +8,11 @@ import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
@@ -21,8 +21,7 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manage the AI-assisted pipeline for importing PDF budget documents.
@@ -43,13 +42,14 @@ public final class IngestController {
     private Button backButton;
     @FXML
     private Button fileSelectButton;
+    @FXML
+    private CheckBox forceCheckBox;
 
     private File selectedFile;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private Timeline animation;
 
     private final ViewManager viewManager;
-    private final BudgetDataService dataService;
+    private final AsyncBudgetDataService dataService;
 
     /**
      * Initialize with navigation and data services.
@@ -58,7 +58,7 @@ public final class IngestController {
      * @param dataService Budget data provider
      */
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-    public IngestController(final ViewManager viewManager, final BudgetDataService dataService) {
+    public IngestController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
         this.viewManager = viewManager;
         this.dataService = dataService;
     }
@@ -101,6 +101,7 @@ public final class IngestController {
         backButton.setDisable(true);
         fileSelectButton.setDisable(true);
         filePathField.setDisable(true);
+        forceCheckBox.setDisable(true);
 
         statusLabel.setText("Προετοιμασία...");
         subStatusLabel.setText("");
@@ -119,73 +120,70 @@ public final class IngestController {
         animation.setCycleCount(Animation.INDEFINITE);
         animation.play();
 
-        Task<Void> task = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                dataService.insertNewBudgetYear(selectedFile.getAbsolutePath(), message -> {
-                    Platform.runLater(() -> updateProgressFromLog(message));
-                });
-                return null;
+        // Ingestion runs for minutes with its own progress display, so it
+        // bypasses the view loading overlay.
+        dataService.insertNewBudgetYear(selectedFile.getAbsolutePath(), forceCheckBox.isSelected(), message -> {
+            Platform.runLater(() -> updateProgressFromLog(message));
+        }).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onIngestSucceeded();
+            } else {
+                onIngestFailed(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
             }
-        };
-
-        task.setOnSucceeded(e -> {
-            Platform.runLater(() -> {
-                if (animation != null) {
-                    animation.stop();
-                }
-                progressBar.setOpacity(1.0);
-
-                statusLabel.setText("Η διαδικασία ολοκληρώθηκε επιτυχώς!");
-                subStatusLabel.setText("");
-                progressBar.setProgress(1.0);
-                startButton.setDisable(false);
-                backButton.setDisable(false);
-                fileSelectButton.setDisable(false);
-                filePathField.setDisable(false);
-            });
-        });
-
-        task.setOnFailed(e -> {
-            Throwable ex = task.getException();
-            Platform.runLater(() -> {
-                statusLabel.setText("ΣΦΑΛΜΑ ΕΙΣΑΓΩΓΗΣ");
-
-                String errorMsg = ex.getMessage();
-                if (ex.getCause() != null) {
-                    errorMsg += " " + ex.getCause().getMessage();
-                }
-
-                if (errorMsg != null
-                        && (errorMsg.contains("Unexpected end-of-input") || errorMsg.contains("JsonEOFException"))) {
-                    subStatusLabel.setText(
-                            "Σφάλμα κατά το πέρασμα των δεδομένων σε αρχείο JSON "
-                                    + "λόγω εξάντλησης των πόρων του βοηθού Τεχνητής Νοημοσύνης");
-                } else if (errorMsg != null && errorMsg.contains("GEMINI_API_KEY")) {
-                    subStatusLabel.setText(
-                            "Σφάλμα κατά την αξιοποίηση κλειδιού Google API. "
-                                    + "Προσπαθήστε ξανά αφού ενσωματώσετε ένα έγκυρο κλειδί "
-                                    + "Google API στο τρέχον ψηφιακό περιβάλλον");
-                } else {
-                    subStatusLabel.setText(ex.getMessage());
-                }
-
-                if (animation != null) {
-                    animation.stop();
-                }
-                progressBar.setOpacity(1.0);
-                progressBar.getStyleClass().add("error-bar");
-                progressBar.setProgress(1.0);
-                ex.printStackTrace();
-                startButton.setDisable(false);
-                backButton.setDisable(false);
-                fileSelectButton.setDisable(false);
-                filePathField.setDisable(false);
-            });
-        });
-
-        executor.submit(task);
+        }));
+    }
+
+    private void onIngestSucceeded() {
+        if (animation != null) {
+            animation.stop();
+        }
+        progressBar.setOpacity(1.0);
+
+        statusLabel.setText("Η διαδικασία ολοκληρώθηκε επιτυχώς!");
+        subStatusLabel.setText("");
+        progressBar.setProgress(1.0);
+        startButton.setDisable(false);
+        backButton.setDisable(false);
+        fileSelectButton.setDisable(false);
+        filePathField.setDisable(false);
+        forceCheckBox.setDisable(false);
+    }
 
+    private void onIngestFailed(final Throwable ex) {
+        statusLabel.setText("ΣΦΑΛΜΑ ΕΙΣΑΓΩΓΗΣ");
+
+        String errorMsg = ex.getMessage();
+        if (ex.getCause() != null) {
+            errorMsg += " " + ex.getCause().getMessage();
+        }
+
+        if (errorMsg != null
+                && (errorMsg.contains("Unexpected end-of-input") || errorMsg.contains("JsonEOFException"))) {
+            subStatusLabel.setText(
+                    "Σφάλμα κατά το πέρασμα των δεδομένων σε αρχείο JSON "
+                            + "λόγω εξάντλησης των πόρων του βοηθού Τεχνητής Νοημοσύνης");
+        } else if (errorMsg != null && errorMsg.contains("GEMINI_API_KEY")) {
+            subStatusLabel.setText(
+                    "Σφάλμα κατά την αξιοποίηση κλειδιού Google API. "
+                            + "Προσπαθήστε ξανά αφού ενσωματώσετε ένα έγκυρο κλειδί "
+                            + "Google API στο τρέχον ψηφιακό περιβάλλον");
+        } else {
+            subStatusLabel.setText(ex.getMessage());
+        }
+
+        if (animation != null) {
+            animation.stop();
+        }
+        progressBar.setOpacity(1.0);
+        progressBar.getStyleClass().add("error-bar");
+        progressBar.setProgress(1.0);
+        ex.printStackTrace();
+        startButton.setDisable(false);
+        backButton.setDisable(false);
+        fileSelectButton.setDisable(false);
+        filePathField.setDisable(false);
+        forceCheckBox.setDisable(false);
     }
 
     private void updateProgressFromLog(final String message) {
@@ -1,14 +1,13 @@
 package com.detonomics.budgettuner.controller;
 
 import com.detonomics.budgettuner.model.SqlSequence;
-import com.detonomics.budgettuner.model.Summary;
-import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+import com.detonomics.budgettuner.service.BudgetTimeSeries;
 import com.detonomics.budgettuner.util.GuiUtils;
+import com.detonomics.budgettuner.util.ReusableView;
 import com.detonomics.budgettuner.util.ViewManager;
 
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -19,7 +18,7 @@ import javafx.scene.control.ScrollPane;
 /**
  * Handle the entry point dashboard showing high-level stats and trends.
  */
-public class WelcomeController {
+public class WelcomeController implements ReusableView {
 
         @FXML
         private BarChart<String, Number> revenueChart;
@@ -42,7 +41,7 @@ public class WelcomeController {
         private ScrollPane welcomeScrollPane;
 
         private final ViewManager viewManager;
-        private final BudgetDataService dataService;
+        private final AsyncBudgetDataService dataService;
 
         /**
          * Initialize with navigation and data services.
@@ -51,52 +50,52 @@ public class WelcomeController {
          * @param dataService Budget data provider
          */
         @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
-        public WelcomeController(final ViewManager viewManager, final BudgetDataService dataService) {
+        public WelcomeController(final ViewManager viewManager, final AsyncBudgetDataService dataService) {
                 this.viewManager = viewManager;
                 this.dataService = dataService;
         }
 
         /**
-         * Refresh statistics and charts using background threads.
+         * Request statistics and charts; they are filled in once loaded.
          */
         @FXML
         public void initialize() {
+                refresh();
+        }
+
+        /**
+         * Scroll back to the top and reload statistics and charts, which may
+         * have changed since the last visit.
+         */
+        @Override
+        public void resetView() {
+                refresh();
+        }
+
+        private void refresh() {
                 Platform.runLater(() -> {
                         welcomeScrollPane.setVvalue(0.0);
                         welcomeScrollPane.requestFocus();
                 });
 
-                CompletableFuture.runAsync(() -> {
-                        try {
-                                final SqlSequence stats = dataService.loadStatistics();
-                                final List<Summary> allSummaries = dataService.loadAllSummaries();
-
-                                Platform.runLater(() -> {
-                                        statsBudgetsLabel.setText(String.valueOf(stats.getBudgets()));
-                                        statsRevCatsLabel.setText(String.valueOf(stats.getRevenueCategories()));
-                                        statsExpCatsLabel.setText(String.valueOf(stats.getExpenseCategories()));
-                                        statsMinistriesLabel.setText(String.valueOf(stats.getMinistries()));
-                                        statsMinExpLabel.setText(String.valueOf(stats.getMinistryExpenses()));
-
-                                        setupCharts(allSummaries);
-                                });
-                        } catch (Exception e) {
-                                System.err.println("Error loading statistics: " + e.getMessage());
-                                e.printStackTrace();
-                        }
-                });
+                viewManager.load(dataService.loadStatistics(), this::showStatistics);
+                // Focus on original budgets only to highlight primary trends
+                viewManager.load(dataService.loadAnalytics().thenApply(BudgetAnalytics::originalTimeSeries),
+                                this::setupCharts);
         }
 
-        private void setupCharts(final List<Summary> allSummaries) {
-                // Focus on original budgets only to highlight primary trends
-                List<Summary> originalBudgets = allSummaries.stream()
-                                .filter(s -> s.getSourceTitle().equals("Προϋπολογισμός " + s.getBudgetYear()))
-                                .toList();
-
-                GuiUtils.setupChart(revenueChart, "Συνολικά Έσοδα", originalBudgets, Summary::getTotalRevenues);
-                GuiUtils.setupChart(expenseChart, "Συνολικά Έξοδα", originalBudgets, Summary::getTotalExpenses);
-                GuiUtils.setupChart(differenceChart, "Ισοζύγιο", originalBudgets, Summary::getBudgetResult,
-                                s -> s.getBudgetResult() < 0);
+        private void showStatistics(final SqlSequence stats) {
+                statsBudgetsLabel.setText(String.valueOf(stats.getBudgets()));
+                statsRevCatsLabel.setText(String.valueOf(stats.getRevenueCategories()));
+                statsExpCatsLabel.setText(String.valueOf(stats.getExpenseCategories()));
+                statsMinistriesLabel.setText(String.valueOf(stats.getMinistries()));
+                statsMinExpLabel.setText(String.valueOf(stats.getMinistryExpenses()));
+        }
+
+        private void setupCharts(final BudgetTimeSeries series) {
+                GuiUtils.setupChart(revenueChart, series.totalRevenue(), amount -> false);
+                GuiUtils.setupChart(expenseChart, series.totalExpenses(), amount -> false);
+                GuiUtils.setupChart(differenceChart, series.budgetResult(), amount -> amount < 0);
         }
 
         /**
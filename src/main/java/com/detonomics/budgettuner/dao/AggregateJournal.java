@@ -0,0 +1,149 @@
+package com.detonomics.budgettuner.dao;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.detonomics.budgettuner.util.LongIntMap;
+
+/**
+ * Deltas collected while one budget's detail rows are edited inside a write
+ * transaction, to be folded into the stored totals by
+ * {@link AggregateMaintainer#apply}. Obtain one from
+ * {@link AggregateMaintainer#begin}.
+ *
+ * <p>
+ * Deltas for the same ministry or expense category are summed, so the work of
+ * applying the journal depends only on how many distinct rows changed.
+ * </p>
+ */
+public final class AggregateJournal {
+
+    private final int budgetID;
+    private final Map<String, Long> baseline;
+    private final IdDeltas ministryDeltas = new IdDeltas();
+    private final IdDeltas categoryDeltas = new IdDeltas();
+    private long revenueDelta;
+    private long expenseDelta;
+
+    AggregateJournal(final int budgetID, final Map<String, Long> baseline) {
+        this.budgetID = budgetID;
+        this.baseline = baseline;
+    }
+
+    /**
+     * Get the budget the journal belongs to.
+     *
+     * @return Budget ID
+     */
+    public int getBudgetID() {
+        return budgetID;
+    }
+
+    /**
+     * Record a change in the amount of top-level revenue categories.
+     *
+     * @param delta New minus old amount
+     */
+    public void addRevenue(final long delta) {
+        revenueDelta += delta;
+    }
+
+    /**
+     * Record a change in one ministry expense line. The ministry total, the
+     * expense category total and the budget's expenditure move with it.
+     *
+     * @param ministryID        Internal ministry ID
+     * @param expenseCategoryID Internal expense category ID
+     * @param delta             New minus old amount
+     */
+    public void addMinistryExpense(final int ministryID, final int expenseCategoryID, final long delta) {
+        if (delta == 0) {
+            return;
+        }
+        ministryDeltas.add(ministryID, delta);
+        categoryDeltas.add(expenseCategoryID, delta);
+        expenseDelta += delta;
+    }
+
+    /**
+     * Check whether any recorded delta is still non-zero.
+     *
+     * @return True if applying the journal would change nothing
+     */
+    public boolean isEmpty() {
+        return revenueDelta == 0 && expenseDelta == 0 && ministryDeltas.nonZero() == 0
+                && categoryDeltas.nonZero() == 0;
+    }
+
+    long getRevenueDelta() {
+        return revenueDelta;
+    }
+
+    long getExpenseDelta() {
+        return expenseDelta;
+    }
+
+    IdDeltas getMinistryDeltas() {
+        return ministryDeltas;
+    }
+
+    IdDeltas getCategoryDeltas() {
+        return categoryDeltas;
+    }
+
+    Map<String, Long> getBaseline() {
+        return baseline;
+    }
+
+    /** Summed deltas keyed by primary key, in first-seen order. */
+    static final class IdDeltas {
+        private final LongIntMap slots = new LongIntMap(16);
+        private int[] ids = new int[16];
+        private long[] deltas = new long[16];
+        private int count;
+
+        void add(final int id, final long delta) {
+            int slot = slots.getOrDefault(id, -1);
+            if (slot < 0) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    deltas = Arrays.copyOf(deltas, count * 2);
+                }
+                slot = count++;
+                slots.put(id, slot);
+                ids[slot] = id;
+            }
+            deltas[slot] += delta;
+        }
+
+        int nonZero() {
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (deltas[i] != 0) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        int[] ids() {
+            int[] result = new int[nonZero()];
+            for (int i = 0, n = 0; i < count; i++) {
+                if (deltas[i] != 0) {
+                    result[n++] = ids[i];
+                }
+            }
+            return result;
+        }
+
+        long[] deltas() {
+            long[] result = new long[nonZero()];
+            for (int i = 0, n = 0; i < count; i++) {
+                if (deltas[i] != 0) {
+                    result[n++] = deltas[i];
+                }
+            }
+            return result;
+        }
+    }
+}
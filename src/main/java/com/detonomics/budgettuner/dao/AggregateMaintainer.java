@@ -0,0 +1,180 @@
+package com.detonomics.budgettuner.dao;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.detonomics.budgettuner.util.DatabaseManager;
+
+/**
+ * Keep a budget's stored totals in step with its detail rows by applying
+ * deltas instead of re-summing whole tables: expense category and ministry
+ * totals follow their ministry expense lines, and the budget's revenue,
+ * expenditure and balance follow the top-level revenues and the ministries.
+ *
+ * <p>
+ * In verification mode every journal is cross-checked against a full
+ * recomputation. Totals taken from the source documents do not always equal
+ * the sum of their rows, so the check compares each total's difference from
+ * its recomputed value before and after the edit; an exact delta leaves that
+ * difference unchanged. A mismatch throws {@link IllegalStateException}, which
+ * rolls back the surrounding transaction. Enable it with the
+ * {@value #VERIFY_PROPERTY} system property.
+ * </p>
+ */
+public final class AggregateMaintainer {
+
+    /** System property that turns on verification mode. */
+    public static final String VERIFY_PROPERTY = "budgettuner.aggregates.verify";
+
+    private final DatabaseManager dbManager;
+    private final BudgetYearDao budgetYearDao;
+    private final ExpenseCategoryDao expenseCategoryDao;
+    private final MinistryDao ministryDao;
+    private final boolean verify;
+
+    /**
+     * Initialize with the DAOs that own the aggregate columns, verifying only
+     * if {@value #VERIFY_PROPERTY} is set.
+     *
+     * @param dbManager          Database accessor
+     * @param budgetYearDao      DAO for budget totals
+     * @param expenseCategoryDao DAO for expense category totals
+     * @param ministryDao        DAO for ministry totals
+     */
+    public AggregateMaintainer(final DatabaseManager dbManager, final BudgetYearDao budgetYearDao,
+            final ExpenseCategoryDao expenseCategoryDao, final MinistryDao ministryDao) {
+        this(dbManager, budgetYearDao, expenseCategoryDao, ministryDao, Boolean.getBoolean(VERIFY_PROPERTY));
+    }
+
+    /**
+     * Initialize with the DAOs that own the aggregate columns.
+     *
+     * @param dbManager          Database accessor
+     * @param budgetYearDao      DAO for budget totals
+     * @param expenseCategoryDao DAO for expense category totals
+     * @param ministryDao        DAO for ministry totals
+     * @param verify             Cross-check every journal against a full
+     *                           recomputation
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
+    public AggregateMaintainer(final DatabaseManager dbManager, final BudgetYearDao budgetYearDao,
+            final ExpenseCategoryDao expenseCategoryDao, final MinistryDao ministryDao, final boolean verify) {
+        this.dbManager = dbManager;
+        this.budgetYearDao = budgetYearDao;
+        this.expenseCategoryDao = expenseCategoryDao;
+        this.ministryDao = ministryDao;
+        this.verify = verify;
+    }
+
+    /**
+     * Check whether journals are cross-checked against a full recomputation.
+     *
+     * @return True in verification mode
+     */
+    public boolean isVerifying() {
+        return verify;
+    }
+
+    /**
+     * Start collecting deltas for a budget. Must be called inside the write
+     * transaction, before any detail row is changed.
+     *
+     * @param conn     Active write transaction
+     * @param budgetID Budget about to be edited
+     * @return Empty journal
+     */
+    public AggregateJournal begin(final Connection conn, final int budgetID) {
+        return new AggregateJournal(budgetID, verify ? drift(conn, budgetID) : null);
+    }
+
+    /**
+     * Fold a journal into the stored totals: one batched UPDATE per table for
+     * the rows that changed and a single UPDATE of the budget row.
+     *
+     * @param conn    Active write transaction the journal was begun in
+     * @param journal Deltas of the edit
+     * @throws IllegalStateException In verification mode, if a total no longer
+     *                               matches its recomputed value
+     */
+    public void apply(final Connection conn, final AggregateJournal journal) {
+        AggregateJournal.IdDeltas categories = journal.getCategoryDeltas();
+        expenseCategoryDao.addAmountsToCategories(conn, categories.ids(), categories.deltas());
+        AggregateJournal.IdDeltas ministries = journal.getMinistryDeltas();
+        ministryDao.addAmountsToMinistries(conn, ministries.ids(), ministries.deltas());
+        if (journal.getRevenueDelta() != 0 || journal.getExpenseDelta() != 0) {
+            budgetYearDao.addToTotals(conn, journal.getBudgetID(), journal.getRevenueDelta(),
+                    journal.getExpenseDelta());
+        }
+        if (journal.getBaseline() != null) {
+            List<String> mismatches = compare(journal.getBaseline(), drift(conn, journal.getBudgetID()));
+            if (!mismatches.isEmpty()) {
+                throw new IllegalStateException("Aggregate verification failed for budget "
+                        + journal.getBudgetID() + ": " + String.join("; ", mismatches));
+            }
+        }
+    }
+
+    /**
+     * Recompute every total of a budget from its rows and report how far each
+     * stored total is from the recomputed value.
+     *
+     * @param conn     Active database connection
+     * @param budgetID Target budget ID
+     * @return Stored minus recomputed value per total, keyed by table and row;
+     *         null where the stored total is null
+     */
+    public Map<String, Long> drift(final Connection conn, final int budgetID) {
+        Map<String, Long> drift = new LinkedHashMap<>();
+        dbManager.extract(conn, "SELECT total_revenue - (SELECT COALESCE(SUM(amount), 0) "
+                + "FROM RevenueCategories WHERE budget_id = b.budget_id AND (parent_id = 0 OR parent_id IS NULL)), "
+                + "total_expenses - (SELECT COALESCE(SUM(total_budget), 0) FROM Ministries "
+                + "WHERE budget_id = b.budget_id), budget_result - (total_revenue - total_expenses) "
+                + "FROM Budgets b WHERE budget_id = ?", rs -> {
+                    while (rs.next()) {
+                        drift.put("Budgets.total_revenue", longOrNull(rs.getObject(1)));
+                        drift.put("Budgets.total_expenses", longOrNull(rs.getObject(2)));
+                        drift.put("Budgets.budget_result", longOrNull(rs.getObject(3)));
+                    }
+                    return null;
+                }, budgetID);
+        dbManager.extract(conn, "SELECT m.ministry_id, m.total_budget - COALESCE(s.total, 0), "
+                + "m.regular_budget - COALESCE(s.total, 0) FROM Ministries m LEFT JOIN "
+                + "(SELECT ministry_id, SUM(amount) AS total FROM MinistryExpenses WHERE ministry_id IN "
+                + "(SELECT ministry_id FROM Ministries WHERE budget_id = ?) GROUP BY ministry_id) s "
+                + "ON s.ministry_id = m.ministry_id WHERE m.budget_id = ?", rs -> {
+                    while (rs.next()) {
+                        drift.put("Ministries.total_budget#" + rs.getInt(1), longOrNull(rs.getObject(2)));
+                        drift.put("Ministries.regular_budget#" + rs.getInt(1), longOrNull(rs.getObject(3)));
+                    }
+                    return null;
+                }, budgetID, budgetID);
+        dbManager.extract(conn, "SELECT ec.expense_category_id, ec.amount - (SELECT COALESCE(SUM(me.amount), 0) "
+                + "FROM MinistryExpenses me WHERE me.expense_category_id = ec.expense_category_id) "
+                + "FROM ExpenseCategories ec WHERE ec.budget_id = ?", rs -> {
+                    while (rs.next()) {
+                        drift.put("ExpenseCategories.amount#" + rs.getInt(1), longOrNull(rs.getObject(2)));
+                    }
+                    return null;
+                }, budgetID);
+        return drift;
+    }
+
+    private static List<String> compare(final Map<String, Long> before, final Map<String, Long> after) {
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : after.entrySet()) {
+            Long expected = before.get(entry.getKey());
+            if (!Objects.equals(expected, entry.getValue())) {
+                mismatches.add(entry.getKey() + " off by " + entry.getValue() + " instead of " + expected);
+            }
+        }
+        return mismatches;
+    }
+
+    private static Long longOrNull(final Object value) {
+        return value == null ? null : Math.round(((Number) value).doubleValue());
+    }
+}
@@ -0,0 +1,611 @@
+package com.detonomics.budgettuner.dao;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.MinistryExpense;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.util.LongIntMap;
+
+/**
+ * Immutable, read-optimized copy of every stored budget for cross-year
+ * analytics.
+ *
+ * <p>
+ * Each table is held as primitive columns indexed by row. Rows are grouped by
+ * budget, so the rows of budget {@code b} in a table are
+ * {@code firstRow(type, b)} up to {@code endRow(type, b)}. Names are
+ * dictionary-encoded into one shared string table, and every budget has a
+ * code to row index per table. Budgets are addressed by their position
+ * ({@code budgetRow}), found from the primary key with {@link #budgetRow}.
+ * </p>
+ *
+ * <p>
+ * For {@link AnalysisType#MINISTRY} the amount column is the ministry's total
+ * budget.
+ * </p>
+ */
+public final class BudgetSnapshot {
+
+    private final int[] budgetIDs;
+    private final int[] years;
+    private final String[] titles;
+    private final long[] totalRevenues;
+    private final long[] totalExpenses;
+    private final long[] budgetResults;
+    private final LongIntMap budgetRows;
+
+    private final Table revenues;
+    private final Table expenses;
+    private final Table ministries;
+
+    private final int[] lineStart;
+    private final int[] lineMinistryRows;
+    private final int[] lineCategoryRows;
+    private final long[] lineAmounts;
+
+    private final String[] dictionary;
+
+    /** One table's columns, grouped by budget row. */
+    private static final class Table {
+        private final int[] start;
+        private final int[] ids;
+        private final long[] codes;
+        private final long[] amounts;
+        private final int[] names;
+        private final int[] parentRows;
+        private final LongIntMap[] codeIndex;
+
+        private Table(final int[] start, final int[] ids, final long[] codes, final long[] amounts,
+                final int[] names, final int[] parentRows) {
+            this.start = start;
+            this.ids = ids;
+            this.codes = codes;
+            this.amounts = amounts;
+            this.names = names;
+            this.parentRows = parentRows;
+            this.codeIndex = new LongIntMap[start.length - 1];
+            for (int b = 0; b < codeIndex.length; b++) {
+                codeIndex[b] = new LongIntMap(start[b + 1] - start[b]);
+                for (int row = start[b]; row < start[b + 1]; row++) {
+                    codeIndex[b].putIfAbsent(codes[row], row);
+                }
+            }
+        }
+    }
+
+    private BudgetSnapshot(final Builder builder) {
+        int budgetCount = builder.budgetCount;
+        budgetIDs = Arrays.copyOf(builder.budgetIDs, budgetCount);
+        years = Arrays.copyOf(builder.years, budgetCount);
+        titles = Arrays.copyOf(builder.titles, budgetCount);
+        totalRevenues = Arrays.copyOf(builder.totalRevenues, budgetCount);
+        totalExpenses = Arrays.copyOf(builder.totalExpenses, budgetCount);
+        budgetResults = Arrays.copyOf(builder.budgetResults, budgetCount);
+        budgetRows = builder.budgetRows;
+
+        revenues = builder.revenues.build(budgetCount, true);
+        expenses = builder.expenses.build(budgetCount, false);
+        ministries = builder.ministries.build(budgetCount, false);
+
+        // Lines reference ministries and categories by primary key; resolve
+        // them to rows and group them under the ministry's budget.
+        LongIntMap ministryRows = rowsByID(ministries);
+        LongIntMap categoryRows = rowsByID(expenses);
+        int lineCount = builder.lineCount;
+        int[] ministryRowOf = new int[lineCount];
+        int[] categoryRowOf = new int[lineCount];
+        int[] budgetOf = new int[lineCount];
+        int[] counts = new int[budgetCount + 1];
+        for (int i = 0; i < lineCount; i++) {
+            ministryRowOf[i] = ministryRows.getOrDefault(builder.lineMinistryIDs[i], -1);
+            categoryRowOf[i] = categoryRows.getOrDefault(builder.lineCategoryIDs[i], -1);
+            budgetOf[i] = ministryRowOf[i] < 0 ? -1 : budgetOfRow(ministries, ministryRowOf[i]);
+            if (budgetOf[i] >= 0) {
+                counts[budgetOf[i] + 1]++;
+            }
+        }
+        lineStart = new int[budgetCount + 1];
+        for (int b = 0; b < budgetCount; b++) {
+            lineStart[b + 1] = lineStart[b] + counts[b + 1];
+        }
+        int kept = lineStart[budgetCount];
+        lineMinistryRows = new int[kept];
+        lineCategoryRows = new int[kept];
+        lineAmounts = new long[kept];
+        int[] next = Arrays.copyOf(lineStart, budgetCount);
+        for (int i = 0; i < lineCount; i++) {
+            if (budgetOf[i] >= 0) {
+                int row = next[budgetOf[i]]++;
+                lineMinistryRows[row] = ministryRowOf[i];
+                lineCategoryRows[row] = categoryRowOf[i];
+                lineAmounts[row] = builder.lineAmounts[i];
+            }
+        }
+
+        dictionary = new String[builder.dictionary.size()];
+        for (Map.Entry<String, Integer> entry : builder.dictionary.entrySet()) {
+            dictionary[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    private static LongIntMap rowsByID(final Table table) {
+        LongIntMap rows = new LongIntMap(table.ids.length);
+        for (int row = 0; row < table.ids.length; row++) {
+            rows.put(table.ids[row], row);
+        }
+        return rows;
+    }
+
+    private static int budgetOfRow(final Table table, final int row) {
+        int b = Arrays.binarySearch(table.start, row);
+        if (b < 0) {
+            return -b - 2;
+        }
+        // Skip budgets without rows, which share a start offset.
+        while (table.start[b + 1] == row) {
+            b++;
+        }
+        return b;
+    }
+
+    /**
+     * Build a snapshot from budgets already loaded as objects.
+     *
+     * @param budgets Budgets to include, in the order they should be numbered
+     * @return Snapshot of the given budgets
+     */
+    public static BudgetSnapshot of(final List<BudgetYear> budgets) {
+        Builder builder = new Builder();
+        for (BudgetYear budget : budgets) {
+            Summary s = budget.getSummary();
+            builder.addBudget(s.getBudgetID(), s.getBudgetYear(), s.getSourceTitle(), s.getTotalRevenues(),
+                    s.getTotalExpenses(), s.getBudgetResult());
+        }
+        for (BudgetYear budget : budgets) {
+            int budgetID = budget.getSummary().getBudgetID();
+            for (RevenueCategory r : budget.getRevenues()) {
+                builder.addRevenue(budgetID, r.getRevenueID(), r.getCode(), r.getName(), r.getAmount(),
+                        r.getParentID());
+            }
+            for (ExpenseCategory e : budget.getExpenses()) {
+                builder.addExpense(budgetID, e.getExpenseID(), e.getCode(), e.getName(), e.getAmount());
+            }
+            for (Ministry m : budget.getMinistries()) {
+                builder.addMinistry(budgetID, m.getMinistryID(), m.getCode(), m.getName(), m.getTotalBudget());
+            }
+            for (MinistryExpense me : budget.getMinistryExpenses()) {
+                builder.addMinistryExpense(me.getMinistryID(), me.getExpenseCategoryID(), me.getAmount());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Count the budgets in the snapshot.
+     *
+     * @return Number of budgets
+     */
+    public int budgetCount() {
+        return budgetIDs.length;
+    }
+
+    /**
+     * Find the position of a budget.
+     *
+     * @param budgetID Internal budget ID
+     * @return Budget row, or -1 if the budget is not in the snapshot
+     */
+    public int budgetRow(final int budgetID) {
+        return budgetRows.getOrDefault(budgetID, -1);
+    }
+
+    /**
+     * Get the primary key of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Internal budget ID
+     */
+    public int budgetID(final int budgetRow) {
+        return budgetIDs[budgetRow];
+    }
+
+    /**
+     * Get the fiscal year of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Fiscal year
+     */
+    public int year(final int budgetRow) {
+        return years[budgetRow];
+    }
+
+    /**
+     * Get the source title of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Source document title
+     */
+    public String title(final int budgetRow) {
+        return titles[budgetRow];
+    }
+
+    /**
+     * Get the stored total revenue of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Total revenue
+     */
+    public long totalRevenue(final int budgetRow) {
+        return totalRevenues[budgetRow];
+    }
+
+    /**
+     * Get the stored total expenses of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Total expenses
+     */
+    public long totalExpenses(final int budgetRow) {
+        return totalExpenses[budgetRow];
+    }
+
+    /**
+     * Get the stored balance of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Revenue minus expenses
+     */
+    public long budgetResult(final int budgetRow) {
+        return budgetResults[budgetRow];
+    }
+
+    /**
+     * Get the first row of a budget in a table.
+     *
+     * @param type      Table to read
+     * @param budgetRow Budget position
+     * @return First row index
+     */
+    public int firstRow(final AnalysisType type, final int budgetRow) {
+        return table(type).start[budgetRow];
+    }
+
+    /**
+     * Get the row after the last row of a budget in a table.
+     *
+     * @param type      Table to read
+     * @param budgetRow Budget position
+     * @return Exclusive end row index
+     */
+    public int endRow(final AnalysisType type, final int budgetRow) {
+        return table(type).start[budgetRow + 1];
+    }
+
+    /**
+     * Find the row holding a code within one budget.
+     *
+     * @param type      Table to search
+     * @param budgetRow Budget position
+     * @param code      Category or ministry code
+     * @return Row index, or -1 if the budget has no such code
+     */
+    public int rowOf(final AnalysisType type, final int budgetRow, final long code) {
+        return table(type).codeIndex[budgetRow].getOrDefault(code, -1);
+    }
+
+    /**
+     * Get the primary key of a row.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return Internal ID
+     */
+    public int id(final AnalysisType type, final int row) {
+        return table(type).ids[row];
+    }
+
+    /**
+     * Get the code of a row.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return Category or ministry code
+     */
+    public long code(final AnalysisType type, final int row) {
+        return table(type).codes[row];
+    }
+
+    /**
+     * Get the amount of a row.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return Amount; the total budget for ministries
+     */
+    public long amount(final AnalysisType type, final int row) {
+        return table(type).amounts[row];
+    }
+
+    /**
+     * Get the dictionary entry of a row's name, for comparing names without
+     * comparing strings.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return Dictionary index
+     */
+    public int nameID(final AnalysisType type, final int row) {
+        return table(type).names[row];
+    }
+
+    /**
+     * Get the name of a row.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return Display name
+     */
+    public String name(final AnalysisType type, final int row) {
+        return dictionary[table(type).names[row]];
+    }
+
+    /**
+     * Check whether a row has no parent. Only revenue categories form a
+     * hierarchy; every expense category and ministry is top-level.
+     *
+     * @param type Table to read
+     * @param row  Row index
+     * @return True for top-level rows
+     */
+    public boolean isTopLevel(final AnalysisType type, final int row) {
+        int[] parents = table(type).parentRows;
+        return parents == null || parents[row] == -1;
+    }
+
+    /**
+     * Get the parent of a revenue category.
+     *
+     * @param row Revenue row index
+     * @return Parent row, -1 for top-level categories, or -2 if the parent is
+     *         not part of the same budget
+     */
+    public int parentRow(final int row) {
+        return revenues.parentRows[row];
+    }
+
+    /**
+     * Get the first ministry expense line of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return First line index
+     */
+    public int firstLine(final int budgetRow) {
+        return lineStart[budgetRow];
+    }
+
+    /**
+     * Get the line after the last ministry expense line of a budget.
+     *
+     * @param budgetRow Budget position
+     * @return Exclusive end line index
+     */
+    public int endLine(final int budgetRow) {
+        return lineStart[budgetRow + 1];
+    }
+
+    /**
+     * Get the ministry of a ministry expense line.
+     *
+     * @param line Line index
+     * @return Ministry row index
+     */
+    public int lineMinistryRow(final int line) {
+        return lineMinistryRows[line];
+    }
+
+    /**
+     * Get the expense category of a ministry expense line.
+     *
+     * @param line Line index
+     * @return Expense category row index, or -1 if it is not in the snapshot
+     */
+    public int lineCategoryRow(final int line) {
+        return lineCategoryRows[line];
+    }
+
+    /**
+     * Get the amount of a ministry expense line.
+     *
+     * @param line Line index
+     * @return Amount
+     */
+    public long lineAmount(final int line) {
+        return lineAmounts[line];
+    }
+
+    /**
+     * Count the distinct names across all tables.
+     *
+     * @return Dictionary size
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    private Table table(final AnalysisType type) {
+        return switch (type) {
+            case REVENUE -> revenues;
+            case EXPENSE -> expenses;
+            case MINISTRY -> ministries;
+        };
+    }
+
+    /**
+     * Accumulates rows in any order; detail rows of budgets that were not
+     * added are dropped.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] budgetIDs = new int[INITIAL_CAPACITY];
+        private int[] years = new int[INITIAL_CAPACITY];
+        private String[] titles = new String[INITIAL_CAPACITY];
+        private long[] totalRevenues = new long[INITIAL_CAPACITY];
+        private long[] totalExpenses = new long[INITIAL_CAPACITY];
+        private long[] budgetResults = new long[INITIAL_CAPACITY];
+        private int budgetCount;
+        private final LongIntMap budgetRows = new LongIntMap(INITIAL_CAPACITY);
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final TableBuilder revenues = new TableBuilder();
+        private final TableBuilder expenses = new TableBuilder();
+        private final TableBuilder ministries = new TableBuilder();
+
+        private int[] lineMinistryIDs = new int[INITIAL_CAPACITY];
+        private int[] lineCategoryIDs = new int[INITIAL_CAPACITY];
+        private long[] lineAmounts = new long[INITIAL_CAPACITY];
+        private int lineCount;
+
+        void addBudget(final int budgetID, final int year, final String title, final long totalRevenue,
+                final long totalExpense, final long budgetResult) {
+            if (!budgetRows.putIfAbsent(budgetID, budgetCount)) {
+                return;
+            }
+            if (budgetCount == budgetIDs.length) {
+                int capacity = budgetCount * 2;
+                budgetIDs = Arrays.copyOf(budgetIDs, capacity);
+                years = Arrays.copyOf(years, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                totalRevenues = Arrays.copyOf(totalRevenues, capacity);
+                totalExpenses = Arrays.copyOf(totalExpenses, capacity);
+                budgetResults = Arrays.copyOf(budgetResults, capacity);
+            }
+            budgetIDs[budgetCount] = budgetID;
+            years[budgetCount] = year;
+            titles[budgetCount] = title;
+            totalRevenues[budgetCount] = totalRevenue;
+            totalExpenses[budgetCount] = totalExpense;
+            budgetResults[budgetCount] = budgetResult;
+            budgetCount++;
+        }
+
+        void addRevenue(final int budgetID, final int id, final long code, final String name, final long amount,
+                final int parentID) {
+            revenues.add(budgetRows.getOrDefault(budgetID, -1), id, code, encode(name), amount, parentID);
+        }
+
+        void addExpense(final int budgetID, final int id, final long code, final String name, final long amount) {
+            expenses.add(budgetRows.getOrDefault(budgetID, -1), id, code, encode(name), amount, 0);
+        }
+
+        void addMinistry(final int budgetID, final int id, final long code, final String name,
+                final long totalBudget) {
+            ministries.add(budgetRows.getOrDefault(budgetID, -1), id, code, encode(name), totalBudget, 0);
+        }
+
+        void addMinistryExpense(final int ministryID, final int expenseCategoryID, final long amount) {
+            if (lineCount == lineAmounts.length) {
+                lineMinistryIDs = Arrays.copyOf(lineMinistryIDs, lineCount * 2);
+                lineCategoryIDs = Arrays.copyOf(lineCategoryIDs, lineCount * 2);
+                lineAmounts = Arrays.copyOf(lineAmounts, lineCount * 2);
+            }
+            lineMinistryIDs[lineCount] = ministryID;
+            lineCategoryIDs[lineCount] = expenseCategoryID;
+            lineAmounts[lineCount] = amount;
+            lineCount++;
+        }
+
+        BudgetSnapshot build() {
+            return new BudgetSnapshot(this);
+        }
+
+        private int encode(final String name) {
+            return dictionary.computeIfAbsent(name == null ? "" : name, key -> dictionary.size());
+        }
+    }
+
+    /** Growable columns of one table before they are grouped by budget. */
+    private static final class TableBuilder {
+        private int[] budgets = new int[Builder.INITIAL_CAPACITY];
+        private int[] ids = new int[Builder.INITIAL_CAPACITY];
+        private long[] codes = new long[Builder.INITIAL_CAPACITY];
+        private long[] amounts = new long[Builder.INITIAL_CAPACITY];
+        private int[] names = new int[Builder.INITIAL_CAPACITY];
+        private int[] parentIDs = new int[Builder.INITIAL_CAPACITY];
+        private int count;
+
+        void add(final int budgetRow, final int id, final long code, final int name, final long amount,
+                final int parentID) {
+            if (budgetRow < 0) {
+                return;
+            }
+            if (count == ids.length) {
+                int capacity = count * 2;
+                budgets = Arrays.copyOf(budgets, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                names = Arrays.copyOf(names, capacity);
+                parentIDs = Arrays.copyOf(parentIDs, capacity);
+            }
+            budgets[count] = budgetRow;
+            ids[count] = id;
+            codes[count] = code;
+            amounts[count] = amount;
+            names[count] = name;
+            parentIDs[count] = parentID;
+            count++;
+        }
+
+        /*
+         * Stable counting sort by budget row, so rows keep their input order
+         * within each budget.
+         */
+        Table build(final int budgetCount, final boolean hierarchical) {
+            int[] start = new int[budgetCount + 1];
+            for (int i = 0; i < count; i++) {
+                start[budgets[i] + 1]++;
+            }
+            for (int b = 0; b < budgetCount; b++) {
+                start[b + 1] += start[b];
+            }
+            int[] next = Arrays.copyOf(start, budgetCount);
+            int[] sortedIDs = new int[count];
+            long[] sortedCodes = new long[count];
+            long[] sortedAmounts = new long[count];
+            int[] sortedNames = new int[count];
+            int[] sortedParentIDs = new int[count];
+            for (int i = 0; i < count; i++) {
+                int row = next[budgets[i]]++;
+                sortedIDs[row] = ids[i];
+                sortedCodes[row] = codes[i];
+                sortedAmounts[row] = amounts[i];
+                sortedNames[row] = names[i];
+                sortedParentIDs[row] = parentIDs[i];
+            }
+            int[] parentRows = null;
+            if (hierarchical) {
+                parentRows = new int[count];
+                for (int b = 0; b < budgetCount; b++) {
+                    LongIntMap rowsByID = new LongIntMap(start[b + 1] - start[b]);
+                    for (int row = start[b]; row < start[b + 1]; row++) {
+                        rowsByID.put(sortedIDs[row], row);
+                    }
+                    for (int row = start[b]; row < start[b + 1]; row++) {
+                        parentRows[row] = sortedParentIDs[row] == 0 ? -1
+                                : rowsByID.getOrDefault(sortedParentIDs[row], -2);
+                    }
+                }
+            }
+            return new Table(start, sortedIDs, sortedCodes, sortedAmounts, sortedNames, parentRows);
+        }
+    }
+}
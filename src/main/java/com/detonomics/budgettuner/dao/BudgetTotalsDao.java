@@ -1,17 +1,26 @@
 package com.detonomics.budgettuner.dao;
 
-import java.util.Comparator;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 import com.detonomics.budgettuner.model.BudgetTotals;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Determine annual budget totals from the database.
  */
 public class BudgetTotalsDao {
 
+        private static final String SELECT_ALL = "SELECT budget_year, total_revenue, "
+                        + "total_expenses, budget_result "
+                        + "FROM Budgets ORDER BY budget_year ASC";
+
+        private static final RowMapper<BudgetTotals> TOTALS_MAPPER = (rs, rowNum) -> mapRowToBudgetTotals(rs);
+
         private final DatabaseManager dbManager;
 
         /**
@@ -29,37 +38,72 @@ public class BudgetTotalsDao {
          * @return List of summarized budget totals
          */
         public List<BudgetTotals> loadAllBudgetTotals() {
-                final String sql = "SELECT budget_year, total_revenue, "
-                                + "total_expenses, budget_result "
-                                + "FROM Budgets ORDER BY budget_year ASC";
-
-                final List<Map<String, Object>> results = dbManager.executeQuery(sql);
+                try (Stream<BudgetTotals> totals = streamAllBudgetTotals()) {
+                        return totals.toList();
+                }
+        }
 
-                return results.stream()
-                                .map(this::mapRowToBudgetTotals)
-                                .sorted(Comparator.comparingInt(
-                                                BudgetTotals::year))
-                                .toList();
+        /**
+         * Stream financial totals for all stored budget years in chronological
+         * order without buffering them. The stream holds a database connection
+         * and must be closed.
+         *
+         * @return Stream of budget totals ordered by year
+         */
+        public Stream<BudgetTotals> streamAllBudgetTotals() {
+                return dbManager.stream(SELECT_ALL, DatabaseManager.DEFAULT_FETCH_SIZE, TOTALS_MAPPER);
         }
 
-        private BudgetTotals mapRowToBudgetTotals(
-                        final Map<String, Object> row) {
-                final int year = ((Number) row.get("budget_year")).intValue();
+        /**
+         * Read every budget into a columnar snapshot, all tables from one read
+         * transaction so the snapshot is consistent with itself.
+         *
+         * @return Snapshot of all stored budgets
+         */
+        public BudgetSnapshot loadSnapshot() {
+                try {
+                        return dbManager.inReadTransaction(this::loadSnapshot);
+                } catch (SQLException e) {
+                        throw new RuntimeException("Failed to load budget snapshot", e);
+                }
+        }
 
-                final double totalRevenues = row.get("total_revenue") == null
-                                ? 0.0
-                                : ((Number) row.get("total_revenue"))
-                                                .doubleValue();
+        private BudgetSnapshot loadSnapshot(final Connection conn) {
+                final BudgetSnapshot.Builder builder = new BudgetSnapshot.Builder();
+                final int fetchSize = DatabaseManager.DEFAULT_FETCH_SIZE;
+                // Budget balance is derived as in SummaryDao; NULL amounts read as 0.
+                dbManager.forEachRow(conn, "SELECT budget_id, budget_year, source_title, total_revenue, "
+                                + "total_expenses FROM Budgets ORDER BY budget_year, budget_id", fetchSize,
+                                rs -> builder.addBudget(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getLong(4),
+                                                rs.getLong(5), rs.getLong(4) - rs.getLong(5)));
+                dbManager.forEachRow(conn, "SELECT budget_id, revenue_category_id, code, name, amount, parent_id "
+                                + "FROM RevenueCategories ORDER BY revenue_category_id", fetchSize,
+                                rs -> builder.addRevenue(rs.getInt(1), rs.getInt(2), Long.parseLong(rs.getString(3)),
+                                                rs.getString(4), rs.getLong(5), rs.getInt(6)));
+                dbManager.forEachRow(conn, "SELECT budget_id, expense_category_id, code, name, amount "
+                                + "FROM ExpenseCategories ORDER BY expense_category_id", fetchSize,
+                                rs -> builder.addExpense(rs.getInt(1), rs.getInt(2), Long.parseLong(rs.getString(3)),
+                                                rs.getString(4), rs.getLong(5)));
+                dbManager.forEachRow(conn, "SELECT budget_id, ministry_id, code, name, total_budget "
+                                + "FROM Ministries ORDER BY ministry_id", fetchSize,
+                                rs -> builder.addMinistry(rs.getInt(1), rs.getInt(2), Long.parseLong(rs.getString(3)),
+                                                rs.getString(4), rs.getLong(5)));
+                dbManager.forEachRow(conn, "SELECT ministry_id, expense_category_id, amount "
+                                + "FROM MinistryExpenses ORDER BY ministry_expense_id", fetchSize,
+                                rs -> builder.addMinistryExpense(rs.getInt(1), rs.getInt(2), rs.getLong(3)));
+                return builder.build();
+        }
 
-                final double totalExpenses = row.get("total_expenses") == null
-                                ? 0.0
-                                : ((Number) row.get("total_expenses"))
-                                                .doubleValue();
+        private static BudgetTotals mapRowToBudgetTotals(final ResultSet rs)
+                        throws SQLException {
+                final int year = rs.getInt(1);
+                final double totalRevenues = rs.getDouble(2);
+                final double totalExpenses = rs.getDouble(3);
 
-                final double budgetResult = row.get("budget_result") == null
-                                ? (totalRevenues - totalExpenses)
-                                : ((Number) row.get("budget_result"))
-                                                .doubleValue();
+                double budgetResult = rs.getDouble(4);
+                if (rs.wasNull()) {
+                        budgetResult = totalRevenues - totalExpenses;
+                }
 
                 return new BudgetTotals(year, totalRevenues,
                                 totalExpenses, budgetResult);
@@ -2,6 +2,7 @@ package com.detonomics.budgettuner.dao;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -91,16 +92,55 @@ public class BudgetYearDao {
          * @return Composed BudgetYear object
          */
         public BudgetYear loadBudgetYear(final int budgetID) {
-                final Summary summary = summaryDao.loadSummary(budgetID);
-                if (summary == null) {
-                        return null;
+                return loadBudgetYearsByID(List.of(budgetID)).get(budgetID);
+        }
+
+        /**
+         * Reconstruct several budget years over one connection and one read
+         * transaction, so every budget reflects the same database snapshot. Each
+         * table is read once with an {@code IN (...)} query covering all requested
+         * budgets.
+         *
+         * @param budgetIDs Target budget IDs
+         * @return Composed BudgetYear objects keyed by ID, in request order;
+         *         unknown IDs are absent
+         */
+        public Map<Integer, BudgetYear> loadBudgetYearsByID(final List<Integer> budgetIDs) {
+                final List<Integer> ids = budgetIDs.stream().distinct().toList();
+                if (ids.isEmpty()) {
+                        return new LinkedHashMap<>();
+                }
+                try {
+                        return dbManager.inReadTransaction(conn -> loadBudgetYears(conn, ids));
+                } catch (java.sql.SQLException e) {
+                        throw new RuntimeException("Failed to load budgets with IDs: " + ids, e);
+                }
+        }
+
+        private Map<Integer, BudgetYear> loadBudgetYears(final Connection conn, final List<Integer> ids) {
+                final Map<Integer, BudgetYear> budgets = new LinkedHashMap<>();
+                final Map<Integer, Summary> summaries = summaryDao.loadSummaries(conn, ids);
+                if (summaries.isEmpty()) {
+                        return budgets;
                 }
-                final ArrayList<RevenueCategory> revenues = revenueCategoryDao.loadRevenues(budgetID);
-                final ArrayList<ExpenseCategory> expenses = expenseCategoryDao.loadExpenses(budgetID);
-                final ArrayList<Ministry> ministries = ministryDao.loadMinistries(budgetID);
-                final ArrayList<MinistryExpense> ministryExpenses = ministryExpenseDao.loadMinistryExpenses(budgetID);
+                final Map<Integer, ArrayList<RevenueCategory>> revenues = revenueCategoryDao.loadRevenues(conn, ids);
+                final Map<Integer, ArrayList<ExpenseCategory>> expenses = expenseCategoryDao.loadExpenses(conn, ids);
+                final Map<Integer, ArrayList<Ministry>> ministries = ministryDao.loadMinistries(conn, ids);
+                final Map<Integer, ArrayList<MinistryExpense>> ministryExpenses = ministryExpenseDao
+                                .loadMinistryExpenses(conn, ids);
 
-                return new BudgetYear(summary, revenues, expenses, ministries, ministryExpenses);
+                for (Integer id : ids) {
+                        final Summary summary = summaries.get(id);
+                        if (summary == null) {
+                                continue;
+                        }
+                        budgets.put(id, new BudgetYear(summary,
+                                        revenues.getOrDefault(id, new ArrayList<>()),
+                                        expenses.getOrDefault(id, new ArrayList<>()),
+                                        ministries.getOrDefault(id, new ArrayList<>()),
+                                        ministryExpenses.getOrDefault(id, new ArrayList<>())));
+                }
+                return budgets;
         }
 
         /**
@@ -122,17 +162,14 @@ public class BudgetYearDao {
          * Import a new budget year by parsing an external PDF document.
          *
          * @param pdfPath Filesystem path to the source PDF
+         * @param force   Re-run every pipeline stage even if its output is cached
          * @param logger  Callback for real-time status updates
          * @throws Exception If the ingestion pipeline fails
          */
-        public void insertNewBudgetYear(final String pdfPath, final java.util.function.Consumer<String> logger)
-                        throws Exception {
-                final IngestBudgetPdf ingestor = new IngestBudgetPdf();
-                ingestor.process(pdfPath,
-                                new com.detonomics.budgettuner.util.ingestion.PdfToText(),
-                                new com.detonomics.budgettuner.util.ingestion.TextToJson(),
-                                new com.detonomics.budgettuner.util.ingestion.JsonToSQLite(),
-                                logger);
+        public void insertNewBudgetYear(final String pdfPath, final boolean force,
+                        final java.util.function.Consumer<String> logger) throws Exception {
+                // The pipeline classes are only loaded once a document is ingested.
+                new IngestBudgetPdf().process(pdfPath, force, logger);
         }
 
         /**
@@ -215,74 +252,44 @@ public class BudgetYearDao {
         }
 
         /**
-         * Clone an existing budget's summary into a new database record.
+         * Copy an existing budget's header row into a new record with a single
+         * INSERT ... SELECT.
          *
          * @param conn              Active database connection
-         * @param sourceBudget      Template budget year
+         * @param sourceBudgetID    Template budget ID
          * @param targetSourceTitle Descriptive title for the clone
          * @return Newly generated budget ID
          */
-        public int createBudget(final Connection conn, final BudgetYear sourceBudget, final String targetSourceTitle) {
+        public int cloneBudgetHeader(final Connection conn, final int sourceBudgetID, final String targetSourceTitle) {
                 String insertBudgetSql = "INSERT INTO Budgets (source_title, currency, locale, source_date, "
                                 + "budget_year, total_revenue, total_expenses, budget_result, "
-                                + "coverage_with_cash_reserves) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                dbManager.executeUpdate(conn, insertBudgetSql,
-                                targetSourceTitle,
-                                sourceBudget.getSummary().getCurrency(),
-                                sourceBudget.getSummary().getLocale(),
-                                sourceBudget.getSummary().getSourceDate(),
-                                sourceBudget.getSummary().getBudgetYear(),
-                                sourceBudget.getSummary().getTotalRevenues(),
-                                sourceBudget.getSummary().getTotalExpenses(),
-                                sourceBudget.getSummary().getBudgetResult(),
-                                sourceBudget.getSummary().getCoverageWithCashReserves());
-
-                List<Map<String, Object>> idRes = dbManager.executeQuery(conn, "SELECT last_insert_rowid() as id");
-                if (!idRes.isEmpty()) {
-                        return ((Number) idRes.get(0).get("id")).intValue();
-                }
-                throw new RuntimeException("Failed to retrieve new budget ID");
-        }
-
-        /**
-         * Compute the aggregate expenditures by summing individual ministry
-         * allocations.
-         *
-         * @param conn     Active database connection
-         * @param budgetID Target budget ID
-         * @return Sum of all ministry-level budgets
-         */
-        public long calculateTotalExpenses(final Connection conn, final int budgetID) {
-                String sql = "SELECT SUM(total_budget) as total FROM Ministries WHERE budget_id = ?";
-                List<Map<String, Object>> res = dbManager.executeQuery(conn, sql, budgetID);
-                if (!res.isEmpty() && res.get(0).get("total") != null) {
-                        return ((Number) res.get(0).get("total")).longValue();
+                                + "coverage_with_cash_reserves) SELECT ?, currency, locale, source_date, "
+                                + "budget_year, total_revenue, total_expenses, budget_result, "
+                                + "coverage_with_cash_reserves FROM Budgets WHERE budget_id = ?";
+                if (dbManager.executeUpdate(conn, insertBudgetSql, targetSourceTitle, sourceBudgetID) == 0) {
+                        throw new IllegalArgumentException("Source budget not found: " + sourceBudgetID);
                 }
-                return 0;
+                return dbManager.extract(conn, "SELECT last_insert_rowid()", rs -> {
+                        rs.next();
+                        return rs.getInt(1);
+                });
         }
 
         /**
-         * Persist the updated revenue total for a specific budget.
+         * Shift the stored revenue and expenditure totals by known amounts and
+         * move the budget balance with them, without re-summing the detail rows.
          *
          * @param conn         Active database connection
          * @param budgetID     Target budget ID
-         * @param totalRevenue New revenue ceiling
-         */
-        public void updateTotalRevenue(final Connection conn, final int budgetID, final long totalRevenue) {
-                String sql = "UPDATE Budgets SET total_revenue = ? WHERE budget_id = ?";
-                dbManager.executeUpdate(conn, sql, totalRevenue, budgetID);
-        }
-
-        /**
-         * Sync total expenses and automatically derive the new budget balance.
-         *
-         * @param conn          Active database connection
-         * @param budgetID      Target budget ID
-         * @param totalExpenses New expense ceiling
+         * @param revenueDelta Change in total revenue
+         * @param expenseDelta Change in total expenses
          */
-        public void updateTotalExpensesAndResult(final Connection conn, final int budgetID, final long totalExpenses) {
-                String sql = "UPDATE Budgets SET total_expenses = ?, budget_result = total_revenue - ? "
-                                + "WHERE budget_id = ?";
-                dbManager.executeUpdate(conn, sql, totalExpenses, totalExpenses, budgetID);
+        public void addToTotals(final Connection conn, final int budgetID, final long revenueDelta,
+                        final long expenseDelta) {
+                String sql = "UPDATE Budgets SET total_revenue = COALESCE(total_revenue, 0) + ?, "
+                                + "total_expenses = COALESCE(total_expenses, 0) + ?, "
+                                + "budget_result = COALESCE(budget_result, COALESCE(total_revenue, 0) "
+                                + "- COALESCE(total_expenses, 0)) + ? - ? WHERE budget_id = ?";
+                dbManager.executeUpdate(conn, sql, revenueDelta, expenseDelta, revenueDelta, expenseDelta, budgetID);
         }
 }
@@ -8,12 +8,18 @@ import java.util.Map;
 
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Manage expenditure categories and their funding levels.
  */
 public class ExpenseCategoryDao {
 
+    private static final String EXPENSE_COLUMNS = "expense_category_id, code, name, amount";
+
+    private static final RowMapper<ExpenseCategory> EXPENSE_MAPPER = (rs, rowNum) -> new ExpenseCategory(
+            rs.getInt(1), Long.parseLong(rs.getString(2)), rs.getString(3), rs.getLong(4));
+
     private final DatabaseManager dbManager;
 
     /**
@@ -32,27 +38,8 @@ public class ExpenseCategoryDao {
      * @return List of expense categories
      */
     public ArrayList<ExpenseCategory> loadExpenses(final int budgetID) {
-        ArrayList<ExpenseCategory> expenses = new ArrayList<>();
-
-        String sql = "SELECT * FROM ExpenseCategories WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(sql, budgetID);
-
-        if (results.isEmpty()) {
-            return expenses;
-        }
-
-        for (Map<String, Object> resultRow : results) {
-            Integer expenseCategoryID = (Integer) resultRow.get("expense_category_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-
-            Object amountObj = resultRow.get("amount");
-            long amount = (amountObj != null) ? ((Number) amountObj).longValue() : 0;
-
-            ExpenseCategory expense = new ExpenseCategory(expenseCategoryID, code, name, amount);
-            expenses.add(expense);
-        }
-        return expenses;
+        String sql = "SELECT " + EXPENSE_COLUMNS + " FROM ExpenseCategories WHERE budget_id = ?";
+        return dbManager.query(sql, EXPENSE_MAPPER, budgetID);
     }
 
     // Internal helper for use effectively within other transactions if needed
@@ -64,18 +51,27 @@ public class ExpenseCategoryDao {
      * @return List of expense categories
      */
     public ArrayList<ExpenseCategory> loadExpenses(final Connection conn, final int budgetID) {
-        ArrayList<ExpenseCategory> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM ExpenseCategories WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(conn, sql, budgetID);
-        for (Map<String, Object> resultRow : results) {
-            Integer expenseCategoryID = (Integer) resultRow.get("expense_category_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-            Object amountObj = resultRow.get("amount");
-            long amount = (amountObj != null) ? ((Number) amountObj).longValue() : 0;
-            expenses.add(new ExpenseCategory(expenseCategoryID, code, name, amount));
-        }
-        return expenses;
+        String sql = "SELECT " + EXPENSE_COLUMNS + " FROM ExpenseCategories WHERE budget_id = ?";
+        return dbManager.query(conn, sql, EXPENSE_MAPPER, budgetID);
+    }
+
+    /**
+     * Retrieve the expense categories of several budgets in one query.
+     *
+     * @param conn      Active database connection
+     * @param budgetIDs Target budget IDs
+     * @return Rows grouped by budget ID; budgets without rows are absent
+     */
+    public Map<Integer, ArrayList<ExpenseCategory>> loadExpenses(final Connection conn,
+            final List<Integer> budgetIDs) {
+        String sql = "SELECT " + EXPENSE_COLUMNS + ", budget_id FROM ExpenseCategories WHERE budget_id IN ("
+                + DatabaseManager.placeholders(budgetIDs.size()) + ") ORDER BY expense_category_id";
+        Map<Integer, ArrayList<ExpenseCategory>> byBudget = new HashMap<>();
+        dbManager.forEachRow(conn, sql, DatabaseManager.DEFAULT_FETCH_SIZE,
+                rs -> byBudget.computeIfAbsent(rs.getInt(5), id -> new ArrayList<>())
+                        .add(EXPENSE_MAPPER.mapRow(rs, 0)),
+                budgetIDs.toArray());
+        return byBudget;
     }
 
     /**
@@ -87,7 +83,7 @@ public class ExpenseCategoryDao {
      * @return Count of records updated
      */
     public int updateExpenseCategoryAmount(final int budgetId, final String expenseCode, final long newAmount) {
-        String sql = "UPDATE ExpenseCategories SET amount = ? WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
+        String sql = "UPDATE ExpenseCategories SET amount = ? WHERE budget_id = ? AND code_num = ?";
         return dbManager.executeUpdate(sql, newAmount, budgetId, expenseCode);
     }
 
@@ -102,7 +98,7 @@ public class ExpenseCategoryDao {
      */
     public int updateExpenseCategoryAmount(final Connection conn, final int budgetId, final String expenseCode,
             final long newAmount) {
-        String sql = "UPDATE ExpenseCategories SET amount = ? WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
+        String sql = "UPDATE ExpenseCategories SET amount = ? WHERE budget_id = ? AND code_num = ?";
         return dbManager.executeUpdate(conn, sql, newAmount, budgetId, expenseCode);
     }
 
@@ -118,28 +114,22 @@ public class ExpenseCategoryDao {
     }
 
     /**
-     * Duplicate expense classifications into a new budget context.
+     * Duplicate expense classifications into a new budget context with a single
+     * INSERT ... SELECT.
      *
      * @param conn           Active database connection
      * @param sourceBudgetID Baseline budget ID
      * @param newBudgetID    Target budget ID
-     * @return Mapping of old category IDs to their new identities
+     * @return Offset from each source category ID to its copy
      */
-    public Map<Integer, Integer> cloneExpenseCategories(final Connection conn, final int sourceBudgetID,
-            final int newBudgetID) {
-        Map<Integer, Integer> idMap = new HashMap<>(); // Old ID -> New ID
-        ArrayList<ExpenseCategory> sourceExpenses = loadExpenses(conn, sourceBudgetID);
-        String insertExpCatSql = "INSERT INTO ExpenseCategories (code, name, amount, budget_id) VALUES (?, ?, ?, ?)";
-
-        for (ExpenseCategory ec : sourceExpenses) {
-            dbManager.executeUpdate(conn, insertExpCatSql, ec.getCode(), ec.getName(), ec.getAmount(), newBudgetID);
-
-            List<Map<String, Object>> eIdRes = dbManager.executeQuery(conn, "SELECT last_insert_rowid() as id");
-            if (!eIdRes.isEmpty()) {
-                idMap.put(ec.getExpenseID(), ((Number) eIdRes.get(0).get("id")).intValue());
-            }
-        }
-        return idMap;
+    public int cloneExpenseCategories(final Connection conn, final int sourceBudgetID, final int newBudgetID) {
+        int offset = IdOffsets.cloneOffset(dbManager, conn, "ExpenseCategories", "expense_category_id",
+                sourceBudgetID);
+        String sql = "INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) "
+                + "SELECT expense_category_id + ?, code, name, amount, ? FROM ExpenseCategories "
+                + "WHERE budget_id = ? ORDER BY expense_category_id";
+        dbManager.executeUpdate(conn, sql, offset, newBudgetID, sourceBudgetID);
+        return offset;
     }
 
     /**
@@ -164,17 +154,20 @@ public class ExpenseCategoryDao {
     }
 
     /**
-     * Adds a delta amount to a specific expense category.
+     * Shift the totals of several expense categories in one batch.
      *
-     * @param conn                The database connection.
-     * @param budgetId            The budget ID.
-     * @param expenseCategoryCode The expense category code.
-     * @param deltaAmount         The amount to add (can be negative).
+     * @param conn               Active database connection
+     * @param expenseCategoryIDs Internal category IDs
+     * @param deltaAmounts       Amounts to add, parallel to the IDs
+     * @return Count of records updated
      */
-    public void addAmountToCategory(final Connection conn, final int budgetId, final long expenseCategoryCode,
-            final long deltaAmount) {
-        String sql = "UPDATE ExpenseCategories SET amount = amount + ? "
-                + "WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
-        dbManager.executeUpdate(conn, sql, deltaAmount, budgetId, expenseCategoryCode);
+    public int addAmountsToCategories(final Connection conn, final int[] expenseCategoryIDs,
+            final long[] deltaAmounts) {
+        List<Object[]> rows = new ArrayList<>(expenseCategoryIDs.length);
+        for (int i = 0; i < expenseCategoryIDs.length; i++) {
+            rows.add(new Object[] {deltaAmounts[i], expenseCategoryIDs[i] });
+        }
+        String sql = "UPDATE ExpenseCategories SET amount = amount + ? WHERE expense_category_id = ?";
+        return dbManager.executeBatch(conn, sql, rows);
     }
 }
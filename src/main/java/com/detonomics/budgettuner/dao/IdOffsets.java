@@ -0,0 +1,59 @@
+package com.detonomics.budgettuner.dao;
+
+import java.sql.Connection;
+
+import com.detonomics.budgettuner.util.DatabaseManager;
+
+/**
+ * Primary key arithmetic for set-based cloning. Rows of one budget are copied
+ * with {@code INSERT ... SELECT}, each new key being the source key plus a
+ * fixed offset, so references between the copied rows can be remapped in the
+ * same statement instead of being looked up one by one.
+ *
+ * <p>
+ * Must be called inside the write transaction that performs the copy, after
+ * its first write, so no other writer can claim keys in between.
+ * </p>
+ */
+final class IdOffsets {
+
+    private IdOffsets() {
+    }
+
+    /**
+     * Compute the offset that moves a budget's keys past every key the table
+     * has ever assigned, including AUTOINCREMENT keys of deleted rows.
+     *
+     * @param dbManager      Database accessor
+     * @param conn           Active write transaction
+     * @param table          Table being cloned
+     * @param idColumn       Integer primary key column
+     * @param sourceBudgetID Budget whose rows are copied
+     * @return Offset to add to each source key; 0 if the budget has no rows
+     */
+    static int cloneOffset(final DatabaseManager dbManager, final Connection conn, final String table,
+            final String idColumn, final int sourceBudgetID) {
+        String sql = "SELECT COALESCE(MAX(" + idColumn + "), 0), "
+                + "(SELECT MIN(" + idColumn + ") FROM " + table + " WHERE budget_id = ?) FROM " + table;
+        long[] bounds = dbManager.extract(conn, sql, rs -> {
+            rs.next();
+            return new long[] {rs.getLong(1), rs.getObject(2) == null ? -1 : rs.getLong(2) };
+        }, sourceBudgetID);
+        if (bounds[1] < 0) {
+            return 0;
+        }
+        long highest = Math.max(bounds[0], lastAssigned(dbManager, conn, table));
+        return Math.toIntExact(highest + 1 - bounds[1]);
+    }
+
+    private static long lastAssigned(final DatabaseManager dbManager, final Connection conn, final String table) {
+        boolean autoIncrement = dbManager.extract(conn,
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_sequence'",
+                rs -> rs.next());
+        if (!autoIncrement) {
+            return 0;
+        }
+        return dbManager.extract(conn, "SELECT seq FROM sqlite_sequence WHERE name = ?",
+                rs -> rs.next() ? rs.getLong(1) : 0L, table);
+    }
+}
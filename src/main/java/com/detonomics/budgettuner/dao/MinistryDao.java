@@ -8,12 +8,20 @@ import java.util.Map;
 
 import com.detonomics.budgettuner.model.Ministry;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Manage Ministry records and their associated budget allocations.
  */
 public class MinistryDao {
 
+    private static final String MINISTRY_COLUMNS = "ministry_id, code, name, regular_budget, "
+            + "public_investment_budget, total_budget";
+
+    private static final RowMapper<Ministry> MINISTRY_MAPPER = (rs, rowNum) -> new Ministry(
+            rs.getInt(1), Long.parseLong(rs.getString(2)), rs.getString(3),
+            rs.getLong(4), rs.getLong(5), rs.getLong(6));
+
     private final DatabaseManager dbManager;
 
     /**
@@ -32,30 +40,8 @@ public class MinistryDao {
      * @return List of ministry records
      */
     public ArrayList<Ministry> loadMinistries(final int budgetID) {
-        ArrayList<Ministry> ministries = new ArrayList<>();
-        String sql = "SELECT * FROM Ministries WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(sql, budgetID);
-
-        if (results.isEmpty()) {
-            return ministries;
-        }
-
-        for (Map<String, Object> resultRow : results) {
-            Integer ministryID = (Integer) resultRow.get("ministry_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-            Object rbObj = resultRow.get("regular_budget");
-            Object pibObj = resultRow.get("public_investment_budget");
-            Object tbObj = resultRow.get("total_budget");
-
-            long rb = (rbObj != null) ? ((Number) rbObj).longValue() : 0;
-            long pib = (pibObj != null) ? ((Number) pibObj).longValue() : 0;
-            long tb = (tbObj != null) ? ((Number) tbObj).longValue() : 0;
-
-            Ministry ministry = new Ministry(ministryID, code, name, rb, pib, tb);
-            ministries.add(ministry);
-        }
-        return ministries;
+        String sql = "SELECT " + MINISTRY_COLUMNS + " FROM Ministries WHERE budget_id = ?";
+        return dbManager.query(sql, MINISTRY_MAPPER, budgetID);
     }
 
     // Internal helper for use inside transactions
@@ -67,22 +53,27 @@ public class MinistryDao {
      * @return List of ministry records
      */
     public ArrayList<Ministry> loadMinistries(final Connection conn, final int budgetID) {
-        ArrayList<Ministry> ministries = new ArrayList<>();
-        String sql = "SELECT * FROM Ministries WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(conn, sql, budgetID);
-        for (Map<String, Object> resultRow : results) {
-            Integer ministryID = (Integer) resultRow.get("ministry_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-            Object rbObj = resultRow.get("regular_budget");
-            Object pibObj = resultRow.get("public_investment_budget");
-            Object tbObj = resultRow.get("total_budget");
-            long rb = (rbObj != null) ? ((Number) rbObj).longValue() : 0;
-            long pib = (pibObj != null) ? ((Number) pibObj).longValue() : 0;
-            long tb = (tbObj != null) ? ((Number) tbObj).longValue() : 0;
-            ministries.add(new Ministry(ministryID, code, name, rb, pib, tb));
-        }
-        return ministries;
+        String sql = "SELECT " + MINISTRY_COLUMNS + " FROM Ministries WHERE budget_id = ?";
+        return dbManager.query(conn, sql, MINISTRY_MAPPER, budgetID);
+    }
+
+    /**
+     * Retrieve the ministries of several budgets in one query.
+     *
+     * @param conn      Active database connection
+     * @param budgetIDs Target budget IDs
+     * @return Rows grouped by budget ID; budgets without rows are absent
+     */
+    public Map<Integer, ArrayList<Ministry>> loadMinistries(final Connection conn,
+            final List<Integer> budgetIDs) {
+        String sql = "SELECT " + MINISTRY_COLUMNS + ", budget_id FROM Ministries WHERE budget_id IN ("
+                + DatabaseManager.placeholders(budgetIDs.size()) + ") ORDER BY ministry_id";
+        Map<Integer, ArrayList<Ministry>> byBudget = new HashMap<>();
+        dbManager.forEachRow(conn, sql, DatabaseManager.DEFAULT_FETCH_SIZE,
+                rs -> byBudget.computeIfAbsent(rs.getInt(7), id -> new ArrayList<>())
+                        .add(MINISTRY_MAPPER.mapRow(rs, 0)),
+                budgetIDs.toArray());
+        return byBudget;
     }
 
     /**
@@ -94,7 +85,7 @@ public class MinistryDao {
      * @return Count of records updated
      */
     public int updateMinistryTotalBudget(final int budgetId, final String ministryCode, final long newTotalBudget) {
-        String sql = "UPDATE Ministries SET total_budget = ? WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
+        String sql = "UPDATE Ministries SET total_budget = ? WHERE budget_id = ? AND code_num = ?";
         return dbManager.executeUpdate(sql, newTotalBudget, budgetId, ministryCode);
     }
 
@@ -109,7 +100,7 @@ public class MinistryDao {
      */
     public int updateMinistryTotalBudget(final Connection conn, final int budgetId, final String ministryCode,
             final long newTotalBudget) {
-        String sql = "UPDATE Ministries SET total_budget = ? WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
+        String sql = "UPDATE Ministries SET total_budget = ? WHERE budget_id = ? AND code_num = ?";
         return dbManager.executeUpdate(conn, sql, newTotalBudget, budgetId, ministryCode);
     }
 
@@ -125,30 +116,22 @@ public class MinistryDao {
     }
 
     /**
-     * Duplicate ministry definitions from a baseline budget into a new one.
+     * Duplicate ministry definitions from a baseline budget into a new one with
+     * a single INSERT ... SELECT.
      *
      * @param conn           Active database connection
      * @param sourceBudgetID Baseline budget ID
      * @param newBudgetID    Target budget ID
-     * @return Mapping of old category IDs to their new identities
+     * @return Offset from each source ministry ID to its copy
      */
-    public Map<Integer, Integer> cloneMinistries(final Connection conn, final int sourceBudgetID,
-            final int newBudgetID) {
-        Map<Integer, Integer> idMap = new HashMap<>();
-        ArrayList<Ministry> sourceMinistries = loadMinistries(conn, sourceBudgetID);
-        String insertMinistrySql = "INSERT INTO Ministries (code, name, regular_budget, public_investment_budget, "
-                + "total_budget, budget_id) VALUES (?, ?, ?, ?, ?, ?)";
-
-        for (Ministry m : sourceMinistries) {
-            dbManager.executeUpdate(conn, insertMinistrySql, m.getCode(), m.getName(), m.getRegularBudget(),
-                    m.getPublicInvestmentBudget(), m.getTotalBudget(), newBudgetID);
-
-            List<Map<String, Object>> mIdRes = dbManager.executeQuery(conn, "SELECT last_insert_rowid() as id");
-            if (!mIdRes.isEmpty()) {
-                idMap.put(m.getMinistryID(), ((Number) mIdRes.get(0).get("id")).intValue());
-            }
-        }
-        return idMap;
+    public int cloneMinistries(final Connection conn, final int sourceBudgetID, final int newBudgetID) {
+        int offset = IdOffsets.cloneOffset(dbManager, conn, "Ministries", "ministry_id", sourceBudgetID);
+        String sql = "INSERT INTO Ministries (ministry_id, code, name, regular_budget, public_investment_budget, "
+                + "total_budget, budget_id) SELECT ministry_id + ?, code, name, regular_budget, "
+                + "public_investment_budget, total_budget, ? FROM Ministries WHERE budget_id = ? "
+                + "ORDER BY ministry_id";
+        dbManager.executeUpdate(conn, sql, offset, newBudgetID, sourceBudgetID);
+        return offset;
     }
 
     /**
@@ -175,16 +158,21 @@ public class MinistryDao {
     }
 
     /**
-     * Adds a delta amount to a specific ministry's total and regular budget.
+     * Shift the totals of several ministries in one batch, moving the regular
+     * budget by the same amounts.
      *
-     * @param conn        The database connection.
-     * @param ministryId  The ministry ID.
-     * @param deltaAmount The amount to add (can be negative).
+     * @param conn         Active database connection
+     * @param ministryIDs  Internal ministry IDs
+     * @param deltaAmounts Amounts to add, parallel to the IDs
+     * @return Count of records updated
      */
-    public void addAmountToMinistry(final Connection conn, final int ministryId, final long deltaAmount) {
-        // Update both total_budget and regular_budget by the delta
+    public int addAmountsToMinistries(final Connection conn, final int[] ministryIDs, final long[] deltaAmounts) {
+        List<Object[]> rows = new ArrayList<>(ministryIDs.length);
+        for (int i = 0; i < ministryIDs.length; i++) {
+            rows.add(new Object[] {deltaAmounts[i], deltaAmounts[i], ministryIDs[i] });
+        }
         String sql = "UPDATE Ministries SET total_budget = total_budget + ?, "
                 + "regular_budget = regular_budget + ? WHERE ministry_id = ?";
-        dbManager.executeUpdate(conn, sql, deltaAmount, deltaAmount, ministryId);
+        return dbManager.executeBatch(conn, sql, rows);
     }
 }
@@ -2,17 +2,27 @@ package com.detonomics.budgettuner.dao;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.detonomics.budgettuner.model.MinistryExpense;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Manage granular expense mappings for specific ministries.
  */
 public class MinistryExpenseDao {
 
+    private static final String SELECT_BY_BUDGET = "SELECT ME.ministry_expense_id, ME.ministry_id, "
+            + "ME.expense_category_id, ME.amount FROM MinistryExpenses ME "
+            + "JOIN Ministries MI ON ME.ministry_id = MI.ministry_id "
+            + "WHERE MI.budget_id = ?";
+
+    private static final RowMapper<MinistryExpense> MINISTRY_EXPENSE_MAPPER = (rs, rowNum) -> new MinistryExpense(
+            rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getLong(4));
+
     private final DatabaseManager dbManager;
 
     /**
@@ -31,26 +41,7 @@ public class MinistryExpenseDao {
      * @return List of ministry-expense mappings
      */
     public ArrayList<MinistryExpense> loadMinistryExpenses(final int budgetID) {
-        ArrayList<MinistryExpense> expenses = new ArrayList<>();
-        String sql = "SELECT ME.* FROM MinistryExpenses ME "
-                + "JOIN Ministries MI ON ME.ministry_id = MI.ministry_id "
-                + "WHERE MI.budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(sql, budgetID);
-
-        if (results.isEmpty()) {
-            return expenses;
-        }
-
-        for (Map<String, Object> resultRow : results) {
-            Integer ministryExpenseID = (Integer) resultRow.get("ministry_expense_id");
-            Integer ministryID = (Integer) resultRow.get("ministry_id");
-            long amount = ((Number) resultRow.get("amount")).longValue();
-            Integer expenseCategoryID = (Integer) resultRow.get("expense_category_id");
-
-            MinistryExpense expense = new MinistryExpense(ministryExpenseID, ministryID, expenseCategoryID, amount);
-            expenses.add(expense);
-        }
-        return expenses;
+        return dbManager.query(SELECT_BY_BUDGET, MINISTRY_EXPENSE_MAPPER, budgetID);
     }
 
     // Helper for transactional loading if needed
@@ -62,19 +53,29 @@ public class MinistryExpenseDao {
      * @return List of ministry-expense mappings
      */
     public ArrayList<MinistryExpense> loadMinistryExpenses(final Connection conn, final int budgetID) {
-        ArrayList<MinistryExpense> expenses = new ArrayList<>();
-        String sql = "SELECT ME.* FROM MinistryExpenses ME "
+        return dbManager.query(conn, SELECT_BY_BUDGET, MINISTRY_EXPENSE_MAPPER, budgetID);
+    }
+
+    /**
+     * Retrieve the ministry expense mappings of several budgets in one query.
+     *
+     * @param conn      Active database connection
+     * @param budgetIDs Target budget IDs
+     * @return Rows grouped by budget ID; budgets without rows are absent
+     */
+    public Map<Integer, ArrayList<MinistryExpense>> loadMinistryExpenses(final Connection conn,
+            final List<Integer> budgetIDs) {
+        String sql = "SELECT ME.ministry_expense_id, ME.ministry_id, ME.expense_category_id, ME.amount, "
+                + "MI.budget_id FROM MinistryExpenses ME "
                 + "JOIN Ministries MI ON ME.ministry_id = MI.ministry_id "
-                + "WHERE MI.budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(conn, sql, budgetID);
-        for (Map<String, Object> resultRow : results) {
-            Integer ministryExpenseID = (Integer) resultRow.get("ministry_expense_id");
-            Integer ministryID = (Integer) resultRow.get("ministry_id");
-            long amount = ((Number) resultRow.get("amount")).longValue();
-            Integer expenseCategoryID = (Integer) resultRow.get("expense_category_id");
-            expenses.add(new MinistryExpense(ministryExpenseID, ministryID, expenseCategoryID, amount));
-        }
-        return expenses;
+                + "WHERE MI.budget_id IN (" + DatabaseManager.placeholders(budgetIDs.size()) + ") "
+                + "ORDER BY ME.ministry_expense_id";
+        Map<Integer, ArrayList<MinistryExpense>> byBudget = new HashMap<>();
+        dbManager.forEachRow(conn, sql, DatabaseManager.DEFAULT_FETCH_SIZE,
+                rs -> byBudget.computeIfAbsent(rs.getInt(5), id -> new ArrayList<>())
+                        .add(MINISTRY_EXPENSE_MAPPER.mapRow(rs, 0)),
+                budgetIDs.toArray());
+        return byBudget;
     }
 
     /**
@@ -102,6 +103,23 @@ public class MinistryExpenseDao {
         return dbManager.executeUpdate(conn, sql, newAmount, ministryExpenseId);
     }
 
+    /**
+     * Overwrite the amounts of several expense lines in one batch.
+     *
+     * @param conn               Active database connection
+     * @param ministryExpenseIDs Internal mapping IDs
+     * @param amounts            Updated funding values, parallel to the IDs
+     * @return Count of records updated
+     */
+    public int updateExpenseAmounts(final Connection conn, final int[] ministryExpenseIDs, final long[] amounts) {
+        List<Object[]> rows = new ArrayList<>(ministryExpenseIDs.length);
+        for (int i = 0; i < ministryExpenseIDs.length; i++) {
+            rows.add(new Object[] {amounts[i], ministryExpenseIDs[i] });
+        }
+        String sql = "UPDATE MinistryExpenses SET amount = ? WHERE ministry_expense_id = ?";
+        return dbManager.executeBatch(conn, sql, rows);
+    }
+
     /**
      * Locate and update an expense record using human-readable codes instead of
      * internal IDs.
@@ -117,9 +135,9 @@ public class MinistryExpenseDao {
             final long expenseCategoryCode, final long newAmount) {
         String sql = "UPDATE MinistryExpenses SET amount = ? "
                 + "WHERE ministry_id = (SELECT ministry_id FROM Ministries WHERE budget_id = ? "
-                + "AND CAST(code AS INTEGER) = ?) "
+                + "AND code_num = ?) "
                 + "AND expense_category_id = (SELECT expense_category_id FROM ExpenseCategories "
-                + "WHERE budget_id = ? AND CAST(code AS INTEGER) = ?)";
+                + "WHERE budget_id = ? AND code_num = ?)";
         return dbManager.executeUpdate(conn, sql, newAmount, budgetId, ministryCode, budgetId,
                 expenseCategoryCode);
     }
@@ -138,28 +156,23 @@ public class MinistryExpenseDao {
     }
 
     /**
-     * Replicate expense mappings into a new budget context using pre-calculated ID
-     * mappings.
+     * Replicate expense mappings into a new budget context with a single
+     * INSERT ... SELECT, shifting the references by the offsets returned from
+     * the ministry and category clones. Lines whose ministry or category lies
+     * outside the source budget are skipped.
      *
-     * @param conn           Active database connection
-     * @param sourceBudgetID Template budget ID
-     * @param ministryIdMap  ID translation registry for ministries
-     * @param expenseIdMap   ID translation registry for categories
+     * @param conn             Active database connection
+     * @param sourceBudgetID   Template budget ID
+     * @param ministryIdOffset Key offset of the cloned ministries
+     * @param expenseIdOffset  Key offset of the cloned expense categories
      */
     public void cloneMinistryExpenses(final Connection conn, final int sourceBudgetID,
-            final Map<Integer, Integer> ministryIdMap,
-            final Map<Integer, Integer> expenseIdMap) {
-        ArrayList<MinistryExpense> sourceExpenses = loadMinistryExpenses(conn, sourceBudgetID);
-        String insertMinExpSql = "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) "
-                + "VALUES (?, ?, ?)";
-
-        for (MinistryExpense me : sourceExpenses) {
-            Integer newMinistryID = ministryIdMap.get(me.getMinistryID());
-            Integer newExpenseID = expenseIdMap.get(me.getExpenseCategoryID());
-
-            if (newMinistryID != null && newExpenseID != null) {
-                dbManager.executeUpdate(conn, insertMinExpSql, newMinistryID, newExpenseID, me.getAmount());
-            }
-        }
+            final int ministryIdOffset, final int expenseIdOffset) {
+        String sql = "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) "
+                + "SELECT ME.ministry_id + ?, ME.expense_category_id + ?, ME.amount FROM MinistryExpenses ME "
+                + "JOIN Ministries MI ON ME.ministry_id = MI.ministry_id "
+                + "JOIN ExpenseCategories EC ON ME.expense_category_id = EC.expense_category_id "
+                + "WHERE MI.budget_id = ? AND EC.budget_id = ? ORDER BY ME.ministry_expense_id";
+        dbManager.executeUpdate(conn, sql, ministryIdOffset, expenseIdOffset, sourceBudgetID, sourceBudgetID);
     }
 }
@@ -2,17 +2,25 @@ package com.detonomics.budgettuner.dao;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.detonomics.budgettuner.model.BudgetEdits;
 import com.detonomics.budgettuner.model.RevenueCategory;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Manage revenue classifications and their hierarchical structures.
  */
 public class RevenueCategoryDao {
 
+    private static final String REVENUE_COLUMNS = "revenue_category_id, code, name, amount, parent_id";
+
+    private static final RowMapper<RevenueCategory> REVENUE_MAPPER = (rs, rowNum) -> new RevenueCategory(
+            rs.getInt(1), Long.parseLong(rs.getString(2)), rs.getString(3), rs.getLong(4), rs.getInt(5));
+
     private final DatabaseManager dbManager;
 
     /**
@@ -31,27 +39,27 @@ public class RevenueCategoryDao {
      * @return List of revenue categories
      */
     public ArrayList<RevenueCategory> loadRevenues(final int budgetID) {
-        ArrayList<RevenueCategory> revenues = new ArrayList<>();
-
-        String sql = "SELECT * FROM RevenueCategories WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(sql, budgetID);
-
-        if (results.isEmpty()) {
-            return revenues;
-        }
-
-        for (Map<String, Object> resultRow : results) {
-            Integer revenueCategoryID = (Integer) resultRow.get("revenue_category_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-            long amount = ((Number) resultRow.get("amount")).longValue();
-            Object potentialParentID = resultRow.get("parent_id");
-            int parentID = (potentialParentID == null) ? 0 : (Integer) potentialParentID;
+        String sql = "SELECT " + REVENUE_COLUMNS + " FROM RevenueCategories WHERE budget_id = ?";
+        return dbManager.query(sql, REVENUE_MAPPER, budgetID);
+    }
 
-            RevenueCategory revenue = new RevenueCategory(revenueCategoryID, code, name, amount, parentID);
-            revenues.add(revenue);
-        }
-        return revenues;
+    /**
+     * Retrieve the revenue categories of several budgets in one query.
+     *
+     * @param conn      Active database connection
+     * @param budgetIDs Target budget IDs
+     * @return Rows grouped by budget ID; budgets without rows are absent
+     */
+    public Map<Integer, ArrayList<RevenueCategory>> loadRevenues(final Connection conn,
+            final List<Integer> budgetIDs) {
+        String sql = "SELECT " + REVENUE_COLUMNS + ", budget_id FROM RevenueCategories WHERE budget_id IN ("
+                + DatabaseManager.placeholders(budgetIDs.size()) + ") ORDER BY revenue_category_id";
+        Map<Integer, ArrayList<RevenueCategory>> byBudget = new HashMap<>();
+        dbManager.forEachRow(conn, sql, DatabaseManager.DEFAULT_FETCH_SIZE,
+                rs -> byBudget.computeIfAbsent(rs.getInt(6), id -> new ArrayList<>())
+                        .add(REVENUE_MAPPER.mapRow(rs, 0)),
+                budgetIDs.toArray());
+        return byBudget;
     }
 
     /**
@@ -63,7 +71,7 @@ public class RevenueCategoryDao {
      */
     public int loadRevenueCategoryIDFromCode(final int budgetID, final long code) {
         String sql = "SELECT revenue_category_id FROM RevenueCategories "
-                + "WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
+                + "WHERE budget_id = ? AND code_num = ?";
         List<Map<String, Object>> queryResults = dbManager.executeQuery(sql, budgetID, code);
         if (queryResults.isEmpty()) {
             throw new IllegalArgumentException("Δεν βρέθηκε ο κωδικός " + code);
@@ -139,9 +147,6 @@ public class RevenueCategoryDao {
         }
     }
 
-    /**
-     * Internal transactional method to set revenue amount.
-     */
     /**
      * Update revenue amounts within a transaction, handling both parent aggregation
      * and child scaling.
@@ -153,114 +158,75 @@ public class RevenueCategoryDao {
      * @return Count of records affected
      */
     public int setRevenueAmount(final Connection conn, final int budgetID, final long code, final long amount) {
-        int rowsAffected = 0;
-
-        int revenueCategoryID = loadRevenueCategoryIDFromCode(conn, budgetID, code);
-        long oldAmount = loadRevenueAmount(conn, revenueCategoryID);
-
-        if (oldAmount == amount) {
-            return 0;
-        }
-
-        long difference = amount - oldAmount;
-
-        // Update the database with the new amount
-        String sql = "UPDATE RevenueCategories SET amount = ? WHERE revenue_category_id = ?";
-        int check = dbManager.executeUpdate(conn, sql, amount, revenueCategoryID);
-        rowsAffected += check;
-
-        // Update parent amounts
-        rowsAffected += updateRevenueParentAmounts(conn, revenueCategoryID, difference);
-
-        // Update children amounts
-        rowsAffected += updateRevenueChildrenAmounts(conn, revenueCategoryID, oldAmount, amount);
-
-        return rowsAffected;
-    }
-
-    // Internal read helpers taking Connection to reuse inside transaction
-    private int loadRevenueCategoryIDFromCode(final Connection conn, final int budgetID, final long code) {
-        String sql = "SELECT revenue_category_id FROM RevenueCategories WHERE budget_id = ? AND code = ?";
-        List<Map<String, Object>> queryResults = dbManager.executeQuery(conn, sql, budgetID, code);
-        if (queryResults.isEmpty()) {
-            throw new IllegalArgumentException("Δεν βρέθηκε ο κωδικός " + code);
-        }
-        return (Integer) queryResults.getFirst().get("revenue_category_id");
-    }
-
-    private long loadRevenueAmount(final Connection conn, final int revenueCategoryID) {
-        String sql = "SELECT amount FROM RevenueCategories WHERE revenue_category_id = ?";
-        List<Map<String, Object>> queryResults = dbManager.executeQuery(conn, sql, revenueCategoryID);
-        if (queryResults.isEmpty()) {
-            throw new IllegalArgumentException("Revenue Category ID not found: " + revenueCategoryID);
-        }
-        return ((Number) queryResults.getFirst().get("amount")).longValue();
+        return setRevenueAmounts(conn, budgetID, Map.of(code, amount));
     }
 
-    private int loadRevenueParentID(final Connection conn, final int revenueCategoryID) {
-        String sql = "SELECT parent_id FROM RevenueCategories WHERE revenue_category_id = ?";
-        List<Map<String, Object>> queryResults = dbManager.executeQuery(conn, sql, revenueCategoryID);
-        if (queryResults.isEmpty()) {
+    /**
+     * Apply several revenue edits to one budget. The hierarchy is loaded once,
+     * every edit is propagated in memory in iteration order, and only the
+     * categories whose amount changed are written back in one batch.
+     *
+     * @param conn     Active database connection
+     * @param budgetID Working budget ID
+     * @param edits    New amounts keyed by revenue code
+     * @return Count of records affected
+     */
+    public int setRevenueAmounts(final Connection conn, final int budgetID, final Map<Long, Long> edits) {
+        if (edits.isEmpty()) {
             return 0;
         }
-        Integer rawParentID = (Integer) queryResults.getFirst().get("parent_id");
-        return (rawParentID == null) ? 0 : rawParentID;
+        RevenueTree tree = loadRevenueTree(conn, budgetID);
+        tree.setAmounts(edits);
+        return writeRevenueAmounts(conn, tree.changes());
     }
 
-    private ArrayList<Integer> loadRevenueChildren(final Connection conn, final int revenueCategoryID) {
-        ArrayList<Integer> children = new ArrayList<>();
-        String sql = "SELECT revenue_category_id FROM RevenueCategories WHERE parent_id = ?";
-        List<Map<String, Object>> queryResults = dbManager.executeQuery(conn, sql, revenueCategoryID);
-        for (Map<String, Object> resultRow : queryResults) {
-            children.add((Integer) resultRow.get("revenue_category_id"));
-        }
-        return children;
-    }
-
-    private int updateRevenueParentAmounts(final Connection conn, final int revenueCategoryID, final long difference) {
-        int rowsAffected = 0;
-        int parentID = loadRevenueParentID(conn, revenueCategoryID);
-
-        if (parentID == 0) {
+    /**
+     * Apply the revenue edits of a scenario to one budget, loading the
+     * hierarchy once and writing back only the changed categories. The change
+     * in top-level revenue is recorded in the journal.
+     *
+     * @param conn     Active database connection
+     * @param budgetID Working budget ID
+     * @param edits    Scenario edits; ministry expense edits are ignored
+     * @param journal  Aggregate deltas of the running edit
+     * @return Count of records affected
+     */
+    public int setRevenueAmounts(final Connection conn, final int budgetID, final BudgetEdits edits,
+            final AggregateJournal journal) {
+        if (edits.revenueCount() == 0) {
             return 0;
         }
-
-        String sql = "UPDATE RevenueCategories SET amount = amount + ? WHERE revenue_category_id = ?";
-        int check = dbManager.executeUpdate(conn, sql, difference, parentID);
-        rowsAffected += check;
-
-        rowsAffected += updateRevenueParentAmounts(conn, parentID, difference);
-        return rowsAffected;
+        RevenueTree tree = loadRevenueTree(conn, budgetID);
+        tree.setAmounts(edits);
+        journal.addRevenue(tree.topLevelDelta());
+        return writeRevenueAmounts(conn, tree.changes());
     }
 
-    private int updateRevenueChildrenAmounts(final Connection conn, final int revenueCategoryID,
-            final long oldParentAmount,
-            final long newParentAmount) {
-        int rowsAffected = 0;
-
-        if (oldParentAmount == 0) {
-            return 0;
-        }
-
-        ArrayList<Integer> children = loadRevenueChildren(conn, revenueCategoryID);
-        if (children.isEmpty()) {
-            return 0;
-        }
-
-        double ratio = (double) newParentAmount / oldParentAmount;
-
-        for (Integer childID : children) {
-            long oldChildAmount = loadRevenueAmount(conn, childID);
-            long newChildAmount = Math.round(oldChildAmount * ratio);
-
-            String sql = "UPDATE RevenueCategories SET amount = ? WHERE revenue_category_id = ?";
-            int check = dbManager.executeUpdate(conn, sql, newChildAmount, childID);
-            rowsAffected += check;
+    /**
+     * Load a budget's revenue hierarchy for in-memory edits.
+     *
+     * @param conn     Active database connection
+     * @param budgetID Target budget ID
+     * @return Tree holding the current amounts
+     */
+    public RevenueTree loadRevenueTree(final Connection conn, final int budgetID) {
+        return RevenueTree.of(loadRevenues(conn, budgetID));
+    }
 
-            rowsAffected += updateRevenueChildrenAmounts(conn, childID, oldChildAmount, newChildAmount);
+    /**
+     * Persist the amounts changed in a revenue tree.
+     *
+     * @param conn    Active database connection
+     * @param changes Changed categories from {@link RevenueTree#changes()}
+     * @return Count of records affected
+     */
+    public int writeRevenueAmounts(final Connection conn, final List<RevenueTree.Change> changes) {
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (RevenueTree.Change change : changes) {
+            rows.add(new Object[] {change.newAmount(), change.revenueCategoryID() });
         }
-
-        return rowsAffected;
+        String sql = "UPDATE RevenueCategories SET amount = ? WHERE revenue_category_id = ?";
+        return dbManager.executeBatch(conn, sql, rows);
     }
 
     /**
@@ -281,88 +247,29 @@ public class RevenueCategoryDao {
 
     /**
      * Clones revenue categories from a source budget to a target budget using an
-     * existing connection.
+     * existing connection. The whole tree is copied by one INSERT ... SELECT
+     * with parent references remapped by a fixed key offset.
      *
      * @param conn           The database connection.
      * @param sourceBudgetID The source budget ID.
      * @param targetBudgetID The target budget ID.
      */
     public void cloneRevenueCategories(final Connection conn, final int sourceBudgetID, final int targetBudgetID) {
-        // Re-implement existing logic but using `conn`
-        // We need source categories.
-        // NOTE: loadRevenues does NOT take conn yet in public API, but we can reuse the
-        // logic.
-        // For simplicity, let's call the public loadRevenues (it's a read, it's fine if
-        // it's separate,
-        // THOUGH strict transactionality implies we should read from same snapshot.
-        // But SQLite usually locks the whole file on write anyway?)
-        // Let's implement a private loadRevenues(Connection conn) to be safe.
-
-        ArrayList<RevenueCategory> sourceCategories = loadRevenues(conn, sourceBudgetID);
-
-        // Clone top-level categories first
-        for (RevenueCategory category : sourceCategories) {
-            if (category.getParentID() == 0) {
-                insertRevenueCategory(conn, targetBudgetID, category.getCode(), category.getName(),
-                        category.getAmount(), null);
-            }
-        }
-
-        // Clone child categories with placeholder parent_id = 0
-        for (RevenueCategory category : sourceCategories) {
-            if (category.getParentID() != 0) {
-                insertRevenueCategory(conn, targetBudgetID, category.getCode(), category.getName(),
-                        category.getAmount(), 0);
-            }
-        }
-
-        // Fix parent IDs
-        for (RevenueCategory category : sourceCategories) {
-            if (category.getParentID() != 0) {
-                long parentCode = findCodeByID(sourceCategories, category.getParentID());
-                int newParentID = findNewCategoryIDByCode(conn, targetBudgetID, parentCode);
-                updateParentID(conn, targetBudgetID, category.getCode(), newParentID);
-            }
-        }
+        int offset = IdOffsets.cloneOffset(dbManager, conn, "RevenueCategories", "revenue_category_id",
+                sourceBudgetID);
+        // Roots, and parents outside the source budget, become NULL as before.
+        String sql = "INSERT INTO RevenueCategories (revenue_category_id, budget_id, code, name, amount, parent_id) "
+                + "SELECT RC.revenue_category_id + ?, ?, RC.code, RC.name, RC.amount, "
+                + "CASE WHEN P.revenue_category_id IS NULL THEN NULL ELSE RC.parent_id + ? END "
+                + "FROM RevenueCategories RC LEFT JOIN RevenueCategories P "
+                + "ON P.revenue_category_id = RC.parent_id AND P.budget_id = RC.budget_id "
+                + "WHERE RC.budget_id = ? ORDER BY RC.revenue_category_id";
+        dbManager.executeUpdate(conn, sql, offset, targetBudgetID, offset, sourceBudgetID);
     }
 
     private ArrayList<RevenueCategory> loadRevenues(final Connection conn, final int budgetID) {
-        ArrayList<RevenueCategory> revenues = new ArrayList<>();
-        String sql = "SELECT * FROM RevenueCategories WHERE budget_id = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(conn, sql, budgetID);
-        for (Map<String, Object> resultRow : results) {
-            Integer revenueCategoryID = (Integer) resultRow.get("revenue_category_id");
-            long code = Long.parseLong((String) resultRow.get("code"));
-            String name = (String) resultRow.get("name");
-            long amount = ((Number) resultRow.get("amount")).longValue();
-            Object potentialParentID = resultRow.get("parent_id");
-            int parentID = (potentialParentID == null) ? 0 : (Integer) potentialParentID;
-            revenues.add(new RevenueCategory(revenueCategoryID, code, name, amount, parentID));
-        }
-        return revenues;
-    }
-
-    private void insertRevenueCategory(final Connection conn, final int budgetID, final long code, final String name,
-            final long amount,
-            final Integer parentID) {
-        String sql = "INSERT INTO RevenueCategories (budget_id, code, name, amount, parent_id) VALUES (?, ?, ?, ?, ?)";
-        dbManager.executeUpdate(conn, sql, budgetID, String.valueOf(code), name, amount, parentID);
-    }
-
-    private long findCodeByID(final ArrayList<RevenueCategory> categories, final int id) {
-        return categories.stream().filter(c -> c.getRevenueID() == id).findFirst().map(RevenueCategory::getCode)
-                .orElse(0L);
-    }
-
-    private int findNewCategoryIDByCode(final Connection conn, final int budgetID, final long code) {
-        String sql = "SELECT revenue_category_id FROM RevenueCategories WHERE budget_id = ? AND code = ?";
-        List<Map<String, Object>> results = dbManager.executeQuery(conn, sql, budgetID, String.valueOf(code));
-        return results.isEmpty() ? 0 : (Integer) results.getFirst().get("revenue_category_id");
-    }
-
-    private void updateParentID(final Connection conn, final int budgetID, final long code, final int newParentID) {
-        String sql = "UPDATE RevenueCategories SET parent_id = ? WHERE budget_id = ? AND code = ?";
-        dbManager.executeUpdate(conn, sql, newParentID, budgetID, String.valueOf(code));
+        String sql = "SELECT " + REVENUE_COLUMNS + " FROM RevenueCategories WHERE budget_id = ?";
+        return dbManager.query(conn, sql, REVENUE_MAPPER, budgetID);
     }
 
     /**
@@ -375,22 +282,4 @@ public class RevenueCategoryDao {
         String sql = "DELETE FROM RevenueCategories WHERE budget_id = ?";
         dbManager.executeUpdate(conn, sql, budgetID);
     }
-
-    /**
-     * Derive the total revenue ceiling by aggregating all root-level categories.
-     *
-     * @param conn     Active database connection
-     * @param budgetID Target budget ID
-     * @return Total aggregate revenue
-     */
-    public long calculateTotalRevenue(final Connection conn, final int budgetID) {
-        // Sum of all roots (parent_id = 0 or NULL)
-        String recalcRevSql = "SELECT SUM(amount) as total FROM RevenueCategories "
-                + "WHERE budget_id = ? AND (parent_id = 0 OR parent_id IS NULL)";
-        List<Map<String, Object>> revTotalRes = dbManager.executeQuery(conn, recalcRevSql, budgetID);
-        if (!revTotalRes.isEmpty() && revTotalRes.get(0).get("total") != null) {
-            return ((Number) revTotalRes.get(0).get("total")).longValue();
-        }
-        return 0;
-    }
 }
@@ -0,0 +1,246 @@
+package com.detonomics.budgettuner.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.detonomics.budgettuner.model.BudgetEdits;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.util.LongIntMap;
+
+/**
+ * In-memory copy of one budget's revenue hierarchy for applying amount edits
+ * without a database round trip per affected category.
+ *
+ * <p>
+ * Nodes are stored in primitive arrays indexed by position, with children laid
+ * out contiguously per parent. An edit follows the same rules as the
+ * hierarchy always has: every ancestor moves by the difference, and the
+ * descendants are rescaled by the ratio of new to old amount, level by level,
+ * rounding at each level. Edits are applied in order, each one seeing the
+ * results of the previous ones.
+ * </p>
+ */
+public final class RevenueTree {
+
+    /**
+     * A category whose amount differs from the loaded value.
+     *
+     * @param revenueCategoryID Internal primary key
+     * @param code              Revenue code
+     * @param oldAmount         Amount when the tree was loaded
+     * @param newAmount         Amount after the applied edits
+     */
+    public record Change(int revenueCategoryID, long code, long oldAmount, long newAmount) {
+    }
+
+    private final int[] ids;
+    private final long[] codes;
+    private final long[] loadedAmounts;
+    private final long[] amounts;
+    private final int[] parents;
+    private final boolean[] topLevel;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final LongIntMap codeIndex;
+
+    private RevenueTree(final List<RevenueCategory> categories) {
+        List<RevenueCategory> sorted = new ArrayList<>(categories);
+        sorted.sort(Comparator.comparingInt(RevenueCategory::getRevenueID));
+        int size = sorted.size();
+
+        ids = new int[size];
+        codes = new long[size];
+        loadedAmounts = new long[size];
+        parents = new int[size];
+        topLevel = new boolean[size];
+        codeIndex = new LongIntMap(size);
+        LongIntMap idIndex = new LongIntMap(size);
+        for (int i = 0; i < size; i++) {
+            RevenueCategory category = sorted.get(i);
+            ids[i] = category.getRevenueID();
+            codes[i] = category.getCode();
+            loadedAmounts[i] = category.getAmount();
+            topLevel[i] = category.getParentID() == 0;
+            idIndex.put(ids[i], i);
+            // Lookups by code have always resolved to the oldest row.
+            codeIndex.putIfAbsent(codes[i], i);
+        }
+        amounts = Arrays.copyOf(loadedAmounts, size);
+
+        // Parents outside this budget cannot be reached and act as roots.
+        int[] childCounts = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            parents[i] = idIndex.getOrDefault(sorted.get(i).getParentID(), -1);
+            if (parents[i] >= 0) {
+                childCounts[parents[i] + 1]++;
+            }
+        }
+        childOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] = childOffsets[i] + childCounts[i + 1];
+        }
+        children = new int[childOffsets[size]];
+        int[] next = Arrays.copyOf(childOffsets, size);
+        for (int i = 0; i < size; i++) {
+            if (parents[i] >= 0) {
+                children[next[parents[i]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Build the hierarchy of one budget from its revenue categories.
+     *
+     * @param categories All revenue categories of the budget
+     * @return Tree holding the loaded amounts
+     */
+    public static RevenueTree of(final List<RevenueCategory> categories) {
+        return new RevenueTree(categories);
+    }
+
+    /**
+     * Count the categories in the tree.
+     *
+     * @return Number of nodes
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Check whether a revenue code exists in the tree.
+     *
+     * @param code Revenue code
+     * @return True if present
+     */
+    public boolean contains(final long code) {
+        return codeIndex.containsKey(code);
+    }
+
+    /**
+     * Retrieve the current amount of a category.
+     *
+     * @param code Revenue code
+     * @return Amount including every edit applied so far
+     */
+    public long amountOf(final long code) {
+        return amounts[indexOf(code)];
+    }
+
+    /**
+     * Set a category's amount and propagate the change through the hierarchy.
+     *
+     * @param code   Revenue code
+     * @param amount New financial value
+     * @return Number of categories whose amount was written, including
+     *         rescaled descendants that kept their value
+     */
+    public int setAmount(final long code, final long amount) {
+        int node = indexOf(code);
+        long oldAmount = amounts[node];
+        if (oldAmount == amount) {
+            return 0;
+        }
+        long difference = amount - oldAmount;
+        amounts[node] = amount;
+        int touched = 1;
+        for (int parent = parents[node]; parent >= 0; parent = parents[parent]) {
+            amounts[parent] += difference;
+            touched++;
+        }
+        return touched + rescaleChildren(node, oldAmount, amount);
+    }
+
+    /**
+     * Apply several edits in order.
+     *
+     * @param edits New amounts keyed by revenue code, in application order
+     * @return Number of category writes, as counted by {@link #setAmount}
+     */
+    public int setAmounts(final Map<Long, Long> edits) {
+        for (Long code : edits.keySet()) {
+            indexOf(code);
+        }
+        int touched = 0;
+        for (Map.Entry<Long, Long> edit : edits.entrySet()) {
+            touched += setAmount(edit.getKey(), edit.getValue());
+        }
+        return touched;
+    }
+
+    /**
+     * Apply the revenue edits of a scenario in recording order.
+     *
+     * @param edits Scenario edits; ministry expense edits are ignored
+     * @return Number of category writes, as counted by {@link #setAmount}
+     */
+    public int setAmounts(final BudgetEdits edits) {
+        for (int i = 0; i < edits.revenueCount(); i++) {
+            indexOf(edits.revenueCode(i));
+        }
+        int touched = 0;
+        for (int i = 0; i < edits.revenueCount(); i++) {
+            touched += setAmount(edits.revenueCode(i), edits.revenueAmount(i));
+        }
+        return touched;
+    }
+
+    /**
+     * List the categories whose amount now differs from the loaded value.
+     *
+     * @return Changes in ID order
+     */
+    public List<Change> changes() {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (amounts[i] != loadedAmounts[i]) {
+                changes.add(new Change(ids[i], codes[i], loadedAmounts[i], amounts[i]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Sum the changes of the categories without a parent, which together
+     * make up the budget's total revenue.
+     *
+     * @return New minus loaded amount over the top-level categories
+     */
+    public long topLevelDelta() {
+        long delta = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (topLevel[i]) {
+                delta += amounts[i] - loadedAmounts[i];
+            }
+        }
+        return delta;
+    }
+
+    private int rescaleChildren(final int node, final long oldAmount, final long newAmount) {
+        if (oldAmount == 0) {
+            return 0;
+        }
+        double ratio = (double) newAmount / oldAmount;
+        int touched = 0;
+        for (int c = childOffsets[node]; c < childOffsets[node + 1]; c++) {
+            int child = children[c];
+            long oldChildAmount = amounts[child];
+            long newChildAmount = Math.round(oldChildAmount * ratio);
+            amounts[child] = newChildAmount;
+            touched++;
+            touched += rescaleChildren(child, oldChildAmount, newChildAmount);
+        }
+        return touched;
+    }
+
+    private int indexOf(final long code) {
+        int index = codeIndex.getOrDefault(code, -1);
+        if (index < 0) {
+            throw new IllegalArgumentException("Δεν βρέθηκε ο κωδικός " + code);
+        }
+        return index;
+    }
+}
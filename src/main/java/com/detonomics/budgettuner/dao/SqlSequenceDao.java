@@ -1,7 +1,6 @@
 package com.detonomics.budgettuner.dao;
 
 import java.util.List;
-import java.util.Map;
 
 import com.detonomics.budgettuner.model.SqlSequence;
 import com.detonomics.budgettuner.util.DatabaseManager;
@@ -11,6 +10,10 @@ import com.detonomics.budgettuner.util.DatabaseManager;
  */
 public class SqlSequenceDao {
 
+    // Order matches the SqlSequence constructor; other tables are ignored.
+    private static final List<String> SEQUENCE_TABLES = List.of("Budgets", "RevenueCategories",
+            "ExpenseCategories", "Ministries", "MinistryExpenses");
+
     private final DatabaseManager dbManager;
 
     /**
@@ -29,40 +32,16 @@ public class SqlSequenceDao {
      */
     public SqlSequence loadSqliteSequence() {
         String sql = "SELECT name, seq FROM sqlite_sequence";
-        List<Map<String, Object>> results = dbManager.executeQuery(sql);
-
-        int budgets = 0;
-        int revenueCategories = 0;
-        int expenseCategories = 0;
-        int ministries = 0;
-        int ministryExpenses = 0;
+        int[] sequences = new int[SEQUENCE_TABLES.size()];
 
-        for (Map<String, Object> resultRow : results) {
-            String tableName = (String) resultRow.get("name");
-            Integer sequenceValue = ((Number) resultRow.get("seq")).intValue();
-
-            switch (tableName) {
-                case "Budgets":
-                    budgets = sequenceValue;
-                    break;
-                case "RevenueCategories":
-                    revenueCategories = sequenceValue;
-                    break;
-                case "ExpenseCategories":
-                    expenseCategories = sequenceValue;
-                    break;
-                case "Ministries":
-                    ministries = sequenceValue;
-                    break;
-                case "MinistryExpenses":
-                    ministryExpenses = sequenceValue;
-                    break;
-                default:
-                    // Ignore other tables if any
-                    break;
+        dbManager.forEachRow(sql, DatabaseManager.DEFAULT_FETCH_SIZE, rs -> {
+            int index = SEQUENCE_TABLES.indexOf(rs.getString(1));
+            if (index >= 0) {
+                sequences[index] = rs.getInt(2);
             }
-        }
-        return new SqlSequence(budgets, revenueCategories, expenseCategories,
-                ministries, ministryExpenses);
+        });
+
+        return new SqlSequence(sequences[0], sequences[1], sequences[2],
+                sequences[3], sequences[4]);
     }
 }
@@ -1,18 +1,27 @@
 package com.detonomics.budgettuner.dao;
 
 import java.sql.Connection;
-import java.util.Comparator;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.detonomics.budgettuner.model.Summary;
 import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.RowMapper;
 
 /**
  * Manage high-level budget headers and summary metadata.
  */
 public class SummaryDao {
 
+        private static final String SUMMARY_COLUMNS = "budget_id, source_title, currency, locale, "
+                        + "source_date, budget_year, total_revenue, total_expenses, "
+                        + "coverage_with_cash_reserves";
+
+        private static final RowMapper<Summary> SUMMARY_MAPPER = (rs, rowNum) -> mapRowToSummary(rs);
+
         private final DatabaseManager dbManager;
 
         /**
@@ -31,14 +40,27 @@ public class SummaryDao {
          * @return Budget summary metadata
          */
         public Summary loadSummary(final int budgetID) {
-                final String sql = "SELECT * FROM Budgets WHERE budget_id = ?";
-                final List<Map<String, Object>> result = dbManager.executeQuery(sql, budgetID);
+                final String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Budgets WHERE budget_id = ?";
+                final List<Summary> result = dbManager.query(sql, SUMMARY_MAPPER, budgetID);
 
-                if (result.isEmpty()) {
-                        return null;
-                }
+                return result.isEmpty() ? null : result.getFirst();
+        }
 
-                return mapRowToSummary(result.getFirst());
+        /**
+         * Fetch the summaries of several budgets in one query.
+         *
+         * @param conn      Active database connection
+         * @param budgetIDs Target budget IDs
+         * @return Summaries keyed by budget ID; unknown IDs are absent
+         */
+        public Map<Integer, Summary> loadSummaries(final Connection conn, final List<Integer> budgetIDs) {
+                final String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Budgets WHERE budget_id IN ("
+                                + DatabaseManager.placeholders(budgetIDs.size()) + ")";
+                final Map<Integer, Summary> summaries = new HashMap<>();
+                for (Summary summary : dbManager.query(conn, sql, SUMMARY_MAPPER, budgetIDs.toArray())) {
+                        summaries.put(summary.getBudgetID(), summary);
+                }
+                return summaries;
         }
 
         /**
@@ -47,14 +69,9 @@ public class SummaryDao {
          * @return List of all documented budget years
          */
         public List<Summary> loadAllSummaries() {
-                final String sql = "SELECT * FROM Budgets ORDER BY budget_year ASC";
-
-                final List<Map<String, Object>> results = dbManager.executeQuery(sql);
+                final String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Budgets ORDER BY budget_year ASC";
 
-                return results.stream()
-                                .map(this::mapRowToSummary)
-                                .sorted(Comparator.comparingInt(Summary::getBudgetYear))
-                                .toList();
+                return dbManager.query(sql, SUMMARY_MAPPER);
         }
 
         /**
@@ -85,26 +102,18 @@ public class SummaryDao {
                 return dbManager.executeUpdate(conn, sql, totalExpenses, budgetResult, budgetId);
         }
 
-        private Summary mapRowToSummary(final Map<String, Object> row) {
-                final int budgetID = ((Number) row.get("budget_id")).intValue();
-                final String sourceTitle = (String) row.get("source_title");
-                final String currency = (String) row.get("currency");
-                final String locale = (String) row.get("locale");
-                final String sourceDate = (String) row.get("source_date");
-                final int budgetYear = ((Number) row.get("budget_year")).intValue();
-
-                final long totalRevenues = row.get("total_revenue") == null ? 0L
-                                : ((Number) row.get("total_revenue")).longValue();
-
-                final long totalExpenses = row.get("total_expenses") == null ? 0L
-                                : ((Number) row.get("total_expenses")).longValue();
-
+        // Column indexes follow SUMMARY_COLUMNS; NULL amounts read as 0.
+        private static Summary mapRowToSummary(final ResultSet rs) throws SQLException {
+                final int budgetID = rs.getInt(1);
+                final String sourceTitle = rs.getString(2);
+                final String currency = rs.getString(3);
+                final String locale = rs.getString(4);
+                final String sourceDate = rs.getString(5);
+                final int budgetYear = rs.getInt(6);
+                final long totalRevenues = rs.getLong(7);
+                final long totalExpenses = rs.getLong(8);
                 final long budgetResult = totalRevenues - totalExpenses;
-
-                final Object covObj = row.get("coverage_with_cash_reserves");
-                final long coverageWithCashReserves = (covObj != null)
-                                ? ((Number) covObj).longValue()
-                                : 0;
+                final long coverageWithCashReserves = rs.getLong(9);
 
                 return new Summary(budgetID, sourceTitle, currency, locale, sourceDate, budgetYear, totalRevenues,
                                 totalExpenses, budgetResult, coverageWithCashReserves);
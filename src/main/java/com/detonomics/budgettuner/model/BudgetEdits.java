@@ -0,0 +1,152 @@
+package com.detonomics.budgettuner.model;
+
+import java.util.Arrays;
+
+/**
+ * Ordered batch of amount edits for one budget scenario, identified by
+ * human-readable codes. Entries are kept in growable primitive arrays, so
+ * recording an edit does not allocate.
+ *
+ * <p>
+ * Edits are applied in the order they were recorded; recording the same code
+ * twice applies both, the later one on top of the earlier.
+ * </p>
+ */
+public final class BudgetEdits {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] revenueCodes = new long[INITIAL_CAPACITY];
+    private long[] revenueAmounts = new long[INITIAL_CAPACITY];
+    private int revenueCount;
+
+    private long[] ministryCodes = new long[INITIAL_CAPACITY];
+    private long[] expenseCategoryCodes = new long[INITIAL_CAPACITY];
+    private long[] ministryExpenseAmounts = new long[INITIAL_CAPACITY];
+    private int ministryExpenseCount;
+
+    /**
+     * Record a new amount for a revenue category.
+     *
+     * @param code   Revenue code
+     * @param amount New financial value
+     * @return This batch
+     */
+    public BudgetEdits setRevenue(final long code, final long amount) {
+        if (revenueCount == revenueCodes.length) {
+            revenueCodes = Arrays.copyOf(revenueCodes, revenueCount * 2);
+            revenueAmounts = Arrays.copyOf(revenueAmounts, revenueCount * 2);
+        }
+        revenueCodes[revenueCount] = code;
+        revenueAmounts[revenueCount] = amount;
+        revenueCount++;
+        return this;
+    }
+
+    /**
+     * Record a new amount for one ministry's spending in an expense category.
+     *
+     * @param ministryCode        Ministry code
+     * @param expenseCategoryCode Expense category code
+     * @param amount              New financial value
+     * @return This batch
+     */
+    public BudgetEdits setMinistryExpense(final long ministryCode, final long expenseCategoryCode,
+            final long amount) {
+        if (ministryExpenseCount == ministryCodes.length) {
+            int capacity = ministryExpenseCount * 2;
+            ministryCodes = Arrays.copyOf(ministryCodes, capacity);
+            expenseCategoryCodes = Arrays.copyOf(expenseCategoryCodes, capacity);
+            ministryExpenseAmounts = Arrays.copyOf(ministryExpenseAmounts, capacity);
+        }
+        ministryCodes[ministryExpenseCount] = ministryCode;
+        expenseCategoryCodes[ministryExpenseCount] = expenseCategoryCode;
+        ministryExpenseAmounts[ministryExpenseCount] = amount;
+        ministryExpenseCount++;
+        return this;
+    }
+
+    /**
+     * Check whether any edit was recorded.
+     *
+     * @return True if the batch is empty
+     */
+    public boolean isEmpty() {
+        return revenueCount == 0 && ministryExpenseCount == 0;
+    }
+
+    /**
+     * Count the recorded revenue edits.
+     *
+     * @return Number of revenue edits
+     */
+    public int revenueCount() {
+        return revenueCount;
+    }
+
+    /**
+     * Get the code of a revenue edit.
+     *
+     * @param index Position in recording order
+     * @return Revenue code
+     */
+    public long revenueCode(final int index) {
+        return revenueCodes[checkIndex(index, revenueCount)];
+    }
+
+    /**
+     * Get the new amount of a revenue edit.
+     *
+     * @param index Position in recording order
+     * @return New financial value
+     */
+    public long revenueAmount(final int index) {
+        return revenueAmounts[checkIndex(index, revenueCount)];
+    }
+
+    /**
+     * Count the recorded ministry expense edits.
+     *
+     * @return Number of ministry expense edits
+     */
+    public int ministryExpenseCount() {
+        return ministryExpenseCount;
+    }
+
+    /**
+     * Get the ministry code of a ministry expense edit.
+     *
+     * @param index Position in recording order
+     * @return Ministry code
+     */
+    public long ministryCode(final int index) {
+        return ministryCodes[checkIndex(index, ministryExpenseCount)];
+    }
+
+    /**
+     * Get the expense category code of a ministry expense edit.
+     *
+     * @param index Position in recording order
+     * @return Expense category code
+     */
+    public long expenseCategoryCode(final int index) {
+        return expenseCategoryCodes[checkIndex(index, ministryExpenseCount)];
+    }
+
+    /**
+     * Get the new amount of a ministry expense edit.
+     *
+     * @param index Position in recording order
+     * @return New financial value
+     */
+    public long ministryExpenseAmount(final int index) {
+        return ministryExpenseAmounts[checkIndex(index, ministryExpenseCount)];
+    }
+
+    private static int checkIndex(final int index, final int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Edit index " + index + " out of range 0.." + (count - 1));
+        }
+        return index;
+    }
+}
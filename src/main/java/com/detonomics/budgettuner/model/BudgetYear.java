@@ -1,80 +1,171 @@
-package com.detonomics.budgettuner.model;
-
-import java.util.ArrayList;
-
-/**
- * Aggregate model containing all data points for a specific fiscal year.
- */
-public final class BudgetYear {
-    private final Summary summary;
-    private final ArrayList<RevenueCategory> revenues;
-    private final ArrayList<ExpenseCategory> expenses;
-    private final ArrayList<Ministry> ministries;
-    private final ArrayList<MinistryExpense> ministryExpenses;
-
-    /**
-     * Initialize a complete fiscal year object.
-     *
-     * @param summary          Header metadata
-     * @param revenues         Complete revenue hierarchy
-     * @param expenses         General expense classifications
-     * @param ministries       Ministry-level allocations
-     * @param ministryExpenses Detailed expense mappings
-     */
-    public BudgetYear(final Summary summary,
-            final ArrayList<RevenueCategory> revenues,
-            final ArrayList<ExpenseCategory> expenses,
-            final ArrayList<Ministry> ministries,
-            final ArrayList<MinistryExpense> ministryExpenses) {
-        this.summary = summary;
-        this.revenues = new ArrayList<>(revenues);
-        this.expenses = new ArrayList<>(expenses);
-        this.ministries = new ArrayList<>(ministries);
-        this.ministryExpenses = new ArrayList<>(ministryExpenses);
-    }
-
-    /**
-     * Get the budget summary.
-     *
-     * @return Header summary
-     */
-    public Summary getSummary() {
-        return summary;
-    }
-
-    /**
-     * Return a shallow copy of the revenues list.
-     *
-     * @return List of revenue categories
-     */
-    public ArrayList<RevenueCategory> getRevenues() {
-        return new ArrayList<>(revenues);
-    }
-
-    /**
-     * Return a shallow copy of the expenses list.
-     *
-     * @return List of expense categories
-     */
-    public ArrayList<ExpenseCategory> getExpenses() {
-        return new ArrayList<>(expenses);
-    }
-
-    /**
-     * Return a shallow copy of the ministries list.
-     *
-     * @return List of ministries
-     */
-    public ArrayList<Ministry> getMinistries() {
-        return new ArrayList<>(ministries);
-    }
-
-    /**
-     * Return a shallow copy of the ministry expenses list.
-     *
-     * @return List of ministry-specific expenses
-     */
-    public ArrayList<MinistryExpense> getMinistryExpenses() {
-        return new ArrayList<>(ministryExpenses);
-    }
-}
+package com.detonomics.budgettuner.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate model containing all data points for a specific fiscal year.
+ * The lists are unmodifiable copies, and the lookups the screens and reports
+ * need (ministry lines per ministry, categories and ministries by ID, revenue
+ * children per parent) are indexed once when the budget is built. The
+ * elements themselves are the mutable model objects and are not copied.
+ */
+public final class BudgetYear {
+    private final Summary summary;
+    private final List<RevenueCategory> revenues;
+    private final List<ExpenseCategory> expenses;
+    private final List<Ministry> ministries;
+    private final List<MinistryExpense> ministryExpenses;
+
+    private final Map<Integer, List<RevenueCategory>> revenueChildren;
+    private final Map<Integer, ExpenseCategory> expensesByID;
+    private final Map<Integer, Ministry> ministriesByID;
+    private final Map<Integer, List<MinistryExpense>> expensesByMinistry;
+
+    /**
+     * Initialize a complete fiscal year object.
+     *
+     * @param summary          Header metadata
+     * @param revenues         Complete revenue hierarchy
+     * @param expenses         General expense classifications
+     * @param ministries       Ministry-level allocations
+     * @param ministryExpenses Detailed expense mappings
+     */
+    public BudgetYear(final Summary summary,
+            final List<RevenueCategory> revenues,
+            final List<ExpenseCategory> expenses,
+            final List<Ministry> ministries,
+            final List<MinistryExpense> ministryExpenses) {
+        this.summary = summary;
+        this.revenues = List.copyOf(revenues);
+        this.expenses = List.copyOf(expenses);
+        this.ministries = List.copyOf(ministries);
+        this.ministryExpenses = List.copyOf(ministryExpenses);
+
+        Map<Integer, List<RevenueCategory>> children = new HashMap<>();
+        for (RevenueCategory r : this.revenues) {
+            children.computeIfAbsent(r.getParentID(), k -> new ArrayList<>()).add(r);
+        }
+        this.revenueChildren = freeze(children);
+
+        Map<Integer, ExpenseCategory> byExpenseID = new HashMap<>();
+        for (ExpenseCategory e : this.expenses) {
+            byExpenseID.put(e.getExpenseID(), e);
+        }
+        this.expensesByID = byExpenseID;
+
+        Map<Integer, Ministry> byMinistryID = new HashMap<>();
+        for (Ministry m : this.ministries) {
+            byMinistryID.put(m.getMinistryID(), m);
+        }
+        this.ministriesByID = byMinistryID;
+
+        Map<Integer, List<MinistryExpense>> lines = new HashMap<>();
+        for (MinistryExpense me : this.ministryExpenses) {
+            lines.computeIfAbsent(me.getMinistryID(), k -> new ArrayList<>()).add(me);
+        }
+        this.expensesByMinistry = freeze(lines);
+    }
+
+    private static <T> Map<Integer, List<T>> freeze(final Map<Integer, List<T>> groups) {
+        groups.replaceAll((key, group) -> Collections.unmodifiableList(group));
+        return groups;
+    }
+
+    /**
+     * Get the budget summary.
+     *
+     * @return Header summary
+     */
+    public Summary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Get the revenue categories of every level.
+     *
+     * @return Unmodifiable list of revenue categories
+     */
+    public List<RevenueCategory> getRevenues() {
+        return revenues;
+    }
+
+    /**
+     * Get the expense categories.
+     *
+     * @return Unmodifiable list of expense categories
+     */
+    public List<ExpenseCategory> getExpenses() {
+        return expenses;
+    }
+
+    /**
+     * Get the ministries.
+     *
+     * @return Unmodifiable list of ministries
+     */
+    public List<Ministry> getMinistries() {
+        return ministries;
+    }
+
+    /**
+     * Get the expense lines of every ministry.
+     *
+     * @return Unmodifiable list of ministry-specific expenses
+     */
+    public List<MinistryExpense> getMinistryExpenses() {
+        return ministryExpenses;
+    }
+
+    /**
+     * Get the top-level revenue categories.
+     *
+     * @return Unmodifiable list of categories without a parent
+     */
+    public List<RevenueCategory> getRevenueRoots() {
+        return getRevenueChildren(0);
+    }
+
+    /**
+     * Get the direct children of a revenue category.
+     *
+     * @param revenueID ID of the parent category
+     * @return Unmodifiable list of children, empty for a leaf
+     */
+    public List<RevenueCategory> getRevenueChildren(final int revenueID) {
+        return revenueChildren.getOrDefault(revenueID, List.of());
+    }
+
+    /**
+     * Look up an expense category by ID.
+     *
+     * @param expenseID Expense category ID
+     * @return The category, or null if it is not part of this budget
+     */
+    public ExpenseCategory getExpenseCategory(final int expenseID) {
+        return expensesByID.get(expenseID);
+    }
+
+    /**
+     * Look up a ministry by ID.
+     *
+     * @param ministryID Ministry ID
+     * @return The ministry, or null if it is not part of this budget
+     */
+    public Ministry getMinistry(final int ministryID) {
+        return ministriesByID.get(ministryID);
+    }
+
+    /**
+     * Get the expense lines of one ministry.
+     *
+     * @param ministryID Ministry ID
+     * @return Unmodifiable list of the ministry's expenses, empty if none
+     */
+    public List<MinistryExpense> getMinistryExpenses(final int ministryID) {
+        return expensesByMinistry.getOrDefault(ministryID, List.of());
+    }
+}
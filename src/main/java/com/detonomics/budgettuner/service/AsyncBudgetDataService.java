@@ -0,0 +1,402 @@
+package com.detonomics.budgettuner.service;
+
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetEdits;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.SqlSequence;
+import com.detonomics.budgettuner.model.Summary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over a {@link BudgetDataService} for the GUI, so that no
+ * database call runs on the JavaFX application thread. Every method returns a
+ * {@link CompletableFuture} completed on a worker thread.
+ *
+ * <p>
+ * Identical reads that are still in flight are coalesced into one service
+ * call. Cancelling a returned future detaches only that caller; the shared
+ * call is skipped if every caller has cancelled before it started. Writes are
+ * never coalesced.
+ * </p>
+ *
+ * <p>
+ * The service may be supplied lazily; it is then resolved by the first call,
+ * on a worker thread, so that opening the database does not delay the UI.
+ * </p>
+ */
+public final class AsyncBudgetDataService implements AutoCloseable {
+
+    private static final int DEFAULT_THREADS = 2;
+
+    private final Supplier<BudgetDataService> source;
+    private final Object resolveLock = new Object();
+    private volatile BudgetDataService delegate;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final ConcurrentHashMap<String, SharedRead<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedReads = new AtomicLong();
+
+    /*
+     * One service call and the callers waiting for it. The subscriber count
+     * and the started flag are guarded by the instance.
+     */
+    private static final class SharedRead<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int subscribers;
+        private boolean started;
+    }
+
+    /**
+     * Run calls on a small pool of daemon worker threads.
+     *
+     * @param delegate Synchronous data service
+     */
+    public AsyncBudgetDataService(final BudgetDataService delegate) {
+        this(delegate, newWorkerPool());
+    }
+
+    /**
+     * Run calls on a small pool of daemon worker threads, resolving the
+     * service on the first call.
+     *
+     * @param source Supplier of the synchronous data service, called once
+     */
+    public AsyncBudgetDataService(final Supplier<BudgetDataService> source) {
+        this(source, newWorkerPool());
+    }
+
+    /**
+     * Run calls on a given executor, which the caller keeps ownership of.
+     *
+     * @param delegate Synchronous data service
+     * @param executor Executor running the service calls
+     */
+    public AsyncBudgetDataService(final BudgetDataService delegate, final Executor executor) {
+        this(constant(Objects.requireNonNull(delegate)), executor);
+    }
+
+    /**
+     * Run calls on a given executor, resolving the service on the first call.
+     *
+     * @param source   Supplier of the synchronous data service, called once
+     * @param executor Executor running the service calls
+     */
+    public AsyncBudgetDataService(final Supplier<BudgetDataService> source, final Executor executor) {
+        this.source = Objects.requireNonNull(source);
+        this.executor = Objects.requireNonNull(executor);
+        this.ownedExecutor = executor instanceof OwnedPool pool ? pool.service : null;
+    }
+
+    private static Supplier<BudgetDataService> constant(final BudgetDataService service) {
+        return () -> service;
+    }
+
+    private BudgetDataService delegate() {
+        BudgetDataService service = delegate;
+        if (service == null) {
+            synchronized (resolveLock) {
+                service = delegate;
+                if (service == null) {
+                    service = Objects.requireNonNull(source.get());
+                    delegate = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /*
+     * Marks the default pool, so that close() shuts down only what this
+     * facade created.
+     */
+    private record OwnedPool(ExecutorService service) implements Executor {
+        @Override
+        public void execute(final Runnable command) {
+            service.execute(command);
+        }
+    }
+
+    private static Executor newWorkerPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return new OwnedPool(Executors.newFixedThreadPool(DEFAULT_THREADS, r -> {
+            Thread t = new Thread(r, "budget-data-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * Run a read on a worker thread, sharing the call with any identical read
+     * still in flight.
+     *
+     * @param key  Identity of the read; equal keys must denote equal calls
+     * @param call Read against the synchronous service
+     * @param <T>  Result type
+     * @return Future of the read, private to this caller
+     */
+    public <T> CompletableFuture<T> read(final String key, final Function<BudgetDataService, T> call) {
+        SharedRead<T> created = new SharedRead<>();
+        created.subscribers = 1;
+        @SuppressWarnings("unchecked")
+        SharedRead<T> shared = (SharedRead<T>) inFlight.compute(key, (k, existing) -> {
+            if (existing != null && !existing.result.isDone()) {
+                synchronized (existing) {
+                    existing.subscribers++;
+                }
+                return existing;
+            }
+            return created;
+        });
+        // Submitted outside compute(), since an inline executor would update the map re-entrantly.
+        if (shared == created) {
+            executor.execute(() -> runShared(key, created, call));
+        } else {
+            coalescedReads.incrementAndGet();
+        }
+
+        CompletableFuture<T> caller = new CompletableFuture<>();
+        shared.result.whenComplete((value, error) -> {
+            if (error != null) {
+                caller.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                caller.complete(value);
+            }
+        });
+        caller.whenComplete((value, error) -> {
+            if (caller.isCancelled()) {
+                unsubscribe(key, shared);
+            }
+        });
+        return caller;
+    }
+
+    private <T> void runShared(final String key, final SharedRead<T> shared,
+            final Function<BudgetDataService, T> call) {
+        synchronized (shared) {
+            if (shared.subscribers == 0) {
+                return;
+            }
+            shared.started = true;
+        }
+        try {
+            T value = call.apply(delegate());
+            inFlight.remove(key, shared);
+            shared.result.complete(value);
+        } catch (Throwable e) {
+            // Errors too, or every later identical read would join a future
+            // that never completes.
+            inFlight.remove(key, shared);
+            shared.result.completeExceptionally(e);
+        }
+    }
+
+    private void unsubscribe(final String key, final SharedRead<?> shared) {
+        synchronized (shared) {
+            shared.subscribers--;
+            if (shared.subscribers > 0 || shared.started) {
+                return;
+            }
+        }
+        inFlight.remove(key, shared);
+        shared.result.cancel(false);
+    }
+
+    /**
+     * Run a write on a worker thread. Writes are never shared, and later reads
+     * never join a read issued before the write finished.
+     *
+     * @param call Write against the synchronous service
+     * @return Future completed once the write is done; cancelling it before
+     *         the write starts skips the write
+     */
+    public CompletableFuture<Void> write(final Consumer<BudgetDataService> call) {
+        return writeAndGet(() -> {
+            call.accept(delegate());
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> writeAndGet(final Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.get();
+            } finally {
+                // Reads issued after the write must not join a call that may predate it.
+                inFlight.clear();
+            }
+        }, executor);
+    }
+
+    /**
+     * Count the reads served by a call already in flight.
+     *
+     * @return Number of coalesced reads since creation
+     */
+    public long coalescedReads() {
+        return coalescedReads.get();
+    }
+
+    /**
+     * Load the high-level statistics of the database.
+     *
+     * @return Future of the record counts
+     */
+    public CompletableFuture<SqlSequence> loadStatistics() {
+        return read("statistics", BudgetDataService::loadStatistics);
+    }
+
+    /**
+     * Load the fiscal years that have a budget.
+     *
+     * @return Future of the years
+     */
+    public CompletableFuture<ArrayList<Integer>> loadBudgetYears() {
+        return read("budget-years", BudgetDataService::loadBudgetYears);
+    }
+
+    /**
+     * Resolve the budget of a fiscal year.
+     *
+     * @param year Fiscal year
+     * @return Future of the budget ID, -1 if there is none
+     */
+    public CompletableFuture<Integer> loadBudgetIDByYear(final int year) {
+        return read("budget-id:" + year, service -> service.loadBudgetIDByYear(year));
+    }
+
+    /**
+     * Load a complete budget.
+     *
+     * @param budgetID Internal budget ID
+     * @return Future of the budget
+     */
+    public CompletableFuture<BudgetYear> loadBudgetYear(final int budgetID) {
+        return read("budget:" + budgetID, service -> service.loadBudgetYear(budgetID));
+    }
+
+    /**
+     * Load several complete budgets.
+     *
+     * @param budgetIDs Internal budget IDs
+     * @return Future of the budgets keyed by ID
+     */
+    public CompletableFuture<Map<Integer, BudgetYear>> loadBudgetYearsByID(final List<Integer> budgetIDs) {
+        List<Integer> ids = List.copyOf(budgetIDs);
+        return read("budgets:" + ids, service -> service.loadBudgetYearsByID(ids));
+    }
+
+    /**
+     * Load the summaries of every budget.
+     *
+     * @return Future of the summaries
+     */
+    public CompletableFuture<List<Summary>> loadAllSummaries() {
+        return read("summaries", BudgetDataService::loadAllSummaries);
+    }
+
+    /**
+     * Load cross-year analytics over all stored budgets.
+     *
+     * @return Future of the analytics
+     */
+    public CompletableFuture<BudgetAnalytics> loadAnalytics() {
+        return read("analytics", BudgetDataService::loadAnalytics);
+    }
+
+    /**
+     * Compare several budgets line by line.
+     *
+     * @param type      Table to compare
+     * @param budgetIDs Budgets in column order
+     * @return Future of the aligned matrix
+     */
+    public CompletableFuture<ComparisonMatrix> compareBudgets(final AnalysisType type,
+            final List<Integer> budgetIDs) {
+        List<Integer> ids = List.copyOf(budgetIDs);
+        return read("compare:" + type + ":" + ids, service -> service.compareBudgets(type, ids));
+    }
+
+    /**
+     * Delete a budget and everything that belongs to it.
+     *
+     * @param budgetID Internal budget ID
+     * @return Future completed once the budget is gone
+     */
+    public CompletableFuture<Void> deleteBudget(final int budgetID) {
+        return write(service -> service.deleteBudget(budgetID));
+    }
+
+    /**
+     * Save a scenario: clone a budget and apply edits to the clone, as one
+     * write.
+     *
+     * @param modificationService Service sharing this facade's database
+     * @param sourceBudgetID      Budget to clone
+     * @param title               Title of the new budget
+     * @param edits               Amounts to change in the clone
+     * @return Future of the new budget's ID, -1 if the clone failed
+     */
+    public CompletableFuture<Integer> cloneBudgetWithEdits(final BudgetModificationService modificationService,
+            final int sourceBudgetID, final String title, final BudgetEdits edits) {
+        return writeAndGet(() -> modificationService.cloneBudgetWithEdits(sourceBudgetID, title, edits));
+    }
+
+    /**
+     * Ingest a budget document.
+     *
+     * @param pdfPath Path of the source PDF
+     * @param logger  Receiver of progress messages, called on the worker
+     * @return Future completed once the budget is stored
+     */
+    public CompletableFuture<Void> insertNewBudgetYear(final String pdfPath, final Consumer<String> logger) {
+        return insertNewBudgetYear(pdfPath, false, logger);
+    }
+
+    /**
+     * Ingest a budget document.
+     *
+     * @param pdfPath Path of the source PDF
+     * @param force   Re-run every pipeline stage even if its output is cached
+     * @param logger  Receiver of progress messages, called on the worker
+     * @return Future completed once the budget is stored
+     */
+    public CompletableFuture<Void> insertNewBudgetYear(final String pdfPath, final boolean force,
+            final Consumer<String> logger) {
+        return write(service -> {
+            try {
+                service.insertNewBudgetYear(pdfPath, force, logger);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Stop the worker threads this facade created. An executor passed in by
+     * the caller is left running.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+}
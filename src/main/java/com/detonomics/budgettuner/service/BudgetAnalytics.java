@@ -0,0 +1,345 @@
+package com.detonomics.budgettuner.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+
+/**
+ * Cross-year analytics over a {@link BudgetSnapshot}: line-by-line diffs,
+ * shares, top-N rankings and growth rates. Everything is computed from the
+ * snapshot's columns; nothing here touches the database.
+ *
+ * <p>
+ * Line-level results cover top-level rows only: root revenue categories,
+ * every expense category and every ministry. Missing budgets behave as
+ * budgets without rows.
+ * </p>
+ */
+public final class BudgetAnalytics {
+
+    /**
+     * One code of two budgets side by side.
+     *
+     * @param code         Category or ministry code
+     * @param name         Name in the first budget, else in the second
+     * @param inFirst      True if the first budget has the code
+     * @param firstAmount  Amount in the first budget, 0 if absent
+     * @param inSecond     True if the second budget has the code
+     * @param secondAmount Amount in the second budget, 0 if absent
+     */
+    public record LineComparison(long code, String name, boolean inFirst, long firstAmount, boolean inSecond,
+            long secondAmount) {
+
+        /**
+         * Compute the change from the first to the second budget.
+         *
+         * @return Second minus first amount
+         */
+        public long difference() {
+            return secondAmount - firstAmount;
+        }
+
+        /**
+         * Compute the relative change from the first to the second budget.
+         *
+         * @return Change in percent, or empty if the first amount is 0
+         */
+        public OptionalDouble percentChange() {
+            return percent(firstAmount, secondAmount);
+        }
+    }
+
+    /**
+     * One line of a budget with its share of the budget's lines.
+     *
+     * @param code   Category or ministry code
+     * @param name   Display name
+     * @param amount Amount; the total budget for ministries
+     * @param share  Fraction of the sum of all lines, between 0 and 1 for
+     *               non-negative amounts
+     */
+    public record Line(long code, String name, long amount, double share) {
+    }
+
+    private final BudgetSnapshot snapshot;
+    private BudgetTimeSeries allSeries;
+    private BudgetTimeSeries originalSeries;
+
+    /**
+     * Initialize over a snapshot.
+     *
+     * @param snapshot Columnar copy of the stored budgets
+     */
+    public BudgetAnalytics(final BudgetSnapshot snapshot) {
+        this.snapshot = Objects.requireNonNull(snapshot);
+    }
+
+    /**
+     * Access the underlying snapshot for custom column scans.
+     *
+     * @return Snapshot the analytics run on
+     */
+    public BudgetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the per-code time series over every budget, scenarios included.
+     * Built on first use and kept for the lifetime of this snapshot.
+     *
+     * @return Time series with one point per budget
+     */
+    public synchronized BudgetTimeSeries timeSeries() {
+        if (allSeries == null) {
+            allSeries = BudgetTimeSeries.allBudgets(snapshot);
+        }
+        return allSeries;
+    }
+
+    /**
+     * Get the per-code time series over the budgets read from source
+     * documents. Built on first use and kept for the lifetime of this
+     * snapshot.
+     *
+     * @return Time series with one point per original budget
+     */
+    public synchronized BudgetTimeSeries originalTimeSeries() {
+        if (originalSeries == null) {
+            originalSeries = BudgetTimeSeries.originalBudgets(snapshot);
+        }
+        return originalSeries;
+    }
+
+    /**
+     * Find a budget by fiscal year and source title.
+     *
+     * @param year  Fiscal year
+     * @param title Exact source title
+     * @return Internal budget ID, or -1 if none matches
+     */
+    public int findBudgetID(final int year, final String title) {
+        for (int b = 0; b < snapshot.budgetCount(); b++) {
+            if (snapshot.year(b) == year && Objects.equals(snapshot.title(b), title)) {
+                return snapshot.budgetID(b);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare the top-level lines of two budgets, matched by code.
+     *
+     * @param type           Table to compare
+     * @param firstBudgetID  Baseline budget ID
+     * @param secondBudgetID Target budget ID
+     * @return One entry per code present in either budget, ordered by code
+     */
+    public List<LineComparison> compare(final AnalysisType type, final int firstBudgetID,
+            final int secondBudgetID) {
+        return compare(type, firstBudgetID, secondBudgetID, true);
+    }
+
+    /**
+     * Compare every line of two budgets, revenue sub-categories included,
+     * matched by code.
+     *
+     * @param type           Table to compare
+     * @param firstBudgetID  Baseline budget ID
+     * @param secondBudgetID Target budget ID
+     * @return One entry per code present in either budget, ordered by code
+     */
+    public List<LineComparison> compareAllLines(final AnalysisType type, final int firstBudgetID,
+            final int secondBudgetID) {
+        return compare(type, firstBudgetID, secondBudgetID, false);
+    }
+
+    private List<LineComparison> compare(final AnalysisType type, final int firstBudgetID,
+            final int secondBudgetID, final boolean topLevelOnly) {
+        int first = snapshot.budgetRow(firstBudgetID);
+        int second = snapshot.budgetRow(secondBudgetID);
+        long[] codes = new long[rowCount(type, first) + rowCount(type, second)];
+        int count = collectCodes(type, first, topLevelOnly, codes, 0);
+        count = collectCodes(type, second, topLevelOnly, codes, count);
+        Arrays.sort(codes, 0, count);
+
+        List<LineComparison> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long code = codes[i];
+            if (i > 0 && codes[i - 1] == code) {
+                continue;
+            }
+            int row1 = rowOf(type, first, code, topLevelOnly);
+            int row2 = rowOf(type, second, code, topLevelOnly);
+            String name = row1 >= 0 ? snapshot.name(type, row1) : snapshot.name(type, row2);
+            result.add(new LineComparison(code, name, row1 >= 0, row1 >= 0 ? snapshot.amount(type, row1) : 0,
+                    row2 >= 0, row2 >= 0 ? snapshot.amount(type, row2) : 0));
+        }
+        return result;
+    }
+
+    /**
+     * Rank the top-level lines of a budget by amount.
+     *
+     * @param type     Table to rank
+     * @param budgetID Budget ID
+     * @return Lines with their shares, largest first
+     */
+    public List<Line> ranked(final AnalysisType type, final int budgetID) {
+        return top(type, budgetID, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return the largest top-level lines of a budget.
+     *
+     * @param type     Table to rank
+     * @param budgetID Budget ID
+     * @param limit    Maximum number of lines
+     * @return Up to {@code limit} lines with their shares, largest first
+     */
+    public List<Line> top(final AnalysisType type, final int budgetID, final int limit) {
+        int b = snapshot.budgetRow(budgetID);
+        if (b < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[] rows = new int[rowCount(type, b)];
+        int count = 0;
+        long sum = 0;
+        for (int row = snapshot.firstRow(type, b); row < snapshot.endRow(type, b); row++) {
+            if (snapshot.isTopLevel(type, row)) {
+                rows[count++] = row;
+                sum += snapshot.amount(type, row);
+            }
+        }
+        sortByAmountDescending(type, rows, count);
+
+        int size = Math.min(limit, count);
+        List<Line> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int row = rows[i];
+            long amount = snapshot.amount(type, row);
+            result.add(new Line(snapshot.code(type, row), snapshot.name(type, row), amount,
+                    sum == 0 ? 0.0 : (double) amount / sum));
+        }
+        return result;
+    }
+
+    /**
+     * Get the stored total a budget reports for a table: total revenue for
+     * revenues, total expenses for expense categories and ministries.
+     *
+     * @param type     Table whose total is wanted
+     * @param budgetID Budget ID
+     * @return Stored total, or 0 if the budget is not in the snapshot
+     */
+    public long budgetTotal(final AnalysisType type, final int budgetID) {
+        int b = snapshot.budgetRow(budgetID);
+        if (b < 0) {
+            return 0;
+        }
+        return type == AnalysisType.REVENUE ? snapshot.totalRevenue(b) : snapshot.totalExpenses(b);
+    }
+
+    /**
+     * Compute the relative change of a budget total between two budgets.
+     *
+     * @param type         Table whose total is compared
+     * @param fromBudgetID Earlier budget ID
+     * @param toBudgetID   Later budget ID
+     * @return Change in percent, or empty if either budget is missing or the
+     *         earlier total is 0
+     */
+    public OptionalDouble growthRate(final AnalysisType type, final int fromBudgetID, final int toBudgetID) {
+        if (snapshot.budgetRow(fromBudgetID) < 0 || snapshot.budgetRow(toBudgetID) < 0) {
+            return OptionalDouble.empty();
+        }
+        return percent(budgetTotal(type, fromBudgetID), budgetTotal(type, toBudgetID));
+    }
+
+    /**
+     * Compute the relative change of one line between two budgets.
+     *
+     * @param type         Table holding the line
+     * @param code         Category or ministry code
+     * @param fromBudgetID Earlier budget ID
+     * @param toBudgetID   Later budget ID
+     * @return Change in percent, or empty if either budget lacks the code or
+     *         the earlier amount is 0
+     */
+    public OptionalDouble lineGrowthRate(final AnalysisType type, final long code, final int fromBudgetID,
+            final int toBudgetID) {
+        int from = snapshot.budgetRow(fromBudgetID);
+        int to = snapshot.budgetRow(toBudgetID);
+        int fromRow = from < 0 ? -1 : snapshot.rowOf(type, from, code);
+        int toRow = to < 0 ? -1 : snapshot.rowOf(type, to, code);
+        if (fromRow < 0 || toRow < 0) {
+            return OptionalDouble.empty();
+        }
+        return percent(snapshot.amount(type, fromRow), snapshot.amount(type, toRow));
+    }
+
+    private int rowOf(final AnalysisType type, final int budgetRow, final long code, final boolean topLevelOnly) {
+        int row = budgetRow < 0 ? -1 : snapshot.rowOf(type, budgetRow, code);
+        return row >= 0 && (!topLevelOnly || snapshot.isTopLevel(type, row)) ? row : -1;
+    }
+
+    private int rowCount(final AnalysisType type, final int budgetRow) {
+        return budgetRow < 0 ? 0 : snapshot.endRow(type, budgetRow) - snapshot.firstRow(type, budgetRow);
+    }
+
+    private int collectCodes(final AnalysisType type, final int budgetRow, final boolean topLevelOnly,
+            final long[] codes, final int offset) {
+        int count = offset;
+        if (budgetRow >= 0) {
+            for (int row = snapshot.firstRow(type, budgetRow); row < snapshot.endRow(type, budgetRow); row++) {
+                if (!topLevelOnly || snapshot.isTopLevel(type, row)) {
+                    codes[count++] = snapshot.code(type, row);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void sortByAmountDescending(final AnalysisType type, final int[] rows, final int count) {
+        // Bottom-up merge sort over a copy of the amount column: O(n log n),
+        // stable so equal amounts keep their stored order, and without boxing.
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = snapshot.amount(type, rows[i]);
+        }
+        int[] rowBuffer = new int[count];
+        long[] amountBuffer = new long[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count - width; lo += 2 * width) {
+                mergeDescending(rows, amounts, rowBuffer, amountBuffer, lo, lo + width,
+                        Math.min(lo + 2 * width, count));
+            }
+        }
+    }
+
+    private static void mergeDescending(final int[] rows, final long[] amounts, final int[] rowBuffer,
+            final long[] amountBuffer, final int lo, final int mid, final int hi) {
+        System.arraycopy(rows, lo, rowBuffer, lo, hi - lo);
+        System.arraycopy(amounts, lo, amountBuffer, lo, hi - lo);
+        int left = lo;
+        int right = mid;
+        for (int i = lo; i < hi; i++) {
+            boolean takeLeft = right >= hi || (left < mid && amountBuffer[left] >= amountBuffer[right]);
+            int from = takeLeft ? left++ : right++;
+            rows[i] = rowBuffer[from];
+            amounts[i] = amountBuffer[from];
+        }
+    }
+
+    private static OptionalDouble percent(final long from, final long to) {
+        if (from == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of((double) (to - from) / from * 100);
+    }
+}
@@ -0,0 +1,331 @@
+package com.detonomics.budgettuner.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.detonomics.budgettuner.model.BudgetTotals;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.Summary;
+
+/**
+ * Read-through cache for fully loaded budget years and the budget-wide summary
+ * and totals lists, shared by the data and modification services.
+ *
+ * <p>
+ * Budget years are kept in least-recently-used order and bounded by weight,
+ * where a budget weighs one unit per loaded row. Writers invalidate exactly the
+ * budget they touched, plus the budget-wide lists when the Budgets header row
+ * changed. Every invalidation also discards loads that were already in flight,
+ * so a reader racing a writer never caches the pre-write state.
+ * </p>
+ */
+public final class BudgetCache {
+
+    /** Default weight bound, in rows; the bundled budgets weigh about 700 each. */
+    public static final long DEFAULT_MAX_WEIGHT = 20_000;
+
+    private record Entry(BudgetYear budget, long weight) {
+    }
+
+    private final long maxWeight;
+    private final LinkedHashMap<Integer, Entry> budgets = new LinkedHashMap<>(16, 0.75f, true);
+    private List<Summary> summaries;
+    private List<BudgetTotals> budgetTotals;
+    private long weight;
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Initialize with the default weight bound.
+     */
+    public BudgetCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Initialize with a custom weight bound.
+     *
+     * @param maxWeight Maximum combined row count of cached budget years
+     */
+    public BudgetCache(final long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache weight bound must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Return the cached budget year, loading and caching it on a miss.
+     *
+     * @param budgetID Target budget ID
+     * @param loader   Database lookup used on a miss
+     * @return Budget year, or null if the loader found none
+     */
+    public BudgetYear getBudgetYear(final int budgetID, final IntFunction<BudgetYear> loader) {
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = budgets.get(budgetID);
+            if (entry != null) {
+                hits++;
+                return entry.budget();
+            }
+            misses++;
+            startGeneration = generation;
+        }
+        BudgetYear loaded = loader.apply(budgetID);
+        if (loaded != null) {
+            putBudgetYear(budgetID, loaded, startGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * Return several budget years, loading only the ones not cached in a single
+     * call to the loader.
+     *
+     * @param budgetIDs Target budget IDs
+     * @param loader    Bulk database lookup used for the misses
+     * @return Budget years keyed by ID, in request order; unknown IDs are absent
+     */
+    public Map<Integer, BudgetYear> getBudgetYears(final List<Integer> budgetIDs,
+            final Function<List<Integer>, Map<Integer, BudgetYear>> loader) {
+        // Null values hold each missing ID's slot so request order survives.
+        Map<Integer, BudgetYear> result = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long startGeneration;
+        synchronized (this) {
+            for (Integer id : budgetIDs) {
+                if (result.containsKey(id)) {
+                    continue;
+                }
+                Entry entry = budgets.get(id);
+                if (entry != null) {
+                    hits++;
+                    result.put(id, entry.budget());
+                } else {
+                    misses++;
+                    result.put(id, null);
+                    missing.add(id);
+                }
+            }
+            startGeneration = generation;
+        }
+        if (!missing.isEmpty()) {
+            for (Map.Entry<Integer, BudgetYear> loaded : loader.apply(missing).entrySet()) {
+                result.put(loaded.getKey(), loaded.getValue());
+                putBudgetYear(loaded.getKey(), loaded.getValue(), startGeneration);
+            }
+        }
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * Return a cached budget year without loading it or touching the counters.
+     *
+     * @param budgetID Target budget ID
+     * @return Cached budget year, or null
+     */
+    public synchronized BudgetYear peekBudgetYear(final int budgetID) {
+        Entry entry = budgets.get(budgetID);
+        return entry == null ? null : entry.budget();
+    }
+
+    /**
+     * Return a cached summary from either a cached budget year or the cached
+     * summary list, without loading anything.
+     *
+     * @param budgetID Target budget ID
+     * @return Cached summary, or null
+     */
+    public synchronized Summary peekSummary(final int budgetID) {
+        Entry entry = budgets.get(budgetID);
+        if (entry != null) {
+            return entry.budget().getSummary();
+        }
+        if (summaries != null) {
+            for (Summary summary : summaries) {
+                if (summary.getBudgetID() == budgetID) {
+                    return summary;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the cached summary list, loading it on a miss.
+     *
+     * @param loader Database lookup used on a miss
+     * @return Unmodifiable list of summaries
+     */
+    public List<Summary> getSummaries(final Supplier<List<Summary>> loader) {
+        long startGeneration;
+        synchronized (this) {
+            if (summaries != null) {
+                hits++;
+                return summaries;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+        List<Summary> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == startGeneration) {
+                summaries = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Return the cached budget totals list, loading it on a miss.
+     *
+     * @param loader Database lookup used on a miss
+     * @return Unmodifiable list of budget totals
+     */
+    public List<BudgetTotals> getBudgetTotals(final Supplier<List<BudgetTotals>> loader) {
+        long startGeneration;
+        synchronized (this) {
+            if (budgetTotals != null) {
+                hits++;
+                return budgetTotals;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+        List<BudgetTotals> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == startGeneration) {
+                budgetTotals = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop a budget whose header row changed, together with the budget-wide
+     * summary and totals lists that include it.
+     *
+     * @param budgetID Modified budget ID
+     */
+    public synchronized void invalidateBudget(final int budgetID) {
+        invalidateBudgetContents(budgetID);
+        invalidateLists();
+    }
+
+    /**
+     * Drop a budget whose category rows changed but whose header did not.
+     *
+     * @param budgetID Modified budget ID
+     */
+    public synchronized void invalidateBudgetContents(final int budgetID) {
+        generation++;
+        Entry removed = budgets.remove(budgetID);
+        if (removed != null) {
+            weight -= removed.weight();
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drop every cached budget year matching a condition, for writes that are
+     * identified by a child row rather than a budget ID.
+     *
+     * @param affected Test selecting the budgets to drop
+     */
+    public synchronized void invalidateBudgetsWhere(final Predicate<BudgetYear> affected) {
+        generation++;
+        Iterator<Entry> it = budgets.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (affected.test(entry.budget())) {
+                it.remove();
+                weight -= entry.weight();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Drop the budget-wide summary and totals lists, e.g. after a budget was
+     * added.
+     */
+    public synchronized void invalidateLists() {
+        generation++;
+        if (summaries != null) {
+            summaries = null;
+            invalidations++;
+        }
+        if (budgetTotals != null) {
+            budgetTotals = null;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drop everything.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += budgets.size();
+        budgets.clear();
+        weight = 0;
+        invalidateLists();
+    }
+
+    /**
+     * Get a counter that advances on every invalidation, so derived read
+     * models can tell whether they were built before the last write.
+     *
+     * @return Current invalidation generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Capture a snapshot of the cache counters.
+     *
+     * @return Current cache statistics
+     */
+    public synchronized BudgetCacheStats stats() {
+        return new BudgetCacheStats(hits, misses, evictions, invalidations, budgets.size(), weight, maxWeight);
+    }
+
+    private synchronized void putBudgetYear(final int budgetID, final BudgetYear budget,
+            final long startGeneration) {
+        long entryWeight = weigh(budget);
+        if (generation != startGeneration || entryWeight > maxWeight) {
+            return;
+        }
+        Entry previous = budgets.put(budgetID, new Entry(budget, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entryWeight;
+        Iterator<Entry> eldest = budgets.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            weight -= entry.weight();
+            evictions++;
+        }
+    }
+
+    private static long weigh(final BudgetYear budget) {
+        return 1L + budget.getRevenues().size() + budget.getExpenses().size()
+                + budget.getMinistries().size() + budget.getMinistryExpenses().size();
+    }
+}
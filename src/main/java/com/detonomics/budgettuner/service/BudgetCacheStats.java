@@ -0,0 +1,26 @@
+package com.detonomics.budgettuner.service;
+
+/**
+ * Point-in-time counters for the budget read cache.
+ *
+ * @param hits          Lookups answered from memory
+ * @param misses        Lookups that went to the database
+ * @param evictions     Budgets dropped to stay within the weight bound
+ * @param invalidations Entries discarded because the underlying data changed
+ * @param budgets       Budget years currently cached
+ * @param weight        Combined weight of the cached budget years, in rows
+ * @param maxWeight     Upper bound on the combined weight
+ */
+public record BudgetCacheStats(long hits, long misses, long evictions, long invalidations,
+        int budgets, long weight, long maxWeight) {
+
+    /**
+     * Fraction of lookups answered from memory.
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
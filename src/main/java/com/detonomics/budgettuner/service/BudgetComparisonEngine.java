@@ -0,0 +1,132 @@
+package com.detonomics.budgettuner.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+
+/**
+ * Compares any number of budgets at once. The top-level lines of the selected
+ * budgets are aligned by code into a {@link ComparisonMatrix}; the cells and
+ * per-row statistics are filled in row ranges that run concurrently on an
+ * executor, so wide comparisons scale with the available cores.
+ */
+public final class BudgetComparisonEngine {
+
+    private static final int MIN_CHUNK_ROWS = 64;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int minChunkRows;
+
+    /**
+     * Create an engine on the common pool, one worker per core.
+     */
+    public BudgetComparisonEngine() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an engine on a given executor.
+     *
+     * @param executor    Executor running the row ranges
+     * @param parallelism Number of workers the executor offers, at least 1
+     */
+    public BudgetComparisonEngine(final Executor executor, final int parallelism) {
+        this(executor, parallelism, MIN_CHUNK_ROWS);
+    }
+
+    BudgetComparisonEngine(final Executor executor, final int parallelism, final int minChunkRows) {
+        if (parallelism < 1 || minChunkRows < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be at least 1");
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+        this.minChunkRows = minChunkRows;
+    }
+
+    /**
+     * Compare budgets of a snapshot line by line.
+     *
+     * @param snapshot  Columnar copy of the stored budgets
+     * @param type      Table to compare
+     * @param budgetIDs Budgets in column order; unknown IDs are skipped
+     * @return Aligned matrix with per-row statistics
+     */
+    public ComparisonMatrix compare(final BudgetSnapshot snapshot, final AnalysisType type,
+            final List<Integer> budgetIDs) {
+        Objects.requireNonNull(snapshot);
+        Objects.requireNonNull(type);
+
+        List<Integer> rows = new ArrayList<>();
+        for (int budgetID : budgetIDs) {
+            int b = snapshot.budgetRow(budgetID);
+            if (b >= 0) {
+                rows.add(b);
+            }
+        }
+        int columns = rows.size();
+        int[] budgetRows = new int[columns];
+        int[] ids = new int[columns];
+        int[] years = new int[columns];
+        String[] titles = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            int b = rows.get(c);
+            budgetRows[c] = b;
+            ids[c] = snapshot.budgetID(b);
+            years[c] = snapshot.year(b);
+            titles[c] = snapshot.title(b);
+        }
+
+        ComparisonMatrix matrix = new ComparisonMatrix(type, ids, years, titles,
+                topLevelCodes(snapshot, type, budgetRows));
+        int rowCount = matrix.rowCount();
+        int chunk = Math.max(minChunkRows, rowCount / (parallelism * CHUNKS_PER_WORKER) + 1);
+        if (parallelism == 1 || rowCount <= chunk) {
+            matrix.fillRows(snapshot, budgetRows, 0, rowCount);
+        } else {
+            List<CompletableFuture<Void>> parts = new ArrayList<>();
+            for (int from = 0; from < rowCount; from += chunk) {
+                int start = from;
+                int end = Math.min(rowCount, from + chunk);
+                parts.add(CompletableFuture.runAsync(() -> matrix.fillRows(snapshot, budgetRows, start, end),
+                        executor));
+            }
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).join();
+        }
+        matrix.rankChanges();
+        return matrix;
+    }
+
+    private static long[] topLevelCodes(final BudgetSnapshot snapshot, final AnalysisType type,
+            final int[] budgetRows) {
+        int size = 0;
+        for (int b : budgetRows) {
+            size += snapshot.endRow(type, b) - snapshot.firstRow(type, b);
+        }
+        long[] codes = new long[size];
+        int count = 0;
+        for (int b : budgetRows) {
+            for (int row = snapshot.firstRow(type, b); row < snapshot.endRow(type, b); row++) {
+                if (snapshot.isTopLevel(type, row)) {
+                    codes[count++] = snapshot.code(type, row);
+                }
+            }
+        }
+        Arrays.sort(codes, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || codes[i] != codes[unique - 1]) {
+                codes[unique++] = codes[i];
+            }
+        }
+        return Arrays.copyOf(codes, unique);
+    }
+}
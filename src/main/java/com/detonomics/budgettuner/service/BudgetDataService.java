@@ -1,5 +1,6 @@
 package com.detonomics.budgettuner.service;
 
+import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetTotals;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
@@ -11,6 +12,7 @@ import com.detonomics.budgettuner.model.Summary;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -49,6 +51,15 @@ public interface BudgetDataService {
      */
     BudgetYear loadBudgetYear(int budgetID);
 
+    /**
+     * Fetch the complete datasets of several budget years from one consistent
+     * database snapshot.
+     *
+     * @param budgetIDs Target budget IDs
+     * @return Fully populated records keyed by ID, in request order
+     */
+    Map<Integer, BudgetYear> loadBudgetYearsByID(List<Integer> budgetIDs);
+
     /**
      * Orchesrate the ingestion of a budget PDF into the database.
      *
@@ -56,7 +67,19 @@ public interface BudgetDataService {
      * @param logger  Callback for progress updates
      * @throws Exception If any part of the conversion fails
      */
-    void insertNewBudgetYear(String pdfPath, Consumer<String> logger) throws Exception;
+    default void insertNewBudgetYear(String pdfPath, Consumer<String> logger) throws Exception {
+        insertNewBudgetYear(pdfPath, false, logger);
+    }
+
+    /**
+     * Orchestrate the ingestion of a budget PDF into the database.
+     *
+     * @param pdfPath File path to the source PDF
+     * @param force   Re-run every pipeline stage even if its output is cached
+     * @param logger  Callback for progress updates
+     * @throws Exception If any part of the conversion fails
+     */
+    void insertNewBudgetYear(String pdfPath, boolean force, Consumer<String> logger) throws Exception;
 
     /**
      * Duplicate a budget record and all its associated data.
@@ -95,6 +118,24 @@ public interface BudgetDataService {
      */
     List<BudgetTotals> loadAllBudgetTotals();
 
+    /**
+     * Retrieve cross-year analytics over all stored budgets. The result is
+     * reused until the next write.
+     *
+     * @return Analytics over a columnar snapshot of every budget
+     */
+    BudgetAnalytics loadAnalytics();
+
+    /**
+     * Compare several budgets line by line over the current analytics
+     * snapshot.
+     *
+     * @param type      Table to compare
+     * @param budgetIDs Budgets in column order; unknown IDs are skipped
+     * @return Matrix of amounts aligned by code, with per-line statistics
+     */
+    ComparisonMatrix compareBudgets(AnalysisType type, List<Integer> budgetIDs);
+
     /**
      * Load the full revenue structure for a given budget.
      *
@@ -8,6 +8,7 @@ import com.detonomics.budgettuner.dao.MinistryExpenseDao;
 import com.detonomics.budgettuner.dao.RevenueCategoryDao;
 import com.detonomics.budgettuner.dao.SqlSequenceDao;
 import com.detonomics.budgettuner.dao.SummaryDao;
+import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetTotals;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
@@ -19,10 +20,14 @@ import com.detonomics.budgettuner.model.Summary;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
  * Orchestrate budget data operations by coordinating between various DAOs.
+ * Budget years, the summary list and the totals list are served through a
+ * {@link BudgetCache} that every write method here invalidates. The analytics
+ * snapshot is rebuilt lazily once the cache generation has moved on.
  */
 public final class BudgetDataServiceImpl implements BudgetDataService {
 
@@ -34,6 +39,12 @@ public final class BudgetDataServiceImpl implements BudgetDataService {
     private final SummaryDao summaryDao;
     private final BudgetTotalsDao budgetTotalsDao;
     private final SqlSequenceDao sqlSequenceDao;
+    private final BudgetCache budgetCache;
+    private final BudgetComparisonEngine comparisonEngine = new BudgetComparisonEngine();
+    private volatile AnalyticsEntry analytics;
+
+    private record AnalyticsEntry(long generation, BudgetAnalytics analytics) {
+    }
 
     /**
      * Initialize with specialized DAOs for each data domain.
@@ -47,11 +58,34 @@ public final class BudgetDataServiceImpl implements BudgetDataService {
      * @param budgetTotalsDao    DAO for aggregate totals
      * @param sqlSequenceDao     DAO for system sequences
      */
-    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
     public BudgetDataServiceImpl(final BudgetYearDao budgetYearDao, final RevenueCategoryDao revenueCategoryDao,
             final ExpenseCategoryDao expenseCategoryDao, final MinistryDao ministryDao,
             final MinistryExpenseDao ministryExpenseDao, final SummaryDao summaryDao,
             final BudgetTotalsDao budgetTotalsDao, final SqlSequenceDao sqlSequenceDao) {
+        this(budgetYearDao, revenueCategoryDao, expenseCategoryDao, ministryDao, ministryExpenseDao, summaryDao,
+                budgetTotalsDao, sqlSequenceDao, new BudgetCache());
+    }
+
+    /**
+     * Initialize with specialized DAOs and a read cache shared with the
+     * modification service, so its writes invalidate what this service serves.
+     *
+     * @param budgetYearDao      DAO for budget year management
+     * @param revenueCategoryDao DAO for revenue structures
+     * @param expenseCategoryDao DAO for expense classifications
+     * @param ministryDao        DAO for ministry records
+     * @param ministryExpenseDao DAO for granular ministry expenses
+     * @param summaryDao         DAO for budget headers
+     * @param budgetTotalsDao    DAO for aggregate totals
+     * @param sqlSequenceDao     DAO for system sequences
+     * @param budgetCache        Shared read cache
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
+    public BudgetDataServiceImpl(final BudgetYearDao budgetYearDao, final RevenueCategoryDao revenueCategoryDao,
+            final ExpenseCategoryDao expenseCategoryDao, final MinistryDao ministryDao,
+            final MinistryExpenseDao ministryExpenseDao, final SummaryDao summaryDao,
+            final BudgetTotalsDao budgetTotalsDao, final SqlSequenceDao sqlSequenceDao,
+            final BudgetCache budgetCache) {
         this.budgetYearDao = budgetYearDao;
         this.revenueCategoryDao = revenueCategoryDao;
         this.expenseCategoryDao = expenseCategoryDao;
@@ -60,6 +94,16 @@ public final class BudgetDataServiceImpl implements BudgetDataService {
         this.summaryDao = summaryDao;
         this.budgetTotalsDao = budgetTotalsDao;
         this.sqlSequenceDao = sqlSequenceDao;
+        this.budgetCache = budgetCache;
+    }
+
+    /**
+     * Report hit ratio, eviction and invalidation counts of the read cache.
+     *
+     * @return Current cache statistics
+     */
+    public BudgetCacheStats getCacheStats() {
+        return budgetCache.stats();
     }
 
     @Override
@@ -79,82 +123,144 @@ public final class BudgetDataServiceImpl implements BudgetDataService {
 
     @Override
     public BudgetYear loadBudgetYear(final int budgetID) {
-        return budgetYearDao.loadBudgetYear(budgetID);
+        return budgetCache.getBudgetYear(budgetID, budgetYearDao::loadBudgetYear);
     }
 
     @Override
-    public void insertNewBudgetYear(final String pdfPath,
+    public Map<Integer, BudgetYear> loadBudgetYearsByID(final List<Integer> budgetIDs) {
+        return budgetCache.getBudgetYears(budgetIDs, budgetYearDao::loadBudgetYearsByID);
+    }
+
+    @Override
+    public void insertNewBudgetYear(final String pdfPath, final boolean force,
             final Consumer<String> logger) throws Exception {
-        budgetYearDao.insertNewBudgetYear(pdfPath, logger);
+        try {
+            budgetYearDao.insertNewBudgetYear(pdfPath, force, logger);
+        } finally {
+            // Ingestion writes through its own connection and may reuse IDs.
+            budgetCache.invalidateAll();
+        }
     }
 
     @Override
     public void cloneBudget(final int sourceBudgetID, final int targetBudgetID) {
-        revenueCategoryDao.cloneRevenueCategories(sourceBudgetID, targetBudgetID);
+        try {
+            revenueCategoryDao.cloneRevenueCategories(sourceBudgetID, targetBudgetID);
+        } finally {
+            budgetCache.invalidateBudgetContents(targetBudgetID);
+        }
     }
 
     @Override
     public void deleteBudget(final int budgetID) {
-        budgetYearDao.deleteBudget(budgetID);
+        try {
+            budgetYearDao.deleteBudget(budgetID);
+        } finally {
+            budgetCache.invalidateBudget(budgetID);
+        }
     }
 
     @Override
     public List<Summary> loadAllSummaries() {
-        return summaryDao.loadAllSummaries();
+        return budgetCache.getSummaries(summaryDao::loadAllSummaries);
     }
 
     @Override
     public Summary loadSummary(final int budgetID) {
-        return summaryDao.loadSummary(budgetID);
+        Summary cached = budgetCache.peekSummary(budgetID);
+        return cached != null ? cached : summaryDao.loadSummary(budgetID);
     }
 
     @Override
     public List<BudgetTotals> loadAllBudgetTotals() {
-        return budgetTotalsDao.loadAllBudgetTotals();
+        return budgetCache.getBudgetTotals(budgetTotalsDao::loadAllBudgetTotals);
+    }
+
+    @Override
+    public BudgetAnalytics loadAnalytics() {
+        long generation = budgetCache.generation();
+        AnalyticsEntry entry = analytics;
+        if (entry == null || entry.generation() != generation) {
+            // Concurrent readers may each build a snapshot; the last one wins.
+            entry = new AnalyticsEntry(generation, new BudgetAnalytics(budgetTotalsDao.loadSnapshot()));
+            analytics = entry;
+        }
+        return entry.analytics();
+    }
+
+    @Override
+    public ComparisonMatrix compareBudgets(final AnalysisType type, final List<Integer> budgetIDs) {
+        return comparisonEngine.compare(loadAnalytics().getSnapshot(), type, budgetIDs);
     }
 
     @Override
     public ArrayList<RevenueCategory> loadRevenues(final int budgetID) {
-        return revenueCategoryDao.loadRevenues(budgetID);
+        BudgetYear cached = budgetCache.peekBudgetYear(budgetID);
+        return cached != null ? new ArrayList<>(cached.getRevenues()) : revenueCategoryDao.loadRevenues(budgetID);
     }
 
     @Override
     public ArrayList<ExpenseCategory> loadExpenses(final int budgetID) {
-        return expenseCategoryDao.loadExpenses(budgetID);
+        BudgetYear cached = budgetCache.peekBudgetYear(budgetID);
+        return cached != null ? new ArrayList<>(cached.getExpenses()) : expenseCategoryDao.loadExpenses(budgetID);
     }
 
     @Override
     public ArrayList<Ministry> loadMinistries(final int budgetID) {
-        return ministryDao.loadMinistries(budgetID);
+        BudgetYear cached = budgetCache.peekBudgetYear(budgetID);
+        return cached != null ? new ArrayList<>(cached.getMinistries()) : ministryDao.loadMinistries(budgetID);
     }
 
     @Override
     public ArrayList<MinistryExpense> loadMinistryExpenses(final int budgetID) {
-        return ministryExpenseDao.loadMinistryExpenses(budgetID);
+        BudgetYear cached = budgetCache.peekBudgetYear(budgetID);
+        return cached != null ? new ArrayList<>(cached.getMinistryExpenses())
+                : ministryExpenseDao.loadMinistryExpenses(budgetID);
     }
 
     @Override
     public void setRevenueAmount(final int budgetID, final long code, final long amount) {
-        revenueCategoryDao.setRevenueAmount(budgetID, code, amount);
+        try {
+            revenueCategoryDao.setRevenueAmount(budgetID, code, amount);
+        } finally {
+            budgetCache.invalidateBudgetContents(budgetID);
+        }
     }
 
     @Override
     public void updateExpenseCategoryAmount(final int budgetId, final String expenseCode, final long newAmount) {
-        expenseCategoryDao.updateExpenseCategoryAmount(budgetId, expenseCode, newAmount);
+        try {
+            expenseCategoryDao.updateExpenseCategoryAmount(budgetId, expenseCode, newAmount);
+        } finally {
+            budgetCache.invalidateBudgetContents(budgetId);
+        }
     }
 
     @Override
     public void updateMinistryTotalBudget(final int budgetId, final String ministryCode, final long newTotalBudget) {
-        ministryDao.updateMinistryTotalBudget(budgetId, ministryCode, newTotalBudget);
+        try {
+            ministryDao.updateMinistryTotalBudget(budgetId, ministryCode, newTotalBudget);
+        } finally {
+            budgetCache.invalidateBudgetContents(budgetId);
+        }
     }
 
     @Override
     public void updateMinistryExpenseAmount(final int ministryExpenseId, final long newAmount) {
-        ministryExpenseDao.updateExpenseAmount(ministryExpenseId, newAmount);
+        try {
+            ministryExpenseDao.updateExpenseAmount(ministryExpenseId, newAmount);
+        } finally {
+            budgetCache.invalidateBudgetsWhere(budget -> budget.getMinistryExpenses().stream()
+                    .anyMatch(me -> me.getMinistryExpenseID() == ministryExpenseId));
+        }
     }
 
     @Override
     public void updateBudgetSummary(final int budgetId, final long totalExpenses, final long budgetResult) {
-        summaryDao.updateBudgetSummary(budgetId, totalExpenses, budgetResult);
+        try {
+            summaryDao.updateBudgetSummary(budgetId, totalExpenses, budgetResult);
+        } finally {
+            budgetCache.invalidateBudget(budgetId);
+        }
     }
 }
@@ -2,6 +2,8 @@ package com.detonomics.budgettuner.service;
 
 import java.util.Map;
 
+import com.detonomics.budgettuner.model.BudgetEdits;
+
 /**
  * Handle high-level budget alterations including cloning and bulk updates.
  */
@@ -22,6 +24,35 @@ public interface BudgetModificationService {
      * @param revenueUpdates  Mapping of revenue codes to updated values
      * @param ministryUpdates Mapping of compound ministry identifiers to updated
      *                        values
+     * @throws IllegalArgumentException If a ministry identifier is not two
+     *                                  numeric codes joined by ':', or an
+     *                                  update names an unknown code; nothing
+     *                                  is written
      */
     void updateBudgetAmounts(int budgetID, Map<Long, Long> revenueUpdates, Map<String, Long> ministryUpdates);
+
+    /**
+     * Apply a scenario's edits in one transaction, resolving every code once
+     * and writing each affected table in a single batch.
+     *
+     * @param budgetID Target budget ID
+     * @param edits    Revenue and ministry expense edits, in application order
+     * @throws IllegalArgumentException If an edit names an unknown code or
+     *                                  ministry expense line; nothing is written
+     */
+    void applyBudgetEdits(int budgetID, BudgetEdits edits);
+
+    /**
+     * Clone a budget and apply a scenario's edits to the clone in one
+     * transaction, so a rejected edit leaves no unedited clone behind.
+     *
+     * @param sourceBudgetID    Baseline budget ID
+     * @param targetSourceTitle Display title for the new record
+     * @param edits             Revenue and ministry expense edits for the clone
+     * @return Internal ID of the newly created budget
+     * @throws IllegalArgumentException If the source budget does not exist or
+     *                                  an edit names an unknown code or
+     *                                  ministry expense line; nothing is written
+     */
+    int cloneBudgetWithEdits(int sourceBudgetID, String targetSourceTitle, BudgetEdits edits);
 }
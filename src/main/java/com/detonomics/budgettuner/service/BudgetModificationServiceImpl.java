@@ -1,16 +1,24 @@
 package com.detonomics.budgettuner.service;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
+import com.detonomics.budgettuner.dao.AggregateJournal;
+import com.detonomics.budgettuner.dao.AggregateMaintainer;
 import com.detonomics.budgettuner.dao.BudgetYearDao;
 import com.detonomics.budgettuner.dao.ExpenseCategoryDao;
 import com.detonomics.budgettuner.dao.MinistryDao;
 import com.detonomics.budgettuner.dao.MinistryExpenseDao;
 import com.detonomics.budgettuner.dao.RevenueCategoryDao;
 import com.detonomics.budgettuner.dao.SummaryDao;
-import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.BudgetEdits;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.MinistryExpense;
 import com.detonomics.budgettuner.util.DatabaseManager;
-import java.sql.SQLException;
+import com.detonomics.budgettuner.util.LongIntMap;
 
 /**
  * Coordinate transaction-aware budget modifications and cloning processes.
@@ -23,9 +31,9 @@ public final class BudgetModificationServiceImpl implements BudgetModificationSe
     private final ExpenseCategoryDao expenseCategoryDao;
     private final MinistryExpenseDao ministryExpenseDao;
     private final RevenueCategoryDao revenueCategoryDao;
-    // Keeping summaryDao for potential future extensions
-    @SuppressWarnings("unused")
+    private final BudgetCache budgetCache;
     private final SummaryDao summaryDao;
+    private final AggregateMaintainer aggregates;
 
     /**
      * Initialize with the required transactional and data access components.
@@ -38,11 +46,32 @@ public final class BudgetModificationServiceImpl implements BudgetModificationSe
      * @param ministryExpenseDao DAO for detailed mappings
      * @param summaryDao         DAO for budget summaries
      */
-    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
     public BudgetModificationServiceImpl(final DatabaseManager dbManager, final BudgetYearDao budgetYearDao,
             final RevenueCategoryDao revenueCategoryDao, final ExpenseCategoryDao expenseCategoryDao,
             final MinistryDao ministryDao, final MinistryExpenseDao ministryExpenseDao,
             final SummaryDao summaryDao) {
+        this(dbManager, budgetYearDao, revenueCategoryDao, expenseCategoryDao, ministryDao, ministryExpenseDao,
+                summaryDao, new BudgetCache());
+    }
+
+    /**
+     * Initialize with the required components and the read cache of the data
+     * service, which is invalidated after every committed modification.
+     *
+     * @param dbManager          System database orchestrator
+     * @param budgetYearDao      DAO for budget header lifecycle
+     * @param revenueCategoryDao DAO for revenue hierarchies
+     * @param expenseCategoryDao DAO for expense classifications
+     * @param ministryDao        DAO for ministry definitions
+     * @param ministryExpenseDao DAO for detailed mappings
+     * @param summaryDao         DAO for budget summaries
+     * @param budgetCache        Read cache shared with the data service
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
+    public BudgetModificationServiceImpl(final DatabaseManager dbManager, final BudgetYearDao budgetYearDao,
+            final RevenueCategoryDao revenueCategoryDao, final ExpenseCategoryDao expenseCategoryDao,
+            final MinistryDao ministryDao, final MinistryExpenseDao ministryExpenseDao,
+            final SummaryDao summaryDao, final BudgetCache budgetCache) {
         this.dbManager = dbManager;
         this.budgetYearDao = budgetYearDao;
         this.revenueCategoryDao = revenueCategoryDao;
@@ -50,125 +79,192 @@ public final class BudgetModificationServiceImpl implements BudgetModificationSe
         this.ministryDao = ministryDao;
         this.ministryExpenseDao = ministryExpenseDao;
         this.summaryDao = summaryDao;
+        this.budgetCache = budgetCache;
+        this.aggregates = new AggregateMaintainer(dbManager, budgetYearDao, expenseCategoryDao, ministryDao);
     }
 
     @Override
     public int cloneBudget(final int sourceBudgetID, final String targetSourceTitle) {
-        final BudgetYear sourceBudget = budgetYearDao.loadBudgetYear(sourceBudgetID);
-        if (sourceBudget == null) {
+        if (summaryDao.loadSummary(sourceBudgetID) == null) {
             throw new IllegalArgumentException("Source budget not found: " + sourceBudgetID);
         }
 
+        // Each table is copied by one INSERT ... SELECT; child references are
+        // shifted by the key offsets of the rows they point to.
+        final int[] newBudget = {-1};
         try {
             return dbManager.inTransaction(conn -> {
                 // 1. Create new Budget header
-                int newBudgetID = budgetYearDao.createBudget(conn, sourceBudget, targetSourceTitle);
+                int newBudgetID = budgetYearDao.cloneBudgetHeader(conn, sourceBudgetID, targetSourceTitle);
+                newBudget[0] = newBudgetID;
 
                 // 2. Clone Revenue tree
                 revenueCategoryDao.cloneRevenueCategories(conn, sourceBudgetID, newBudgetID);
 
-                // 3. Clone Ministries and capture identity mappings
-                Map<Integer, Integer> ministryIdMap = ministryDao.cloneMinistries(conn, sourceBudgetID, newBudgetID);
-
-                // 4. Clone Expense Categories and capture identity mappings
-                Map<Integer, Integer> expenseIdMap = expenseCategoryDao.cloneExpenseCategories(conn, sourceBudgetID,
-                        newBudgetID);
+                // 3. Clone Ministries and Expense Categories, capturing their key offsets
+                int ministryIdOffset = ministryDao.cloneMinistries(conn, sourceBudgetID, newBudgetID);
+                int expenseIdOffset = expenseCategoryDao.cloneExpenseCategories(conn, sourceBudgetID, newBudgetID);
 
-                // 5. Replicate granular Ministry Expenses using the resolved ID maps
-                ministryExpenseDao.cloneMinistryExpenses(conn, sourceBudgetID, ministryIdMap, expenseIdMap);
+                // 4. Replicate granular Ministry Expenses through the same offsets
+                ministryExpenseDao.cloneMinistryExpenses(conn, sourceBudgetID, ministryIdOffset, expenseIdOffset);
 
                 return newBudgetID;
             });
         } catch (SQLException e) {
             throw new RuntimeException("Clone operation failed", e);
+        } finally {
+            // A reused ID may still be cached from a deleted budget.
+            if (newBudget[0] > 0) {
+                budgetCache.invalidateBudget(newBudget[0]);
+            } else {
+                budgetCache.invalidateLists();
+            }
         }
     }
 
     @Override
     public void updateBudgetAmounts(final int budgetID, final Map<Long, Long> revenueUpdates,
             final Map<String, Long> ministryUpdates) {
+        BudgetEdits edits = new BudgetEdits();
+        revenueUpdates.forEach(edits::setRevenue);
+        for (Map.Entry<String, Long> entry : ministryUpdates.entrySet()) {
+            String[] parts = entry.getKey().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed ministry expense key: " + entry.getKey());
+            }
+            try {
+                edits.setMinistryExpense(Long.parseLong(parts[0]), Long.parseLong(parts[1]), entry.getValue());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed ministry expense key: " + entry.getKey(), e);
+            }
+        }
+        applyBudgetEdits(budgetID, edits);
+    }
+
+    @Override
+    public void applyBudgetEdits(final int budgetID, final BudgetEdits edits) {
         try {
             dbManager.inTransaction(conn -> {
-                // 1. Update individual Revenue targets
-                for (Map.Entry<Long, Long> entry : revenueUpdates.entrySet()) {
-                    long code = entry.getKey();
-                    long amount = entry.getValue();
-                    revenueCategoryDao.setRevenueAmount(conn, budgetID, code, amount);
-                }
+                AggregateJournal journal = aggregates.begin(conn, budgetID);
+
+                // 1. Update individual Revenue targets, propagated through the hierarchy in one pass
+                revenueCategoryDao.setRevenueAmounts(conn, budgetID, edits, journal);
 
                 // 2. Update specific Ministry Expense lines
-                for (Map.Entry<String, Long> entry : ministryUpdates.entrySet()) {
-                    String key = entry.getKey();
-                    long newAmount = entry.getValue();
-
-                    String[] parts = key.split(":");
-                    if (parts.length == 2) {
-                        long minCode = Long.parseLong(parts[0]);
-                        long expCode = Long.parseLong(parts[1]);
-
-                        // Fetch old amount to calculate delta
-                        String fetchSql = "SELECT amount FROM MinistryExpenses "
-                                + "WHERE ministry_id = (SELECT ministry_id FROM Ministries "
-                                + "WHERE budget_id = ? AND CAST(code AS INTEGER) = ?) "
-                                + "AND expense_category_id = (SELECT expense_category_id "
-                                + "FROM ExpenseCategories WHERE budget_id = ? "
-                                + "AND CAST(code AS INTEGER) = ?)";
-
-                        long oldAmount = 0;
-                        java.util.List<Map<String, Object>> res = dbManager.executeQuery(conn,
-                                fetchSql, budgetID, minCode, budgetID, expCode);
-                        if (!res.isEmpty()) {
-                            Object val = res.get(0).get("amount");
-                            if (val != null) {
-                                oldAmount = ((Number) val).longValue();
-                            }
-                        }
-
-                        // Apply the update to Ministry Expense
-                        ministryExpenseDao.updateExpenseAmount(conn, budgetID, minCode,
-                                expCode, newAmount);
-
-                        // Apply the Delta to Expense Category Total & Ministry Total
-                        long delta = newAmount - oldAmount;
-                        if (delta != 0) {
-                            // Update Category Total
-                            expenseCategoryDao.addAmountToCategory(conn, budgetID, expCode, delta);
-
-                            // Update Ministry Total
-                            // Get ministry ID from external code
-                            String minIdSql = "SELECT ministry_id FROM Ministries "
-                                    + "WHERE budget_id = ? AND CAST(code AS INTEGER) = ?";
-                            java.util.List<Map<String, Object>> mRes =
-                                    dbManager.executeQuery(conn, minIdSql, budgetID, minCode);
-                            if (!mRes.isEmpty()) {
-                                int minId = ((Number) mRes.get(0).get("ministry_id"))
-                                        .intValue();
-                                ministryDao.addAmountToMinistry(conn, minId, delta);
-                            }
-                        }
-                    }
-                }
-
-                // 3. Cascade updates to maintain financial consistency
-
-                // Recalculate Ministry & Expense Category aggregates if detailed lines changed
-                if (!ministryUpdates.isEmpty()) {
-                    // Future extension point for recalculation logic
-                    System.out.println("Ministry updates processed: " + ministryUpdates.size());
-                }
-
-                // Refresh the global Revenue ceiling
-                long totalRevenue = revenueCategoryDao.calculateTotalRevenue(conn, budgetID);
-                budgetYearDao.updateTotalRevenue(conn, budgetID, totalRevenue);
-
-                // Sync the overall Budget expenditure and net result
-                long totalExpenses = budgetYearDao.calculateTotalExpenses(conn, budgetID);
-                budgetYearDao.updateTotalExpensesAndResult(conn, budgetID, totalExpenses);
+                applyMinistryExpenseEdits(conn, budgetID, edits, journal);
+
+                // 3. Move ministry, category and budget totals by the collected deltas
+                aggregates.apply(conn, journal);
 
                 return null;
             });
         } catch (SQLException e) {
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
             throw new RuntimeException("Mass update failed", e);
+        } finally {
+            budgetCache.invalidateBudget(budgetID);
         }
     }
+
+    @Override
+    public int cloneBudgetWithEdits(final int sourceBudgetID, final String targetSourceTitle,
+            final BudgetEdits edits) {
+        final int[] newBudget = {-1};
+        try {
+            // Both calls join this transaction through the thread's connection.
+            return dbManager.inTransaction(conn -> {
+                newBudget[0] = cloneBudget(sourceBudgetID, targetSourceTitle);
+                applyBudgetEdits(newBudget[0], edits);
+                return newBudget[0];
+            });
+        } catch (SQLException e) {
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
+            throw new RuntimeException("Scenario save failed", e);
+        } finally {
+            // The nested calls invalidated before the outcome was committed.
+            if (newBudget[0] > 0) {
+                budgetCache.invalidateBudget(newBudget[0]);
+            } else {
+                budgetCache.invalidateLists();
+            }
+        }
+    }
+
+    /*
+     * Resolve every code once through primitive maps, compute the new line
+     * amounts in memory and write the changed lines in one batch. Unknown
+     * lines are rejected before anything is written.
+     */
+    private void applyMinistryExpenseEdits(final Connection conn, final int budgetID, final BudgetEdits edits,
+            final AggregateJournal journal) {
+        int editCount = edits.ministryExpenseCount();
+        if (editCount == 0) {
+            return;
+        }
+        List<Ministry> ministries = ministryDao.loadMinistries(conn, budgetID);
+        List<ExpenseCategory> categories = expenseCategoryDao.loadExpenses(conn, budgetID);
+        List<MinistryExpense> lines = ministryExpenseDao.loadMinistryExpenses(conn, budgetID);
+
+        LongIntMap ministryByCode = new LongIntMap(ministries.size());
+        for (Ministry ministry : ministries) {
+            ministryByCode.putIfAbsent(ministry.getCode(), ministry.getMinistryID());
+        }
+        LongIntMap categoryByCode = new LongIntMap(categories.size());
+        for (ExpenseCategory category : categories) {
+            categoryByCode.putIfAbsent(category.getCode(), category.getExpenseID());
+        }
+        LongIntMap lineByKey = new LongIntMap(lines.size());
+        long[] lineAmounts = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            MinistryExpense line = lines.get(i);
+            lineByKey.putIfAbsent(lineKey(line.getMinistryID(), line.getExpenseCategoryID()), i);
+            lineAmounts[i] = line.getAmount();
+        }
+
+        int[] editedLines = new int[editCount];
+        for (int e = 0; e < editCount; e++) {
+            long ministryCode = edits.ministryCode(e);
+            long categoryCode = edits.expenseCategoryCode(e);
+            int ministryID = ministryByCode.getOrDefault(ministryCode, -1);
+            int categoryID = categoryByCode.getOrDefault(categoryCode, -1);
+            int line = ministryID < 0 || categoryID < 0 ? -1
+                    : lineByKey.getOrDefault(lineKey(ministryID, categoryID), -1);
+            if (line < 0) {
+                throw new IllegalArgumentException("Δεν βρέθηκε η δαπάνη " + ministryCode + ":" + categoryCode);
+            }
+            editedLines[e] = line;
+        }
+
+        for (int e = 0; e < editCount; e++) {
+            int line = editedLines[e];
+            long delta = edits.ministryExpenseAmount(e) - lineAmounts[line];
+            lineAmounts[line] += delta;
+            journal.addMinistryExpense(lines.get(line).getMinistryID(), lines.get(line).getExpenseCategoryID(),
+                    delta);
+        }
+
+        int changedLines = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lineAmounts[i] != lines.get(i).getAmount()) {
+                changedLines++;
+            }
+        }
+        int[] lineIDs = new int[changedLines];
+        long[] newAmounts = new long[changedLines];
+        for (int i = 0, n = 0; i < lines.size(); i++) {
+            if (lineAmounts[i] != lines.get(i).getAmount()) {
+                lineIDs[n] = lines.get(i).getMinistryExpenseID();
+                newAmounts[n++] = lineAmounts[i];
+            }
+        }
+        ministryExpenseDao.updateExpenseAmounts(conn, lineIDs, newAmounts);
+    }
+
+    private static long lineKey(final int ministryID, final int expenseCategoryID) {
+        return ((long) ministryID << 32) | (expenseCategoryID & 0xFFFFFFFFL);
+    }
 }
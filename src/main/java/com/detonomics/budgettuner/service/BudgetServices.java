@@ -0,0 +1,156 @@
+package com.detonomics.budgettuner.service;
+
+import com.detonomics.budgettuner.dao.BudgetTotalsDao;
+import com.detonomics.budgettuner.dao.BudgetYearDao;
+import com.detonomics.budgettuner.dao.ExpenseCategoryDao;
+import com.detonomics.budgettuner.dao.MinistryDao;
+import com.detonomics.budgettuner.dao.MinistryExpenseDao;
+import com.detonomics.budgettuner.dao.RevenueCategoryDao;
+import com.detonomics.budgettuner.dao.SqlSequenceDao;
+import com.detonomics.budgettuner.dao.SummaryDao;
+import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.PragmaReport;
+import com.detonomics.budgettuner.util.SchemaMigrations;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Service graph shared by the GUI and the CLI. Nothing is built until first
+ * asked for: the database is opened, checked and migrated, and the DAOs and
+ * services are wired, on the first call to {@link #dataService()} or
+ * {@link #modificationService()}. Front ends can therefore show their first
+ * screen before touching the database, and open it on a worker thread.
+ */
+public final class BudgetServices implements AutoCloseable {
+
+    private final String dbPath;
+    private final long checkpointIntervalMillis;
+    private final Consumer<String> log;
+    private final BudgetCache budgetCache = new BudgetCache();
+
+    private DatabaseManager dbManager;
+    private Daos daos;
+    private BudgetDataService dataService;
+    private BudgetModificationService modificationService;
+    private boolean closed;
+
+    private record Daos(SummaryDao summaryDao, RevenueCategoryDao revenueCategoryDao,
+            ExpenseCategoryDao expenseCategoryDao, MinistryDao ministryDao, MinistryExpenseDao ministryExpenseDao,
+            BudgetTotalsDao budgetTotalsDao, SqlSequenceDao sqlSequenceDao, BudgetYearDao budgetYearDao) {
+    }
+
+    /**
+     * Describe the service graph without building any of it.
+     *
+     * @param dbPath                   Path to the SQLite database file
+     * @param checkpointIntervalMillis Interval of background WAL checkpoints,
+     *                                 0 for none
+     * @param log                      Receiver of the effective database
+     *                                 settings once the database is opened
+     */
+    public BudgetServices(final String dbPath, final long checkpointIntervalMillis, final Consumer<String> log) {
+        this.dbPath = Objects.requireNonNull(dbPath);
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        this.log = Objects.requireNonNull(log);
+    }
+
+    /**
+     * Get the data service, opening the database on first use.
+     *
+     * @return Shared data service
+     * @throws IllegalStateException If the database schema cannot be upgraded
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP" })
+    public synchronized BudgetDataService dataService() {
+        if (dataService == null) {
+            Daos d = daos();
+            dataService = new BudgetDataServiceImpl(d.budgetYearDao(), d.revenueCategoryDao(),
+                    d.expenseCategoryDao(), d.ministryDao(), d.ministryExpenseDao(), d.summaryDao(),
+                    d.budgetTotalsDao(), d.sqlSequenceDao(), budgetCache);
+        }
+        return dataService;
+    }
+
+    /**
+     * Get the modification service, opening the database on first use. It
+     * shares the read cache of {@link #dataService()}, so its writes
+     * invalidate what the data service serves.
+     *
+     * @return Shared modification service
+     * @throws IllegalStateException If the database schema cannot be upgraded
+     */
+    public synchronized BudgetModificationService modificationService() {
+        if (modificationService == null) {
+            Daos d = daos();
+            modificationService = new BudgetModificationServiceImpl(database(), d.budgetYearDao(),
+                    d.revenueCategoryDao(), d.expenseCategoryDao(), d.ministryDao(), d.ministryExpenseDao(),
+                    d.summaryDao(), budgetCache);
+        }
+        return modificationService;
+    }
+
+    /**
+     * Check whether the database has been opened yet.
+     *
+     * @return True once any service has been built
+     */
+    public synchronized boolean isOpen() {
+        return dbManager != null;
+    }
+
+    private Daos daos() {
+        if (daos == null) {
+            DatabaseManager db = database();
+            SummaryDao summaryDao = new SummaryDao(db);
+            RevenueCategoryDao revenueCategoryDao = new RevenueCategoryDao(db);
+            ExpenseCategoryDao expenseCategoryDao = new ExpenseCategoryDao(db);
+            MinistryDao ministryDao = new MinistryDao(db);
+            MinistryExpenseDao ministryExpenseDao = new MinistryExpenseDao(db);
+            daos = new Daos(summaryDao, revenueCategoryDao, expenseCategoryDao, ministryDao, ministryExpenseDao,
+                    new BudgetTotalsDao(db), new SqlSequenceDao(db),
+                    new BudgetYearDao(db, summaryDao, revenueCategoryDao, expenseCategoryDao, ministryDao,
+                            ministryExpenseDao));
+        }
+        return daos;
+    }
+
+    private DatabaseManager database() {
+        if (closed) {
+            throw new IllegalStateException("Services are closed");
+        }
+        if (dbManager == null) {
+            DatabaseManager db = new DatabaseManager(dbPath);
+            PragmaReport report = db.runSelfCheck();
+            log.accept("Database settings: " + report.effective());
+            report.mismatches().forEach(m -> System.err.println("Database setting not applied: " + m));
+            try {
+                int applied = db.migrateSchema();
+                if (applied > 0) {
+                    log.accept("Applied " + applied + " schema migration(s); schema is at version "
+                            + SchemaMigrations.LATEST_VERSION);
+                }
+            } catch (SQLException e) {
+                db.close();
+                throw new IllegalStateException("Database schema upgrade failed: " + e.getMessage(), e);
+            }
+            if (checkpointIntervalMillis > 0) {
+                db.startCheckpointScheduler(checkpointIntervalMillis);
+            }
+            dbManager = db;
+        }
+        return dbManager;
+    }
+
+    /**
+     * Close the database if it was opened. Services cannot be built afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (dbManager != null) {
+            dbManager.close();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.detonomics.budgettuner.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.function.IntPredicate;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.util.LongIntMap;
+
+/**
+ * Per-code time series over a selection of budgets, built once from a
+ * {@link BudgetSnapshot}. Every revenue code, expense category code and
+ * ministry code gets one {@code long[]} holding its amount in each selected
+ * budget, so queries never go back to the snapshot or the database.
+ *
+ * <p>
+ * Points are the selected budgets ordered by fiscal year, then by budget ID;
+ * scenarios of the same year therefore follow the budget they were cloned
+ * from. A code missing from a budget has the value {@link #MISSING} there.
+ * </p>
+ */
+public final class BudgetTimeSeries {
+
+    /**
+     * Value of a point where the budget does not have the code.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    /**
+     * Title prefix the ingestion gives to budgets read from a source document,
+     * as opposed to scenarios cloned from them.
+     */
+    public static final String ORIGINAL_TITLE_PREFIX = "Προϋπολογισμός ";
+
+    private final int[] budgetIDs;
+    private final int[] years;
+    private final long[][] codes = new long[AnalysisType.values().length][];
+    private final LongIntMap[] seriesIndex = new LongIntMap[AnalysisType.values().length];
+    private final Series[][] series = new Series[AnalysisType.values().length][];
+    private final Series totalRevenue;
+    private final Series totalExpenses;
+    private final Series budgetResult;
+
+    /**
+     * Amounts of one code across the points of the owning time series.
+     */
+    public final class Series {
+        private final long code;
+        private final String name;
+        private final long[] values;
+
+        private Series(final long code, final String name, final long[] values) {
+            this.code = code;
+            this.name = name;
+            this.values = values;
+        }
+
+        /**
+         * Get the code the series belongs to.
+         *
+         * @return Category or ministry code, 0 for budget totals
+         */
+        public long code() {
+            return code;
+        }
+
+        /**
+         * Get the display name of the series.
+         *
+         * @return Name in the latest budget having the code
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Count the points of the series.
+         *
+         * @return Number of selected budgets
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Get the fiscal year of a point.
+         *
+         * @param point Point index
+         * @return Fiscal year
+         */
+        public int year(final int point) {
+            return years[point];
+        }
+
+        /**
+         * Get the budget of a point.
+         *
+         * @param point Point index
+         * @return Internal budget ID
+         */
+        public int budgetID(final int point) {
+            return budgetIDs[point];
+        }
+
+        /**
+         * Check whether the budget of a point has the code.
+         *
+         * @param point Point index
+         * @return True if the point has a value
+         */
+        public boolean has(final int point) {
+            return values[point] != MISSING;
+        }
+
+        /**
+         * Get the amount at a point.
+         *
+         * @param point Point index
+         * @return Amount, or {@link #MISSING}
+         */
+        public long value(final int point) {
+            return values[point];
+        }
+
+        /**
+         * Copy the amounts of every point.
+         *
+         * @return Amounts in point order, {@link #MISSING} where absent
+         */
+        public long[] values() {
+            return values.clone();
+        }
+
+        /**
+         * Compute the change at a point against the latest earlier fiscal year
+         * that has the code.
+         *
+         * @param point Point index
+         * @return Amount minus the previous year's amount, or empty if either
+         *         is missing
+         */
+        public OptionalLong yearOverYear(final int point) {
+            if (!has(point)) {
+                return OptionalLong.empty();
+            }
+            for (int p = point - 1; p >= 0; p--) {
+                if (years[p] < years[point] && has(p)) {
+                    return OptionalLong.of(values[point] - values[p]);
+                }
+            }
+            return OptionalLong.empty();
+        }
+
+        /**
+         * Compute the compound annual growth rate from the first to the last
+         * point that has the code.
+         *
+         * @return Growth per year in percent, or empty if the points span no
+         *         years or the amounts are not positive
+         */
+        public OptionalDouble cagr() {
+            int first = 0;
+            while (first < values.length && !has(first)) {
+                first++;
+            }
+            int last = values.length - 1;
+            while (last > first && !has(last)) {
+                last--;
+            }
+            if (first >= last || years[last] <= years[first] || values[first] <= 0 || values[last] <= 0) {
+                return OptionalDouble.empty();
+            }
+            double ratio = (double) values[last] / values[first];
+            return OptionalDouble.of((Math.pow(ratio, 1.0 / (years[last] - years[first])) - 1) * 100);
+        }
+
+        /**
+         * Average the amounts over a trailing window of points.
+         *
+         * @param window Number of points ending at each point, at least 1
+         * @return Average per point over the present amounts in its window, or
+         *         {@link Double#NaN} where the window has none
+         */
+        public double[] rollingAverage(final int window) {
+            if (window < 1) {
+                throw new IllegalArgumentException("Window must be at least 1: " + window);
+            }
+            double[] averages = new double[values.length];
+            long sum = 0;
+            int count = 0;
+            for (int p = 0; p < values.length; p++) {
+                if (has(p)) {
+                    sum += values[p];
+                    count++;
+                }
+                int leaving = p - window;
+                if (leaving >= 0 && has(leaving)) {
+                    sum -= values[leaving];
+                    count--;
+                }
+                averages[p] = count == 0 ? Double.NaN : (double) sum / count;
+            }
+            return averages;
+        }
+    }
+
+    private BudgetTimeSeries(final BudgetSnapshot snapshot, final IntPredicate selected) {
+        Integer[] order = new Integer[snapshot.budgetCount()];
+        int pointCount = 0;
+        for (int b = 0; b < snapshot.budgetCount(); b++) {
+            if (selected.test(b)) {
+                order[pointCount++] = b;
+            }
+        }
+        Arrays.sort(order, 0, pointCount, (a, b) -> snapshot.year(a) != snapshot.year(b)
+                ? Integer.compare(snapshot.year(a), snapshot.year(b))
+                : Integer.compare(snapshot.budgetID(a), snapshot.budgetID(b)));
+
+        int[] budgetRows = new int[pointCount];
+        budgetIDs = new int[pointCount];
+        years = new int[pointCount];
+        long[] revenues = new long[pointCount];
+        long[] expenses = new long[pointCount];
+        long[] results = new long[pointCount];
+        for (int p = 0; p < pointCount; p++) {
+            int b = order[p];
+            budgetRows[p] = b;
+            budgetIDs[p] = snapshot.budgetID(b);
+            years[p] = snapshot.year(b);
+            revenues[p] = snapshot.totalRevenue(b);
+            expenses[p] = snapshot.totalExpenses(b);
+            results[p] = snapshot.budgetResult(b);
+        }
+        totalRevenue = new Series(0, "Συνολικά Έσοδα", revenues);
+        totalExpenses = new Series(0, "Συνολικά Έξοδα", expenses);
+        budgetResult = new Series(0, "Ισοζύγιο", results);
+
+        for (AnalysisType type : AnalysisType.values()) {
+            buildSeries(snapshot, type, budgetRows);
+        }
+    }
+
+    private void buildSeries(final BudgetSnapshot snapshot, final AnalysisType type, final int[] budgetRows) {
+        int pointCount = budgetRows.length;
+        LongIntMap index = new LongIntMap(64);
+        List<long[]> values = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Long> seriesCodes = new ArrayList<>();
+        for (int p = 0; p < pointCount; p++) {
+            int b = budgetRows[p];
+            for (int row = snapshot.firstRow(type, b); row < snapshot.endRow(type, b); row++) {
+                long code = snapshot.code(type, row);
+                int s = index.getOrDefault(code, -1);
+                if (s < 0) {
+                    s = values.size();
+                    index.put(code, s);
+                    long[] column = new long[pointCount];
+                    Arrays.fill(column, MISSING);
+                    values.add(column);
+                    names.add(null);
+                    seriesCodes.add(code);
+                }
+                // Duplicate codes resolve to the first row, as in the snapshot.
+                if (values.get(s)[p] == MISSING) {
+                    values.get(s)[p] = snapshot.amount(type, row);
+                    names.set(s, snapshot.name(type, row));
+                }
+            }
+        }
+
+        int count = values.size();
+        Integer[] byCode = new Integer[count];
+        for (int s = 0; s < count; s++) {
+            byCode[s] = s;
+        }
+        Arrays.sort(byCode, (a, b) -> Long.compare(seriesCodes.get(a), seriesCodes.get(b)));
+
+        int t = type.ordinal();
+        codes[t] = new long[count];
+        series[t] = new Series[count];
+        seriesIndex[t] = new LongIntMap(count);
+        for (int i = 0; i < count; i++) {
+            int s = byCode[i];
+            codes[t][i] = seriesCodes.get(s);
+            series[t][i] = new Series(codes[t][i], names.get(s), values.get(s));
+            seriesIndex[t].put(codes[t][i], i);
+        }
+    }
+
+    /**
+     * Build series over every budget in a snapshot, scenarios included.
+     *
+     * @param snapshot Columnar copy of the stored budgets
+     * @return Time series with one point per budget
+     */
+    public static BudgetTimeSeries allBudgets(final BudgetSnapshot snapshot) {
+        return new BudgetTimeSeries(Objects.requireNonNull(snapshot), b -> true);
+    }
+
+    /**
+     * Build series over the budgets read from source documents, leaving out
+     * scenarios.
+     *
+     * @param snapshot Columnar copy of the stored budgets
+     * @return Time series with one point per original budget
+     */
+    public static BudgetTimeSeries originalBudgets(final BudgetSnapshot snapshot) {
+        return new BudgetTimeSeries(Objects.requireNonNull(snapshot),
+                b -> (ORIGINAL_TITLE_PREFIX + snapshot.year(b)).equals(snapshot.title(b)));
+    }
+
+    /**
+     * Count the points shared by all series.
+     *
+     * @return Number of selected budgets
+     */
+    public int pointCount() {
+        return years.length;
+    }
+
+    /**
+     * Get the fiscal year of a point.
+     *
+     * @param point Point index
+     * @return Fiscal year
+     */
+    public int year(final int point) {
+        return years[point];
+    }
+
+    /**
+     * Get the budget of a point.
+     *
+     * @param point Point index
+     * @return Internal budget ID
+     */
+    public int budgetID(final int point) {
+        return budgetIDs[point];
+    }
+
+    /**
+     * List the codes that have a series.
+     *
+     * @param type Table of the codes
+     * @return Codes present in any selected budget, ascending
+     */
+    public long[] codes(final AnalysisType type) {
+        return codes[type.ordinal()].clone();
+    }
+
+    /**
+     * Look up the series of a code.
+     *
+     * @param type Table of the code
+     * @param code Category or ministry code
+     * @return Series, or null if no selected budget has the code
+     */
+    public Series series(final AnalysisType type, final long code) {
+        int s = seriesIndex[type.ordinal()].getOrDefault(code, -1);
+        return s < 0 ? null : series[type.ordinal()][s];
+    }
+
+    /**
+     * Get the series of stored total revenue.
+     *
+     * @return Total revenue per point
+     */
+    public Series totalRevenue() {
+        return totalRevenue;
+    }
+
+    /**
+     * Get the series of stored total expenses.
+     *
+     * @return Total expenses per point
+     */
+    public Series totalExpenses() {
+        return totalExpenses;
+    }
+
+    /**
+     * Get the series of the budget balance.
+     *
+     * @return Revenue minus expenses per point
+     */
+    public Series budgetResult() {
+        return budgetResult;
+    }
+}
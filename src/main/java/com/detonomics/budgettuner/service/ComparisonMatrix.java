@@ -0,0 +1,273 @@
+package com.detonomics.budgettuner.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+
+/**
+ * Top-level lines of several budgets aligned by code: one row per code, one
+ * column per budget, with per-row statistics over the columns that have the
+ * code. Built by {@link BudgetComparisonEngine}.
+ *
+ * <p>
+ * Amounts are held in one row-major {@code long[]}; a cell whose budget lacks
+ * the code holds {@link BudgetTimeSeries#MISSING}.
+ * </p>
+ */
+public final class ComparisonMatrix {
+
+    private final AnalysisType type;
+    private final int[] budgetIDs;
+    private final int[] years;
+    private final String[] titles;
+    private final long[] codes;
+    private final String[] names;
+    private final long[] cells;
+    private final long[] minimums;
+    private final long[] maximums;
+    private final double[] means;
+    private final double[] deviations;
+    private final long[] changes;
+    private int[] changeRanking = new int[0];
+
+    ComparisonMatrix(final AnalysisType type, final int[] budgetIDs, final int[] years, final String[] titles,
+            final long[] codes) {
+        this.type = type;
+        this.budgetIDs = budgetIDs;
+        this.years = years;
+        this.titles = titles;
+        this.codes = codes;
+        int rows = codes.length;
+        names = new String[rows];
+        cells = new long[rows * budgetIDs.length];
+        minimums = new long[rows];
+        maximums = new long[rows];
+        means = new double[rows];
+        deviations = new double[rows];
+        changes = new long[rows];
+    }
+
+    /*
+     * Fill the cells and statistics of rows [from, to). Rows are independent,
+     * so disjoint ranges can be filled concurrently.
+     */
+    void fillRows(final BudgetSnapshot snapshot, final int[] budgetRows, final int from, final int to) {
+        int columns = budgetIDs.length;
+        for (int row = from; row < to; row++) {
+            long code = codes[row];
+            int base = row * columns;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long sum = 0;
+            int present = 0;
+            for (int c = 0; c < columns; c++) {
+                int r = snapshot.rowOf(type, budgetRows[c], code);
+                if (r < 0 || !snapshot.isTopLevel(type, r)) {
+                    cells[base + c] = BudgetTimeSeries.MISSING;
+                    continue;
+                }
+                long amount = snapshot.amount(type, r);
+                cells[base + c] = amount;
+                if (names[row] == null) {
+                    names[row] = snapshot.name(type, r);
+                }
+                min = Math.min(min, amount);
+                max = Math.max(max, amount);
+                sum += amount;
+                present++;
+            }
+            double mean = present == 0 ? 0.0 : (double) sum / present;
+            double squares = 0;
+            for (int c = 0; c < columns; c++) {
+                if (cells[base + c] != BudgetTimeSeries.MISSING) {
+                    double d = cells[base + c] - mean;
+                    squares += d * d;
+                }
+            }
+            minimums[row] = present == 0 ? 0 : min;
+            maximums[row] = present == 0 ? 0 : max;
+            means[row] = mean;
+            deviations[row] = present == 0 ? 0.0 : Math.sqrt(squares / present);
+            changes[row] = columns > 0 && cells[base] != BudgetTimeSeries.MISSING
+                    && cells[base + columns - 1] != BudgetTimeSeries.MISSING
+                    ? cells[base + columns - 1] - cells[base] : 0;
+        }
+    }
+
+    /*
+     * Order the rows present in the first and last column by absolute change,
+     * largest first; ties keep code order.
+     */
+    void rankChanges() {
+        int columns = budgetIDs.length;
+        List<Integer> ranked = new ArrayList<>();
+        for (int row = 0; row < codes.length; row++) {
+            if (columns > 0 && has(row, 0) && has(row, columns - 1)) {
+                ranked.add(row);
+            }
+        }
+        ranked.sort((a, b) -> Long.compare(Math.abs(changes[b]), Math.abs(changes[a])));
+        changeRanking = ranked.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Get the table the rows come from.
+     *
+     * @return Compared table
+     */
+    public AnalysisType getType() {
+        return type;
+    }
+
+    /**
+     * Count the rows.
+     *
+     * @return Number of codes present in any compared budget
+     */
+    public int rowCount() {
+        return codes.length;
+    }
+
+    /**
+     * Count the columns.
+     *
+     * @return Number of compared budgets
+     */
+    public int columnCount() {
+        return budgetIDs.length;
+    }
+
+    /**
+     * Get the budget of a column.
+     *
+     * @param column Column index
+     * @return Internal budget ID
+     */
+    public int budgetID(final int column) {
+        return budgetIDs[column];
+    }
+
+    /**
+     * Get the fiscal year of a column.
+     *
+     * @param column Column index
+     * @return Fiscal year
+     */
+    public int year(final int column) {
+        return years[column];
+    }
+
+    /**
+     * Get the source title of a column.
+     *
+     * @param column Column index
+     * @return Budget title
+     */
+    public String title(final int column) {
+        return titles[column];
+    }
+
+    /**
+     * Get the code of a row.
+     *
+     * @param row Row index
+     * @return Category or ministry code
+     */
+    public long code(final int row) {
+        return codes[row];
+    }
+
+    /**
+     * Get the name of a row.
+     *
+     * @param row Row index
+     * @return Name in the first budget having the code
+     */
+    public String name(final int row) {
+        return names[row];
+    }
+
+    /**
+     * Check whether a budget has the code of a row.
+     *
+     * @param row    Row index
+     * @param column Column index
+     * @return True if the cell has a value
+     */
+    public boolean has(final int row, final int column) {
+        return cells[row * budgetIDs.length + column] != BudgetTimeSeries.MISSING;
+    }
+
+    /**
+     * Get the amount of a cell.
+     *
+     * @param row    Row index
+     * @param column Column index
+     * @return Amount, or {@link BudgetTimeSeries#MISSING}
+     */
+    public long value(final int row, final int column) {
+        return cells[row * budgetIDs.length + column];
+    }
+
+    /**
+     * Get the smallest amount of a row.
+     *
+     * @param row Row index
+     * @return Minimum over the budgets having the code
+     */
+    public long min(final int row) {
+        return minimums[row];
+    }
+
+    /**
+     * Get the largest amount of a row.
+     *
+     * @param row Row index
+     * @return Maximum over the budgets having the code
+     */
+    public long max(final int row) {
+        return maximums[row];
+    }
+
+    /**
+     * Get the mean amount of a row.
+     *
+     * @param row Row index
+     * @return Mean over the budgets having the code
+     */
+    public double mean(final int row) {
+        return means[row];
+    }
+
+    /**
+     * Get the population standard deviation of a row.
+     *
+     * @param row Row index
+     * @return Standard deviation over the budgets having the code
+     */
+    public double stddev(final int row) {
+        return deviations[row];
+    }
+
+    /**
+     * Get the change of a row from the first to the last column.
+     *
+     * @param row Row index
+     * @return Last minus first amount, or 0 if either budget lacks the code
+     */
+    public long change(final int row) {
+        return changes[row];
+    }
+
+    /**
+     * List the rows present in the first and last column by the size of their
+     * change, largest absolute change first.
+     *
+     * @return Row indexes
+     */
+    public int[] rankedByChange() {
+        return changeRanking.clone();
+    }
+}
@@ -1,8 +1,11 @@
 package com.detonomics.budgettuner.service;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
+import com.detonomics.budgettuner.util.ingestion.ArtifactCache;
+import com.detonomics.budgettuner.util.ingestion.ChunkedTextToJson;
 import com.detonomics.budgettuner.util.ingestion.IPdfToText;
 import com.detonomics.budgettuner.util.ingestion.ITextToJson;
 import com.detonomics.budgettuner.util.ingestion.IJsonToSQLite;
@@ -41,6 +44,37 @@ public final class IngestBudgetPdf {
         return baseName + ".json";
     }
 
+    /**
+     * Run the pipeline with the default conversion stages, reusing cached
+     * stage outputs for an unchanged document.
+     *
+     * @param pdfPath Source document path
+     * @param logger  Progress tracking interface
+     * @throws Exception If any transformation step fails
+     */
+    public void process(final String pdfPath, final java.util.function.Consumer<String> logger)
+            throws Exception {
+        process(pdfPath, false, logger);
+    }
+
+    /**
+     * Run the pipeline with the default conversion stages and the default
+     * artifact cache. Text is parsed section by section when
+     * {@value ChunkedTextToJson#ENABLED_PROPERTY} is set.
+     *
+     * @param pdfPath Source document path
+     * @param force   Re-run every stage even if its output is cached
+     * @param logger  Progress tracking interface
+     * @throws Exception If any transformation step fails
+     */
+    public void process(final String pdfPath, final boolean force,
+            final java.util.function.Consumer<String> logger) throws Exception {
+        ITextToJson textToJson = Boolean.getBoolean(ChunkedTextToJson.ENABLED_PROPERTY)
+                ? new ChunkedTextToJson(logger) : new TextToJson();
+        process(pdfPath, new PdfToText(), textToJson, new JsonToSQLite(), ArtifactCache.defaultCache(),
+                force, logger);
+    }
+
     /**
      * Execute the sequential conversion stages: PDF -> Text -> JSON -> SQLite.
      *
@@ -55,21 +89,66 @@ public final class IngestBudgetPdf {
             final ITextToJson textToJson, final IJsonToSQLite jsonToSQLite,
             final java.util.function.Consumer<String> logger)
             throws Exception {
+        process(pdfPath, pdfToText, textToJson, jsonToSQLite, null, false, logger);
+    }
+
+    /**
+     * Execute the sequential conversion stages: PDF -> Text -> JSON -> SQLite.
+     * The text and JSON stages are skipped when the cache holds their output
+     * for the same PDF bytes and stage versions; loading always runs, since
+     * it skips a year that is already stored.
+     *
+     * @param pdfPath      Source document path
+     * @param pdfToText    Extration engine
+     * @param textToJson   Parsing engine
+     * @param jsonToSQLite Loading engine
+     * @param cache        Stage output cache, or null to run every stage
+     * @param force        Re-run every stage even if its output is cached
+     * @param logger       Progress tracking interface
+     * @throws Exception If any transformation step fails
+     */
+    public void process(final String pdfPath, final IPdfToText pdfToText,
+            final ITextToJson textToJson, final IJsonToSQLite jsonToSQLite,
+            final ArtifactCache cache, final boolean force,
+            final java.util.function.Consumer<String> logger)
+            throws Exception {
+        Path inTxt = Path.of("data/processed", toTxtName(pdfPath));
+        Path outJson = Path.of("data/processed", toJsonName(pdfPath));
+
+        String textKey = null;
+        String jsonKey = null;
+        if (cache != null) {
+            String pdfHash = ArtifactCache.sha256(Path.of(pdfPath));
+            textKey = ArtifactCache.key(pdfHash, pdfToText.version());
+            jsonKey = ArtifactCache.key(textKey, textToJson.version());
+        }
+        boolean jsonCached = !force && cache != null && cache.restore(jsonKey, outJson);
+
         // --- Step 1: Extract text from PDF ---
         logger.accept("STEP 1: Converting PDF to TEXT...");
-        pdfToText.extractAndSaveText(pdfPath);
-        logger.accept("-> PDF to TEXT conversion complete.");
+        if (jsonCached) {
+            logger.accept("-> Skipped: JSON for this PDF is cached.");
+        } else if (!force && cache != null && cache.restore(textKey, inTxt)) {
+            logger.accept("-> Reused cached TEXT for this PDF.");
+        } else {
+            Files.deleteIfExists(inTxt);
+            pdfToText.extractAndSaveText(pdfPath);
+            store(cache, textKey, inTxt);
+            logger.accept("-> PDF to TEXT conversion complete.");
+        }
 
         // --- Step 2: Parse plain text into structured JSON ---
-        String txtFileName = toTxtName(pdfPath);
-        Path inTxt = Path.of("data/processed", txtFileName);
         logger.accept("STEP 2: Converting TEXT to JSON from: "
                 + inTxt.toAbsolutePath());
-
-        Path outJson = Path.of("data/processed", toJsonName(pdfPath));
-        textToJson.textFileToJson(inTxt, outJson);
-        logger.accept("-> TEXT to JSON conversion complete. Output at: "
-                + outJson.toAbsolutePath());
+        if (jsonCached) {
+            logger.accept("-> Reused cached JSON at: " + outJson.toAbsolutePath());
+        } else {
+            Files.deleteIfExists(outJson);
+            textToJson.textFileToJson(inTxt, outJson);
+            store(cache, jsonKey, outJson);
+            logger.accept("-> TEXT to JSON conversion complete. Output at: "
+                    + outJson.toAbsolutePath());
+        }
 
         // --- Step 3: Hydrate the database from JSON ---
         logger.accept("STEP 3: Loading JSON into Database...");
@@ -86,21 +165,33 @@ public final class IngestBudgetPdf {
         }
     }
 
+    /*
+     * A stage may finish without output (e.g. the model returned nothing).
+     * Its previous output is deleted before it runs, so a file left over from
+     * an earlier import is never cached under the new key.
+     */
+    private static void store(final ArtifactCache cache, final String key, final Path artifact)
+            throws java.io.IOException {
+        if (cache != null && Files.isRegularFile(artifact)) {
+            cache.store(key, artifact);
+        }
+    }
+
     /**
      * CLI entry point for direct budget ingestion.
      *
-     * @param args Command line arguments (expects pdf path)
+     * @param args Command line arguments (expects pdf path, optionally preceded
+     *             by --force to ignore cached stage outputs)
      */
     public static void main(final String[] args) {
-        if (args.length != 1) {
-            System.err.println("usage: IngestBudgetPdf <pdfPath>");
+        boolean force = args.length == 2 && "--force".equals(args[0]);
+        if (args.length != 1 && !force) {
+            System.err.println("usage: IngestBudgetPdf [--force] <pdfPath>");
             System.exit(1);
         }
         try {
             PdfToText.configureLoggers();
-            IngestBudgetPdf ingestor = new IngestBudgetPdf();
-            ingestor.process(args[0], new PdfToText(), new TextToJson(),
-                    new JsonToSQLite(), System.out::println);
+            new IngestBudgetPdf().process(args[args.length - 1], force, System.out::println);
         } catch (Exception e) {
             System.err.println("\nPIPELINE FAILED!");
             e.printStackTrace();
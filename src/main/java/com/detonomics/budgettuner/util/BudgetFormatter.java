@@ -1,18 +1,26 @@
 package com.detonomics.budgettuner.util;
 
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.model.Ministry;
 import com.detonomics.budgettuner.model.MinistryExpense;
 import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+import com.detonomics.budgettuner.service.BudgetTimeSeries;
+import com.detonomics.budgettuner.service.ComparisonMatrix;
 
 import java.text.NumberFormat;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.IntFunction;
 
 /**
  * Utility for formatting raw budget data into human-readable tables and
@@ -55,87 +63,27 @@ public final class BudgetFormatter {
     }
 
     /**
-     * Generate a side-by-side comparative table for revenue categories.
+     * Generate a side-by-side comparative table of two budgets' lines.
      *
-     * @param revenues1 Source data for the first year
-     * @param revenues2 Source data for the second year
-     * @param year1     First fiscal year label
-     * @param year2     Second fiscal year label
+     * @param type  Table the lines come from
+     * @param lines Lines matched by code, as from
+     *              {@link BudgetAnalytics#compareAllLines}
+     * @param year1 First fiscal year label
+     * @param year2 Second fiscal year label
      * @return Formatted table string
      */
-    public static String getFormattedComparativeRevenues(
-            final ArrayList<RevenueCategory> revenues1,
-            final ArrayList<RevenueCategory> revenues2,
-            final int year1,
-            final int year2) {
-        if (revenues1.isEmpty() && revenues2.isEmpty()) {
-            return "Δεν υπάρχουν καταγεγραμμένα έσοδα.";
-        }
-
-        Map<Long, RevenueCategory> map1 = new HashMap<>();
-        for (RevenueCategory r : revenues1) {
-            map1.put(r.getCode(), r);
-        }
-        Map<Long, RevenueCategory> map2 = new HashMap<>();
-        for (RevenueCategory r : revenues2) {
-            map2.put(r.getCode(), r);
-        }
-
-        Set<Long> allCodes = new HashSet<>();
-        allCodes.addAll(map1.keySet());
-        allCodes.addAll(map2.keySet());
-
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-15s | %-50s | %20s | %20s%n", "ΚΩΔΙΚΟΣ",
-                "ΟΝΟΜΑΣΙΑ", "ΠΟΣΟ " + year1, "ΠΟΣΟ " + year2));
-        sb.append("----------------|----------------------------------"
-                + "------------------|----------------------|"
-                + "----------------------\n");
-
-        for (Long code : new TreeSet<>(allCodes)) {
-            RevenueCategory r1 = map1.get(code);
-            RevenueCategory r2 = map2.get(code);
-            String name = r1 != null ? truncateString(r1.getName(), 50)
-                    : (r2 != null ? truncateString(r2.getName(), 50)
-                            : "Άγνωστο");
-            String amount1 = r1 != null ? formatAmount(r1.getAmount()) : "-";
-            String amount2 = r2 != null ? formatAmount(r2.getAmount()) : "-";
-            sb.append(String.format("%-15d | %-50s | %20s | %20s%n",
-                    code, name, amount1, amount2));
-        }
-        return sb.toString();
-    }
-
-    /**
-     * Generate a side-by-side comparative table for general expenditures.
-     *
-     * @param expenditures1 Source data for the first year
-     * @param expenditures2 Source data for the second year
-     * @param year1         First fiscal year label
-     * @param year2         Second fiscal year label
-     * @return Formatted table string
-     */
-    public static String getFormattedComparativeExpenditures(
-            final ArrayList<ExpenseCategory> expenditures1,
-            final ArrayList<ExpenseCategory> expenditures2,
+    public static String getFormattedComparison(final AnalysisType type,
+            final List<BudgetAnalytics.LineComparison> lines,
             final int year1, final int year2) {
-        if (expenditures1.isEmpty() && expenditures2.isEmpty()) {
-            return "Δεν υπάρχουν καταγεγραμμένα έξοδα.";
+        if (lines.isEmpty()) {
+            return switch (type) {
+                case REVENUE -> "Δεν υπάρχουν καταγεγραμμένα έσοδα.";
+                case EXPENSE -> "Δεν υπάρχουν καταγεγραμμένα έξοδα.";
+                case MINISTRY -> "Δεν υπάρχουν καταγεγραμμένοι φορείς.";
+                default -> "Δεν υπάρχουν καταγεγραμμένα στοιχεία.";
+            };
         }
 
-        Map<Long, ExpenseCategory> map1 = new HashMap<>();
-        for (ExpenseCategory e : expenditures1) {
-            map1.put(e.getCode(), e);
-        }
-        Map<Long, ExpenseCategory> map2 = new HashMap<>();
-        for (ExpenseCategory e : expenditures2) {
-            map2.put(e.getCode(), e);
-        }
-
-        Set<Long> allCodes = new HashSet<>();
-        allCodes.addAll(map1.keySet());
-        allCodes.addAll(map2.keySet());
-
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("%-15s | %-50s | %20s | %20s%n", "ΚΩΔΙΚΟΣ",
                 "ΟΝΟΜΑΣΙΑ", "ΠΟΣΟ " + year1, "ΠΟΣΟ " + year2));
@@ -143,71 +91,12 @@ public final class BudgetFormatter {
                 + "------------------|----------------------|"
                 + "----------------------\n");
 
-        for (Long code : new TreeSet<>(allCodes)) {
-            ExpenseCategory e1 = map1.get(code);
-            ExpenseCategory e2 = map2.get(code);
-            String name = e1 != null ? truncateString(e1.getName(), 50)
-                    : (e2 != null ? truncateString(e2.getName(), 50)
-                            : "Άγνωστο");
-            String amount1 = e1 != null ? formatAmount(e1.getAmount()) : "-";
-            String amount2 = e2 != null ? formatAmount(e2.getAmount()) : "-";
+        for (BudgetAnalytics.LineComparison line : lines) {
+            String name = line.name() != null ? truncateString(line.name(), 50) : "Άγνωστο";
+            String amount1 = line.inFirst() ? formatAmount(line.firstAmount()) : "-";
+            String amount2 = line.inSecond() ? formatAmount(line.secondAmount()) : "-";
             sb.append(String.format("%-15d | %-50s | %20s | %20s%n",
-                    code, name, amount1, amount2));
-        }
-        return sb.toString();
-    }
-
-    /**
-     * Generate a side-by-side comparative table for ministry-level allocations.
-     *
-     * @param ministries1 Source data for the first year
-     * @param ministries2 Source data for the second year
-     * @param year1       First fiscal year label
-     * @param year2       Second fiscal year label
-     * @return Formatted table string
-     */
-    public static String getFormattedComparativeMinistries(
-            final ArrayList<Ministry> ministries1,
-            final ArrayList<Ministry> ministries2,
-            final int year1, final int year2) {
-        if (ministries1.isEmpty() && ministries2.isEmpty()) {
-            return "Δεν υπάρχουν καταγεγραμμένοι φορείς.";
-        }
-
-        Map<Long, Ministry> map1 = new HashMap<>();
-        for (Ministry m : ministries1) {
-            map1.put(m.getCode(), m);
-        }
-        Map<Long, Ministry> map2 = new HashMap<>();
-        for (Ministry m : ministries2) {
-            map2.put(m.getCode(), m);
-        }
-
-        Set<Long> allCodes = new HashSet<>();
-        allCodes.addAll(map1.keySet());
-        allCodes.addAll(map2.keySet());
-
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-15s | %-50s | %20s | %20s%n", "ΚΩΔΙΚΟΣ",
-                "ΟΝΟΜΑΣΙΑ", "ΠΟΣΟ " + year1, "ΠΟΣΟ " + year2));
-        sb.append("----------------|----------------------------------"
-                + "------------------|----------------------|"
-                + "----------------------\n");
-
-        for (Long code : new TreeSet<>(allCodes)) {
-            Ministry m1 = map1.get(code);
-            Ministry m2 = map2.get(code);
-            String name = m1 != null ? truncateString(m1.getName(), 50)
-                    : (m2 != null ? truncateString(m2.getName(), 50)
-                            : "Άγνωστο");
-            String amount1 = m1 != null
-                    ? formatAmount(m1.getTotalBudget())
-                    : "-";
-            String amount2 = m2 != null
-                    ? formatAmount(m2.getTotalBudget())
-                    : "-";
-            sb.append(String.format("%-15d | %-50s | %20s | %20s%n",
-                    code, name, amount1, amount2));
+                    line.code(), name, amount1, amount2));
         }
         return sb.toString();
     }
@@ -219,7 +108,7 @@ public final class BudgetFormatter {
      * @return Formatted table string
      */
     public static String getFormattedRevenues(
-            final ArrayList<RevenueCategory> revenues) {
+            final List<RevenueCategory> revenues) {
         if (revenues.isEmpty()) {
             return "Δεν υπάρχουν καταγεγραμμένα έσοδα.";
         }
@@ -248,7 +137,7 @@ public final class BudgetFormatter {
      * @return Formatted table string
      */
     public static String getFormattedExpenditures(
-            final ArrayList<ExpenseCategory> expenditures) {
+            final List<ExpenseCategory> expenditures) {
         if (expenditures.isEmpty()) {
             return "Δεν υπάρχουν καταγεγραμμένα έξοδα.";
         }
@@ -277,7 +166,7 @@ public final class BudgetFormatter {
      * @return Formatted table string
      */
     public static String getFormattedMinistries(
-            final ArrayList<Ministry> ministries) {
+            final List<Ministry> ministries) {
         if (ministries.isEmpty()) {
             return "Δεν υπάρχουν καταγεγραμμένοι φορείς.";
         }
@@ -300,6 +189,80 @@ public final class BudgetFormatter {
         return sb.toString();
     }
 
+    /**
+     * Generate a table of one code's amounts across budgets, with the change
+     * against the previous year, a rolling average and the compound annual
+     * growth rate.
+     *
+     * @param series Time series of the code
+     * @param window Number of budgets in the rolling average
+     * @return Formatted table string
+     */
+    public static String getFormattedTimeSeries(final BudgetTimeSeries.Series series, final int window) {
+        if (series.size() == 0) {
+            return "Δεν υπάρχουν καταγεγραμμένοι προϋπολογισμοί.";
+        }
+
+        double[] averages = series.rollingAverage(window);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d - %s%n", series.code(), series.name()));
+        sb.append(String.format("%-6s | %-6s | %20s | %20s | %20s%n", "ΕΤΟΣ", "ID",
+                "ΠΟΣΟ", "ΜΕΤΑΒΟΛΗ", "ΚΙΝΗΤΟΣ Μ.Ο. (" + window + ")"));
+        sb.append("-------|--------|----------------------|"
+                + "----------------------|----------------------\n");
+        for (int p = 0; p < series.size(); p++) {
+            OptionalLong change = series.yearOverYear(p);
+            sb.append(String.format("%-6d | %-6d | %20s | %20s | %20s%n",
+                    series.year(p), series.budgetID(p),
+                    series.has(p) ? formatAmount(series.value(p)) : "-",
+                    change.isPresent() ? formatAmount(change.getAsLong()) : "-",
+                    Double.isNaN(averages[p]) ? "-" : formatAmount(Math.round(averages[p]))));
+        }
+        OptionalDouble cagr = series.cagr();
+        sb.append(String.format("Μέσος ετήσιος ρυθμός μεταβολής (CAGR): %s%n",
+                cagr.isPresent() ? String.format("%+.2f%%", cagr.getAsDouble()) : "-"));
+        return sb.toString();
+    }
+
+    /**
+     * Generate a table of every line across several budgets, followed by the
+     * lines that changed most from the first to the last budget.
+     *
+     * @param matrix Aligned amounts with per-line statistics
+     * @param topN   Number of largest changes to list
+     * @return Formatted table string
+     */
+    public static String getFormattedComparisonMatrix(final ComparisonMatrix matrix, final int topN) {
+        if (matrix.columnCount() == 0 || matrix.rowCount() == 0) {
+            return "Δεν υπάρχουν δεδομένα για σύγκριση.";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s | %-30s", "ΚΩΔΙΚΟΣ", "ΠΕΡΙΓΡΑΦΗ"));
+        for (int c = 0; c < matrix.columnCount(); c++) {
+            sb.append(String.format(" | %18s", matrix.year(c) + " #" + matrix.budgetID(c)));
+        }
+        sb.append(String.format(" | %18s | %18s | %18s%n", "ΕΛΑΧΙΣΤΟ", "ΜΕΓΙΣΤΟ", "ΤΥΠ. ΑΠΟΚΛΙΣΗ"));
+        for (int r = 0; r < matrix.rowCount(); r++) {
+            sb.append(String.format("%-12d | %-30s", matrix.code(r), truncateString(matrix.name(r), 30)));
+            for (int c = 0; c < matrix.columnCount(); c++) {
+                sb.append(String.format(" | %18s", matrix.has(r, c) ? formatAmount(matrix.value(r, c)) : "-"));
+            }
+            sb.append(String.format(" | %18s | %18s | %18s%n", formatAmount(matrix.min(r)),
+                    formatAmount(matrix.max(r)), formatAmount(Math.round(matrix.stddev(r)))));
+        }
+
+        int[] ranked = matrix.rankedByChange();
+        int last = matrix.columnCount() - 1;
+        sb.append(String.format("%nΜεγαλύτερες μεταβολές (%d -> %d):%n", matrix.year(0), matrix.year(last)));
+        for (int i = 0; i < Math.min(topN, ranked.length); i++) {
+            int r = ranked[i];
+            sb.append(String.format("%2d. %-12d %-30s %20s%n", i + 1, matrix.code(r),
+                    truncateString(matrix.name(r), 30), formatAmount(matrix.change(r))));
+        }
+        return sb.toString();
+    }
+
     /**
      * Generate a detailed comparative table for granular ministry-specific
      * expenses.
@@ -315,34 +278,45 @@ public final class BudgetFormatter {
      * @return Formatted table string
      */
     public static String getFormattedComparativeMinistryExpenses(
-            final ArrayList<Ministry> ministries1,
-            final ArrayList<ExpenseCategory> expenseCategories1,
-            final ArrayList<MinistryExpense> ministryExpenses1,
-            final ArrayList<Ministry> ministries2,
-            final ArrayList<ExpenseCategory> expenseCategories2,
-            final ArrayList<MinistryExpense> ministryExpenses2,
+            final List<Ministry> ministries1,
+            final List<ExpenseCategory> expenseCategories1,
+            final List<MinistryExpense> ministryExpenses1,
+            final List<Ministry> ministries2,
+            final List<ExpenseCategory> expenseCategories2,
+            final List<MinistryExpense> ministryExpenses2,
             final int year1, final int year2) {
+        return formatComparativeMinistryExpenses(byMinistryID(ministries1)::get,
+                byExpenseID(expenseCategories1)::get, ministryExpenses1, byMinistryID(ministries2)::get,
+                byExpenseID(expenseCategories2)::get, ministryExpenses2, year1, year2);
+    }
 
-        if (ministryExpenses1.isEmpty() && ministryExpenses2.isEmpty()) {
-            return "Δεν υπάρχουν καταγεγραμμένες δαπάνες φορέων.";
-        }
+    /**
+     * Generate a detailed comparative table for the ministry-specific
+     * expenses of two budgets, using their ID indexes.
+     *
+     * @param budget1 First budget
+     * @param budget2 Second budget
+     * @return Formatted table string
+     */
+    public static String getFormattedComparativeMinistryExpenses(final BudgetYear budget1,
+            final BudgetYear budget2) {
+        return formatComparativeMinistryExpenses(budget1::getMinistry, budget1::getExpenseCategory,
+                budget1.getMinistryExpenses(), budget2::getMinistry, budget2::getExpenseCategory,
+                budget2.getMinistryExpenses(), budget1.getSummary().getBudgetYear(),
+                budget2.getSummary().getBudgetYear());
+    }
 
-        Map<Integer, Ministry> ministryMap1 = new HashMap<>();
-        for (Ministry m : ministries1) {
-            ministryMap1.put(m.getMinistryID(), m);
-        }
-        Map<Integer, Ministry> ministryMap2 = new HashMap<>();
-        for (Ministry m : ministries2) {
-            ministryMap2.put(m.getMinistryID(), m);
-        }
+    private static String formatComparativeMinistryExpenses(
+            final IntFunction<Ministry> ministryMap1,
+            final IntFunction<ExpenseCategory> categoryMap1,
+            final List<MinistryExpense> ministryExpenses1,
+            final IntFunction<Ministry> ministryMap2,
+            final IntFunction<ExpenseCategory> categoryMap2,
+            final List<MinistryExpense> ministryExpenses2,
+            final int year1, final int year2) {
 
-        Map<Integer, String> categoryMap1 = new HashMap<>();
-        for (ExpenseCategory c : expenseCategories1) {
-            categoryMap1.put(c.getExpenseID(), c.getName());
-        }
-        Map<Integer, String> categoryMap2 = new HashMap<>();
-        for (ExpenseCategory c : expenseCategories2) {
-            categoryMap2.put(c.getExpenseID(), c.getName());
+        if (ministryExpenses1.isEmpty() && ministryExpenses2.isEmpty()) {
+            return "Δεν υπάρχουν καταγεγραμμένες δαπάνες φορέων.";
         }
 
         Map<String, Long> aggregatedExpenses1 = new HashMap<>();
@@ -376,22 +350,19 @@ public final class BudgetFormatter {
             int ministryID = Integer.parseInt(ids[0]);
             int categoryID = Integer.parseInt(ids[1]);
 
-            Ministry ministry1 = ministryMap1.get(ministryID);
-            Ministry ministry2 = ministryMap2.get(ministryID);
+            Ministry ministry1 = ministryMap1.apply(ministryID);
+            Ministry ministry2 = ministryMap2.apply(ministryID);
             String ministryName = ministry1 != null
                     ? truncateString(ministry1.getName(), 50)
                     : (ministry2 != null
                             ? truncateString(ministry2.getName(), 50)
                             : "Άγνωστος Φορέας");
 
-            String categoryName = categoryMap1.get(categoryID);
-            if (categoryName == null) {
-                categoryName = categoryMap2.get(categoryID);
+            ExpenseCategory category = categoryMap1.apply(categoryID);
+            if (category == null) {
+                category = categoryMap2.apply(categoryID);
             }
-            if (categoryName == null) {
-                categoryName = "Άγνωστη Κατηγορία";
-            }
-            categoryName = truncateString(categoryName, 30);
+            String categoryName = truncateString(category != null ? category.getName() : "Άγνωστη Κατηγορία", 30);
 
             Long amount1 = aggregatedExpenses1.get(key);
             String amountStr1 = amount1 != null ? formatAmount(amount1) : "-";
@@ -415,22 +386,30 @@ public final class BudgetFormatter {
      * @return Formatted table string
      */
     public static String getFormattedMinistryExpenses(
-            final ArrayList<Ministry> ministries,
-            final ArrayList<ExpenseCategory> expenseCategories,
-            final ArrayList<MinistryExpense> ministryExpenses) {
+            final List<Ministry> ministries,
+            final List<ExpenseCategory> expenseCategories,
+            final List<MinistryExpense> ministryExpenses) {
+        return formatMinistryExpenses(byMinistryID(ministries)::get, byExpenseID(expenseCategories)::get,
+                ministryExpenses);
+    }
 
-        if (ministryExpenses.isEmpty()) {
-            return "Δεν υπάρχουν καταγεγραμμένες δαπάνες φορέων.";
-        }
+    /**
+     * Generate a detailed table for all ministry expense mappings in a budget,
+     * using its ID indexes.
+     *
+     * @param budget Budget to format
+     * @return Formatted table string
+     */
+    public static String getFormattedMinistryExpenses(final BudgetYear budget) {
+        return formatMinistryExpenses(budget::getMinistry, budget::getExpenseCategory,
+                budget.getMinistryExpenses());
+    }
 
-        Map<Integer, Ministry> ministryMap = new HashMap<>();
-        for (Ministry m : ministries) {
-            ministryMap.put(m.getMinistryID(), m);
-        }
+    private static String formatMinistryExpenses(final IntFunction<Ministry> ministryMap,
+            final IntFunction<ExpenseCategory> categoryMap, final List<MinistryExpense> ministryExpenses) {
 
-        Map<Integer, String> categoryMap = new HashMap<>();
-        for (ExpenseCategory c : expenseCategories) {
-            categoryMap.put(c.getExpenseID(), c.getName());
+        if (ministryExpenses.isEmpty()) {
+            return "Δεν υπάρχουν καταγεγραμμένες δαπάνες φορέων.";
         }
 
         Map<String, Long> aggregatedExpenses = new HashMap<>();
@@ -465,14 +444,15 @@ public final class BudgetFormatter {
             int categoryID = Integer.parseInt(ids[1]);
             Long totalAmount = entry.getValue();
 
-            Ministry ministry = ministryMap.get(ministryID);
+            Ministry ministry = ministryMap.apply(ministryID);
             String ministryIDString = String.valueOf(ministryID);
             String ministryName = ministry != null
                     ? ministry.getName()
                     : "Άγνωστος Φορέας (" + ministryID + ")";
-            String categoryName = categoryMap.getOrDefault(
-                    categoryID,
-                    "Άγνωστη Κατηγορία (" + categoryID + ")");
+            ExpenseCategory category = categoryMap.apply(categoryID);
+            String categoryName = category != null
+                    ? category.getName()
+                    : "Άγνωστη Κατηγορία (" + categoryID + ")";
 
             String amountString = String.format("%,d \u20ac",
                     totalAmount).replace(',', '.');
@@ -490,6 +470,22 @@ public final class BudgetFormatter {
         return sb.toString();
     }
 
+    private static Map<Integer, Ministry> byMinistryID(final List<Ministry> ministries) {
+        Map<Integer, Ministry> map = new HashMap<>();
+        for (Ministry m : ministries) {
+            map.put(m.getMinistryID(), m);
+        }
+        return map;
+    }
+
+    private static Map<Integer, ExpenseCategory> byExpenseID(final List<ExpenseCategory> categories) {
+        Map<Integer, ExpenseCategory> map = new HashMap<>();
+        for (ExpenseCategory c : categories) {
+            map.put(c.getExpenseID(), c);
+        }
+        return map;
+    }
+
     /**
      * Display two blocks of text side-by-side in the console.
      *
@@ -0,0 +1,234 @@
+package com.detonomics.budgettuner.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of reusable JDBC connections with validation on borrow and
+ * lazy idle eviction.
+ */
+final class ConnectionPool {
+
+    /**
+     * Open a brand new physical connection when the pool has none to reuse.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        /**
+         * Create a new connection to the underlying database.
+         *
+         * @return Open connection
+         * @throws SQLException If the database cannot be reached
+         */
+        Connection open() throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+
+    private volatile boolean closed;
+
+    private record IdleConnection(Connection connection, long releasedAt) {
+    }
+
+    /**
+     * Initialize an empty pool; connections are opened on demand.
+     *
+     * @param name                Label used in diagnostics
+     * @param factory             Source of new physical connections
+     * @param maxSize             Maximum number of concurrently leased connections
+     * @param idleTimeoutMillis   Time after which an unused connection is closed
+     * @param borrowTimeoutMillis Maximum time to wait for a free connection
+     */
+    ConnectionPool(final String name, final ConnectionFactory factory, final int maxSize,
+            final long idleTimeoutMillis, final long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Lease a validated connection, waiting if the pool is exhausted.
+     *
+     * @return Connection that must be handed back via {@link #release}
+     * @throws SQLException If no connection becomes available in time
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + name + "' is closed");
+        }
+        acquirePermit();
+        try {
+            Connection conn = takeIdle();
+            if (conn != null) {
+                hits.increment();
+                return conn;
+            }
+            misses.increment();
+            return factory.open();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a leased connection back to the pool, resetting any open transaction.
+     *
+     * @param conn Connection previously obtained from {@link #borrow}
+     */
+    void release(final Connection conn) {
+        try {
+            boolean reusable = !closed && !conn.isClosed();
+            if (reusable && !conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (reusable) {
+                synchronized (idle) {
+                    idle.push(new IdleConnection(conn, System.nanoTime()));
+                }
+            } else {
+                closeQuietly(conn);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+        } finally {
+            permits.release();
+        }
+        evictExpired();
+    }
+
+    /**
+     * Close every idle connection and refuse further borrowing. Leased
+     * connections are closed when they are released.
+     */
+    void close() {
+        closed = true;
+        synchronized (idle) {
+            for (IdleConnection entry : idle) {
+                closeQuietly(entry.connection());
+            }
+            idle.clear();
+        }
+    }
+
+    /**
+     * Capture a snapshot of the pool counters.
+     *
+     * @return Current usage statistics
+     */
+    PoolStats stats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(hits.sum(), misses.sum(), waits.sum(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()), evictions.sum(),
+                validationFailures.sum(), maxSize - permits.availablePermits(), idleCount, maxSize);
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waits.increment();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a connection from pool '" + name + "'");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for pool '" + name + "'", e);
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection entry;
+            synchronized (idle) {
+                entry = idle.poll();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (isExpired(entry, System.nanoTime())) {
+                evictions.increment();
+                closeQuietly(entry.connection());
+                continue;
+            }
+            if (isUsable(entry.connection())) {
+                return entry.connection();
+            }
+            validationFailures.increment();
+            closeQuietly(entry.connection());
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (idle) {
+            // Most recently released connections sit at the head, so stale ones
+            // collect at the tail.
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                IdleConnection entry = it.next();
+                if (!isExpired(entry, now)) {
+                    break;
+                }
+                it.remove();
+                evictions.increment();
+                closeQuietly(entry.connection());
+            }
+        }
+    }
+
+    private boolean isExpired(final IdleConnection entry, final long now) {
+        return now - entry.releasedAt() > idleTimeoutNanos;
+    }
+
+    private static boolean isUsable(final Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(final Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Connection is being discarded anyway
+        }
+    }
+}
@@ -11,18 +11,64 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Handle database connection lifecycle and provides utility methods for SQL
  * execution.
+ *
+ * <p>
+ * File databases are served from a bounded pool of reader connections and a
+ * single writer connection, so repeated DAO calls reuse warm connections
+ * instead of reopening the file every time. Statements issued without an
+ * explicit connection while a transaction is open on the same thread join
+ * that transaction.
+ * </p>
+ *
+ * <p>
+ * Every connection is tuned with a {@link PragmaProfile} as it is opened. The
+ * default profile enables WAL journaling so background readers keep working
+ * while a modification is being saved.
+ * </p>
+ *
+ * <p>
+ * Each physical connection also keeps an LRU cache of prepared statements
+ * keyed by SQL text, so DAO methods that run the same statement repeatedly
+ * skip re-compiling it.
+ * </p>
+ *
+ * <p>
+ * Full-table reads can use {@link #forEachRow} or {@link #stream} to walk the
+ * cursor row by row instead of buffering the whole result.
+ * </p>
  */
-public class DatabaseManager {
+public class DatabaseManager implements AutoCloseable {
+
+    /** Default upper bound on concurrently leased reader connections. */
+    public static final int DEFAULT_READ_POOL_SIZE = 4;
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+    /** Default number of prepared statements cached per connection. */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    /** Default number of rows the driver is asked to fetch per round trip when streaming. */
+    public static final int DEFAULT_FETCH_SIZE = 256;
 
     private final String dbPath;
+    private final PragmaProfile pragmaProfile;
+    private final ConnectionPool readPool;
+    private final ConnectionPool writePool;
+    private final StatementCachingConnection.Counters statementCounters =
+            new StatementCachingConnection.Counters();
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
     private Connection persistentConnection; // Preserve in-memory databases
+    private WalCheckpointer checkpointer;
 
     static {
         try {
@@ -38,19 +84,218 @@ public class DatabaseManager {
      * @param dbPath Path to the SQLite database file
      */
     public DatabaseManager(final String dbPath) {
+        this(dbPath, DEFAULT_READ_POOL_SIZE);
+    }
+
+    /**
+     * Initialize with a specific database location and reader pool size.
+     *
+     * @param dbPath       Path to the SQLite database file
+     * @param readPoolSize Maximum number of concurrent reader connections
+     */
+    public DatabaseManager(final String dbPath, final int readPoolSize) {
+        this(dbPath, readPoolSize, PragmaProfile.fromSystemProperties());
+    }
+
+    /**
+     * Initialize with a database location, reader pool size and tuning profile.
+     *
+     * @param dbPath        Path to the SQLite database file
+     * @param readPoolSize  Maximum number of concurrent reader connections
+     * @param pragmaProfile Settings applied to each new connection
+     */
+    public DatabaseManager(final String dbPath, final int readPoolSize, final PragmaProfile pragmaProfile) {
         this.dbPath = dbPath;
+        this.pragmaProfile = pragmaProfile;
+        this.readPool = new ConnectionPool("read", this::openConnection, readPoolSize,
+                IDLE_TIMEOUT_MILLIS, BORROW_TIMEOUT_MILLIS);
+        this.writePool = new ConnectionPool("write", this::openConnection, 1,
+                IDLE_TIMEOUT_MILLIS, BORROW_TIMEOUT_MILLIS);
+    }
+
+    private boolean isInMemory() {
+        return ":memory:".equals(dbPath) || "jdbc:sqlite::memory:".equals(dbPath);
     }
 
-    private Connection createConnection() throws SQLException {
-        if (":memory:".equals(dbPath) || "jdbc:sqlite::memory:".equals(dbPath)) {
-            if (persistentConnection == null || persistentConnection.isClosed()) {
-                String url = dbPath.startsWith("jdbc:sqlite:") ? dbPath : "jdbc:sqlite:" + dbPath;
-                persistentConnection = DriverManager.getConnection(url);
+    private String jdbcUrl() {
+        return dbPath.startsWith("jdbc:sqlite:") ? dbPath : "jdbc:sqlite:" + dbPath;
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(jdbcUrl());
+        try (Statement st = conn.createStatement()) {
+            for (String pragma : pragmaProfile.statements()) {
+                st.execute(pragma);
             }
-            return new CloseShieldConnection(persistentConnection);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return new StatementCachingConnection(conn, DEFAULT_STATEMENT_CACHE_SIZE, statementCounters);
+    }
+
+    private synchronized Connection sharedInMemoryConnection() throws SQLException {
+        if (persistentConnection == null || persistentConnection.isClosed()) {
+            persistentConnection = openConnection();
+        }
+        return new CloseShieldConnection(persistentConnection, null);
+    }
+
+    private Connection acquireReader() throws SQLException {
+        if (isInMemory()) {
+            return sharedInMemoryConnection();
+        }
+        Connection conn = readPool.borrow();
+        return new CloseShieldConnection(conn, () -> readPool.release(conn));
+    }
+
+    private Connection acquireWriter() throws SQLException {
+        if (isInMemory()) {
+            return sharedInMemoryConnection();
+        }
+        Connection conn = writePool.borrow();
+        return new CloseShieldConnection(conn, () -> writePool.release(conn));
+    }
+
+    /**
+     * Retrieve usage counters for the reader connection pool.
+     *
+     * @return Reader pool statistics
+     */
+    public PoolStats getReadPoolStats() {
+        return readPool.stats();
+    }
+
+    /**
+     * Retrieve usage counters for the single writer connection.
+     *
+     * @return Writer pool statistics
+     */
+    public PoolStats getWritePoolStats() {
+        return writePool.stats();
+    }
+
+    /**
+     * Retrieve hit/miss counters aggregated over every connection's prepared
+     * statement cache.
+     *
+     * @return Statement cache statistics
+     */
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCounters.snapshot();
+    }
+
+    /**
+     * Get the tuning profile applied to new connections.
+     *
+     * @return Active pragma profile
+     */
+    public PragmaProfile getPragmaProfile() {
+        return pragmaProfile;
+    }
+
+    /**
+     * Query the settings SQLite actually applied and compare them with the
+     * configured profile. In-memory databases cannot use WAL or memory mapping,
+     * so those pragmas are reported but not checked.
+     *
+     * @return Effective settings and any deviations from the profile
+     */
+    public PragmaReport runSelfCheck() {
+        Map<String, String> effective = new LinkedHashMap<>();
+        List<String> mismatches = new ArrayList<>();
+        try (Connection conn = acquireReader(); Statement st = conn.createStatement()) {
+            for (Map.Entry<String, String> expected : pragmaProfile.expectedValues().entrySet()) {
+                String pragma = expected.getKey();
+                String actual;
+                try (ResultSet rs = st.executeQuery("PRAGMA " + pragma)) {
+                    actual = rs.next() ? rs.getString(1) : null;
+                }
+                effective.put(pragma, String.valueOf(actual));
+                boolean checked = !isInMemory() || !("journal_mode".equals(pragma) || "mmap_size".equals(pragma));
+                if (checked && !expected.getValue().equalsIgnoreCase(String.valueOf(actual))) {
+                    mismatches.add(pragma + ": expected " + expected.getValue() + " but was " + actual);
+                }
+            }
+        } catch (SQLException e) {
+            mismatches.add("Self-check failed: " + e.getMessage());
+        }
+        return new PragmaReport(effective, mismatches);
+    }
+
+    /**
+     * Upgrade the schema to {@link SchemaMigrations#LATEST_VERSION} on the
+     * writer connection, in a single transaction.
+     *
+     * @return Number of migrations applied
+     * @throws SQLException If a migration fails; the schema is left unchanged
+     */
+    public int migrateSchema() throws SQLException {
+        int applied = inTransaction(conn -> {
+            try {
+                return SchemaMigrations.migrate(conn);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        if (applied > 0) {
+            statementCounters.schemaChanged();
+        }
+        return applied;
+    }
+
+    /**
+     * Fold the write-ahead log back into the main database file without
+     * blocking readers or the writer.
+     *
+     * @return True if the checkpoint ran to completion
+     */
+    public boolean checkpoint() {
+        if (isInMemory()) {
+            return true;
+        }
+        List<Map<String, Object>> res = executeQuery("PRAGMA wal_checkpoint(PASSIVE)");
+        if (res.isEmpty()) {
+            return false;
+        }
+        Object busy = res.get(0).get("busy");
+        return busy instanceof Number && ((Number) busy).intValue() == 0;
+    }
+
+    /**
+     * Run {@link #checkpoint()} periodically on a background daemon thread until
+     * {@link #close()} is called. Calling it again replaces the previous
+     * schedule.
+     *
+     * @param intervalMillis Delay between checkpoints
+     */
+    public synchronized void startCheckpointScheduler(final long intervalMillis) {
+        if (checkpointer != null) {
+            checkpointer.stop();
+        }
+        checkpointer = new WalCheckpointer(this::checkpoint, intervalMillis);
+    }
+
+    /**
+     * Close all pooled connections. Connections still in use are closed as soon
+     * as they are handed back.
+     */
+    @Override
+    public synchronized void close() {
+        if (checkpointer != null) {
+            checkpointer.stop();
+            checkpointer = null;
+        }
+        readPool.close();
+        writePool.close();
+        if (persistentConnection != null) {
+            try {
+                persistentConnection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database: " + e.getMessage());
+            }
+            persistentConnection = null;
         }
-        String url = dbPath.startsWith("jdbc:sqlite:") ? dbPath : "jdbc:sqlite:" + dbPath;
-        return DriverManager.getConnection(url);
     }
 
     /**
@@ -60,27 +305,15 @@ public class DatabaseManager {
      * @throws SQLException If any step fails or the transaction cannot commit
      */
     public void inTransaction(final Consumer<Connection> action) throws SQLException {
-        try (Connection conn = createConnection()) {
-            boolean originalAutoCommit = conn.getAutoCommit();
-            conn.setAutoCommit(false);
-            try {
-                action.accept(conn);
-                conn.commit();
-            } catch (Exception e) {
-                try {
-                    conn.rollback();
-                } catch (SQLException rollbackEx) {
-                    // Logging suppressed
-                }
-                throw new SQLException("Transaction failed: " + e.getMessage(), e);
-            } finally {
-                conn.setAutoCommit(originalAutoCommit);
-            }
-        }
+        inTransaction(conn -> {
+            action.accept(conn);
+            return null;
+        });
     }
 
     /**
      * Wrap database operations in a transaction and return the computed result.
+     * Nested calls on the same thread join the outer transaction.
      *
      * @param action Logical operations returning a value
      * @param <T>    Result type
@@ -88,9 +321,14 @@ public class DatabaseManager {
      * @throws SQLException If the transaction fails
      */
     public <T> T inTransaction(final java.util.function.Function<Connection, T> action) throws SQLException {
-        try (Connection conn = createConnection()) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return action.apply(active);
+        }
+        try (Connection conn = acquireWriter()) {
             boolean originalAutoCommit = conn.getAutoCommit();
             conn.setAutoCommit(false);
+            transactionConnection.set(conn);
             try {
                 T result = action.apply(conn);
                 conn.commit();
@@ -103,11 +341,55 @@ public class DatabaseManager {
                 }
                 throw new SQLException("Transaction failed: " + e.getMessage(), e);
             } finally {
+                transactionConnection.remove();
                 conn.setAutoCommit(originalAutoCommit);
             }
         }
     }
 
+    /**
+     * Run several reads on one pooled reader connection inside a single read
+     * transaction, so they all observe the same snapshot of the database.
+     * Calls made while a write transaction is open on this thread reuse it.
+     *
+     * @param action Reads to perform against the snapshot
+     * @param <T>    Result type
+     * @return Computed result
+     * @throws SQLException If no connection is available or the snapshot
+     *                      cannot be opened
+     */
+    public <T> T inReadTransaction(final java.util.function.Function<Connection, T> action)
+            throws SQLException {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return action.apply(active);
+        }
+        try (Connection conn = acquireReader()) {
+            conn.setAutoCommit(false);
+            try {
+                return action.apply(conn);
+            } finally {
+                // Nothing to keep; ending the transaction releases the snapshot.
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Build a comma-separated list of {@code ?} markers for an {@code IN (...)}
+     * clause.
+     *
+     * @param count Number of bound values
+     * @return Placeholder list such as {@code "?, ?, ?"}
+     */
+    public static String placeholders(final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("IN list needs at least one value");
+        }
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+
     /**
      * Execute an INSERT, UPDATE, or DELETE query using an existing connection.
      *
@@ -119,7 +401,11 @@ public class DatabaseManager {
     public int executeUpdate(final Connection conn, final String sql, final Object... params) {
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             bindParameters(ps, params);
-            return ps.executeUpdate();
+            int affected = ps.executeUpdate();
+            if (isSchemaChange(sql)) {
+                statementCounters.schemaChanged();
+            }
+            return affected;
         } catch (SQLException e) {
             System.err.println("Error executing update: " + e.getMessage());
             throw new RuntimeException(e);
@@ -127,14 +413,18 @@ public class DatabaseManager {
     }
 
     /**
-     * Execute an INSERT, UPDATE, or DELETE query using a fresh connection.
+     * Execute an INSERT, UPDATE, or DELETE query on the writer connection.
      *
      * @param sql    Statement string
      * @param params Bound parameter values
      * @return Number of rows affected
      */
     public int executeUpdate(final String sql, final Object... params) {
-        try (Connection conn = createConnection()) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return executeUpdate(active, sql, params);
+        }
+        try (Connection conn = acquireWriter()) {
             return executeUpdate(conn, sql, params);
         } catch (SQLException e) {
             System.err.println("Error executing update: " + e.getMessage());
@@ -142,6 +432,35 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Execute one INSERT, UPDATE, or DELETE statement for many parameter rows
+     * as a single JDBC batch.
+     *
+     * @param conn      Active database connection
+     * @param sql       Statement string
+     * @param paramRows Bound parameter values, one array per execution
+     * @return Total number of rows affected
+     */
+    public int executeBatch(final Connection conn, final String sql, final List<Object[]> paramRows) {
+        if (paramRows.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Object[] params : paramRows) {
+                bindParameters(ps, params);
+                ps.addBatch();
+            }
+            int affected = 0;
+            for (int count : ps.executeBatch()) {
+                affected += Math.max(count, 0);
+            }
+            return affected;
+        } catch (SQLException e) {
+            System.err.println("Error executing batch: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Execute a SELECT query using an existing connection.
      *
@@ -174,14 +493,18 @@ public class DatabaseManager {
     }
 
     /**
-     * Execute a SELECT query using a fresh connection.
+     * Execute a SELECT query using a pooled reader connection.
      *
      * @param sql    Statement string
      * @param params Bound parameter values
      * @return List of result rows mapped to columns
      */
     public List<Map<String, Object>> executeQuery(final String sql, final Object... params) {
-        try (Connection conn = createConnection()) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return executeQuery(active, sql, params);
+        }
+        try (Connection conn = acquireReader()) {
             return executeQuery(conn, sql, params);
         } catch (SQLException e) {
             System.err.println("Error executing query: " + e.getMessage());
@@ -189,6 +512,224 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Execute a SELECT and map each row with the given mapper, without building
+     * intermediate column maps.
+     *
+     * @param conn   Active database connection
+     * @param sql    Statement string
+     * @param mapper Row to object conversion
+     * @param params Bound parameter values
+     * @param <T>    Mapped object type
+     * @return Mapped rows in result order
+     */
+    public <T> ArrayList<T> query(final Connection conn, final String sql, final RowMapper<T> mapper,
+            final Object... params) {
+        return extract(conn, sql, rs -> {
+            ArrayList<T> results = new ArrayList<>();
+            int rowNum = 0;
+            while (rs.next()) {
+                results.add(mapper.mapRow(rs, rowNum++));
+            }
+            return results;
+        }, params);
+    }
+
+    /**
+     * Execute a SELECT on a pooled reader connection and map each row with the
+     * given mapper.
+     *
+     * @param sql    Statement string
+     * @param mapper Row to object conversion
+     * @param params Bound parameter values
+     * @param <T>    Mapped object type
+     * @return Mapped rows in result order
+     */
+    public <T> ArrayList<T> query(final String sql, final RowMapper<T> mapper, final Object... params) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return query(active, sql, mapper, params);
+        }
+        try (Connection conn = acquireReader()) {
+            return query(conn, sql, mapper, params);
+        } catch (SQLException e) {
+            System.err.println("Error executing query: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Execute a SELECT and hand the whole result set to an extractor.
+     *
+     * @param conn      Active database connection
+     * @param sql       Statement string
+     * @param extractor Result set consumer
+     * @param params    Bound parameter values
+     * @param <T>       Result type
+     * @return Value produced by the extractor
+     */
+    public <T> T extract(final Connection conn, final String sql, final ResultSetExtractor<T> extractor,
+            final Object... params) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return extractor.extract(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error executing query: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Execute a SELECT on a pooled reader connection and hand the whole result
+     * set to an extractor.
+     *
+     * @param sql       Statement string
+     * @param extractor Result set consumer
+     * @param params    Bound parameter values
+     * @param <T>       Result type
+     * @return Value produced by the extractor
+     */
+    public <T> T extract(final String sql, final ResultSetExtractor<T> extractor, final Object... params) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return extract(active, sql, extractor, params);
+        }
+        try (Connection conn = acquireReader()) {
+            return extract(conn, sql, extractor, params);
+        } catch (SQLException e) {
+            System.err.println("Error executing query: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Execute a SELECT and hand each row to a callback as the cursor advances.
+     *
+     * @param conn      Active database connection
+     * @param sql       Statement string
+     * @param fetchSize Rows fetched from the driver per round trip
+     * @param handler   Per-row callback
+     * @param params    Bound parameter values
+     */
+    public void forEachRow(final Connection conn, final String sql, final int fetchSize,
+            final RowCallbackHandler handler, final Object... params) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(fetchSize);
+            bindParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    handler.processRow(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error executing query: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Execute a SELECT on a pooled reader connection and hand each row to a
+     * callback as the cursor advances.
+     *
+     * @param sql       Statement string
+     * @param fetchSize Rows fetched from the driver per round trip
+     * @param handler   Per-row callback
+     * @param params    Bound parameter values
+     */
+    public void forEachRow(final String sql, final int fetchSize, final RowCallbackHandler handler,
+            final Object... params) {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            forEachRow(active, sql, fetchSize, handler, params);
+            return;
+        }
+        try (Connection conn = acquireReader()) {
+            forEachRow(conn, sql, fetchSize, handler, params);
+        } catch (SQLException e) {
+            System.err.println("Error executing query: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Execute a SELECT and expose the rows as a lazily mapped stream. The
+     * cursor, statement and reader connection stay open until the stream is
+     * closed, so callers must use try-with-resources.
+     *
+     * @param sql       Statement string
+     * @param fetchSize Rows fetched from the driver per round trip
+     * @param mapper    Row to object conversion
+     * @param params    Bound parameter values
+     * @param <T>       Mapped object type
+     * @return Sequential stream of mapped rows that releases its connection on
+     *         close
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "OBL_UNSATISFIED_OBLIGATION_EXCEPTION_EDGE" })
+    public <T> Stream<T> stream(final String sql, final int fetchSize, final RowMapper<T> mapper,
+            final Object... params) {
+        Connection active = transactionConnection.get();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = active != null ? active : acquireReader();
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            bindParameters(ps, params);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, active != null ? null : conn);
+            System.err.println("Error executing query: " + e.getMessage());
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(rs, ps, active != null ? null : conn);
+            throw e;
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement statement = ps;
+        final Connection owned = active != null ? null : conn;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private int rowNum;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(cursor, rowNum++));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(cursor, statement, owned));
+    }
+
+    private static void closeQuietly(final AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error closing cursor: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isSchemaChange(final String sql) {
+        String head = sql.stripLeading();
+        return head.regionMatches(true, 0, "CREATE", 0, 6)
+                || head.regionMatches(true, 0, "ALTER", 0, 5)
+                || head.regionMatches(true, 0, "DROP", 0, 4);
+    }
+
     private static void bindParameters(final PreparedStatement ps, final Object... params) throws SQLException {
         if (params == null) {
             return;
@@ -219,294 +760,32 @@ public class DatabaseManager {
     }
 
     /**
-     * Internal wrapper that ignores close requests to preserve specialized
-     * connections.
+     * Internal wrapper that intercepts close requests so the underlying
+     * connection can be kept alive or handed back to its pool.
      */
-    private static class CloseShieldConnection implements Connection {
-        private final Connection delegate;
+    private static class CloseShieldConnection extends DelegatingConnection {
+        private final Runnable onClose;
+        private boolean closed;
 
-        CloseShieldConnection(final Connection delegate) {
-            this.delegate = delegate;
+        CloseShieldConnection(final Connection delegate, final Runnable onClose) {
+            super(delegate);
+            this.onClose = onClose;
         }
 
         @Override
         public void close() throws SQLException {
-            // Guard the underlying connection
+            // Guard the underlying connection and release it exactly once
+            if (!closed) {
+                closed = true;
+                if (onClose != null) {
+                    onClose.run();
+                }
+            }
         }
 
         @Override
         public boolean isClosed() throws SQLException {
-            return delegate.isClosed();
-        }
-
-        @Override
-        public Statement createStatement() throws SQLException {
-            return delegate.createStatement();
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql) throws SQLException {
-            return delegate.prepareStatement(sql);
-        }
-
-        @Override
-        public void setAutoCommit(final boolean autoCommit) throws SQLException {
-            delegate.setAutoCommit(autoCommit);
-        }
-
-        @Override
-        public boolean getAutoCommit() throws SQLException {
-            return delegate.getAutoCommit();
-        }
-
-        @Override
-        public void commit() throws SQLException {
-            delegate.commit();
-        }
-
-        @Override
-        public void rollback() throws SQLException {
-            delegate.rollback();
-        }
-
-        @Override
-        public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
-            return delegate.createStatement(resultSetType, resultSetConcurrency);
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
-                final int resultSetConcurrency)
-                throws SQLException {
-            return delegate.prepareStatement(sql, resultSetType, resultSetConcurrency);
-        }
-
-        @Override
-        public java.sql.CallableStatement prepareCall(final String sql) throws SQLException {
-            return delegate.prepareCall(sql);
-        }
-
-        @Override
-        public String nativeSQL(final String sql) throws SQLException {
-            return delegate.nativeSQL(sql);
-        }
-
-        @Override
-        public void setReadOnly(final boolean readOnly) throws SQLException {
-            delegate.setReadOnly(readOnly);
-        }
-
-        @Override
-        public boolean isReadOnly() throws SQLException {
-            return delegate.isReadOnly();
-        }
-
-        @Override
-        public void setCatalog(final String catalog) throws SQLException {
-            delegate.setCatalog(catalog);
-        }
-
-        @Override
-        public String getCatalog() throws SQLException {
-            return delegate.getCatalog();
-        }
-
-        @Override
-        public void setTransactionIsolation(final int level) throws SQLException {
-            delegate.setTransactionIsolation(level);
-        }
-
-        @Override
-        public int getTransactionIsolation() throws SQLException {
-            return delegate.getTransactionIsolation();
-        }
-
-        @Override
-        public java.sql.SQLWarning getWarnings() throws SQLException {
-            return delegate.getWarnings();
-        }
-
-        @Override
-        public void clearWarnings() throws SQLException {
-            delegate.clearWarnings();
-        }
-
-        @Override
-        public Statement createStatement(final int resultSetType, final int resultSetConcurrency,
-                final int resultSetHoldability) throws SQLException {
-            return delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
-                final int resultSetConcurrency,
-                final int resultSetHoldability) throws SQLException {
-            return delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
-        }
-
-        @Override
-        public java.sql.CallableStatement prepareCall(final String sql, final int resultSetType,
-                final int resultSetConcurrency)
-                throws SQLException {
-            return delegate.prepareCall(sql, resultSetType, resultSetConcurrency);
-        }
-
-        @Override
-        public java.sql.CallableStatement prepareCall(final String sql, final int resultSetType,
-                final int resultSetConcurrency,
-                final int resultSetHoldability) throws SQLException {
-            return delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
-            return delegate.prepareStatement(sql, autoGeneratedKeys);
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
-            return delegate.prepareStatement(sql, columnIndexes);
-        }
-
-        @Override
-        public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
-            return delegate.prepareStatement(sql, columnNames);
-        }
-
-        @Override
-        public java.sql.Clob createClob() throws SQLException {
-            return delegate.createClob();
-        }
-
-        @Override
-        public java.sql.Blob createBlob() throws SQLException {
-            return delegate.createBlob();
-        }
-
-        @Override
-        public java.sql.NClob createNClob() throws SQLException {
-            return delegate.createNClob();
-        }
-
-        @Override
-        public java.sql.SQLXML createSQLXML() throws SQLException {
-            return delegate.createSQLXML();
-        }
-
-        @Override
-        public boolean isValid(final int timeout) throws SQLException {
-            return delegate.isValid(timeout);
-        }
-
-        @Override
-        public void setClientInfo(final String name, final String value) throws java.sql.SQLClientInfoException {
-            delegate.setClientInfo(name, value);
-        }
-
-        @Override
-        public void setClientInfo(final java.util.Properties properties) throws java.sql.SQLClientInfoException {
-            delegate.setClientInfo(properties);
-        }
-
-        @Override
-        public String getClientInfo(final String name) throws SQLException {
-            return delegate.getClientInfo(name);
-        }
-
-        @Override
-        public java.util.Properties getClientInfo() throws SQLException {
-            return delegate.getClientInfo();
-        }
-
-        @Override
-        public java.sql.Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
-            return delegate.createArrayOf(typeName, elements);
-        }
-
-        @Override
-        public java.sql.Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
-            return delegate.createStruct(typeName, attributes);
-        }
-
-        @Override
-        public void setSchema(final String schema) throws SQLException {
-            delegate.setSchema(schema);
-        }
-
-        @Override
-        public String getSchema() throws SQLException {
-            return delegate.getSchema();
-        }
-
-        @Override
-        public void abort(final java.util.concurrent.Executor executor) throws SQLException {
-            delegate.abort(executor);
-        }
-
-        @Override
-        public void setNetworkTimeout(final java.util.concurrent.Executor executor, final int milliseconds)
-                throws SQLException {
-            delegate.setNetworkTimeout(executor, milliseconds);
-        }
-
-        @Override
-        public int getNetworkTimeout() throws SQLException {
-            return delegate.getNetworkTimeout();
-        }
-
-        @Override
-        public <T> T unwrap(final Class<T> iface) throws SQLException {
-            return delegate.unwrap(iface);
-        }
-
-        @Override
-        public boolean isWrapperFor(final Class<?> iface) throws SQLException {
-            return delegate.isWrapperFor(iface);
-        }
-
-        @Override
-        public java.sql.DatabaseMetaData getMetaData() throws SQLException {
-            return delegate.getMetaData();
-        }
-
-        @Override
-        public void setHoldability(final int holdability) throws SQLException {
-            delegate.setHoldability(holdability);
-        }
-
-        @Override
-        public int getHoldability() throws SQLException {
-            return delegate.getHoldability();
-        }
-
-        @Override
-        public java.sql.Savepoint setSavepoint() throws SQLException {
-            return delegate.setSavepoint();
-        }
-
-        @Override
-        public java.sql.Savepoint setSavepoint(final String name) throws SQLException {
-            return delegate.setSavepoint(name);
-        }
-
-        @Override
-        public void rollback(final java.sql.Savepoint savepoint) throws SQLException {
-            delegate.rollback(savepoint);
-        }
-
-        @Override
-        public void releaseSavepoint(final java.sql.Savepoint savepoint) throws SQLException {
-            delegate.releaseSavepoint(savepoint);
-        }
-
-        @Override
-        public Map<String, Class<?>> getTypeMap() throws SQLException {
-            return delegate.getTypeMap();
-        }
-
-        @Override
-        public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
-            delegate.setTypeMap(map);
+            return closed || getDelegate().isClosed();
         }
     }
 }
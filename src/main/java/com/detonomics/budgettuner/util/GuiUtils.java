@@ -1,6 +1,7 @@
 package com.detonomics.budgettuner.util;
 
 import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetTimeSeries;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -14,7 +15,9 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * Common GUI helpers and navigation utilities for the JavaFX front-end.
@@ -42,6 +45,29 @@ public final class GuiUtils {
             final List<Summary> data,
             final Function<Summary, Number> valueExtractor, final Function<Summary, String> categoryExtractor,
             final Predicate<Summary> colorCondition) {
+        fillChart(chart, seriesName, data, valueExtractor, categoryExtractor, colorCondition);
+    }
+
+    /**
+     * Configure a BarChart with one bar per fiscal year of a time series.
+     * Points without a value are left out.
+     *
+     * @param chart          Target JavaFX BarChart
+     * @param series         Time series to visualize
+     * @param colorCondition Logic to determine if a bar should be highlighted,
+     *                       given its amount
+     */
+    public static void setupChart(final BarChart<String, Number> chart, final BudgetTimeSeries.Series series,
+            final LongPredicate colorCondition) {
+        List<Integer> points = IntStream.range(0, series.size()).filter(series::has).boxed().toList();
+        fillChart(chart, series.name(), points, p -> series.value(p), p -> String.valueOf(series.year(p)),
+                p -> colorCondition.test(series.value(p)));
+    }
+
+    private static <T> void fillChart(final BarChart<String, Number> chart, final String seriesName,
+            final List<T> data,
+            final Function<T, Number> valueExtractor, final Function<T, String> categoryExtractor,
+            final Predicate<T> colorCondition) {
         chart.getData().clear();
 
         // Enforce specific axis categories if using a CategoryAxis
@@ -57,7 +83,7 @@ public final class GuiUtils {
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName(seriesName);
 
-        for (Summary s : data) {
+        for (T s : data) {
             String category = categoryExtractor.apply(s);
             XYChart.Data<String, Number> chartData = new XYChart.Data<>(
                     category,
@@ -0,0 +1,140 @@
+package com.detonomics.budgettuner.util;
+
+/**
+ * Open-addressing hash map from {@code long} keys to {@code int} values,
+ * without boxing. Used to resolve budget codes to row positions or primary
+ * keys when a batch of edits is applied.
+ *
+ * <p>
+ * Not thread-safe. Entries cannot be removed.
+ * </p>
+ */
+public final class LongIntMap {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int shift;
+
+    /**
+     * Initialize with room for the expected number of entries.
+     *
+     * @param expectedSize Number of entries to hold without resizing
+     */
+    public LongIntMap(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value.
+     *
+     * @param key   Key
+     * @param value Value
+     */
+    public void put(final long key, final int value) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            values[slot] = value;
+        } else {
+            insertAt(slot, key, value);
+        }
+    }
+
+    /**
+     * Associate a value with a key unless the key is already present.
+     *
+     * @param key   Key
+     * @param value Value
+     * @return True if the value was stored
+     */
+    public boolean putIfAbsent(final long key, final int value) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            return false;
+        }
+        insertAt(slot, key, value);
+        return true;
+    }
+
+    /**
+     * Look up the value for a key.
+     *
+     * @param key          Key
+     * @param defaultValue Value returned if the key is absent
+     * @return Stored value, or the default
+     */
+    public int getOrDefault(final long key, final int defaultValue) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Check whether a key is present.
+     *
+     * @param key Key
+     * @return True if present
+     */
+    public boolean containsKey(final long key) {
+        return used[slotOf(key)];
+    }
+
+    /**
+     * Count the entries.
+     *
+     * @return Number of keys stored
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(final long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * GOLDEN) >>> shift);
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(final int slot, final long key, final int value) {
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+        size = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.detonomics.budgettuner.util;
+
+/**
+ * Point-in-time usage counters for one of the database connection pools.
+ *
+ * @param hits               Borrows served by an idle pooled connection
+ * @param misses             Borrows that had to open a new connection
+ * @param waits              Borrows that blocked because the pool was exhausted
+ * @param totalWaitMillis    Cumulative time spent blocked
+ * @param evictions          Idle connections closed after their timeout
+ * @param validationFailures Pooled connections discarded as broken on borrow
+ * @param leased             Connections currently handed out
+ * @param idle               Connections currently parked in the pool
+ * @param maxSize            Upper bound on leased connections
+ */
+public record PoolStats(long hits, long misses, long waits, long totalWaitMillis,
+        long evictions, long validationFailures, int leased, int idle, int maxSize) {
+
+    /**
+     * Fraction of borrows that reused an existing connection.
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
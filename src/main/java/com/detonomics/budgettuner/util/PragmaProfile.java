@@ -0,0 +1,116 @@
+package com.detonomics.budgettuner.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SQLite tuning settings applied to every connection opened by
+ * {@link DatabaseManager}.
+ *
+ * @param journalMode       Journal mode, e.g. WAL or DELETE
+ * @param synchronous       Sync level: OFF, NORMAL, FULL or EXTRA
+ * @param mmapSizeBytes     Memory-mapped I/O window in bytes
+ * @param cacheSizeKib      Page cache size in KiB
+ * @param tempStore         Temporary storage: DEFAULT, FILE or MEMORY
+ * @param busyTimeoutMillis Time to wait on a locked database before failing
+ */
+public record PragmaProfile(String journalMode, String synchronous, long mmapSizeBytes,
+        int cacheSizeKib, String tempStore, int busyTimeoutMillis) {
+
+    private static final List<String> JOURNAL_MODES = List.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY",
+            "WAL", "OFF");
+    private static final List<String> SYNCHRONOUS_LEVELS = List.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final List<String> TEMP_STORES = List.of("DEFAULT", "FILE", "MEMORY");
+
+    /** Prefix of the system properties read by {@link #fromSystemProperties()}. */
+    public static final String PROPERTY_PREFIX = "budgettuner.sqlite.";
+
+    /**
+     * Validate and normalize the profile values.
+     *
+     * @param journalMode       Journal mode
+     * @param synchronous       Sync level
+     * @param mmapSizeBytes     Memory-mapped I/O window in bytes
+     * @param cacheSizeKib      Page cache size in KiB
+     * @param tempStore         Temporary storage location
+     * @param busyTimeoutMillis Lock wait timeout
+     */
+    public PragmaProfile {
+        journalMode = requireOneOf("journal_mode", journalMode, JOURNAL_MODES);
+        synchronous = requireOneOf("synchronous", synchronous, SYNCHRONOUS_LEVELS);
+        tempStore = requireOneOf("temp_store", tempStore, TEMP_STORES);
+        if (mmapSizeBytes < 0 || cacheSizeKib < 0 || busyTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Pragma sizes and timeouts must not be negative");
+        }
+    }
+
+    /**
+     * Build the recommended profile for the desktop application: WAL journaling
+     * so readers never block on the writer, relaxed syncing and generous caches.
+     *
+     * @return Default tuning profile
+     */
+    public static PragmaProfile defaults() {
+        return new PragmaProfile("WAL", "NORMAL", 128L * 1024 * 1024, 16 * 1024, "MEMORY", 5000);
+    }
+
+    /**
+     * Build a profile from {@code budgettuner.sqlite.*} system properties,
+     * falling back to {@link #defaults()} for anything unset.
+     *
+     * @return Configured tuning profile
+     */
+    public static PragmaProfile fromSystemProperties() {
+        PragmaProfile d = defaults();
+        return new PragmaProfile(
+                System.getProperty(PROPERTY_PREFIX + "journal_mode", d.journalMode()),
+                System.getProperty(PROPERTY_PREFIX + "synchronous", d.synchronous()),
+                Long.getLong(PROPERTY_PREFIX + "mmap_size", d.mmapSizeBytes()),
+                Integer.getInteger(PROPERTY_PREFIX + "cache_size_kib", d.cacheSizeKib()),
+                System.getProperty(PROPERTY_PREFIX + "temp_store", d.tempStore()),
+                Integer.getInteger(PROPERTY_PREFIX + "busy_timeout", d.busyTimeoutMillis()));
+    }
+
+    /**
+     * Produce the PRAGMA statements that apply this profile. The busy timeout
+     * comes first so the journal mode switch can wait out concurrent openers.
+     *
+     * @return Ordered PRAGMA statements
+     */
+    public List<String> statements() {
+        return List.of(
+                "PRAGMA busy_timeout = " + busyTimeoutMillis,
+                "PRAGMA journal_mode = " + journalMode,
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA cache_size = -" + cacheSizeKib,
+                "PRAGMA mmap_size = " + mmapSizeBytes,
+                "PRAGMA temp_store = " + tempStore);
+    }
+
+    /**
+     * Describe the values SQLite should report back once the profile is active,
+     * in the same form returned by querying each pragma.
+     *
+     * @return Pragma name to expected reported value
+     */
+    public Map<String, String> expectedValues() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("journal_mode", journalMode.toLowerCase(Locale.ROOT));
+        expected.put("synchronous", String.valueOf(SYNCHRONOUS_LEVELS.indexOf(synchronous)));
+        expected.put("cache_size", String.valueOf(-cacheSizeKib));
+        expected.put("mmap_size", String.valueOf(mmapSizeBytes));
+        expected.put("temp_store", String.valueOf(TEMP_STORES.indexOf(tempStore)));
+        expected.put("busy_timeout", String.valueOf(busyTimeoutMillis));
+        return expected;
+    }
+
+    private static String requireOneOf(final String pragma, final String value, final List<String> allowed) {
+        String normalized = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(normalized)) {
+            throw new IllegalArgumentException("Unsupported " + pragma + " value: " + value);
+        }
+        return normalized;
+    }
+}
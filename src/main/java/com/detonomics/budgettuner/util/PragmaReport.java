@@ -0,0 +1,34 @@
+package com.detonomics.budgettuner.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of the startup self-check comparing the effective SQLite settings
+ * against the configured {@link PragmaProfile}.
+ *
+ * @param effective  Pragma name to the value SQLite reports
+ * @param mismatches Human-readable description of each deviation
+ */
+public record PragmaReport(Map<String, String> effective, List<String> mismatches) {
+
+    /**
+     * Defensively copy the report contents.
+     *
+     * @param effective  Pragma name to the value SQLite reports
+     * @param mismatches Human-readable description of each deviation
+     */
+    public PragmaReport {
+        effective = Map.copyOf(effective);
+        mismatches = List.copyOf(mismatches);
+    }
+
+    /**
+     * Check whether every setting took effect as configured.
+     *
+     * @return True if no mismatches were found
+     */
+    public boolean isHealthy() {
+        return mismatches.isEmpty();
+    }
+}
@@ -0,0 +1,22 @@
+package com.detonomics.budgettuner.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Consume an entire result set and fold it into a single value.
+ *
+ * @param <T> Result type
+ */
+@FunctionalInterface
+public interface ResultSetExtractor<T> {
+
+    /**
+     * Walk the result set and build the result.
+     *
+     * @param rs Result set positioned before the first row
+     * @return Extracted value
+     * @throws SQLException If a column cannot be read
+     */
+    T extract(ResultSet rs) throws SQLException;
+}
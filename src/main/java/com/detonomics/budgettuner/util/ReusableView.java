@@ -0,0 +1,16 @@
+package com.detonomics.budgettuner.util;
+
+/**
+ * Controller whose view may be kept by the {@link ViewManager} and shown again
+ * instead of being rebuilt from its FXML.
+ */
+public interface ReusableView {
+
+    /**
+     * Return a kept view to its initial state before it is shown again. Called
+     * on the JavaFX thread before any context is set on the controller, so a
+     * view is expected to reload the data its {@code initialize} method loads
+     * and clear state left by the previous visit.
+     */
+    void resetView();
+}
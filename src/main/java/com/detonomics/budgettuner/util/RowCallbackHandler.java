@@ -0,0 +1,20 @@
+package com.detonomics.budgettuner.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Process result rows one at a time as the cursor advances, so full-table
+ * scans never hold more than the current row in memory.
+ */
+@FunctionalInterface
+public interface RowCallbackHandler {
+
+    /**
+     * Handle the row the cursor is positioned on.
+     *
+     * @param rs Result set positioned on a row
+     * @throws SQLException If a column cannot be read
+     */
+    void processRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,25 @@
+package com.detonomics.budgettuner.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Map the current row of a result set straight into a domain object.
+ * Implementations should read columns by index, matching the column order of
+ * the SELECT they are paired with.
+ *
+ * @param <T> Mapped object type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Convert the row the cursor is positioned on.
+     *
+     * @param rs     Result set positioned on a row
+     * @param rowNum Zero-based row number
+     * @return Mapped object
+     * @throws SQLException If a column cannot be read
+     */
+    T mapRow(ResultSet rs, int rowNum) throws SQLException;
+}
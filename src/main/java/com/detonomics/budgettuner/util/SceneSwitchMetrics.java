@@ -0,0 +1,90 @@
+package com.detonomics.budgettuner.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency of scene switches per view, split into switches that built the view
+ * from its FXML and switches that reused a cached one.
+ */
+public final class SceneSwitchMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final class ViewStats {
+        private int built;
+        private long builtNanos;
+        private int reused;
+        private long reusedNanos;
+        private long maxNanos;
+    }
+
+    private final Map<String, ViewStats> views = new TreeMap<>();
+
+    /**
+     * Record one scene switch.
+     *
+     * @param view   FXML resource switched to
+     * @param nanos  Time from the request to the view being shown
+     * @param reused True if a cached view was shown
+     */
+    public synchronized void record(final String view, final long nanos, final boolean reused) {
+        ViewStats stats = views.computeIfAbsent(view, v -> new ViewStats());
+        if (reused) {
+            stats.reused++;
+            stats.reusedNanos += nanos;
+        } else {
+            stats.built++;
+            stats.builtNanos += nanos;
+        }
+        stats.maxNanos = Math.max(stats.maxNanos, nanos);
+    }
+
+    /**
+     * Count the switches to a view.
+     *
+     * @param view   FXML resource
+     * @param reused True for switches that reused a cached view
+     * @return Number of switches of that kind
+     */
+    public synchronized int switches(final String view, final boolean reused) {
+        ViewStats stats = views.get(view);
+        if (stats == null) {
+            return 0;
+        }
+        return reused ? stats.reused : stats.built;
+    }
+
+    /**
+     * Average latency of the switches to a view.
+     *
+     * @param view   FXML resource
+     * @param reused True for switches that reused a cached view
+     * @return Mean latency in milliseconds, 0 if there were none
+     */
+    public synchronized double meanMillis(final String view, final boolean reused) {
+        ViewStats stats = views.get(view);
+        if (stats == null) {
+            return 0;
+        }
+        int count = reused ? stats.reused : stats.built;
+        long nanos = reused ? stats.reusedNanos : stats.builtNanos;
+        return count == 0 ? 0 : nanos / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * Format one line per view with its switch counts and latencies.
+     *
+     * @return Human-readable report
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder("Scene switch latency:");
+        for (Map.Entry<String, ViewStats> entry : views.entrySet()) {
+            ViewStats stats = entry.getValue();
+            sb.append(String.format("%n  %-30s built %3d x %8.2f ms, reused %3d x %8.2f ms, max %8.2f ms",
+                    entry.getKey(), stats.built, meanMillis(entry.getKey(), false), stats.reused,
+                    meanMillis(entry.getKey(), true), stats.maxNanos / NANOS_PER_MILLI));
+        }
+        return sb.toString();
+    }
+}
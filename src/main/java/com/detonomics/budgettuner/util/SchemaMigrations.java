@@ -0,0 +1,167 @@
+package com.detonomics.budgettuner.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Versioned, in-place upgrades of the budget database schema.
+ *
+ * <p>
+ * The applied version is kept in SQLite's {@code user_version} header field.
+ * Each migration runs in the caller's transaction together with the version
+ * bump, so a failed upgrade leaves the file untouched. Steps skip tables the
+ * database does not have yet; a database without any budget tables is left at
+ * version 0 so that the schema created later by ingestion still gets upgraded.
+ * </p>
+ */
+public final class SchemaMigrations {
+
+    /** Schema version produced by applying every known migration. */
+    public static final int LATEST_VERSION = 1;
+
+    private static final List<String> BUDGET_TABLES = List.of("Budgets", "RevenueCategories",
+            "ExpenseCategories", "Ministries", "MinistryExpenses");
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "typed code columns and lookup indexes", SchemaMigrations::indexLookupPaths));
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Bring the schema up to {@link #LATEST_VERSION}. Runs in its own
+     * transaction when the connection is in auto-commit mode, otherwise joins
+     * the open one.
+     *
+     * @param conn Writable database connection
+     * @return Number of migrations applied
+     * @throws SQLException If a migration fails; nothing is applied in that case
+     */
+    public static int migrate(final Connection conn) throws SQLException {
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            int applied = applyPending(conn);
+            if (ownTransaction) {
+                conn.commit();
+            }
+            return applied;
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Read the schema version stored in the database header.
+     *
+     * @param conn Database connection
+     * @return Current {@code user_version}
+     * @throws SQLException If the pragma cannot be read
+     */
+    public static int currentVersion(final Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static int applyPending(final Connection conn) throws SQLException {
+        int version = currentVersion(conn);
+        if (version >= LATEST_VERSION || !hasAnyTable(conn, BUDGET_TABLES)) {
+            return 0;
+        }
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= version) {
+                continue;
+            }
+            migration.step().apply(conn);
+            execute(conn, "PRAGMA user_version = " + migration.version());
+            applied++;
+        }
+        return applied;
+    }
+
+    /*
+     * Version 1: codes are stored as TEXT but looked up numerically, so every
+     * CAST(code AS INTEGER) predicate scanned the whole table. A virtual
+     * generated code_num column keeps itself in sync on every insert and makes
+     * those lookups index-usable.
+     */
+    private static void indexLookupPaths(final Connection conn) throws SQLException {
+        for (String table : List.of("RevenueCategories", "ExpenseCategories", "Ministries")) {
+            addCodeNumber(conn, table);
+            createIndex(conn, "idx_" + table + "_budget_code", table, "budget_id", "code_num");
+        }
+        createIndex(conn, "idx_RevenueCategories_parent", "RevenueCategories", "parent_id");
+        createIndex(conn, "idx_MinistryExpenses_ministry_category", "MinistryExpenses",
+                "ministry_id", "expense_category_id");
+    }
+
+    private static void addCodeNumber(final Connection conn, final String table) throws SQLException {
+        Set<String> columns = columnsOf(conn, table);
+        if (columns.isEmpty() || !columns.contains("code") || columns.contains("code_num")) {
+            return;
+        }
+        execute(conn, "ALTER TABLE " + table
+                + " ADD COLUMN code_num INTEGER GENERATED ALWAYS AS (CAST(code AS INTEGER)) VIRTUAL");
+    }
+
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" })
+    private static void createIndex(final Connection conn, final String name, final String table,
+            final String... columns) throws SQLException {
+        if (!columnsOf(conn, table).containsAll(List.of(columns))) {
+            return;
+        }
+        execute(conn, "CREATE INDEX IF NOT EXISTS " + name + " ON " + table
+                + " (" + String.join(", ", columns) + ")");
+    }
+
+    private static boolean hasAnyTable(final Connection conn, final List<String> tables) throws SQLException {
+        for (String table : tables) {
+            if (!columnsOf(conn, table).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> columnsOf(final Connection conn, final String table) throws SQLException {
+        // table_xinfo, unlike table_info, also lists generated columns.
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("PRAGMA table_xinfo(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+
+    private static void execute(final Connection conn, final String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
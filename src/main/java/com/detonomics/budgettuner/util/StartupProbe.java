@@ -0,0 +1,57 @@
+package com.detonomics.budgettuner.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Report how long after process start the application reached a startup
+ * milestone, such as the first GUI frame or the CLI menu. Enabled with
+ * {@code -Dbudgettuner.startup.probe=true}; the front ends then exit once
+ * their first screen is up, which is what the startup benchmark and the
+ * class-data-sharing training run rely on.
+ */
+public final class StartupProbe {
+
+    /** System property enabling the probe. */
+    public static final String PROPERTY = "budgettuner.startup.probe";
+    /** Prefix of every line the probe prints on standard error. */
+    public static final String PREFIX = "Startup milestone ";
+
+    private static final Set<String> REACHED = new HashSet<>();
+
+    private StartupProbe() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Check whether the probe is enabled.
+     *
+     * @return True if startup milestones are reported
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Report a milestone the first time it is reached, if the probe is
+     * enabled.
+     *
+     * @param milestone Name of the milestone
+     */
+    public static synchronized void reached(final String milestone) {
+        if (isEnabled() && REACHED.add(milestone)) {
+            System.err.println(PREFIX + milestone + ": " + millisSinceProcessStart() + " ms");
+        }
+    }
+
+    /**
+     * Measure the time elapsed since the JVM was started. The management
+     * classes this needs are only loaded once a milestone has been reached.
+     *
+     * @return Elapsed milliseconds
+     */
+    public static long millisSinceProcessStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
@@ -0,0 +1,21 @@
+package com.detonomics.budgettuner.util;
+
+/**
+ * Aggregate counters for the per-connection prepared statement caches.
+ *
+ * @param hits      Prepares served by an already compiled statement
+ * @param misses    Prepares that had to compile the SQL
+ * @param evictions Statements dropped to respect the cache capacity
+ */
+public record StatementCacheStats(long hits, long misses, long evictions) {
+
+    /**
+     * Fraction of prepares that reused a cached statement.
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
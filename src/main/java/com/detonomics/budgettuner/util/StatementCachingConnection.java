@@ -0,0 +1,206 @@
+package com.detonomics.budgettuner.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Physical connection wrapper that keeps an LRU cache of prepared statements
+ * keyed by SQL text. Closing a statement obtained from
+ * {@link #prepareStatement(String)} returns it to the cache; closing the
+ * connection finalizes every cached statement. A schema change on any
+ * connection flushes every cache, since compiled statements keep the column
+ * layout they were prepared against.
+ */
+final class StatementCachingConnection extends DelegatingConnection {
+
+    /**
+     * Hit, miss and eviction counters plus the schema generation shared by
+     * every connection of one {@link DatabaseManager}.
+     */
+    static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final AtomicLong schemaGeneration = new AtomicLong();
+
+        /**
+         * Invalidate all cached statements after DDL has run.
+         */
+        void schemaChanged() {
+            schemaGeneration.incrementAndGet();
+        }
+
+        /**
+         * Capture the current counter values.
+         *
+         * @return Statement cache statistics
+         */
+        StatementCacheStats snapshot() {
+            return new StatementCacheStats(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long seenSchemaGeneration;
+    private boolean closed;
+
+    /**
+     * Wrap a freshly opened connection.
+     *
+     * @param delegate Physical connection
+     * @param capacity Maximum number of cached statements
+     * @param counters Shared statistics sink
+     */
+    StatementCachingConnection(final Connection delegate, final int capacity, final Counters counters) {
+        super(delegate);
+        this.capacity = capacity;
+        this.counters = counters;
+        this.seenSchemaGeneration = counters.schemaGeneration.get();
+    }
+
+    @Override
+    public synchronized PreparedStatement prepareStatement(final String sql) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection is closed");
+        }
+        long generation = counters.schemaGeneration.get();
+        if (generation != seenSchemaGeneration) {
+            flush();
+            seenSchemaGeneration = generation;
+        }
+        CachedStatement entry = cache.get(sql);
+        if (entry != null && !entry.inUse) {
+            counters.hits.increment();
+            entry.inUse = true;
+            return entry.handle;
+        }
+        counters.misses.increment();
+        PreparedStatement ps = getDelegate().prepareStatement(sql);
+        if (entry != null || capacity == 0) {
+            // The cached copy is busy (re-entrant use of the same SQL); hand out a
+            // one-off statement instead of sharing it.
+            return ps;
+        }
+        entry = new CachedStatement(ps);
+        entry.inUse = true;
+        cache.put(sql, entry);
+        evictOverflow();
+        return entry.handle;
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        getDelegate().close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || getDelegate().isClosed();
+    }
+
+    /**
+     * Count the statements currently held by this connection.
+     *
+     * @return Number of cached statements
+     */
+    synchronized int cachedStatementCount() {
+        return cache.size();
+    }
+
+    private void flush() {
+        for (CachedStatement entry : cache.values()) {
+            entry.evicted = true;
+            if (!entry.inUse) {
+                entry.closeQuietly();
+            }
+        }
+        cache.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = cache.values().iterator();
+        while (cache.size() > capacity && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            counters.evictions.increment();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    private synchronized void giveBack(final CachedStatement entry) throws SQLException {
+        entry.inUse = false;
+        if (entry.evicted || closed) {
+            entry.closeQuietly();
+            return;
+        }
+        entry.statement.clearParameters();
+        entry.statement.clearBatch();
+    }
+
+    /**
+     * Cache slot pairing the real statement with the proxy handed to callers.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement handle;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(final PreparedStatement statement) {
+            this.statement = statement;
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class }, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        giveBack(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Statement is being discarded anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.detonomics.budgettuner.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache of built views keyed by FXML resource. The most recently used views
+ * are held strongly; older ones are only softly reachable, so the garbage
+ * collector reclaims the less-used views under memory pressure and they are
+ * rebuilt on their next visit. Safe for use from several threads.
+ *
+ * @param <V> Cached view type
+ */
+public final class ViewCache<V> {
+
+    private final int strongCapacity;
+    private final Function<V, Reference<V>> demote;
+    private final LinkedHashMap<String, V> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Reference<V>> demoted = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long reclaimed;
+
+    /**
+     * Create a cache holding a number of views strongly.
+     *
+     * @param strongCapacity Number of most recently used views never reclaimed
+     */
+    public ViewCache(final int strongCapacity) {
+        this(strongCapacity, SoftReference::new);
+    }
+
+    ViewCache(final int strongCapacity, final Function<V, Reference<V>> demote) {
+        if (strongCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.strongCapacity = strongCapacity;
+        this.demote = Objects.requireNonNull(demote);
+    }
+
+    /**
+     * Take a cached view, marking it as the most recently used.
+     *
+     * @param key FXML resource
+     * @return The view, or null if it was never cached or has been reclaimed
+     */
+    public synchronized V get(final String key) {
+        V view = recent.get(key);
+        if (view == null) {
+            Reference<V> ref = demoted.remove(key);
+            view = ref == null ? null : ref.get();
+            if (view == null) {
+                if (ref != null) {
+                    reclaimed++;
+                }
+                misses++;
+                return null;
+            }
+            recent.put(key, view);
+            trim();
+        }
+        hits++;
+        return view;
+    }
+
+    /**
+     * Cache a view as the most recently used, replacing any earlier one.
+     *
+     * @param key  FXML resource
+     * @param view Built view
+     */
+    public synchronized void put(final String key, final V view) {
+        demoted.remove(key);
+        recent.put(key, Objects.requireNonNull(view));
+        trim();
+    }
+
+    /**
+     * Cache a view unless one is already cached, as done by preloading.
+     *
+     * @param key  FXML resource
+     * @param view Built view
+     * @return True if the view was cached
+     */
+    public synchronized boolean putIfAbsent(final String key, final V view) {
+        if (contains(key)) {
+            return false;
+        }
+        put(key, view);
+        return true;
+    }
+
+    /**
+     * Check for a cached view without counting a hit or changing its order.
+     *
+     * @param key FXML resource
+     * @return True if the view is cached and not reclaimed
+     */
+    public synchronized boolean contains(final String key) {
+        if (recent.containsKey(key)) {
+            return true;
+        }
+        Reference<V> ref = demoted.get(key);
+        return ref != null && ref.get() != null;
+    }
+
+    /**
+     * Count the lookups that found a view.
+     *
+     * @return Number of hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Count the lookups that had to build the view.
+     *
+     * @return Number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Count the misses caused by a view reclaimed under memory pressure.
+     *
+     * @return Number of reclaimed views looked up again
+     */
+    public synchronized long reclaimed() {
+        return reclaimed;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, V>> eldest = recent.entrySet().iterator();
+        while (recent.size() > strongCapacity) {
+            Map.Entry<String, V> entry = eldest.next();
+            demoted.put(entry.getKey(), demote.apply(entry.getValue()));
+            eldest.remove();
+        }
+    }
+}
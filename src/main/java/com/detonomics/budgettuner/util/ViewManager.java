@@ -10,27 +10,103 @@ import com.detonomics.budgettuner.controller.ComparisonDetailsController;
 import com.detonomics.budgettuner.controller.GuiApp;
 import com.detonomics.budgettuner.controller.IngestController;
 import com.detonomics.budgettuner.controller.WelcomeController;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import com.detonomics.budgettuner.service.BudgetModificationService;
+import com.detonomics.budgettuner.service.BudgetServices;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Handle scene transitions and dependency injection for application
  * controllers.
  * Acts as the central navigator for the JavaFX stage.
+ *
+ * <p>
+ * Data for a view is requested through {@link #load}: results are delivered on
+ * the JavaFX thread, requests still pending when the user navigates away are
+ * cancelled, and a loading overlay covers the view while any are pending.
+ * </p>
+ *
+ * <p>
+ * Views whose controller is a {@link ReusableView} are kept in a
+ * {@link ViewCache} and reset instead of being rebuilt, and the views likely
+ * to follow are built ahead of time on a background thread. The latency of
+ * every switch is recorded in {@link #sceneSwitchMetrics()}, and printed at
+ * exit when {@value #METRICS_PROPERTY} is set.
+ * </p>
+ *
+ * <p>
+ * Failures nobody else handles, such as a data load without its own failure
+ * callback or a view that cannot be built, go to the handler set with
+ * {@link #setErrorHandler}; by default they are printed on standard error.
+ * </p>
  */
 public class ViewManager {
 
+    /** System property printing the scene switch latency at exit. */
+    public static final String METRICS_PROPERTY = "budgettuner.metrics";
+
+    private static final int VIEW_CACHE_CAPACITY = 4;
+
+    /*
+     * Views likely to be opened from a view. The targets only receive their
+     * data through setContext, so building them does not call back into this
+     * manager and is safe off the JavaFX thread.
+     */
+    private static final Map<String, List<String>> LIKELY_NEXT = Map.of(
+            "budget-view.fxml", List.of("budget-details-view.fxml"),
+            "budget-details-view.fxml", List.of("analysis-view.fxml"),
+            "budget-comparison-view.fxml", List.of("comparison-details-view.fxml"));
+
     private final Stage primaryStage;
-    private final BudgetDataService budgetDataService;
-    private final BudgetModificationService budgetModificationService;
+    private final AsyncBudgetDataService asyncDataService;
+    private final Supplier<BudgetModificationService> budgetModificationService;
+    private final Executor uiExecutor;
+    private final List<CompletableFuture<?>> pendingLoads = new ArrayList<>();
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
+    private final AtomicLong viewGeneration = new AtomicLong();
+    private final ViewCache<BuiltView> viewCache = new ViewCache<>(VIEW_CACHE_CAPACITY);
+    private final SceneSwitchMetrics sceneSwitchMetrics = new SceneSwitchMetrics();
+    private ExecutorService preloader;
+    private volatile Consumer<Throwable> errorHandler = error -> System.err.println(error.getMessage());
+
+    /*
+     * A built view. The loading overlay is added on the JavaFX thread when the
+     * view is first shown, since it binds to the loading state.
+     */
+    private static final class BuiltView {
+        private final Parent content;
+        private final Object controller;
+        private Parent root;
+
+        private BuiltView(final Parent content, final Object controller) {
+            this.content = content;
+            this.controller = controller;
+        }
+    }
 
     /**
      * Initialize with the primary application stage and global business services.
@@ -39,12 +115,202 @@ public class ViewManager {
      * @param budgetDataService         Core data access service
      * @param budgetModificationService Specialized modification service
      */
-    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "EI_EXPOSE_REP2" })
     public ViewManager(final Stage primaryStage, final BudgetDataService budgetDataService,
             final BudgetModificationService budgetModificationService) {
+        this(primaryStage, new AsyncBudgetDataService(budgetDataService), budgetModificationService,
+                Platform::runLater);
+    }
+
+    /**
+     * Initialize with an explicit asynchronous data facade and the executor
+     * that delivers results to the views.
+     *
+     * @param primaryStage              Main JavaFX stage
+     * @param asyncDataService          Asynchronous data access facade
+     * @param budgetModificationService Specialized modification service
+     * @param uiExecutor                Executor running on the JavaFX thread
+     */
+    public ViewManager(final Stage primaryStage, final AsyncBudgetDataService asyncDataService,
+            final BudgetModificationService budgetModificationService, final Executor uiExecutor) {
+        this(primaryStage, asyncDataService, () -> budgetModificationService, uiExecutor);
+    }
+
+    /**
+     * Initialize with a lazily built service graph. The database is opened by
+     * the first data request, on a worker thread, rather than before the
+     * first view is shown.
+     *
+     * @param primaryStage Main JavaFX stage
+     * @param services     Application service graph
+     */
+    public ViewManager(final Stage primaryStage, final BudgetServices services) {
+        this(primaryStage, new AsyncBudgetDataService(services::dataService), services::modificationService,
+                Platform::runLater);
+    }
+
+    private ViewManager(final Stage primaryStage, final AsyncBudgetDataService asyncDataService,
+            final Supplier<BudgetModificationService> budgetModificationService, final Executor uiExecutor) {
         this.primaryStage = primaryStage;
-        this.budgetDataService = budgetDataService;
+        this.asyncDataService = asyncDataService;
         this.budgetModificationService = budgetModificationService;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * Deliver the result of a data request to the current view. Must be
+     * called on the JavaFX thread.
+     *
+     * @param request  Pending data request
+     * @param onLoaded Callback run on the JavaFX thread with the result
+     * @param <T>      Result type
+     * @return The request, for chaining
+     */
+    public <T> CompletableFuture<T> load(final CompletableFuture<T> request, final Consumer<? super T> onLoaded) {
+        return load(request, onLoaded,
+                error -> reportError(new IllegalStateException("Error loading data: " + error.getMessage(), error)));
+    }
+
+    /**
+     * Deliver the result or failure of a data request to the current view.
+     * Nothing is delivered once the user has navigated to another view. Must
+     * be called on the JavaFX thread.
+     *
+     * @param request  Pending data request
+     * @param onLoaded Callback run on the JavaFX thread with the result
+     * @param onFailed Callback run on the JavaFX thread with the failure
+     * @param <T>      Result type
+     * @return The request, for chaining
+     */
+    public <T> CompletableFuture<T> load(final CompletableFuture<T> request, final Consumer<? super T> onLoaded,
+            final Consumer<Throwable> onFailed) {
+        long generation = viewGeneration.get();
+        pendingLoads.add(request);
+        loading.set(true);
+        request.whenComplete((value, error) -> uiExecutor.execute(() -> {
+            if (generation != viewGeneration.get()) {
+                return;
+            }
+            pendingLoads.remove(request);
+            loading.set(!pendingLoads.isEmpty());
+            if (request.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                onLoaded.accept(value);
+            } else {
+                onFailed.accept(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        }));
+        return request;
+    }
+
+    /**
+     * Expose whether the current view still waits for data, for views that
+     * show their own progress.
+     *
+     * @return Read-only loading state
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /**
+     * Expose the recorded scene switch latencies.
+     *
+     * @return Latency per view
+     */
+    public SceneSwitchMetrics sceneSwitchMetrics() {
+        return sceneSwitchMetrics;
+    }
+
+    /**
+     * Replace the handler receiving failures nobody else handles. It is
+     * called on the JavaFX thread, except for failures to build a view ahead
+     * of time, which arrive on the preloading thread.
+     *
+     * @param errorHandler Receiver of the failures
+     */
+    public void setErrorHandler(final Consumer<Throwable> errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+    }
+
+    private void reportError(final Throwable error) {
+        errorHandler.accept(error);
+    }
+
+    /**
+     * Build the views likely to be opened next on a background thread, so
+     * that the first visit to them does not parse their FXML. Called once the
+     * first view is shown.
+     */
+    public void preloadLikelyViews() {
+        LIKELY_NEXT.values().stream().flatMap(List::stream).distinct().forEach(this::preload);
+    }
+
+    /**
+     * Stop the background data workers, and print the scene switch latency
+     * if {@value #METRICS_PROPERTY} is set. Called when the application exits.
+     */
+    public void shutdown() {
+        cancelPendingLoads();
+        asyncDataService.close();
+        synchronized (this) {
+            if (preloader != null) {
+                preloader.shutdownNow();
+            }
+        }
+        if (Boolean.getBoolean(METRICS_PROPERTY)) {
+            System.out.println(sceneSwitchMetrics.report());
+        }
+    }
+
+    private synchronized void preload(final String fxmlFile) {
+        if (viewCache.contains(fxmlFile)) {
+            return;
+        }
+        if (preloader == null) {
+            preloader = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "view-preload");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        preloader.execute(() -> {
+            try {
+                BuiltView view = buildView(fxmlFile);
+                if (view.controller instanceof ReusableView) {
+                    viewCache.putIfAbsent(fxmlFile, view);
+                }
+            } catch (IOException | RuntimeException e) {
+                reportError(new IllegalStateException("Failed to preload " + fxmlFile + ": " + e.getMessage(), e));
+            }
+        });
+    }
+
+    private BuiltView buildView(final String fxmlFile) throws IOException {
+        FXMLLoader loader = new FXMLLoader(GuiApp.class.getResource(fxmlFile));
+        loader.setControllerFactory(this::createController);
+        Parent content = loader.load();
+        return new BuiltView(content, loader.getController());
+    }
+
+    private void cancelPendingLoads() {
+        viewGeneration.incrementAndGet();
+        for (CompletableFuture<?> request : pendingLoads) {
+            request.cancel(false);
+        }
+        pendingLoads.clear();
+        loading.set(false);
+    }
+
+    private Parent withLoadingOverlay(final Parent root) {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(80, 80);
+        StackPane overlay = new StackPane(indicator);
+        overlay.setStyle("-fx-background-color: rgba(255, 255, 255, 0.6);");
+        overlay.visibleProperty().bind(loading);
+        return new StackPane(root, overlay);
     }
 
     /**
@@ -57,14 +323,28 @@ public class ViewManager {
      * @param <T>             Expected controller type
      */
     public <T> void switchScene(final String fxmlFile, final String title, final Consumer<T> controllerSetup) {
+        // Requests of the view being left are no longer wanted.
+        cancelPendingLoads();
+        long start = System.nanoTime();
         try {
-            FXMLLoader loader = new FXMLLoader(GuiApp.class.getResource(fxmlFile));
-            loader.setControllerFactory(this::createController);
-
-            Parent root = loader.load();
+            BuiltView view = viewCache.get(fxmlFile);
+            boolean reused = view != null;
+            if (reused) {
+                ((ReusableView) view.controller).resetView();
+            } else {
+                view = buildView(fxmlFile);
+                if (view.controller instanceof ReusableView) {
+                    viewCache.put(fxmlFile, view);
+                }
+            }
+            if (view.root == null) {
+                view.root = withLoadingOverlay(view.content);
+            }
+            Parent root = view.root;
 
             if (controllerSetup != null) {
-                T controller = loader.getController();
+                @SuppressWarnings("unchecked")
+                T controller = (T) view.controller;
                 controllerSetup.accept(controller);
             }
 
@@ -86,8 +366,12 @@ public class ViewManager {
                 primaryStage.setMaximized(true);
             }
 
+            sceneSwitchMetrics.record(fxmlFile, System.nanoTime() - start, reused);
+            // Rebuild likely next views reclaimed under memory pressure.
+            LIKELY_NEXT.getOrDefault(fxmlFile, List.of()).forEach(this::preload);
+
         } catch (IOException e) {
-            e.printStackTrace();
+            reportError(new UncheckedIOException("Failed to open " + fxmlFile + ": " + e.getMessage(), e));
         }
     }
 
@@ -110,23 +394,23 @@ public class ViewManager {
      */
     private Object createController(final Class<?> param) {
         if (param == WelcomeController.class) {
-            return new WelcomeController(this, budgetDataService);
+            return new WelcomeController(this, asyncDataService);
         } else if (param == BudgetController.class) {
-            return new BudgetController(this, budgetDataService);
+            return new BudgetController(this, asyncDataService);
         } else if (param == BudgetDetailsController.class) {
             return new BudgetDetailsController(this);
         } else if (param == AnalysisController.class) {
-            return new AnalysisController(this, budgetDataService);
+            return new AnalysisController(this, asyncDataService);
         } else if (param == BudgetModificationController.class) {
-            return new BudgetModificationController(this, budgetDataService, budgetModificationService);
+            return new BudgetModificationController(this, asyncDataService, budgetModificationService.get());
         } else if (param == IngestController.class) {
-            return new IngestController(this, budgetDataService);
+            return new IngestController(this, asyncDataService);
         } else if (param == ComparisonController.class) {
-            return new ComparisonController(this, budgetDataService);
+            return new ComparisonController(this, asyncDataService);
         } else if (param == BudgetComparisonController.class) {
-            return new BudgetComparisonController(this, budgetDataService);
+            return new BudgetComparisonController(this, asyncDataService);
         } else if (param == ComparisonDetailsController.class) {
-            return new ComparisonDetailsController(this, budgetDataService);
+            return new ComparisonDetailsController(this, asyncDataService);
         } else {
             try {
                 return param.getDeclaredConstructor().newInstance();
@@ -0,0 +1,42 @@
+package com.detonomics.budgettuner.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically fold the write-ahead log back into the main database file so
+ * the WAL does not grow without bound while the application stays open.
+ */
+final class WalCheckpointer {
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Start running the checkpoint task on a daemon thread.
+     *
+     * @param checkpoint     Task issuing the checkpoint
+     * @param intervalMillis Delay between consecutive checkpoints
+     */
+    WalCheckpointer(final Runnable checkpoint, final long intervalMillis) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlite-wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint.run();
+            } catch (RuntimeException e) {
+                System.err.println("WAL checkpoint failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancel future checkpoints.
+     */
+    void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,202 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for intermediate ingestion artifacts. Entries are
+ * files named by a SHA-256 key derived from everything that determines their
+ * content (source document bytes, stage versions), so an entry never goes
+ * stale: a changed input simply produces a different key. The directory is
+ * kept under a size bound by evicting the least recently used entries.
+ */
+public final class ArtifactCache {
+
+    /** System property holding the size bound in bytes. */
+    public static final String MAX_BYTES_PROPERTY = "budgettuner.ingestion.cache.max_bytes";
+
+    /** Size bound used when the property is unset. */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Initialize a cache over a directory.
+     *
+     * @param directory Directory holding the entries; created on first store
+     * @param maxBytes  Total entry size kept after each store
+     */
+    public ArtifactCache(final Path directory, final long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size bound must not be negative");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Build the cache under {@code data/cache/ingestion}, bounded by
+     * {@value #MAX_BYTES_PROPERTY} or {@link #DEFAULT_MAX_BYTES}.
+     *
+     * @return Default ingestion cache
+     */
+    public static ArtifactCache defaultCache() {
+        return new ArtifactCache(Path.of("data", "cache", "ingestion"),
+                Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Hash a file's bytes.
+     *
+     * @param file File to hash
+     * @return Lowercase hex SHA-256 digest
+     * @throws IOException If the file cannot be read
+     */
+    public static String sha256(final Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = in.read(buffer);
+            while (read != -1) {
+                digest.update(buffer, 0, read);
+                read = in.read(buffer);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Derive a key from an ordered list of parts.
+     *
+     * @param parts Hashes, versions and other inputs of an artifact
+     * @return Lowercase hex SHA-256 digest
+     */
+    public static String key(final String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    /**
+     * Copy a cached artifact to its working location, marking it as recently
+     * used.
+     *
+     * @param key    Artifact key
+     * @param target File to overwrite with the cached content
+     * @return True on a hit, false if the key is not cached
+     * @throws IOException If the entry cannot be copied
+     */
+    public boolean restore(final String key, final Path target) throws IOException {
+        Path entry = directory.resolve(key);
+        if (!Files.isRegularFile(entry)) {
+            return false;
+        }
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.copy(entry, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * Store an artifact under a key, replacing any previous entry, then evict
+     * the least recently used entries beyond the size bound. The new entry
+     * itself is never evicted.
+     *
+     * @param key    Artifact key
+     * @param source File holding the artifact
+     * @throws IOException If the entry cannot be written
+     */
+    public void store(final String key, final Path source) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        evict(key);
+    }
+
+    /**
+     * Get the total size of the cached entries.
+     *
+     * @return Size in bytes
+     * @throws IOException If the directory cannot be listed
+     */
+    public long size() throws IOException {
+        long total = 0;
+        for (Path entry : entries()) {
+            total += Files.size(entry);
+        }
+        return total;
+    }
+
+    private synchronized void evict(final String keep) throws IOException {
+        List<Path> entries = entries();
+        long total = 0;
+        for (Path entry : entries) {
+            total += Files.size(entry);
+        }
+        for (Path entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!entry.endsWith(keep)) {
+                total -= Files.size(entry);
+                Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    /* Entries from least to most recently used. */
+    private List<Path> entries() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .sorted(Comparator.comparing(ArtifactCache::lastModified))
+                    .toList();
+        }
+    }
+
+    private static FileTime lastModified(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.text.Normalizer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Split extracted budget text into the parts that are extracted separately:
+ * the summary, the revenue tables, the expense table by major category and
+ * the expense tables by ministry. Sections start at their table headings,
+ * which are matched ignoring case and accents; a heading that repeats (the
+ * ministry tables come three times) extends the same section.
+ */
+public final class BudgetTextSections {
+
+    /**
+     * Parts of a budget document.
+     */
+    public enum Section {
+        /** Title, date and the four headline totals. */
+        SUMMARY,
+        /** Revenue tables by classification code. */
+        REVENUE,
+        /** "ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ ΚΑΤΗΓΟΡΙΑ ΔΑΠΑΝΗΣ". */
+        EXPENSES,
+        /** "ΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ ΚΑΤΑ ΦΟΡΕΑ", for all three budget kinds. */
+        MINISTRIES
+    }
+
+    /** Lines always included in the summary, even past the first heading. */
+    static final int SUMMARY_MIN_LINES = 200;
+
+    /* Longer lines are table rows or prose that merely mention a heading. */
+    private static final int MAX_HEADING_LENGTH = 160;
+
+    private static final List<String> REVENUE_HEADINGS = List.of("ΑΝΑΛΥΣΗ ΕΣΟΔΩΝ",
+            "ΕΣΟΔΑ ΚΡΑΤΙΚΟΥ ΠΡΟΥΠΟΛΟΓΙΣΜΟΥ", "ΕΣΟΔΑ ΚΑΤΑ ΚΑΤΗΓΟΡΙΑ");
+    private static final List<String> EXPENSE_HEADINGS = List.of("ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ ΚΑΤΗΓΟΡΙΑ ΔΑΠΑΝΗΣ");
+    private static final List<String> MINISTRY_HEADINGS = List.of("ΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ ΚΑΤΑ ΦΟΡΕΑ");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+
+    private final Map<Section, String> sections;
+
+    private BudgetTextSections(final Map<Section, String> sections) {
+        this.sections = sections;
+    }
+
+    /**
+     * Locate the sections of a budget text.
+     *
+     * @param text Cleaned budget text, one table row per line
+     * @return The sections, or null if the revenue, expense or ministry
+     *         headings are missing
+     */
+    public static BudgetTextSections locate(final String text) {
+        Map<Section, StringBuilder> parts = new EnumMap<>(Section.class);
+        for (Section section : Section.values()) {
+            parts.put(section, new StringBuilder());
+        }
+        Section current = Section.SUMMARY;
+        int lineNumber = 0;
+        for (String line : text.split("\n", -1)) {
+            Section heading = headingOf(line);
+            if (heading != null) {
+                current = heading;
+            }
+            append(parts.get(current), line);
+            if (lineNumber++ < SUMMARY_MIN_LINES && current != Section.SUMMARY) {
+                append(parts.get(Section.SUMMARY), line);
+            }
+        }
+
+        Map<Section, String> sections = new EnumMap<>(Section.class);
+        for (Map.Entry<Section, StringBuilder> part : parts.entrySet()) {
+            if (part.getValue().isEmpty()) {
+                return null;
+            }
+            sections.put(part.getKey(), part.getValue().toString());
+        }
+        return new BudgetTextSections(sections);
+    }
+
+    private static void append(final StringBuilder part, final String line) {
+        if (!part.isEmpty()) {
+            part.append('\n');
+        }
+        part.append(line);
+    }
+
+    /**
+     * Classify a line as a section heading.
+     *
+     * @param line Text line
+     * @return Section the heading starts, or null for any other line
+     */
+    static Section headingOf(final String line) {
+        if (line.length() > MAX_HEADING_LENGTH) {
+            return null;
+        }
+        String key = fold(line);
+        if (matches(key, MINISTRY_HEADINGS)) {
+            return Section.MINISTRIES;
+        }
+        if (matches(key, EXPENSE_HEADINGS)) {
+            return Section.EXPENSES;
+        }
+        if (matches(key, REVENUE_HEADINGS)) {
+            return Section.REVENUE;
+        }
+        return null;
+    }
+
+    private static boolean matches(final String key, final List<String> headings) {
+        for (String heading : headings) {
+            if (key.contains(heading)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Upper case without accents or diaeresis, so "Προϋπολογισμού" matches. */
+    private static String fold(final String line) {
+        return MARKS.matcher(Normalizer.normalize(line, Normalizer.Form.NFD)).replaceAll("")
+                .toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the text of one section.
+     *
+     * @param section Section to return
+     * @return Lines of the section, joined with {@code '\n'}
+     */
+    public String get(final Section section) {
+        return sections.get(section);
+    }
+}
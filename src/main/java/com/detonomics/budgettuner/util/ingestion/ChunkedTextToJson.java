@@ -0,0 +1,357 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.detonomics.budgettuner.util.ingestion.BudgetTextSections.Section;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Extract budget JSON section by section. The summary, revenue, expense
+ * category and ministry sections are located in the text and sent to the
+ * model as separate, concurrent calls with short section-specific prompts,
+ * each retried with backoff on failure, and the replies are merged into one
+ * {@link JsonToSQLite.BudgetFile}. Documents whose sections cannot be
+ * located are sent whole, as {@link TextToJson} does.
+ */
+public final class ChunkedTextToJson implements ITextToJson {
+
+    /** Version of the section prompts; bump whenever they change. */
+    public static final int PROMPT_VERSION = 1;
+
+    /** System property that makes the default pipeline extract section by section. */
+    public static final String ENABLED_PROPERTY = "budgettuner.ingestion.chunked";
+
+    /** System property holding the number of concurrent model calls. */
+    public static final String WORKERS_PROPERTY = "budgettuner.ingestion.model_workers";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final ExtractionModel model;
+    private final int workers;
+    private final RetryPolicy retry;
+    private final Consumer<String> logger;
+
+    /**
+     * Initialize an engine that calls Gemini with the key from the
+     * {@code GEMINI_API_KEY} environment variable, one worker per section
+     * unless {@value #WORKERS_PROPERTY} says otherwise, and reports progress
+     * to standard output.
+     */
+    public ChunkedTextToJson() {
+        this(System.out::println);
+    }
+
+    /**
+     * Initialize an engine that calls Gemini with the environment key and
+     * reports progress and retries to a logger.
+     *
+     * @param logger Progress tracking interface
+     */
+    public ChunkedTextToJson(final Consumer<String> logger) {
+        this(null, Integer.getInteger(WORKERS_PROPERTY, Section.values().length), RetryPolicy.defaults(), logger);
+    }
+
+    /**
+     * Initialize an engine over a given model.
+     *
+     * @param model   Model to call, or null to call Gemini with the environment key
+     * @param workers Maximum number of concurrent model calls
+     * @param retry   Retry schedule for each section
+     */
+    public ChunkedTextToJson(final ExtractionModel model, final int workers, final RetryPolicy retry) {
+        this(model, workers, retry, System.out::println);
+    }
+
+    /**
+     * Initialize an engine over a given model that reports to a logger.
+     *
+     * @param model   Model to call, or null to call Gemini with the environment key
+     * @param workers Maximum number of concurrent model calls
+     * @param retry   Retry schedule for each section
+     * @param logger  Progress tracking interface
+     */
+    public ChunkedTextToJson(final ExtractionModel model, final int workers, final RetryPolicy retry,
+            final Consumer<String> logger) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1, got " + workers);
+        }
+        this.model = model;
+        this.workers = workers;
+        this.retry = retry;
+        this.logger = logger;
+    }
+
+    /**
+     * Identify the prompts and model behind the JSON this converter writes.
+     * Both prompt versions are included, since text without recognizable
+     * sections goes through the whole-document prompt of {@link TextToJson}.
+     *
+     * @return Version string
+     */
+    @Override
+    public String version() {
+        return "ChunkedTextToJson/prompt-" + PROMPT_VERSION + " TextToJson/prompt-" + TextToJson.PROMPT_VERSION
+                + " " + TextToJson.MODEL;
+    }
+
+    /**
+     * Convert unstructured text to structured JSON, one section per call.
+     *
+     * @param inTxt   Path to input text file
+     * @param outJson Path to output JSON file
+     * @throws Exception If a section still fails after its retries
+     */
+    @Override
+    public void textFileToJson(final Path inTxt, final Path outJson) throws Exception {
+        String text = Files.readString(inTxt, StandardCharsets.UTF_8);
+        // A missing API key fails here, before any section is sent.
+        ExtractionModel target = model != null ? model : GeminiModel.fromEnvironment();
+
+        BudgetTextSections sections = BudgetTextSections.locate(text);
+        if (sections == null) {
+            logger.accept("Budget sections not found; sending the whole document.");
+            new TextToJson(target).textFileToJson(inTxt, outJson);
+            return;
+        }
+
+        JsonToSQLite.BudgetFile budget = merge(extractAll(target, sections));
+        TextToJson.writeJson(outJson, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(budget));
+        logger.accept("Saved to " + outJson.toAbsolutePath());
+    }
+
+    private Map<Section, JsonNode> extractAll(final ExtractionModel target, final BudgetTextSections sections)
+            throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, Section.values().length), r -> {
+            Thread t = new Thread(r, "budget-section-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Map<Section, Future<JsonNode>> calls = new EnumMap<>(Section.class);
+            for (Section section : Section.values()) {
+                calls.put(section, pool.submit(() -> extract(target, section, sections.get(section))));
+            }
+            Map<Section, JsonNode> replies = new EnumMap<>(Section.class);
+            for (Map.Entry<Section, Future<JsonNode>> call : calls.entrySet()) {
+                replies.put(call.getKey(), call.getValue().get());
+            }
+            return replies;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /*
+     * One section call with its retries. Every failure of the call or of the
+     * reply is retried; the API key has already been checked by
+     * GeminiModel.fromEnvironment().
+     */
+    private JsonNode extract(final ExtractionModel target, final Section section, final String text)
+            throws Exception {
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            try {
+                String reply = target.generate(prompt(section), text);
+                if (reply == null) {
+                    throw new IOException("Model returned no text");
+                }
+                JsonNode node = MAPPER.readTree(TextToJson.stripFences(reply));
+                for (String field : fields(section)) {
+                    if (node == null || !node.hasNonNull(field)) {
+                        throw new IOException("Reply is missing \"" + field + "\"");
+                    }
+                }
+                return node;
+            } catch (Exception e) {
+                if (attempt >= retry.maxAttempts()) {
+                    throw new IOException("The " + section + " section failed after " + attempt + " attempts", e);
+                }
+                long delay = retry.delayMillis(attempt);
+                logger.accept("The " + section + " section failed (" + e.getMessage() + "), retrying in "
+                        + delay + " ms");
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Combine the section replies into one budget, validated against the
+     * budget file schema.
+     *
+     * @param replies Reply of every section
+     * @return Merged budget
+     * @throws IOException If the merged JSON does not fit the schema
+     */
+    static JsonToSQLite.BudgetFile merge(final Map<Section, JsonNode> replies) throws IOException {
+        ObjectNode merged = MAPPER.createObjectNode();
+        for (Map.Entry<Section, JsonNode> reply : replies.entrySet()) {
+            for (String field : fields(reply.getKey())) {
+                merged.set(field, reply.getValue().get(field));
+            }
+        }
+        return MAPPER.treeToValue(merged, JsonToSQLite.BudgetFile.class);
+    }
+
+    /**
+     * Get the top-level budget file fields a section reply provides.
+     *
+     * @param section Budget section
+     * @return JSON field names
+     */
+    static List<String> fields(final Section section) {
+        return switch (section) {
+            case SUMMARY -> List.of("metadata", "budgetSummary");
+            case REVENUE -> List.of("revenueAnalysis");
+            case EXPENSES -> List.of("expenseAnalysis");
+            case MINISTRIES -> List.of("distributionByMinistry");
+        };
+    }
+
+    /**
+     * Build the instructions for one section.
+     *
+     * @param section Budget section
+     * @return System instructions for the model
+     */
+    static String prompt(final Section section) {
+        return COMMON_RULES + switch (section) {
+            case SUMMARY -> SUMMARY_PROMPT;
+            case REVENUE -> REVENUE_PROMPT;
+            case EXPENSES -> EXPENSES_PROMPT;
+            case MINISTRIES -> MINISTRIES_PROMPT;
+        };
+    }
+
+    private static final String COMMON_RULES = """
+            **ROLE**
+            You are a budget data-extraction agent. You read one section of a
+            Greek state budget document and return valid JSON only, following
+            the schema below. No prose, no comments, no preface.
+
+            **RULES**
+            -All amounts as numbers in euros, no symbols, no thousand
+            separators, decimals only if present. Remove thousand dots/commas,
+            treat comma as decimal. Example: "1.304.827.000.000 €" →
+            1304827000000, "85.000,50" → 85000.5.
+            -Category/Ministry names exactly as in source; do not alter
+            capitalization or accents.
+            -For tables, preserve source order.
+            -If multiple versions or years appear, take the most recent or the
+            one explicitly stated.
+
+            """;
+
+    private static final String SUMMARY_PROMPT = """
+            **TASK**
+            Locate the summary and extract the document metadata and the four
+            main budget values. For sourceTitle, always use "Προϋπολογισμός
+            {year}". For sourceDate, use the date the document was written or
+            published, in YYYY-MM-DD format, or "0000-00-00" if none is found.
+            List fields you could not find in missingFields.
+
+            **OUTPUT**
+            {
+              "metadata": {
+                "sourceTitle": "Προϋπολογισμός {year}",
+                "sourceDate": "YYYY-MM-DD",
+                "budgetYear": 0,
+                "currency": "EUR",
+                "locale": "Greece",
+                "missingFields": []
+              },
+              "budgetSummary": {
+                "totalRevenue": 0,
+                "totalExpenses": 0,
+                "stateBudgetBalance": 0,
+                "coverageWithCashReserves": 0
+              }
+            }
+            """;
+
+    private static final String REVENUE_PROMPT = """
+            **TASK**
+            Extract the revenue tables as a nested array, reconstructing the
+            hierarchy from the classification codes: a code is a child of the
+            longest preceding code that is a prefix of it (e.g. 111 is a child
+            of 11). Use the detailed tables where the summary and detailed
+            tables overlap.
+
+            **OUTPUT**
+            {
+              "revenueAnalysis": [
+                {
+                  "code": "11",
+                  "name": "Φόροι",
+                  "amount": 62055000000,
+                  "children": [
+                    { "code": "111", "name": "Φόροι επί αγαθών και υπηρεσιών",
+                      "amount": 33667000000, "children": [] }
+                  ]
+                }
+              ]
+            }
+            """;
+
+    private static final String EXPENSES_PROMPT = """
+            **TASK**
+            Extract the table "ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ ΚΑΤΗΓΟΡΙΑ ΔΑΠΑΝΗΣ" as a
+            flat list of economic categories.
+
+            **OUTPUT**
+            {
+              "expenseAnalysis": [
+                { "code": "21", "name": "Παροχές σε εργαζομένους", "amount": 14889199000 },
+                { "code": "26", "name": "Τόκοι", "amount": 7701101000 }
+              ]
+            }
+            """;
+
+    private static final String MINISTRIES_PROMPT = """
+            **TASK**
+            The text holds the tables "ΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ ΚΑΤΑ ΦΟΡΕΑ" for the
+            Total State Budget, the Regular Budget and the Public Investment
+            Budget. Create one object per ministry, matching its name and code
+            across the three tables to fill total, regularBudget and
+            publicInvestmentBudget, and list its amounts per major expense
+            category in totalFromMajorCategories.
+
+            **OUTPUT**
+            {
+              "distributionByMinistry": [
+                {
+                  "code": "1001",
+                  "ministryBody": "ΠΡΟΕΔΡΙΑ ΤΗΣ ΔΗΜΟΚΡΑΤΙΑΣ",
+                  "totalFromMajorCategories": [
+                    { "code": "21", "name": "Παροχές σε εργαζομένους", "amount": 3532000 }
+                  ],
+                  "regularBudget": 4638000,
+                  "publicInvestmentBudget": 0,
+                  "total": 4638000
+                }
+              ]
+            }
+            """;
+}
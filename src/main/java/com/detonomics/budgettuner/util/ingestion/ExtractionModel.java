@@ -0,0 +1,19 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+/**
+ * Generation model that turns budget text into JSON following a set of
+ * instructions. Implementations must allow concurrent calls.
+ */
+@FunctionalInterface
+public interface ExtractionModel {
+
+    /**
+     * Send text to the model.
+     *
+     * @param instructions System instructions describing the expected JSON
+     * @param text         Budget text to extract from
+     * @return Raw model reply, or null if the model returned no text
+     * @throws Exception If the call fails
+     */
+    String generate(String instructions, String text) throws Exception;
+}
@@ -0,0 +1,60 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import com.google.genai.Client;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+import com.google.genai.types.Part;
+
+/**
+ * Extraction model backed by the Gemini API. The endpoint can be redirected,
+ * e.g. to a local stub server, through {@value #BASE_URL_PROPERTY}.
+ */
+public final class GeminiModel implements ExtractionModel {
+
+    /** System property overriding the Gemini API base URL. */
+    public static final String BASE_URL_PROPERTY = "budgettuner.gemini.base_url";
+
+    private final Client client;
+    private final String model;
+
+    /**
+     * Initialize a client for one model.
+     *
+     * @param apiKey  API key for the generation service
+     * @param model   Model name, e.g. {@link TextToJson#MODEL}
+     * @param baseUrl API base URL, or null for the public endpoint
+     */
+    public GeminiModel(final String apiKey, final String model, final String baseUrl) {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalArgumentException("Error: GEMINI_API_KEY environment variable is not set.");
+        }
+        Client.Builder builder = Client.builder().apiKey(apiKey);
+        if (baseUrl != null) {
+            builder.httpOptions(HttpOptions.builder().baseUrl(baseUrl).build());
+        }
+        this.client = builder.build();
+        this.model = model;
+    }
+
+    /**
+     * Build a client from the {@code GEMINI_API_KEY} environment variable and
+     * the {@value #BASE_URL_PROPERTY} property.
+     *
+     * @return Client for {@link TextToJson#MODEL}
+     */
+    public static GeminiModel fromEnvironment() {
+        return new GeminiModel(System.getenv("GEMINI_API_KEY"), TextToJson.MODEL,
+                System.getProperty(BASE_URL_PROPERTY));
+    }
+
+    @Override
+    public String generate(final String instructions, final String text) {
+        GenerateContentConfig cfg = GenerateContentConfig.builder()
+                .systemInstruction(Content.fromParts(Part.fromText(instructions)))
+                .build();
+        GenerateContentResponse res = client.models.generateContent(model, text, cfg);
+        return res.text();
+    }
+}
@@ -13,4 +13,15 @@ public interface IPdfToText {
      *                             written
      */
     void extractAndSaveText(String pdfPath) throws java.io.IOException;
+
+    /**
+     * Identify the extraction logic, so cached text produced by a different
+     * version is not reused.
+     *
+     * @return Version string; changes whenever the output for a given PDF may
+     *         change
+     */
+    default String version() {
+        return getClass().getName();
+    }
 }
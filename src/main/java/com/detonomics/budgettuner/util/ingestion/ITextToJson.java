@@ -16,4 +16,15 @@ public interface ITextToJson {
      * @throws Exception If parsing or schema validation fails
      */
     void textFileToJson(Path inTxt, Path outJson) throws Exception;
+
+    /**
+     * Identify the parsing logic, so cached JSON produced by a different
+     * version is not reused.
+     *
+     * @return Version string; changes whenever the output for a given text may
+     *         change
+     */
+    default String version() {
+        return getClass().getName();
+    }
 }
@@ -19,6 +19,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.detonomics.budgettuner.util.SchemaMigrations;
+
 /**
  * Persist budget data from a JSON file into a SQLite database.
  * Maps the hierarchical JSON structure to normalized relational tables.
@@ -93,7 +95,13 @@ public class JsonToSQLite implements IJsonToSQLite {
         }
     }
 
-    private void createTables() throws SQLException {
+    /**
+     * Create any missing budget tables and upgrade the schema to the current
+     * version.
+     *
+     * @throws SQLException If the schema cannot be created
+     */
+    void createTables() throws SQLException {
         String sqlBudgets = """
                 CREATE TABLE IF NOT EXISTS Budgets (
                     budget_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -164,6 +172,7 @@ public class JsonToSQLite implements IJsonToSQLite {
             stmt.execute(sqlExpenseCategories);
             stmt.execute(sqlMinistries);
             stmt.execute(sqlMinistryExpenses);
+            SchemaMigrations.migrate(conn);
             System.out.println("Table check complete: Tables are ready.");
         }
     }
@@ -422,7 +431,7 @@ public class JsonToSQLite implements IJsonToSQLite {
         @JsonProperty("missingFields")
         private List<String> missingFields;
 
-        Metadata() {
+        public Metadata() {
         }
 
         Metadata(final Metadata other) {
@@ -496,7 +505,7 @@ public class JsonToSQLite implements IJsonToSQLite {
         @JsonProperty("coverageWithCashReserves")
         private long coverageWithCashReserves;
 
-        BudgetSummary() {
+        public BudgetSummary() {
         }
 
         BudgetSummary(final BudgetSummary other) {
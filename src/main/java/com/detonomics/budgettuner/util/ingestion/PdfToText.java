@@ -2,10 +2,22 @@ package com.detonomics.budgettuner.util.ingestion;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
@@ -14,13 +26,54 @@ import org.apache.pdfbox.text.PDFTextStripper;
  * Handle extraction of raw text from PDF documents using Apache PDFBox.
  * Provides cleaning logic to produce normalized plain text suitable for
  * parsing.
+ *
+ * <p>
+ * Large documents are split into contiguous page ranges that are extracted
+ * concurrently, each worker with its own {@link PDDocument} and stripper
+ * since neither is thread-safe, and the range texts are joined back in page
+ * order.
  */
-public class PdfToText implements IPdfToText {
+public final class PdfToText implements IPdfToText {
+
+    /** System property holding the number of extraction workers. */
+    public static final String WORKERS_PROPERTY = "budgettuner.pdf.workers";
+
+    /** Smallest range worth loading the document again for. */
+    static final int MIN_PAGES_PER_RANGE = 8;
+
+    /** Version of the extraction and cleaning rules; bump when output changes. */
+    public static final int EXTRACTOR_VERSION = 2;
+
+    private final int workers;
 
     /**
-     * Initialize a new PDF extraction engine.
+     * Initialize a new PDF extraction engine with the worker count from
+     * {@value #WORKERS_PROPERTY}, defaulting to one per available processor.
      */
     public PdfToText() {
+        this(Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Initialize a new PDF extraction engine.
+     *
+     * @param workers Maximum number of page ranges extracted at once; 1
+     *                extracts the whole document on the calling thread
+     */
+    public PdfToText(final int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1, got " + workers);
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Get the maximum number of concurrent extraction workers.
+     *
+     * @return Worker count
+     */
+    public int getWorkers() {
+        return workers;
     }
 
     private static final java.util.logging.Logger PDFBOX_LOGGER = java.util.logging.Logger
@@ -28,6 +81,17 @@ public class PdfToText implements IPdfToText {
     private static final java.util.logging.Logger FONT_LOGGER = java.util.logging.Logger
             .getLogger("org.apache.pdfbox.pdmodel.font.PDTrueTypeFont");
 
+    /**
+     * Identify the extractor by its rules version and the PDFBox release, the
+     * worker count aside since it does not affect the output.
+     *
+     * @return Version string
+     */
+    @Override
+    public String version() {
+        return "PdfToText/" + EXTRACTOR_VERSION + " pdfbox/" + org.apache.pdfbox.util.Version.getVersion();
+    }
+
     /**
      * Mute verbose PDFBox logging output.
      */
@@ -44,26 +108,151 @@ public class PdfToText implements IPdfToText {
      */
     @Override
     public void extractAndSaveText(final String pdfPath) throws IOException {
+        Path outputPath = extractAndSaveText(pdfPath, Path.of("data", "processed"));
+        System.out.println("Text successfully extracted and saved to '" + outputPath.getFileName() + "'");
+    }
 
-        Path outputDir = Path.of("data", "processed");
-        String text = this.extractTextFromFile(pdfPath);
-        String outputFileName = this.getOutputFileName(pdfPath);
-
-        Path outputPath = outputDir.resolve(outputFileName);
+    /**
+     * Extract text from PDF and save it under the given directory.
+     *
+     * @param pdfPath   Path to the PDF file to process
+     * @param outputDir Directory receiving the text file
+     * @return Path of the written text file
+     * @throws IOException If file operations fail
+     */
+    public Path extractAndSaveText(final String pdfPath, final Path outputDir) throws IOException {
+        Path outputPath = outputDir.resolve(this.getOutputFileName(pdfPath));
         Files.createDirectories(outputDir);
-        Files.writeString(outputPath, text, StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING);
+        try (Writer out = openUtf8(outputPath)) {
+            extractText(pdfPath, out);
+        }
+        return outputPath;
+    }
 
-        System.out.println("Text successfully extracted and saved to '" + outputFileName + "'");
+    /**
+     * Extract the cleaned text of a whole document into memory.
+     *
+     * @param pdfPath Path to the PDF file
+     * @return Cleaned text in page order
+     * @throws IOException If the document cannot be read
+     */
+    String extractTextFromFile(final String pdfPath) throws IOException {
+        StringWriter out = new StringWriter();
+        extractText(pdfPath, out);
+        return out.toString();
     }
 
-    private String extractTextFromFile(final String pdfPath) throws IOException {
+    /**
+     * Stream the cleaned text of a whole document to a writer. The stripper
+     * hands over one page at a time and cleaning happens in the same pass, so
+     * the text held in memory is bounded by the largest page (per worker),
+     * not by the document.
+     *
+     * @param pdfPath Path to the PDF file
+     * @param out     Writer receiving the cleaned text; flushed, not closed
+     * @throws IOException If the document cannot be read or the text written
+     */
+    void extractText(final String pdfPath, final Writer out) throws IOException {
         File pdfFile = new File(pdfPath);
+        WhitespaceNormalizer cleaned = new WhitespaceNormalizer(out);
         try (PDDocument document = PDDocument.load(pdfFile)) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            String rawText = pdfStripper.getText(document);
-            return cleanText(rawText);
+            List<PageRange> ranges = pageRanges(document.getNumberOfPages(), workers);
+            if (ranges.size() == 1) {
+                new PDFTextStripper().writeText(document, cleaned);
+            } else {
+                extractRanges(pdfFile, document, ranges, cleaned);
+            }
+        }
+        cleaned.flush();
+    }
+
+    /*
+     * The first range is stripped on the calling thread from the document it
+     * already opened, straight into the output. Every other range reopens the
+     * file on a worker and spools its text to a temporary file, which is
+     * streamed into the output in page order once the worker finishes.
+     */
+    private void extractRanges(final File pdfFile, final PDDocument document, final List<PageRange> ranges,
+            final Writer out) throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(ranges.size() - 1, r -> {
+            Thread t = new Thread(r, "pdf-text-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Path> spools = new ArrayList<>();
+        try {
+            List<Future<Path>> rest = new ArrayList<>();
+            for (PageRange range : ranges.subList(1, ranges.size())) {
+                Path spool = Files.createTempFile("pdf-text-", ".txt");
+                spools.add(spool);
+                rest.add(pool.submit(() -> {
+                    try (PDDocument own = PDDocument.load(pdfFile); Writer w = openUtf8(spool)) {
+                        range.strip(own, w);
+                    }
+                    return spool;
+                }));
+            }
+            ranges.getFirst().strip(document, out);
+            for (Future<Path> part : rest) {
+                try (Reader r = Files.newBufferedReader(part.get(), StandardCharsets.UTF_8)) {
+                    r.transferTo(out);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + pdfFile, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to extract " + pdfFile, e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (Path spool : spools) {
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+
+    private static Writer openUtf8(final Path path) throws IOException {
+        return Channels.newWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Split a document into at most {@code workers} contiguous page ranges
+     * of at least {@link #MIN_PAGES_PER_RANGE} pages each.
+     *
+     * @param pageCount Number of pages in the document
+     * @param workers   Maximum number of ranges
+     * @return Ranges covering every page in order
+     */
+    static List<PageRange> pageRanges(final int pageCount, final int workers) {
+        int count = Math.max(1, Math.min(workers, pageCount / MIN_PAGES_PER_RANGE));
+        List<PageRange> ranges = new ArrayList<>(count);
+        int first = 1;
+        for (int i = 0; i < count; i++) {
+            int size = pageCount / count + (i < pageCount % count ? 1 : 0);
+            ranges.add(new PageRange(first, first + size - 1));
+            first += size;
+        }
+        return ranges;
+    }
+
+    /**
+     * Inclusive, 1-based range of pages stripped by one worker.
+     *
+     * @param startPage First page
+     * @param endPage   Last page
+     */
+    record PageRange(int startPage, int endPage) {
+
+        void strip(final PDDocument document, final Writer out) throws IOException {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            stripper.writeText(document, out);
         }
     }
 
@@ -78,11 +267,7 @@ public class PdfToText implements IPdfToText {
         if (text == null) {
             return "";
         }
-        return text.lines()
-                .map(String::trim)
-                .filter(line -> !line.isEmpty())
-                .map(line -> line.replaceAll("\\s+", " "))
-                .collect(java.util.stream.Collectors.joining("\n"));
+        return WhitespaceNormalizer.normalize(text);
     }
 
     /**
@@ -0,0 +1,52 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry schedule for model calls: exponential backoff with jitter, capped
+ * at a maximum delay.
+ *
+ * @param maxAttempts        Total attempts, including the first call
+ * @param initialDelayMillis Delay before the first retry
+ * @param maxDelayMillis     Upper bound for any delay
+ */
+public record RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+
+    /**
+     * Validate the schedule.
+     *
+     * @param maxAttempts        Total attempts
+     * @param initialDelayMillis Delay before the first retry
+     * @param maxDelayMillis     Upper bound for any delay
+     */
+    public RetryPolicy {
+        if (maxAttempts < 1 || initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy: " + maxAttempts + " attempts, "
+                    + initialDelayMillis + "-" + maxDelayMillis + " ms");
+        }
+    }
+
+    /**
+     * Build the schedule used against the public API: four attempts, waiting
+     * about 2, 4 and 8 seconds between them.
+     *
+     * @return Default retry policy
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(4, 2_000, 30_000);
+    }
+
+    /**
+     * Compute the wait after a failed attempt. The exponential delay is
+     * scaled by a random factor between 0.5 and 1 so concurrent callers do not
+     * retry in lockstep.
+     *
+     * @param attempt Number of the failed attempt, starting at 1
+     * @return Delay in milliseconds
+     */
+    public long delayMillis(final int attempt) {
+        long exponential = initialDelayMillis << Math.min(attempt - 1, 30);
+        long capped = Math.min(maxDelayMillis, exponential < 0 ? maxDelayMillis : exponential);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+}
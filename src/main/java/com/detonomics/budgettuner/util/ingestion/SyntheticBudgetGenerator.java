@@ -0,0 +1,476 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import com.detonomics.budgettuner.util.ingestion.JsonToSQLite.BudgetFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Deterministic synthetic budgets for load testing. The generator produces
+ * {@link BudgetFile} documents, writes them as the JSON the ingestion
+ * pipeline consumes, or writes a SQLite database with the application schema
+ * directly in bulk, including cloned scenarios with edited amounts.
+ *
+ * <p>
+ * Every budget of a year has the same codes and names; only the amounts
+ * differ between the original and its scenarios. Parent revenue categories,
+ * expense categories, ministry totals and budget totals always equal the sum
+ * of their parts, so the data passes the same consistency rules as real
+ * budgets.
+ */
+public final class SyntheticBudgetGenerator {
+
+    private static final long REVENUE_CODE_BASE = 10;
+    private static final long EXPENSE_CODE_BASE = 20;
+    private static final long MINISTRY_CODE_BASE = 1000;
+    private static final long MAX_AMOUNT = 5_000_000L;
+    private static final int BATCH_SIZE = 5000;
+
+    private final SyntheticBudgetShape shape;
+
+    /**
+     * Initialize the generator.
+     *
+     * @param shape Size and shape of the data
+     */
+    public SyntheticBudgetGenerator(final SyntheticBudgetShape shape) {
+        this.shape = Objects.requireNonNull(shape);
+    }
+
+    /**
+     * Generate data from the command line.
+     *
+     * @param args {@code --db <file>} or {@code --json <dir>}, followed by
+     *             optional shape options
+     */
+    public static void main(final String[] args) {
+        String db = null;
+        String json = null;
+        SyntheticBudgetShape d = SyntheticBudgetShape.defaults();
+        Map<String, Long> values = new HashMap<>();
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--db" -> db = args[i + 1];
+                    case "--json" -> json = args[i + 1];
+                    case "--first-year", "--years", "--ministries", "--categories", "--revenue-roots",
+                            "--fan-out", "--depth", "--scenarios", "--seed" ->
+                        values.put(args[i], Long.parseLong(args[i + 1]));
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (args.length % 2 != 0 || (db == null) == (json == null)) {
+                throw new IllegalArgumentException("Expected exactly one of --db and --json");
+            }
+            SyntheticBudgetShape shape = new SyntheticBudgetShape(
+                    values.getOrDefault("--first-year", (long) d.firstYear()).intValue(),
+                    values.getOrDefault("--years", (long) d.years()).intValue(),
+                    values.getOrDefault("--ministries", (long) d.ministries()).intValue(),
+                    values.getOrDefault("--categories", (long) d.expenseCategories()).intValue(),
+                    values.getOrDefault("--revenue-roots", (long) d.revenueRoots()).intValue(),
+                    values.getOrDefault("--fan-out", (long) d.revenueFanOut()).intValue(),
+                    values.getOrDefault("--depth", (long) d.revenueDepth()).intValue(),
+                    values.getOrDefault("--scenarios", (long) d.scenarios()).intValue(),
+                    values.getOrDefault("--seed", d.seed()));
+            SyntheticBudgetGenerator generator = new SyntheticBudgetGenerator(shape);
+            long start = System.nanoTime();
+            if (db != null) {
+                int budgets = generator.writeDatabase(db);
+                System.out.println("Wrote " + budgets + " budgets to " + db + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } else {
+                List<Path> files = generator.writeJson(Path.of(json));
+                System.out.println("Wrote " + files.size() + " budget files to " + json + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java com.detonomics.budgettuner.util.ingestion.SyntheticBudgetGenerator"
+                    + " (--db <file> | --json <dir>) [--first-year N] [--years N] [--ministries N]"
+                    + " [--categories N] [--revenue-roots N] [--fan-out N] [--depth N] [--scenarios N] [--seed N]");
+        } catch (IOException | SQLException e) {
+            System.err.println("Synthetic data generation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the shape of the generated data.
+     *
+     * @return Shape
+     */
+    public SyntheticBudgetShape shape() {
+        return shape;
+    }
+
+    /**
+     * Generate the original budget of a year.
+     *
+     * @param year Fiscal year
+     * @return Budget document
+     */
+    public BudgetFile budgetFile(final int year) {
+        return budgetFile(year, 0);
+    }
+
+    /**
+     * Generate a budget of a year. Variant 0 is the original; every other
+     * variant is a scenario with the same structure and different amounts.
+     *
+     * @param year    Fiscal year
+     * @param variant Budget variant
+     * @return Budget document
+     */
+    public BudgetFile budgetFile(final int year, final int variant) {
+        Random random = new Random(Objects.hash(shape.seed(), year, variant));
+
+        List<JsonToSQLite.RevenueCategory> revenues = new ArrayList<>();
+        long totalRevenue = 0;
+        for (int r = 0; r < shape.revenueRoots(); r++) {
+            JsonToSQLite.RevenueCategory root = revenueTree(revenueCode(r), 0, random);
+            revenues.add(root);
+            totalRevenue += root.getAmount();
+        }
+
+        int categories = shape.expenseCategories();
+        List<JsonToSQLite.ExpenseCategory> expenses = new ArrayList<>();
+        for (int e = 0; e < categories; e++) {
+            JsonToSQLite.ExpenseCategory expense = new JsonToSQLite.ExpenseCategory();
+            expense.setCode(String.valueOf(expenseCode(e)));
+            expense.setName("Κατηγορία δαπανών " + expenseCode(e));
+            expenses.add(expense);
+        }
+
+        List<JsonToSQLite.Ministry> distribution = new ArrayList<>();
+        long totalExpenses = 0;
+        for (int m = 0; m < shape.ministries(); m++) {
+            List<JsonToSQLite.MinistryExpenseItem> items = new ArrayList<>(categories);
+            long total = 0;
+            for (int e = 0; e < categories; e++) {
+                long amount = 1 + random.nextLong(MAX_AMOUNT);
+                JsonToSQLite.ExpenseCategory expense = expenses.get(e);
+                expense.setAmount(expense.getAmount() + amount);
+                JsonToSQLite.MinistryExpenseItem item = new JsonToSQLite.MinistryExpenseItem();
+                item.setCode(expense.getCode());
+                item.setName(expense.getName());
+                item.setAmount(amount);
+                items.add(item);
+                total += amount;
+            }
+            JsonToSQLite.Ministry ministry = new JsonToSQLite.Ministry();
+            ministry.setCode(String.valueOf(ministryCode(m)));
+            ministry.setMinistryBody("Υπουργείο " + ministryCode(m));
+            ministry.setRegularBudget(total - total / 5);
+            ministry.setPublicInvestmentBudget(total / 5);
+            ministry.setTotal(total);
+            ministry.setTotalFromMajorCategories(items);
+            distribution.add(ministry);
+            totalExpenses += total;
+        }
+
+        JsonToSQLite.Metadata metadata = new JsonToSQLite.Metadata();
+        metadata.setSourceTitle(sourceTitle(year, variant));
+        metadata.setSourceDate(year + "-01-01");
+        metadata.setBudgetYear(year);
+        metadata.setCurrency("EUR");
+        metadata.setLocale("el_GR");
+        metadata.setMissingFields(List.of());
+
+        JsonToSQLite.BudgetSummary summary = new JsonToSQLite.BudgetSummary();
+        summary.setTotalRevenue(totalRevenue);
+        summary.setTotalExpenses(totalExpenses);
+        summary.setStateBudgetBalance(totalRevenue - totalExpenses);
+        summary.setCoverageWithCashReserves(Math.max(0, totalExpenses - totalRevenue));
+
+        BudgetFile budget = new BudgetFile();
+        budget.setMetadata(metadata);
+        budget.setBudgetSummary(summary);
+        budget.setRevenueAnalysis(revenues);
+        budget.setExpenseAnalysis(expenses);
+        budget.setDistributionByMinistry(distribution);
+        return budget;
+    }
+
+    private JsonToSQLite.RevenueCategory revenueTree(final long code, final int level, final Random random) {
+        JsonToSQLite.RevenueCategory category = new JsonToSQLite.RevenueCategory();
+        category.setCode(String.valueOf(code));
+        category.setName("Κατηγορία εσόδων " + code);
+        List<JsonToSQLite.RevenueCategory> children = new ArrayList<>();
+        if (level < shape.revenueDepth()) {
+            long amount = 0;
+            for (int c = 1; c <= shape.revenueFanOut(); c++) {
+                JsonToSQLite.RevenueCategory child = revenueTree(code * 10 + c, level + 1, random);
+                children.add(child);
+                amount += child.getAmount();
+            }
+            category.setAmount(amount);
+        } else {
+            category.setAmount(1 + random.nextLong(MAX_AMOUNT));
+        }
+        category.setChildren(children);
+        return category;
+    }
+
+    /**
+     * Title of a budget: the one the ingestion pipeline gives originals, or a
+     * numbered scenario title.
+     *
+     * @param year    Fiscal year
+     * @param variant Budget variant, 0 for the original
+     * @return Source title
+     */
+    public static String sourceTitle(final int year, final int variant) {
+        String original = "Προϋπολογισμός " + year;
+        return variant == 0 ? original : "Σενάριο " + variant + " - " + original;
+    }
+
+    /**
+     * Code of a top-level revenue category.
+     *
+     * @param index Position of the category
+     * @return Revenue code
+     */
+    public static long revenueCode(final int index) {
+        return REVENUE_CODE_BASE + index + 1;
+    }
+
+    /**
+     * Code of the first leaf under a top-level revenue category.
+     *
+     * @param index Position of the top-level category
+     * @return Revenue code of a leaf
+     */
+    public long firstLeafRevenueCode(final int index) {
+        long code = revenueCode(index);
+        for (int level = 0; level < shape.revenueDepth(); level++) {
+            code = code * 10 + 1;
+        }
+        return code;
+    }
+
+    /**
+     * Code of an expense category.
+     *
+     * @param index Position of the category
+     * @return Expense category code
+     */
+    public static long expenseCode(final int index) {
+        return EXPENSE_CODE_BASE + index + 1;
+    }
+
+    /**
+     * Code of a ministry.
+     *
+     * @param index Position of the ministry
+     * @return Ministry code
+     */
+    public static long ministryCode(final int index) {
+        return MINISTRY_CODE_BASE + index + 1;
+    }
+
+    /**
+     * Write the original budget of every year as a JSON file that
+     * {@link JsonToSQLite#processAndStoreBudget(String)} accepts. Scenarios
+     * are not written: the pipeline stores one budget per year.
+     *
+     * @param dir Target directory, created if missing
+     * @return Written files, in year order
+     * @throws IOException If a file cannot be written
+     */
+    public List<Path> writeJson(final Path dir) throws IOException {
+        Files.createDirectories(dir);
+        ObjectMapper mapper = new ObjectMapper();
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < shape.years(); i++) {
+            int year = shape.firstYear() + i;
+            Path file = dir.resolve("SyntheticBudget" + year + ".json");
+            mapper.writeValue(file.toFile(), budgetFile(year));
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Write every original budget and scenario to a SQLite database in one
+     * transaction, creating the schema if needed. Scenario {@code n} is a
+     * variant of year {@code firstYear + (n - 1) % years}. Titles must not
+     * already exist in the database.
+     *
+     * @param dbPath Path to the SQLite database file
+     * @return Number of budgets written
+     * @throws SQLException If the schema cannot be created or a row cannot be
+     *                      written; nothing is written then
+     */
+    public int writeDatabase(final String dbPath) throws SQLException {
+        new JsonToSQLite(dbPath).createTables();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath)) {
+            conn.setAutoCommit(false);
+            try (BulkWriter writer = new BulkWriter(conn)) {
+                for (int i = 0; i < shape.years(); i++) {
+                    writer.write(budgetFile(shape.firstYear() + i, 0));
+                }
+                for (int s = 1; s <= shape.scenarios(); s++) {
+                    writer.write(budgetFile(shape.firstYear() + (s - 1) % shape.years(), s));
+                }
+                writer.flush();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return shape.budgets();
+    }
+
+    /*
+     * Batched inserts with keys assigned up front, so no row has to be read
+     * back for its generated ID.
+     */
+    private static final class BulkWriter implements AutoCloseable {
+        private final PreparedStatement budgets;
+        private final PreparedStatement revenues;
+        private final PreparedStatement expenses;
+        private final PreparedStatement ministries;
+        private final PreparedStatement ministryExpenses;
+        private long nextBudgetID;
+        private long nextRevenueID;
+        private long nextExpenseID;
+        private long nextMinistryID;
+        private int pending;
+
+        BulkWriter(final Connection conn) throws SQLException {
+            nextBudgetID = nextID(conn, "Budgets", "budget_id");
+            nextRevenueID = nextID(conn, "RevenueCategories", "revenue_category_id");
+            nextExpenseID = nextID(conn, "ExpenseCategories", "expense_category_id");
+            nextMinistryID = nextID(conn, "Ministries", "ministry_id");
+            budgets = conn.prepareStatement("INSERT INTO Budgets(budget_id, source_title, source_date, "
+                    + "budget_year, currency, locale, total_revenue, total_expenses, budget_result, "
+                    + "coverage_with_cash_reserves) VALUES(?,?,?,?,?,?,?,?,?,?)");
+            revenues = conn.prepareStatement("INSERT INTO RevenueCategories(revenue_category_id, budget_id, "
+                    + "code, name, amount, parent_id) VALUES(?,?,?,?,?,?)");
+            expenses = conn.prepareStatement("INSERT INTO ExpenseCategories(expense_category_id, budget_id, "
+                    + "code, name, amount) VALUES(?,?,?,?,?)");
+            ministries = conn.prepareStatement("INSERT INTO Ministries(ministry_id, budget_id, code, name, "
+                    + "regular_budget, public_investment_budget, total_budget) VALUES(?,?,?,?,?,?,?)");
+            ministryExpenses = conn.prepareStatement("INSERT INTO MinistryExpenses(ministry_id, "
+                    + "expense_category_id, amount) VALUES(?,?,?)");
+        }
+
+        private static long nextID(final Connection conn, final String table, final String column)
+                throws SQLException {
+            try (Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+
+        void write(final BudgetFile budget) throws SQLException {
+            long budgetID = nextBudgetID++;
+            JsonToSQLite.Metadata metadata = budget.getMetadata();
+            JsonToSQLite.BudgetSummary summary = budget.getBudgetSummary();
+            budgets.setLong(1, budgetID);
+            budgets.setString(2, metadata.getSourceTitle());
+            budgets.setString(3, metadata.getSourceDate());
+            budgets.setInt(4, metadata.getBudgetYear());
+            budgets.setString(5, metadata.getCurrency());
+            budgets.setString(6, metadata.getLocale());
+            budgets.setLong(7, summary.getTotalRevenue());
+            budgets.setLong(8, summary.getTotalExpenses());
+            budgets.setLong(9, summary.getStateBudgetBalance());
+            budgets.setLong(10, summary.getCoverageWithCashReserves());
+            budgets.executeUpdate();
+
+            for (JsonToSQLite.RevenueCategory root : budget.getRevenueAnalysis()) {
+                writeRevenue(root, budgetID, null);
+            }
+
+            Map<String, Long> expenseIDs = new HashMap<>();
+            for (JsonToSQLite.ExpenseCategory expense : budget.getExpenseAnalysis()) {
+                long expenseID = nextExpenseID++;
+                expenseIDs.put(expense.getCode(), expenseID);
+                expenses.setLong(1, expenseID);
+                expenses.setLong(2, budgetID);
+                expenses.setString(3, expense.getCode());
+                expenses.setString(4, expense.getName());
+                expenses.setLong(5, expense.getAmount());
+                add(expenses);
+            }
+
+            for (JsonToSQLite.Ministry ministry : budget.getDistributionByMinistry()) {
+                long ministryID = nextMinistryID++;
+                ministries.setLong(1, ministryID);
+                ministries.setLong(2, budgetID);
+                ministries.setString(3, ministry.getCode());
+                ministries.setString(4, ministry.getMinistryBody());
+                ministries.setLong(5, ministry.getRegularBudget());
+                ministries.setLong(6, ministry.getPublicInvestmentBudget());
+                ministries.setLong(7, ministry.getTotal());
+                add(ministries);
+                for (JsonToSQLite.MinistryExpenseItem item : ministry.getTotalFromMajorCategories()) {
+                    ministryExpenses.setLong(1, ministryID);
+                    ministryExpenses.setLong(2, expenseIDs.get(item.getCode()));
+                    ministryExpenses.setLong(3, item.getAmount());
+                    add(ministryExpenses);
+                }
+            }
+        }
+
+        private void writeRevenue(final JsonToSQLite.RevenueCategory category, final long budgetID,
+                final Long parentID) throws SQLException {
+            long revenueID = nextRevenueID++;
+            revenues.setLong(1, revenueID);
+            revenues.setLong(2, budgetID);
+            revenues.setString(3, category.getCode());
+            revenues.setString(4, category.getName());
+            revenues.setLong(5, category.getAmount());
+            if (parentID != null) {
+                revenues.setLong(6, parentID);
+            } else {
+                revenues.setNull(6, Types.INTEGER);
+            }
+            add(revenues);
+            for (JsonToSQLite.RevenueCategory child : category.getChildren()) {
+                writeRevenue(child, budgetID, revenueID);
+            }
+        }
+
+        private void add(final PreparedStatement stmt) throws SQLException {
+            stmt.addBatch();
+            if (++pending >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            revenues.executeBatch();
+            expenses.executeBatch();
+            ministries.executeBatch();
+            ministryExpenses.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            budgets.close();
+            revenues.close();
+            expenses.close();
+            ministries.close();
+            ministryExpenses.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+/**
+ * Size and shape of the data produced by {@link SyntheticBudgetGenerator}.
+ * Revenue codes are built digit by digit from two-digit roots, as in the
+ * published budgets, so the hierarchy is limited to 89 roots, a fan-out of 9
+ * and 16 levels below the roots.
+ *
+ * @param firstYear         First fiscal year
+ * @param years             Number of consecutive fiscal years, one original
+ *                          budget each
+ * @param ministries        Ministries per budget
+ * @param expenseCategories Expense categories per budget; every ministry
+ *                          spends on every category
+ * @param revenueRoots      Top-level revenue categories per budget
+ * @param revenueFanOut     Children of every non-leaf revenue category
+ * @param revenueDepth      Revenue levels below the roots
+ * @param scenarios         Cloned scenarios with edited amounts, spread over
+ *                          the years
+ * @param seed              Seed of every generated amount
+ */
+public record SyntheticBudgetShape(int firstYear, int years, int ministries, int expenseCategories,
+        int revenueRoots, int revenueFanOut, int revenueDepth, int scenarios, long seed) {
+
+    /** Largest number of top-level revenue categories. */
+    public static final int MAX_REVENUE_ROOTS = 89;
+    /** Largest revenue fan-out. */
+    public static final int MAX_REVENUE_FAN_OUT = 9;
+    /** Largest number of revenue levels below the roots. */
+    public static final int MAX_REVENUE_DEPTH = 16;
+
+    /**
+     * Validate the shape.
+     *
+     * @param firstYear         First fiscal year
+     * @param years             Number of fiscal years
+     * @param ministries        Ministries per budget
+     * @param expenseCategories Expense categories per budget
+     * @param revenueRoots      Top-level revenue categories per budget
+     * @param revenueFanOut     Children of every non-leaf revenue category
+     * @param revenueDepth      Revenue levels below the roots
+     * @param scenarios         Cloned scenarios
+     * @param seed              Seed of every generated amount
+     */
+    public SyntheticBudgetShape {
+        if (years < 1 || ministries < 1 || expenseCategories < 1 || revenueRoots < 1) {
+            throw new IllegalArgumentException("Years, ministries and categories must be positive");
+        }
+        if (revenueRoots > MAX_REVENUE_ROOTS || revenueFanOut < 1 || revenueFanOut > MAX_REVENUE_FAN_OUT
+                || revenueDepth < 0 || revenueDepth > MAX_REVENUE_DEPTH) {
+            throw new IllegalArgumentException("Revenue hierarchy out of range: " + revenueRoots + " roots, fan-out "
+                    + revenueFanOut + ", depth " + revenueDepth);
+        }
+        if (scenarios < 0) {
+            throw new IllegalArgumentException("Scenarios must not be negative: " + scenarios);
+        }
+    }
+
+    /**
+     * Build a shape close to one year of the shipped database: about 500
+     * revenue categories, 14 expense categories and 29 ministries, over the
+     * seven years 2020-2026.
+     *
+     * @return Default shape
+     */
+    public static SyntheticBudgetShape defaults() {
+        return new SyntheticBudgetShape(2020, 7, 29, 14, 12, 3, 3, 0, 42);
+    }
+
+    /**
+     * Count the revenue categories of one budget.
+     *
+     * @return Revenue categories per budget
+     */
+    public long revenueCategoriesPerBudget() {
+        long perRoot = 0;
+        long level = 1;
+        for (int d = 0; d <= revenueDepth; d++) {
+            perRoot += level;
+            level *= revenueFanOut;
+        }
+        return perRoot * revenueRoots;
+    }
+
+    /**
+     * Count the budgets written to a database: the originals and the
+     * scenarios.
+     *
+     * @return Total budgets
+     */
+    public int budgets() {
+        return years + scenarios;
+    }
+}
@@ -5,21 +5,44 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 
-import com.google.genai.Client;
-import com.google.genai.types.Content;
-import com.google.genai.types.GenerateContentConfig;
-import com.google.genai.types.GenerateContentResponse;
-import com.google.genai.types.Part;
-
 /**
  * Leverage AI models to extract structured budget data from raw text.
  */
 public class TextToJson implements ITextToJson {
 
+  /** Version of the system prompt; bump whenever PROMPT1 changes. */
+  public static final int PROMPT_VERSION = 1;
+
+  /** Generation model the text is sent to. */
+  public static final String MODEL = "gemini-2.5-flash";
+
+  private final ExtractionModel model;
+
   /**
-   * Initialize a new AI-powered transformation engine.
+   * Initialize a new AI-powered transformation engine that calls Gemini with
+   * the key from the {@code GEMINI_API_KEY} environment variable.
    */
   public TextToJson() {
+    this(null);
+  }
+
+  /**
+   * Initialize a transformation engine over a given model, e.g. a local stub.
+   *
+   * @param model Model to call, or null to call Gemini with the environment key
+   */
+  public TextToJson(final ExtractionModel model) {
+    this.model = model;
+  }
+
+  /**
+   * Identify the parser by its prompt version and model.
+   *
+   * @return Version string
+   */
+  @Override
+  public String version() {
+    return "TextToJson/prompt-" + PROMPT_VERSION + " " + MODEL;
   }
 
   private static final String PROMPT1 = """
@@ -221,6 +244,10 @@ public class TextToJson implements ITextToJson {
    */
   @Override
   public void textFileToJson(final Path inTxt, final Path outJson) throws Exception {
+    if (model != null) {
+      textFileToJson(model, inTxt, outJson);
+      return;
+    }
     String apiKey = System.getenv("GEMINI_API_KEY");
     textFileToJson(inTxt, outJson, apiKey);
   }
@@ -234,39 +261,43 @@ public class TextToJson implements ITextToJson {
    * @throws Exception If the service call or document processing fails
    */
   public void textFileToJson(final Path inTxt, final Path outJson, final String apiKey) throws Exception {
+    ExtractionModel gemini = new GeminiModel(apiKey, MODEL, System.getProperty(GeminiModel.BASE_URL_PROPERTY));
+    textFileToJson(gemini, inTxt, outJson);
+  }
 
-    if (apiKey == null || apiKey.isBlank()) {
-      throw new IllegalArgumentException("Error: GEMINI_API_KEY environment variable is not set.");
-    }
-
-    Client client = Client.builder()
-        .apiKey(apiKey)
-        .build();
-
-    Content systemInstruction = Content.fromParts(Part.fromText(PROMPT1));
-
-    GenerateContentConfig cfg = GenerateContentConfig.builder()
-        .systemInstruction(systemInstruction)
-        .build();
-
+  private void textFileToJson(final ExtractionModel target, final Path inTxt, final Path outJson) throws Exception {
     String raw = Files.readString(inTxt, StandardCharsets.UTF_8);
 
-    GenerateContentResponse res = client.models.generateContent(
-        "gemini-2.5-flash",
-        raw,
-        cfg);
-
-    String text = res.text();
+    String text = target.generate(PROMPT1, raw);
 
     if (text == null) {
       System.err.println("Model returned null text. Check API key, model name, or input size.");
-      System.err.println("Raw response: " + res);
       return;
     }
 
-    // Strip markdown delimiters to isolate raw JSON
-    String json = text.trim().replaceAll("(?s)^```(?:json)?\\s*|\\s*```$", "");
+    writeJson(outJson, stripFences(text));
+
+    System.out.println("Saved to " + outJson.toAbsolutePath());
+  }
+
+  /**
+   * Strip markdown delimiters to isolate raw JSON.
+   *
+   * @param text Model reply
+   * @return Reply without surrounding code fences
+   */
+  static String stripFences(final String text) {
+    return text.trim().replaceAll("(?s)^```(?:json)?\\s*|\\s*```$", "");
+  }
 
+  /**
+   * Write JSON text, creating the parent directory if needed.
+   *
+   * @param outJson Output path
+   * @param json    JSON text
+   * @throws java.io.IOException If the file cannot be written
+   */
+  static void writeJson(final Path outJson, final String json) throws java.io.IOException {
     Path parent = outJson.getParent();
     if (parent != null) {
       Files.createDirectories(parent);
@@ -275,7 +306,5 @@ public class TextToJson implements ITextToJson {
     Files.writeString(outJson, json, StandardCharsets.UTF_8,
         StandardOpenOption.CREATE,
         StandardOpenOption.TRUNCATE_EXISTING);
-
-    System.out.println("Saved to " + outJson.toAbsolutePath());
   }
 }
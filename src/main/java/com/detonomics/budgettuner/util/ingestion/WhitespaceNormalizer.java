@@ -0,0 +1,131 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Writer that normalizes text in a single pass as it streams through: every
+ * line is trimmed, runs of whitespace inside a line collapse to one space,
+ * blank lines are dropped and the remaining lines are joined with
+ * {@code '\n'}, without a trailing line break. Output is buffered in a
+ * fixed-size array, so memory stays constant regardless of input size.
+ */
+final class WhitespaceNormalizer extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer target;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int buffered;
+
+    /* Trimmable characters seen since the last visible one on this line. */
+    private final StringBuilder gap = new StringBuilder();
+    private boolean lineStarted;
+    private boolean anyLine;
+
+    /**
+     * Wrap a target writer.
+     *
+     * @param target Writer receiving the normalized text
+     */
+    WhitespaceNormalizer(final Writer target) {
+        this.target = target;
+    }
+
+    /**
+     * Normalize a complete text in memory.
+     *
+     * @param text Raw text
+     * @return Normalized text
+     */
+    static String normalize(final String text) {
+        StringWriter out = new StringWriter(text.length());
+        try (WhitespaceNormalizer normalizer = new WhitespaceNormalizer(out)) {
+            normalizer.write(text);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringWriter cannot fail", e);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        accept((char) c);
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(str.charAt(i));
+        }
+    }
+
+    private void accept(final char c) throws IOException {
+        if (c == '\n' || c == '\r') {
+            lineStarted = false;
+            gap.setLength(0);
+        } else if (c <= ' ') {
+            if (lineStarted && !(isSpace(c) && endsWithSpace(gap))) {
+                gap.append(isSpace(c) ? ' ' : c);
+            }
+        } else {
+            if (!lineStarted) {
+                if (anyLine) {
+                    put('\n');
+                }
+                lineStarted = true;
+                anyLine = true;
+            } else {
+                for (int i = 0; i < gap.length(); i++) {
+                    put(gap.charAt(i));
+                }
+            }
+            gap.setLength(0);
+            put(c);
+        }
+    }
+
+    /*
+     * The whitespace class of the former "\\s+" pattern; other control
+     * characters are trimmed at line ends but kept inside a line.
+     */
+    private static boolean isSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\u000B' || c == '\f';
+    }
+
+    private static boolean endsWithSpace(final StringBuilder sb) {
+        return sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ';
+    }
+
+    private void put(final char c) throws IOException {
+        if (buffered == buffer.length) {
+            drain();
+        }
+        buffer[buffered++] = c;
+    }
+
+    private void drain() throws IOException {
+        target.write(buffer, 0, buffered);
+        buffered = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        target.close();
+    }
+}
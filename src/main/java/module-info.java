@@ -4,10 +4,10 @@
 module com.detonomics.budgettuner {
     requires transitive javafx.controls;
     requires transitive javafx.fxml;
-    requires transitive javafx.web;
     requires transitive javafx.swing;
 
     requires transitive java.sql;
+    requires java.management;
     requires org.xerial.sqlitejdbc;
     requires org.apache.pdfbox;
     requires com.google.genai;
@@ -19,7 +19,6 @@ module com.detonomics.budgettuner {
     requires net.synedra.validatorfx;
     requires org.kordamp.ikonli.javafx;
     requires org.kordamp.bootstrapfx.core;
-    requires eu.hansolo.tilesfx;
 
     opens com.detonomics.budgettuner.controller to javafx.fxml;
 
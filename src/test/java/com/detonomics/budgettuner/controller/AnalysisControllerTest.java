@@ -6,12 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
 import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.model.Ministry;
 import com.detonomics.budgettuner.model.RevenueCategory;
 import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import com.detonomics.budgettuner.util.ViewManager;
 import java.lang.reflect.Field;
@@ -24,6 +26,7 @@ import javafx.scene.chart.PieChart;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -37,6 +40,11 @@ class AnalysisControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -59,9 +67,9 @@ class AnalysisControllerTest {
                         new ArrayList<>(),
                         new ArrayList<>());
 
-                when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
+                when(dataService.loadAnalytics()).thenReturn(new BudgetAnalytics(BudgetSnapshot.of(List.of(budget))));
 
-                AnalysisController controller = new AnalysisController(viewManager, dataService);
+                AnalysisController controller = new AnalysisController(viewManager, AsyncTestSupport.inline(dataService));
 
                 // Inject fields
                 Label titleLabel = new Label();
@@ -112,8 +120,8 @@ class AnalysisControllerTest {
                 BudgetYear budget = new BudgetYear(s1, new ArrayList<>(), new ArrayList<>(List.of(e1)),
                         new ArrayList<>(), new ArrayList<>());
 
-                when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
-                AnalysisController controller = new AnalysisController(viewManager, dataService);
+                when(dataService.loadAnalytics()).thenReturn(new BudgetAnalytics(BudgetSnapshot.of(List.of(budget))));
+                AnalysisController controller = new AnalysisController(viewManager, AsyncTestSupport.inline(dataService));
 
                 Label titleLabel = new Label();
                 Label totalAmountLabel = new Label();
@@ -156,8 +164,8 @@ class AnalysisControllerTest {
                 BudgetYear budget = new BudgetYear(s1, new ArrayList<>(), new ArrayList<>(),
                         new ArrayList<>(List.of(m1)), new ArrayList<>());
 
-                when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
-                AnalysisController controller = new AnalysisController(viewManager, dataService);
+                when(dataService.loadAnalytics()).thenReturn(new BudgetAnalytics(BudgetSnapshot.of(List.of(budget))));
+                AnalysisController controller = new AnalysisController(viewManager, AsyncTestSupport.inline(dataService));
 
                 Label titleLabel = new Label();
                 VBox itemsBox = new VBox();
@@ -190,7 +198,7 @@ class AnalysisControllerTest {
 
     @Test
     void testNavigation() {
-        AnalysisController controller = new AnalysisController(viewManager, dataService);
+        AnalysisController controller = new AnalysisController(viewManager, AsyncTestSupport.inline(dataService));
         controller.onBackClick(null);
         verify(viewManager).switchScene(org.mockito.ArgumentMatchers.eq("budget-details-view.fxml"),
                 org.mockito.ArgumentMatchers.anyString(), org.mockito.ArgumentMatchers.any());
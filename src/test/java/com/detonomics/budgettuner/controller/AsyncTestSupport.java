@@ -0,0 +1,51 @@
+package com.detonomics.budgettuner.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
+import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.util.ViewManager;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Run the asynchronous data path of controllers inline, so tests can assert
+ * right after the call that triggers a load.
+ */
+final class AsyncTestSupport {
+
+    private AsyncTestSupport() {
+    }
+
+    static AsyncBudgetDataService inline(final BudgetDataService dataService) {
+        return new AsyncBudgetDataService(dataService, Runnable::run);
+    }
+
+    /*
+     * Make a mocked ViewManager deliver completed requests at once; requests
+     * still running are delivered by nobody, as after navigating away.
+     */
+    @SuppressWarnings("unchecked")
+    static void deliverInline(final ViewManager viewManager) {
+        lenient().doAnswer(invocation -> {
+            CompletableFuture<Object> request = invocation.getArgument(0);
+            Consumer<Object> onLoaded = invocation.getArgument(1);
+            if (request.isDone() && !request.isCompletedExceptionally()) {
+                onLoaded.accept(request.join());
+            }
+            return request;
+        }).when(viewManager).load(any(), any());
+        lenient().doAnswer(invocation -> {
+            CompletableFuture<Object> request = invocation.getArgument(0);
+            if (request.isCompletedExceptionally()) {
+                Throwable error = request.handle((value, e) -> e).join();
+                ((Consumer<Throwable>) invocation.getArgument(2)).accept(
+                        error.getCause() != null ? error.getCause() : error);
+            } else if (request.isDone()) {
+                ((Consumer<Object>) invocation.getArgument(1)).accept(request.join());
+            }
+            return request;
+        }).when(viewManager).load(any(), any(), any());
+    }
+}
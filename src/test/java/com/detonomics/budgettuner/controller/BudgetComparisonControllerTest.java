@@ -21,6 +21,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -34,6 +35,11 @@ class BudgetComparisonControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -54,7 +60,7 @@ class BudgetComparisonControllerTest {
                 Summary s2 = new Summary(2, "2021", "EUR", "el", "2021", 2021, 1200, 900, 300, 0);
                 when(dataService.loadAllSummaries()).thenReturn(List.of(s1, s2));
 
-                BudgetComparisonController controller = new BudgetComparisonController(viewManager, dataService);
+                BudgetComparisonController controller = new BudgetComparisonController(viewManager, AsyncTestSupport.inline(dataService));
 
                 // Inject fields
                 ComboBox<Summary> cb1 = new ComboBox<>();
@@ -105,7 +111,7 @@ class BudgetComparisonControllerTest {
 
     @Test
     void testNavigation() {
-        BudgetComparisonController controller = new BudgetComparisonController(viewManager, dataService);
+        BudgetComparisonController controller = new BudgetComparisonController(viewManager, AsyncTestSupport.inline(dataService));
         controller.onBackClick(null);
         verify(viewManager).switchScene("welcome-view.fxml", "Budget Tuner");
     }
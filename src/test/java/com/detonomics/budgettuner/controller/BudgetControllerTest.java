@@ -19,6 +19,7 @@ import javafx.application.Platform;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -32,6 +33,11 @@ class BudgetControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -50,7 +56,7 @@ class BudgetControllerTest {
                 Summary s1 = new Summary(1, "Προϋπολογισμός 2020", "EUR", "el", "2020", 2020, 100, 80, 20, 0);
                 when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
 
-                BudgetController controller = new BudgetController(viewManager, dataService);
+                BudgetController controller = new BudgetController(viewManager, AsyncTestSupport.inline(dataService));
                 ListView<String> listView = new ListView<>();
                 setPrivateField(controller, "budgetList", listView);
 
@@ -67,9 +73,40 @@ class BudgetControllerTest {
         assertTrue(latch.await(5, TimeUnit.SECONDS));
     }
 
+    @Test
+    void testResetViewReloadsBudgets() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                Summary s1 = new Summary(1, "Alpha", "EUR", "el", "2020", 2020, 100, 80, 20, 0);
+                Summary s2 = new Summary(2, "Beta", "EUR", "el", "2021", 2021, 100, 80, 20, 0);
+                when(dataService.loadAllSummaries()).thenReturn(List.of(s1)).thenReturn(List.of(s1, s2));
+
+                BudgetController controller = new BudgetController(viewManager, AsyncTestSupport.inline(dataService));
+                ListView<String> listView = new ListView<>();
+                TextField searchField = new TextField();
+                setPrivateField(controller, "budgetList", listView);
+                setPrivateField(controller, "searchField", searchField);
+
+                controller.initialize();
+                searchField.setText("alph");
+
+                controller.resetView();
+
+                assertEquals("", searchField.getText());
+                assertEquals(2, listView.getItems().size());
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     void testNavigation() throws Exception {
-        BudgetController controller = new BudgetController(viewManager, dataService);
+        BudgetController controller = new BudgetController(viewManager, AsyncTestSupport.inline(dataService));
         controller.onBackButtonClick(null);
         verify(viewManager).switchScene("welcome-view.fxml", "Budget Tuner");
     }
@@ -82,7 +119,7 @@ class BudgetControllerTest {
                 Summary s1 = new Summary(1, "Προϋπολογισμός 2020", "EUR", "el", "2020", 2020, 100, 80, 20, 0);
                 when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
 
-                BudgetController controller = new BudgetController(viewManager, dataService);
+                BudgetController controller = new BudgetController(viewManager, AsyncTestSupport.inline(dataService));
                 ListView<String> listView = new ListView<>();
                 setPrivateField(controller, "budgetList", listView);
 
@@ -117,7 +154,7 @@ class BudgetControllerTest {
                 Summary s2 = new Summary(2, "Beta", "EUR", "el", "2021", 2021, 100, 80, 20, 0);
                 when(dataService.loadAllSummaries()).thenReturn(List.of(s1, s2));
 
-                BudgetController controller = new BudgetController(viewManager, dataService);
+                BudgetController controller = new BudgetController(viewManager, AsyncTestSupport.inline(dataService));
                 ListView<String> listView = new ListView<>();
                 TextField searchField = new TextField();
                 setPrivateField(controller, "budgetList", listView);
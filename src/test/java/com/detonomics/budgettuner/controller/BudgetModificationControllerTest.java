@@ -5,7 +5,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +30,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -46,6 +46,11 @@ class BudgetModificationControllerTest {
     @Mock
     private BudgetModificationService modificationService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -69,7 +74,7 @@ class BudgetModificationControllerTest {
                 BudgetYear budget = new BudgetYear(s1, new ArrayList<>(List.of(r1)), new ArrayList<>(List.of(e1)),
                         new ArrayList<>(List.of(m1)), new ArrayList<>(List.of(me1)));
 
-                BudgetModificationController controller = new BudgetModificationController(viewManager, dataService,
+                BudgetModificationController controller = new BudgetModificationController(viewManager, AsyncTestSupport.inline(dataService),
                         modificationService);
 
                 // Inject fields
@@ -110,7 +115,7 @@ class BudgetModificationControllerTest {
                 // Stub dataService to avoid title overlap
                 when(dataService.loadAllSummaries()).thenReturn(Collections.emptyList());
 
-                BudgetModificationController controller = new BudgetModificationController(viewManager, dataService,
+                BudgetModificationController controller = new BudgetModificationController(viewManager, AsyncTestSupport.inline(dataService),
                         modificationService);
 
                 TextField titleField = new TextField("New Title");
@@ -125,7 +130,7 @@ class BudgetModificationControllerTest {
                 setPrivateField(controller, "budget", budget);
 
                 // Stub modification service
-                when(modificationService.cloneBudget(anyInt(), anyString())).thenReturn(2);
+                when(modificationService.cloneBudgetWithEdits(anyInt(), anyString(), any())).thenReturn(2);
 
                 controller.onSaveClick(null);
 
@@ -145,14 +150,14 @@ class BudgetModificationControllerTest {
         });
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        verify(modificationService).cloneBudget(anyInt(), org.mockito.ArgumentMatchers.eq("New Title"));
-        verify(modificationService).updateBudgetAmounts(org.mockito.ArgumentMatchers.eq(2), anyMap(), anyMap());
+        verify(modificationService).cloneBudgetWithEdits(anyInt(), org.mockito.ArgumentMatchers.eq("New Title"),
+                any());
     }
 
     @Test
     @SuppressWarnings("unchecked")
     void testCancelClick() {
-        BudgetModificationController controller = new BudgetModificationController(viewManager, dataService,
+        BudgetModificationController controller = new BudgetModificationController(viewManager, AsyncTestSupport.inline(dataService),
                 modificationService);
         controller.onCancelClick(null);
         verify(viewManager).switchScene(org.mockito.ArgumentMatchers.eq("budget-details-view.fxml"),
@@ -1,6 +1,9 @@
 package com.detonomics.budgettuner.controller;
 
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
 import com.detonomics.budgettuner.model.*;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
+import com.detonomics.budgettuner.service.BudgetComparisonEngine;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -141,6 +145,32 @@ class BudgetTunerCLITest {
         assertTrue(output.contains("|"));
     }
 
+    @Test
+    void testCompareRevenuesIncludesSubCategories() {
+        ArrayList<Integer> years = new ArrayList<>(Arrays.asList(2023, 2024));
+        BudgetYear b2023 = createDummyBudget(2023);
+        Summary s2024 = new Summary(2, "Budget 2024", "EUR", "el_GR", "2024-01-01", 2024, 1500L, 0L, 1500L, 0L);
+        BudgetYear b2024 = new BudgetYear(s2024,
+                new ArrayList<>(Arrays.asList(new RevenueCategory(2, 11L, "Tax", 1500L, 0),
+                        new RevenueCategory(3, 111L, "Income tax", 900L, 2))),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        when(dataService.loadBudgetYears()).thenReturn(years);
+        when(dataService.loadBudgetIDByYear(2023)).thenReturn(1);
+        when(dataService.loadBudgetYear(1)).thenReturn(b2023);
+        when(dataService.loadBudgetIDByYear(2024)).thenReturn(2);
+        when(dataService.loadBudgetYear(2)).thenReturn(b2024);
+        when(dataService.loadAnalytics())
+                .thenReturn(new BudgetAnalytics(BudgetSnapshot.of(Arrays.asList(b2023, b2024))));
+
+        // 2->Compare, 2023, 2024, 2->Revenues, 5->Back, 0->Exit
+        runCLI("2\n2023\n2024\n2\n5\n0\n");
+
+        String output = outContent.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("1.000 €"));
+        assertTrue(output.contains("1.500 €"));
+        assertTrue(output.contains("Income tax"));
+    }
+
     @Test
     void testInsertNewYear_Success() throws Exception {
         when(dataService.loadBudgetYears()).thenReturn(new ArrayList<>());
@@ -165,4 +195,50 @@ class BudgetTunerCLITest {
         String output = outContent.toString(StandardCharsets.UTF_8);
         assertTrue(output.contains("Σφάλμα κατά την εισαγωγή"));
     }
+
+    @Test
+    void testTimeSeries() {
+        when(dataService.loadBudgetYears()).thenReturn(new ArrayList<>());
+        BudgetYear b2023 = createDummyBudget(2023);
+        Summary s2024 = new Summary(2, "Budget 2024", "EUR", "el_GR", "2024-01-01", 2024, 1200L, 600L, 600L, 0L);
+        BudgetYear b2024 = new BudgetYear(s2024, new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(Collections.singletonList(new Ministry(2, 1001L, "Ministry of Finance", 600L, 0L,
+                        600L))),
+                new ArrayList<>());
+        when(dataService.loadAnalytics())
+                .thenReturn(new BudgetAnalytics(BudgetSnapshot.of(Arrays.asList(b2023, b2024))));
+
+        // 4->Time series, 3->Ministries, code 1001, then 4, 1, unknown code, 0->Exit
+        runCLI("4\n3\n1001\n4\n1\n999\n0\n");
+
+        String output = outContent.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("1001 - Ministry of Finance"));
+        assertTrue(output.contains("+20,00%") || output.contains("+20.00%"));
+        assertTrue(output.contains("Ο κωδικός 999 δεν βρέθηκε"));
+    }
+
+    @Test
+    void testCompareAll() {
+        when(dataService.loadBudgetYears()).thenReturn(new ArrayList<>());
+        BudgetYear b2023 = createDummyBudget(2023);
+        Summary s2024 = new Summary(2, "Budget 2024", "EUR", "el_GR", "2024-01-01", 2024, 1200L, 800L, 400L, 0L);
+        BudgetYear b2024 = new BudgetYear(s2024, new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(Arrays.asList(new Ministry(2, 1001L, "Ministry of Finance", 800L, 0L, 800L),
+                        new Ministry(3, 1002L, "Ministry of Health", 50L, 0L, 50L))),
+                new ArrayList<>());
+        BudgetSnapshot snapshot = BudgetSnapshot.of(Arrays.asList(b2024, b2023));
+        when(dataService.loadAnalytics()).thenReturn(new BudgetAnalytics(snapshot));
+        when(dataService.compareBudgets(any(), any())).thenAnswer(inv -> new BudgetComparisonEngine()
+                .compare(snapshot, inv.getArgument(0), inv.getArgument(1)));
+
+        // 5->Compare all, 3->Ministries, then 5, 9 (invalid table), 0->Exit
+        runCLI("5\n3\n5\n9\n0\n");
+
+        String output = outContent.toString(StandardCharsets.UTF_8);
+        verify(dataService).compareBudgets(AnalysisType.MINISTRY, Arrays.asList(1, 2));
+        assertTrue(output.contains("2023 #1"));
+        assertTrue(output.contains("Ministry of Health"));
+        assertTrue(output.contains(" 1. 1001"));
+        assertTrue(output.contains("Μη έγκυρη επιλογή."));
+    }
 }
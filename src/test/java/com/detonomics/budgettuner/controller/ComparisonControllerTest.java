@@ -22,6 +22,7 @@ import javafx.scene.chart.NumberAxis;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -35,6 +36,11 @@ class ComparisonControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -64,8 +70,10 @@ class ComparisonControllerTest {
                 org.mockito.Mockito.lenient().when(dataService.loadBudgetIDByYear(2020)).thenReturn(1);
                 org.mockito.Mockito.lenient().when(dataService.loadBudgetYear(1)).thenReturn(b1);
                 org.mockito.Mockito.lenient().when(dataService.loadBudgetYear(2)).thenReturn(b2);
+                org.mockito.Mockito.lenient().when(dataService.loadBudgetYearsByID(org.mockito.ArgumentMatchers.anyList()))
+                        .thenReturn(java.util.Map.of(1, b1, 2, b2));
 
-                ComparisonController controller = new ComparisonController(viewManager, dataService);
+                ComparisonController controller = new ComparisonController(viewManager, AsyncTestSupport.inline(dataService));
 
                 // Inject fields
                 ComboBox<Integer> cbA = new ComboBox<>();
@@ -121,7 +129,7 @@ class ComparisonControllerTest {
 
     @Test
     void testNavigation() {
-        ComparisonController controller = new ComparisonController(viewManager, dataService);
+        ComparisonController controller = new ComparisonController(viewManager, AsyncTestSupport.inline(dataService));
         controller.onBackClick(null);
         verify(viewManager).switchScene("welcome-view.fxml", "Budget Tuner");
     }
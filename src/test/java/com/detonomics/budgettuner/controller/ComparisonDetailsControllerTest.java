@@ -2,15 +2,20 @@
 package com.detonomics.budgettuner.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.detonomics.budgettuner.controller.ComparisonDetailsController.ComparisonType;
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.model.Ministry;
 import com.detonomics.budgettuner.model.RevenueCategory;
 import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetComparisonEngine;
 import com.detonomics.budgettuner.service.BudgetDataService;
+import com.detonomics.budgettuner.util.BudgetFormatter;
 import com.detonomics.budgettuner.util.ViewManager;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -20,6 +25,7 @@ import javafx.application.Platform;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -33,6 +39,11 @@ class ComparisonDetailsControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -59,7 +70,7 @@ class ComparisonDetailsControllerTest {
         // Run on FX thread to avoid threading issues with JavaFX nodes
         Platform.runLater(() -> {
             try {
-                ComparisonDetailsController controller = new ComparisonDetailsController(viewManager, dataService);
+                ComparisonDetailsController controller = new ComparisonDetailsController(viewManager, AsyncTestSupport.inline(dataService));
 
                 // Inject FXML fields
                 Label titleLabel = new Label();
@@ -72,34 +83,30 @@ class ComparisonDetailsControllerTest {
                 Summary s1 = new Summary(1, "2020", "EUR", "el", "2020-01-01", 2020, 1000, 800, 200, 0);
                 Summary s2 = new Summary(2, "2021", "EUR", "el", "2021-01-01", 2021, 1200, 900, 300, 0);
 
-                // Mock Revenue Data
                 RevenueCategory r1 = new RevenueCategory(1, 1L, "Tax", 100L, 0);
                 RevenueCategory r2 = new RevenueCategory(2, 1L, "Tax", 120L, 0);
-                when(dataService.loadRevenues(1)).thenReturn(new ArrayList<>(List.of(r1)));
-                when(dataService.loadRevenues(2)).thenReturn(new ArrayList<>(List.of(r2)));
+                ExpenseCategory e1 = new ExpenseCategory(10, 1L, "Salaries", 50L);
+                ExpenseCategory e2 = new ExpenseCategory(11, 1L, "Salaries", 60L);
+                Ministry m1 = new Ministry(100, 1L, "Min1", 250L, 250L, 500L); // ministryID, code, name, regular,
+                                                                               // investment, total
+                Ministry m2 = new Ministry(101, 1L, "Min1", 300L, 300L, 600L);
+                BudgetYear b1 = new BudgetYear(s1, new ArrayList<>(List.of(r1)), new ArrayList<>(List.of(e1)),
+                        new ArrayList<>(List.of(m1)), new ArrayList<>());
+                BudgetYear b2 = new BudgetYear(s2, new ArrayList<>(List.of(r2)), new ArrayList<>(List.of(e2)),
+                        new ArrayList<>(List.of(m2)), new ArrayList<>());
+                BudgetSnapshot snapshot = BudgetSnapshot.of(List.of(b1, b2));
+                when(dataService.compareBudgets(any(), any())).thenAnswer(inv -> new BudgetComparisonEngine()
+                        .compare(snapshot, inv.getArgument(0), inv.getArgument(1)));
 
                 // Test REVENUE
                 controller.setContext(s1, s2, ComparisonType.REVENUE);
                 // Header + 1 row
                 assertEquals(2, itemsBox.getChildren().size());
 
-                // Mock Expense Data
-                ExpenseCategory e1 = new ExpenseCategory(10, 1L, "Salaries", 50L);
-                ExpenseCategory e2 = new ExpenseCategory(11, 1L, "Salaries", 60L);
-                when(dataService.loadExpenses(1)).thenReturn(new ArrayList<>(List.of(e1)));
-                when(dataService.loadExpenses(2)).thenReturn(new ArrayList<>(List.of(e2)));
-
                 // Test EXPENSE
                 controller.setContext(s1, s2, ComparisonType.EXPENSE);
                 assertEquals(2, itemsBox.getChildren().size()); // Clears previous
 
-                // Mock Ministry Data
-                Ministry m1 = new Ministry(100, 1L, "Min1", 250L, 250L, 500L); // ministryID, code, name, regular,
-                                                                               // investment, total
-                Ministry m2 = new Ministry(101, 1L, "Min1", 300L, 300L, 600L);
-                when(dataService.loadMinistries(1)).thenReturn(new ArrayList<>(List.of(m1)));
-                when(dataService.loadMinistries(2)).thenReturn(new ArrayList<>(List.of(m2)));
-
                 // Test MINISTRY
                 controller.setContext(s1, s2, ComparisonType.MINISTRY);
                 assertEquals(2, itemsBox.getChildren().size());
@@ -120,9 +127,51 @@ class ComparisonDetailsControllerTest {
         }
     }
 
+    @Test
+    void testMissingBudgetShowsZero() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicReference<Throwable> error = new java.util.concurrent.atomic.AtomicReference<>();
+
+        Platform.runLater(() -> {
+            try {
+                ComparisonDetailsController controller = new ComparisonDetailsController(viewManager, AsyncTestSupport.inline(dataService));
+                VBox itemsBox = new VBox();
+                setPrivateField(controller, "titleLabel", new Label());
+                setPrivateField(controller, "itemsBox", itemsBox);
+
+                // Budget 1 was deleted; only budget 2 is in the snapshot.
+                Summary s1 = new Summary(1, "2020", "EUR", "el", "2020-01-01", 2020, 1000, 800, 200, 0);
+                Summary s2 = new Summary(2, "2021", "EUR", "el", "2021-01-01", 2021, 1200, 900, 300, 0);
+                RevenueCategory r2 = new RevenueCategory(2, 1L, "Tax", 120L, 0);
+                BudgetYear b2 = new BudgetYear(s2, new ArrayList<>(List.of(r2)), new ArrayList<>(),
+                        new ArrayList<>(), new ArrayList<>());
+                BudgetSnapshot snapshot = BudgetSnapshot.of(List.of(b2));
+                when(dataService.compareBudgets(any(), any())).thenAnswer(inv -> new BudgetComparisonEngine()
+                        .compare(snapshot, inv.getArgument(0), inv.getArgument(1)));
+
+                controller.setContext(s1, s2, ComparisonType.REVENUE);
+
+                javafx.scene.layout.HBox row = (javafx.scene.layout.HBox) itemsBox.getChildren().get(1);
+                assertEquals(BudgetFormatter.formatAmount(0), ((Label) row.getChildren().get(2)).getText());
+                assertEquals(BudgetFormatter.formatAmount(120), ((Label) row.getChildren().get(4)).getText());
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+
+        if (!latch.await(5, java.util.concurrent.TimeUnit.SECONDS)) {
+            throw new RuntimeException("Timeout waiting for FX");
+        }
+        if (error.get() != null) {
+            throw new RuntimeException(error.get());
+        }
+    }
+
     @Test
     void testOnBackClick() throws Exception {
-        ComparisonDetailsController controller = new ComparisonDetailsController(viewManager, dataService);
+        ComparisonDetailsController controller = new ComparisonDetailsController(viewManager, AsyncTestSupport.inline(dataService));
         setPrivateField(controller, "s1", new Summary(1, "T1", "", "", "", 2020, 0, 0, 0, 0));
         setPrivateField(controller, "s2", new Summary(2, "T2", "", "", "", 2021, 0, 0, 0, 0));
 
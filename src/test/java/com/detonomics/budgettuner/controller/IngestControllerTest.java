@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import com.detonomics.budgettuner.util.ViewManager;
 import java.io.File;
@@ -17,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import javafx.application.Platform;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
@@ -51,7 +53,7 @@ class IngestControllerTest {
 
         Platform.runLater(() -> {
             try {
-                IngestController controller = new IngestController(viewManager, dataService);
+                IngestController controller = new IngestController(viewManager, new AsyncBudgetDataService(dataService));
 
                 // Inject fields
                 TextField fileField = new TextField();
@@ -68,6 +70,7 @@ class IngestControllerTest {
                 setPrivateField(controller, "progressBar", progress);
                 setPrivateField(controller, "backButton", backBtn);
                 setPrivateField(controller, "fileSelectButton", fileBtn);
+                setPrivateField(controller, "forceCheckBox", new CheckBox());
 
                 File tempFile = File.createTempFile("test", ".pdf");
                 tempFile.deleteOnExit();
@@ -75,13 +78,13 @@ class IngestControllerTest {
 
                 // Mock dataService
                 doAnswer(invocation -> {
-                    Consumer<String> logger = invocation.getArgument(1);
+                    Consumer<String> logger = invocation.getArgument(2);
                     logger.accept("STEP 1");
                     logger.accept("STEP 2");
                     logger.accept("STEP 3");
                     logger.accept("PIPELINE FINISHED");
                     return null;
-                }).when(dataService).insertNewBudgetYear(eq(tempFile.getAbsolutePath()), any());
+                }).when(dataService).insertNewBudgetYear(eq(tempFile.getAbsolutePath()), eq(false), any());
 
                 controller.onStartClick(null);
 
@@ -109,7 +112,7 @@ class IngestControllerTest {
 
     @Test
     void testBackClick() {
-        IngestController controller = new IngestController(viewManager, dataService);
+        IngestController controller = new IngestController(viewManager, new AsyncBudgetDataService(dataService));
         controller.onBackClick(null);
         verify(viewManager).switchScene("welcome-view.fxml", "Budget Tuner");
     }
@@ -6,11 +6,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.SqlSequence;
 import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import com.detonomics.budgettuner.util.ViewManager;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +25,7 @@ import javafx.scene.chart.NumberAxis;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -34,6 +39,11 @@ class WelcomeControllerTest {
     @Mock
     private BudgetDataService dataService;
 
+    @BeforeEach
+    void deliverLoadsInline() {
+        AsyncTestSupport.deliverInline(viewManager);
+    }
+
     @BeforeAll
     static void initJfx() {
         try {
@@ -62,9 +72,11 @@ class WelcomeControllerTest {
                 when(dataService.loadStatistics()).thenReturn(stats);
 
                 Summary s1 = new Summary(1, "Προϋπολογισμός 2020", "EUR", "el", "2020", 2020, 100, 80, 20, 0);
-                when(dataService.loadAllSummaries()).thenReturn(List.of(s1));
+                BudgetYear b1 = new BudgetYear(s1, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                        new ArrayList<>());
+                when(dataService.loadAnalytics()).thenReturn(new BudgetAnalytics(BudgetSnapshot.of(List.of(b1))));
 
-                WelcomeController controller = new WelcomeController(viewManager, dataService);
+                WelcomeController controller = new WelcomeController(viewManager, AsyncTestSupport.inline(dataService));
 
                 // Inject FXML fields
                 ScrollPane scrollPane = new ScrollPane();
@@ -119,7 +131,7 @@ class WelcomeControllerTest {
 
     @Test
     void testNavigationMethods() throws Exception {
-        WelcomeController controller = new WelcomeController(viewManager, dataService);
+        WelcomeController controller = new WelcomeController(viewManager, AsyncTestSupport.inline(dataService));
 
         controller.onSelectBudgetClick(null);
         verify(viewManager).switchScene("budget-view.fxml", "Επιλογή Προϋπολογισμού");
@@ -0,0 +1,119 @@
+package com.detonomics.budgettuner.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.detonomics.budgettuner.util.DatabaseManager;
+
+public class AggregateMaintainerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+    private BudgetYearDao budgetYearDao;
+    private ExpenseCategoryDao expenseCategoryDao;
+    private MinistryDao ministryDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dbManager = new DatabaseManager(tempDir.resolve("aggregates.db").toAbsolutePath().toString());
+        SummaryDao summaryDao = new SummaryDao(dbManager);
+        RevenueCategoryDao revenueCategoryDao = new RevenueCategoryDao(dbManager);
+        expenseCategoryDao = new ExpenseCategoryDao(dbManager);
+        ministryDao = new MinistryDao(dbManager);
+        MinistryExpenseDao ministryExpenseDao = new MinistryExpenseDao(dbManager);
+        budgetYearDao = new BudgetYearDao(dbManager, summaryDao, revenueCategoryDao, expenseCategoryDao,
+                ministryDao, ministryExpenseDao);
+
+        dbManager.executeUpdate("CREATE TABLE Budgets (budget_id INTEGER PRIMARY KEY, source_title TEXT, "
+                + "budget_year INTEGER, total_revenue REAL, total_expenses REAL, budget_result REAL)");
+        dbManager.executeUpdate("CREATE TABLE RevenueCategories (revenue_category_id INTEGER PRIMARY KEY, "
+                + "code TEXT, name TEXT, amount REAL, parent_id INTEGER, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE ExpenseCategories (expense_category_id INTEGER PRIMARY KEY, "
+                + "code TEXT, name TEXT, amount REAL, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE Ministries (ministry_id INTEGER PRIMARY KEY, code TEXT, name TEXT, "
+                + "regular_budget REAL, public_investment_budget REAL, total_budget REAL, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE MinistryExpenses (ministry_expense_id INTEGER PRIMARY KEY, "
+                + "ministry_id INTEGER, expense_category_id INTEGER, amount REAL)");
+        dbManager.migrateSchema();
+
+        dbManager.executeUpdate("INSERT INTO Budgets VALUES (1, 'Test', 2025, 1000, 900, 100)");
+        dbManager.executeUpdate("INSERT INTO RevenueCategories VALUES (1, '11', 'Taxes', 1000, NULL, 1)");
+        dbManager.executeUpdate("INSERT INTO ExpenseCategories VALUES (1, '21', 'Salaries', 700, 1)");
+        // Public investment is part of the ministry total but has no expense line.
+        dbManager.executeUpdate("INSERT INTO Ministries VALUES (1, '1001', 'A', 700, 200, 900, 1)");
+        dbManager.executeUpdate("INSERT INTO MinistryExpenses VALUES (1, 1, 1, 700)");
+    }
+
+    private void applyLineEdit(final AggregateMaintainer maintainer, final long newAmount,
+            final long journalledDelta) throws Exception {
+        Function<java.sql.Connection, Integer> edit = conn -> {
+            AggregateJournal journal = maintainer.begin(conn, 1);
+            dbManager.executeUpdate(conn, "UPDATE MinistryExpenses SET amount = ? WHERE ministry_expense_id = 1",
+                    newAmount);
+            journal.addMinistryExpense(1, 1, journalledDelta);
+            journal.addRevenue(50);
+            dbManager.executeUpdate(conn, "UPDATE RevenueCategories SET amount = amount + 50");
+            maintainer.apply(conn, journal);
+            return 0;
+        };
+        dbManager.inTransaction(edit);
+    }
+
+    private long value(final String sql) {
+        return ((Number) dbManager.executeQuery(sql).getFirst().get("v")).longValue();
+    }
+
+    @Test
+    public void testApplyMovesEveryTotalByTheDeltas() throws Exception {
+        AggregateMaintainer maintainer = new AggregateMaintainer(dbManager, budgetYearDao, expenseCategoryDao,
+                ministryDao, false);
+
+        applyLineEdit(maintainer, 800, 100);
+
+        assertEquals(800L, value("SELECT amount AS v FROM ExpenseCategories"));
+        assertEquals(1000L, value("SELECT total_budget AS v FROM Ministries"));
+        assertEquals(800L, value("SELECT regular_budget AS v FROM Ministries"));
+        assertEquals(1050L, value("SELECT total_revenue AS v FROM Budgets"));
+        assertEquals(1000L, value("SELECT total_expenses AS v FROM Budgets"));
+        assertEquals(50L, value("SELECT budget_result AS v FROM Budgets"));
+    }
+
+    @Test
+    public void testVerificationAcceptsExactDeltasDespiteSourceDrift() throws Exception {
+        AggregateMaintainer maintainer = new AggregateMaintainer(dbManager, budgetYearDao, expenseCategoryDao,
+                ministryDao, true);
+        Map<String, Long> before = dbManager.inTransaction(conn -> {
+            return maintainer.drift(conn, 1);
+        });
+        assertEquals(200L, before.get("Ministries.total_budget#1"));
+
+        applyLineEdit(maintainer, 650, -50);
+
+        assertEquals(before, dbManager.inTransaction(conn -> {
+            return maintainer.drift(conn, 1);
+        }));
+    }
+
+    @Test
+    public void testVerificationRejectsWrongDeltasAndRollsBack() {
+        AggregateMaintainer maintainer = new AggregateMaintainer(dbManager, budgetYearDao, expenseCategoryDao,
+                ministryDao, true);
+
+        Exception ex = assertThrows(Exception.class, () -> applyLineEdit(maintainer, 800, 60));
+
+        assertTrue(ex.getMessage().contains("ExpenseCategories.amount#1"), ex.getMessage());
+        assertEquals(700L, value("SELECT amount AS v FROM MinistryExpenses"));
+        assertEquals(1000L, value("SELECT total_revenue AS v FROM Budgets"));
+    }
+}
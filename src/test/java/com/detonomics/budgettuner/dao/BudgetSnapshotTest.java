@@ -0,0 +1,87 @@
+package com.detonomics.budgettuner.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.MinistryExpense;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.Summary;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BudgetSnapshotTest {
+
+    private static BudgetYear budget(final int id, final int year, final List<RevenueCategory> revenues,
+            final List<ExpenseCategory> expenses, final List<Ministry> ministries,
+            final List<MinistryExpense> lines) {
+        Summary summary = new Summary(id, "Προϋπολογισμός " + year, "EUR", "el", year + "-01-01", year, 1000,
+                900, 100, 0);
+        return new BudgetYear(summary, new ArrayList<>(revenues), new ArrayList<>(expenses),
+                new ArrayList<>(ministries), new ArrayList<>(lines));
+    }
+
+    @Test
+    void testRowsAreGroupedByBudget() {
+        BudgetSnapshot snapshot = BudgetSnapshot.of(List.of(
+                budget(7, 2024, List.of(new RevenueCategory(1, 11, "Φόροι", 600, 0),
+                        new RevenueCategory(2, 111, "ΦΠΑ", 400, 1)), List.of(), List.of(), List.of()),
+                budget(3, 2023, List.of(new RevenueCategory(5, 11, "Φόροι", 500, 0)), List.of(), List.of(),
+                        List.of())));
+
+        assertEquals(2, snapshot.budgetCount());
+        assertEquals(0, snapshot.budgetRow(7));
+        assertEquals(1, snapshot.budgetRow(3));
+        assertEquals(-1, snapshot.budgetRow(99));
+        assertEquals(2023, snapshot.year(1));
+        assertEquals("Προϋπολογισμός 2023", snapshot.title(1));
+
+        assertEquals(0, snapshot.firstRow(AnalysisType.REVENUE, 0));
+        assertEquals(2, snapshot.endRow(AnalysisType.REVENUE, 0));
+        assertEquals(2, snapshot.firstRow(AnalysisType.REVENUE, 1));
+        assertEquals(3, snapshot.endRow(AnalysisType.REVENUE, 1));
+
+        int vat = snapshot.rowOf(AnalysisType.REVENUE, 0, 111);
+        assertEquals(400, snapshot.amount(AnalysisType.REVENUE, vat));
+        assertEquals("ΦΠΑ", snapshot.name(AnalysisType.REVENUE, vat));
+        assertFalse(snapshot.isTopLevel(AnalysisType.REVENUE, vat));
+        assertEquals(snapshot.rowOf(AnalysisType.REVENUE, 0, 11), snapshot.parentRow(vat));
+        assertEquals(-1, snapshot.rowOf(AnalysisType.REVENUE, 1, 111));
+        assertEquals(500, snapshot.amount(AnalysisType.REVENUE, snapshot.rowOf(AnalysisType.REVENUE, 1, 11)));
+
+        // Repeated names share one dictionary entry.
+        assertEquals(2, snapshot.dictionarySize());
+    }
+
+    @Test
+    void testMinistryExpenseLinesResolveToRows() {
+        BudgetSnapshot snapshot = BudgetSnapshot.of(List.of(
+                budget(1, 2024, List.of(), List.of(new ExpenseCategory(10, 21, "Παροχές", 70)),
+                        List.of(new Ministry(20, 1001, "Υπουργείο Υγείας", 70, 0, 70)),
+                        List.of(new MinistryExpense(30, 20, 10, 70), new MinistryExpense(31, 99, 10, 5)))));
+
+        assertEquals(1, snapshot.endLine(0) - snapshot.firstLine(0));
+        int line = snapshot.firstLine(0);
+        assertEquals("Υπουργείο Υγείας", snapshot.name(AnalysisType.MINISTRY, snapshot.lineMinistryRow(line)));
+        assertEquals(21, snapshot.code(AnalysisType.EXPENSE, snapshot.lineCategoryRow(line)));
+        assertEquals(70, snapshot.lineAmount(line));
+        assertTrue(snapshot.isTopLevel(AnalysisType.MINISTRY, snapshot.lineMinistryRow(line)));
+    }
+
+    @Test
+    void testBudgetWithoutRowsIsEmpty() {
+        BudgetSnapshot snapshot = BudgetSnapshot.of(List.of(
+                budget(1, 2023, List.of(), List.of(), List.of(), List.of()),
+                budget(2, 2024, List.of(), List.of(new ExpenseCategory(10, 21, "Παροχές", 70)), List.of(),
+                        List.of())));
+
+        assertEquals(snapshot.firstRow(AnalysisType.EXPENSE, 0), snapshot.endRow(AnalysisType.EXPENSE, 0));
+        assertEquals(1, snapshot.endRow(AnalysisType.EXPENSE, 1) - snapshot.firstRow(AnalysisType.EXPENSE, 1));
+        assertEquals(-1, snapshot.rowOf(AnalysisType.EXPENSE, 0, 21));
+    }
+}
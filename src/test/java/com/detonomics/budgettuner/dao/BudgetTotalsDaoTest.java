@@ -1,5 +1,6 @@
 package com.detonomics.budgettuner.dao;
 
+import com.detonomics.budgettuner.model.AnalysisType;
 import com.detonomics.budgettuner.model.BudgetTotals;
 import com.detonomics.budgettuner.util.DatabaseManager;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.sql.Statement;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -82,4 +84,43 @@ class BudgetTotalsDaoTest {
         assertNotNull(totals);
         assertEquals(0, totals.size());
     }
+
+    @Test
+    void testStreamAllBudgetTotals() {
+        try (Stream<BudgetTotals> totals = budgetTotalsDao.streamAllBudgetTotals()) {
+            assertEquals(List.of(2023, 2024), totals.map(BudgetTotals::year).toList());
+        }
+    }
+
+    @Test
+    void testLoadSnapshot() throws Exception {
+        dbManager.executeUpdate("CREATE TABLE RevenueCategories (revenue_category_id INTEGER PRIMARY KEY, "
+                + "code TEXT, name TEXT, amount REAL, parent_id INTEGER, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE ExpenseCategories (expense_category_id INTEGER PRIMARY KEY, "
+                + "code TEXT, name TEXT, amount REAL, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE Ministries (ministry_id INTEGER PRIMARY KEY, code TEXT, name TEXT, "
+                + "regular_budget REAL, public_investment_budget REAL, total_budget REAL, budget_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE MinistryExpenses (ministry_expense_id INTEGER PRIMARY KEY, "
+                + "ministry_id INTEGER, expense_category_id INTEGER, amount REAL)");
+        dbManager.executeUpdate("INSERT INTO RevenueCategories VALUES (1, '11', 'Taxes', 1200, NULL, 2)");
+        dbManager.executeUpdate("INSERT INTO RevenueCategories VALUES (2, '111', 'VAT', 700, 1, 2)");
+        dbManager.executeUpdate("INSERT INTO ExpenseCategories VALUES (1, '21', 'Salaries', 800, 1)");
+        dbManager.executeUpdate("INSERT INTO Ministries VALUES (1, '1001', 'Health', 800, 0, 800, 1)");
+        dbManager.executeUpdate("INSERT INTO MinistryExpenses VALUES (1, 1, 1, 800)");
+
+        BudgetSnapshot snapshot = budgetTotalsDao.loadSnapshot();
+
+        assertEquals(2, snapshot.budgetCount());
+        assertEquals(2023, snapshot.year(snapshot.budgetRow(1)));
+        assertEquals(-100, snapshot.budgetResult(snapshot.budgetRow(2)));
+
+        int b2024 = snapshot.budgetRow(2);
+        int vat = snapshot.rowOf(AnalysisType.REVENUE, b2024, 111);
+        assertEquals("VAT", snapshot.name(AnalysisType.REVENUE, vat));
+        assertEquals(snapshot.rowOf(AnalysisType.REVENUE, b2024, 11), snapshot.parentRow(vat));
+
+        int b2023 = snapshot.budgetRow(1);
+        assertEquals(1, snapshot.endLine(b2023) - snapshot.firstLine(b2023));
+        assertEquals(800, snapshot.amount(AnalysisType.MINISTRY, snapshot.rowOf(AnalysisType.MINISTRY, b2023, 1001)));
+    }
 }
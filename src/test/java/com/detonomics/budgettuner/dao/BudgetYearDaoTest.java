@@ -120,4 +120,42 @@ class BudgetYearDaoTest {
                 assertEquals(1, budget.getMinistries().size());
                 assertEquals(1, budget.getMinistryExpenses().size());
         }
+
+        @Test
+        void testLoadBudgetYearsByID() {
+                dbManager.executeUpdate(
+                                "CREATE TABLE IF NOT EXISTS Budgets (budget_id INTEGER PRIMARY KEY AUTOINCREMENT, source_title TEXT, currency TEXT, locale TEXT, source_date TEXT, budget_year INTEGER, total_revenue REAL, total_expenses REAL, coverage_with_cash_reserves REAL)");
+                dbManager.executeUpdate(
+                                "CREATE TABLE IF NOT EXISTS RevenueCategories (revenue_category_id INTEGER PRIMARY KEY, code TEXT, name TEXT, amount INTEGER, parent_id INTEGER, budget_id INTEGER)");
+                dbManager.executeUpdate(
+                                "CREATE TABLE IF NOT EXISTS ExpenseCategories (expense_category_id INTEGER PRIMARY KEY, code TEXT, name TEXT, amount INTEGER, budget_id INTEGER)");
+                dbManager.executeUpdate(
+                                "CREATE TABLE IF NOT EXISTS Ministries (ministry_id INTEGER PRIMARY KEY, code TEXT, name TEXT, regular_budget INTEGER, public_investment_budget INTEGER, total_budget INTEGER, budget_id INTEGER)");
+                dbManager.executeUpdate(
+                                "CREATE TABLE IF NOT EXISTS MinistryExpenses (ministry_expense_id INTEGER PRIMARY KEY, ministry_id INTEGER, expense_category_id INTEGER, amount INTEGER)");
+
+                for (int id = 1; id <= 2; id++) {
+                        dbManager.executeUpdate("INSERT INTO Budgets (budget_id, budget_year, total_revenue, total_expenses) VALUES (?, ?, 100, 100)",
+                                        id, 2024 + id);
+                        dbManager.executeUpdate("INSERT INTO RevenueCategories (code, name, amount, budget_id) VALUES ('1000', 'Rev', 50, ?)", id);
+                        dbManager.executeUpdate("INSERT INTO RevenueCategories (code, name, amount, budget_id) VALUES ('1100', 'Rev child', 50, ?)", id);
+                        dbManager.executeUpdate("INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) VALUES (?, '2000', 'Exp', 50, ?)", id, id);
+                        dbManager.executeUpdate("INSERT INTO Ministries (ministry_id, code, name, budget_id) VALUES (?, '3000', 'Min', ?)", id, id);
+                        dbManager.executeUpdate("INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) VALUES (?, ?, 10)", id, id);
+                }
+
+                var budgets = budgetYearDao.loadBudgetYearsByID(java.util.List.of(2, 99, 1));
+
+                assertEquals(java.util.List.of(2, 1), new ArrayList<>(budgets.keySet()));
+                for (var entry : budgets.entrySet()) {
+                        var bulk = entry.getValue();
+                        assertEquals(entry.getKey(), bulk.getSummary().getBudgetID());
+                        assertEquals(2, bulk.getRevenues().size());
+                        assertEquals(1, bulk.getExpenses().size());
+                        assertEquals(1, bulk.getMinistries().size());
+                        assertEquals(1, bulk.getMinistryExpenses().size());
+                        assertEquals(entry.getKey(), bulk.getMinistryExpenses().get(0).getMinistryID());
+                }
+                assertTrue(budgetYearDao.loadBudgetYearsByID(java.util.List.of()).isEmpty());
+        }
 }
@@ -22,7 +22,7 @@ public class ExpenseCategoryDaoTest {
     private ExpenseCategoryDao expenseCategoryDao;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws Exception {
         dbPath = tempDir.resolve("test_expenses_" + System.nanoTime() + ".db").toAbsolutePath().toString();
         dbManager = new DatabaseManager(dbPath);
         expenseCategoryDao = new ExpenseCategoryDao(dbManager);
@@ -38,6 +38,7 @@ public class ExpenseCategoryDaoTest {
                 )
                 """;
         dbManager.executeUpdate(createTableSql);
+        dbManager.migrateSchema();
     }
 
     @AfterEach
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.detonomics.budgettuner.model.RevenueCategory;
 import com.detonomics.budgettuner.util.DatabaseManager;
@@ -23,7 +25,7 @@ class RevenueCategoryDaoTest {
         private RevenueCategoryDao revenueCategoryDao;
 
         @BeforeEach
-        void setUp() {
+        void setUp() throws Exception {
                 dbPath = tempDir.resolve("test_modifier_" + System.nanoTime() + ".db").toAbsolutePath().toString();
                 dbManager = new DatabaseManager(dbPath);
                 revenueCategoryDao = new RevenueCategoryDao(dbManager);
@@ -33,6 +35,7 @@ class RevenueCategoryDaoTest {
                                 "revenue_category_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
                                 "code TEXT, name TEXT, amount INTEGER, parent_id INTEGER, budget_id INTEGER)";
                 dbManager.executeUpdate(createRevenue);
+                dbManager.migrateSchema();
         }
 
         @AfterEach
@@ -67,6 +70,31 @@ class RevenueCategoryDaoTest {
                 assertEquals(200L, parentAmount, "Parent amount should be updated recursively");
         }
 
+        @Test
+        void testSetRevenueAmountsWritesOnlyChangedRows() throws Exception {
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (1, '1000', 'Root', 300, 0, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (2, '1001', 'A', 100, 1, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (3, '1002', 'B', 200, 1, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (4, '1003', 'B1', 200, 3, 1)");
+
+                Map<Long, Long> edits = new LinkedHashMap<>();
+                edits.put(1001L, 150L);
+                edits.put(1002L, 100L);
+                java.util.function.Function<java.sql.Connection, Integer> update =
+                                conn -> revenueCategoryDao.setRevenueAmounts(conn, 1, edits);
+                int rows = dbManager.inTransaction(update);
+
+                assertEquals(4, rows);
+                assertEquals(250L, revenueCategoryDao.loadRevenueAmount(1));
+                assertEquals(150L, revenueCategoryDao.loadRevenueAmount(2));
+                assertEquals(100L, revenueCategoryDao.loadRevenueAmount(3));
+                assertEquals(100L, revenueCategoryDao.loadRevenueAmount(4));
+        }
+
         @Test
         void testCloneRevenueCategories() {
                 // Insert Source Data (Budget 1)
@@ -0,0 +1,160 @@
+package com.detonomics.budgettuner.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.detonomics.budgettuner.model.RevenueCategory;
+
+public class RevenueTreeTest {
+
+    private static List<RevenueCategory> sampleTree() {
+        // 1 -> (2 -> (4, 5), 3)
+        return List.of(
+                new RevenueCategory(1, 10L, "Root", 1000, 0),
+                new RevenueCategory(2, 11L, "A", 600, 1),
+                new RevenueCategory(3, 12L, "B", 400, 1),
+                new RevenueCategory(4, 111L, "A1", 333, 2),
+                new RevenueCategory(5, 112L, "A2", 267, 2));
+    }
+
+    @Test
+    public void testSetAmountMovesAncestorsAndRescalesDescendants() {
+        RevenueTree tree = RevenueTree.of(sampleTree());
+
+        tree.setAmount(11L, 300L);
+
+        assertEquals(300L, tree.amountOf(11L));
+        assertEquals(700L, tree.amountOf(10L));
+        assertEquals(400L, tree.amountOf(12L));
+        assertEquals(Math.round(333 * 0.5), tree.amountOf(111L));
+        assertEquals(Math.round(267 * 0.5), tree.amountOf(112L));
+    }
+
+    @Test
+    public void testChangesListOnlyModifiedRows() {
+        RevenueTree tree = RevenueTree.of(sampleTree());
+
+        tree.setAmount(12L, 500L);
+
+        List<RevenueTree.Change> changes = tree.changes();
+        assertEquals(2, changes.size());
+        assertEquals(new RevenueTree.Change(1, 10L, 1000, 1100), changes.get(0));
+        assertEquals(new RevenueTree.Change(3, 12L, 400, 500), changes.get(1));
+    }
+
+    @Test
+    public void testZeroAmountStopsRescaling() {
+        RevenueTree tree = RevenueTree.of(sampleTree());
+
+        tree.setAmount(11L, 0L);
+        tree.setAmount(11L, 600L);
+
+        assertEquals(0L, tree.amountOf(111L));
+        assertEquals(0L, tree.amountOf(112L));
+        assertEquals(1000L, tree.amountOf(10L));
+    }
+
+    @Test
+    public void testUnknownCodeRejectsWholeBatch() {
+        RevenueTree tree = RevenueTree.of(sampleTree());
+        Map<Long, Long> edits = new LinkedHashMap<>();
+        edits.put(11L, 100L);
+        edits.put(999L, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> tree.setAmounts(edits));
+        assertTrue(tree.changes().isEmpty());
+    }
+
+    @Test
+    public void testMatchesRecursivePropagationOnRandomTrees() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            List<RevenueCategory> rows = new ArrayList<>();
+            int size = 2 + random.nextInt(60);
+            for (int id = 1; id <= size; id++) {
+                int parent = id == 1 || random.nextInt(6) == 0 ? 0 : 1 + random.nextInt(id - 1);
+                long amount = random.nextInt(8) == 0 ? 0 : random.nextInt(1_000_000);
+                rows.add(new RevenueCategory(id, 1000L + id, "C" + id, amount, parent));
+            }
+            Map<Long, Long> edits = new LinkedHashMap<>();
+            for (int i = 0; i < 10; i++) {
+                edits.put(1000L + 1 + random.nextInt(size), (long) random.nextInt(2_000_000));
+            }
+
+            RevenueTree tree = RevenueTree.of(rows);
+            tree.setAmounts(edits);
+            Map<Integer, Long> expected = recursiveReference(rows, edits);
+            for (RevenueCategory row : rows) {
+                assertEquals(expected.get(row.getRevenueID()), tree.amountOf(row.getCode()),
+                        "round " + round + ", category " + row.getRevenueID());
+            }
+        }
+    }
+
+    /*
+     * Row-by-row propagation as RevenueCategoryDao used to run it in SQL: one
+     * lookup and update per ancestor and per descendant.
+     */
+    private static Map<Integer, Long> recursiveReference(final List<RevenueCategory> rows,
+            final Map<Long, Long> edits) {
+        Map<Integer, Long> amounts = new HashMap<>();
+        Map<Integer, Integer> parents = new HashMap<>();
+        Map<Long, Integer> ids = new HashMap<>();
+        for (RevenueCategory row : rows) {
+            amounts.put(row.getRevenueID(), row.getAmount());
+            parents.put(row.getRevenueID(), row.getParentID());
+            ids.putIfAbsent(row.getCode(), row.getRevenueID());
+        }
+        for (Map.Entry<Long, Long> edit : edits.entrySet()) {
+            int id = ids.get(edit.getKey());
+            long oldAmount = amounts.get(id);
+            long amount = edit.getValue();
+            if (oldAmount == amount) {
+                continue;
+            }
+            amounts.put(id, amount);
+            for (int parent = parents.get(id); parent != 0; parent = parents.get(parent)) {
+                amounts.put(parent, amounts.get(parent) + amount - oldAmount);
+            }
+            rescale(rows, amounts, id, oldAmount, amount);
+        }
+        return amounts;
+    }
+
+    private static void rescale(final List<RevenueCategory> rows, final Map<Integer, Long> amounts,
+            final int id, final long oldAmount, final long newAmount) {
+        if (oldAmount == 0) {
+            return;
+        }
+        double ratio = (double) newAmount / oldAmount;
+        for (RevenueCategory row : rows) {
+            if (row.getParentID() == id) {
+                long oldChild = amounts.get(row.getRevenueID());
+                long newChild = Math.round(oldChild * ratio);
+                amounts.put(row.getRevenueID(), newChild);
+                rescale(rows, amounts, row.getRevenueID(), oldChild, newChild);
+            }
+        }
+    }
+
+    @Test
+    public void testTopLevelDeltaCountsOnlyRoots() {
+        RevenueTree tree = RevenueTree.of(sampleTree());
+
+        tree.setAmount(111L, 433L);
+        tree.setAmount(12L, 350L);
+
+        assertEquals(50L, tree.topLevelDelta());
+        assertEquals(1050L, tree.amountOf(10L));
+    }
+}
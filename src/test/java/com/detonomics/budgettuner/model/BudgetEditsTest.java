@@ -0,0 +1,39 @@
+package com.detonomics.budgettuner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BudgetEditsTest {
+
+    @Test
+    public void testKeepsEditsInRecordingOrder() {
+        BudgetEdits edits = new BudgetEdits();
+        assertTrue(edits.isEmpty());
+
+        for (int i = 0; i < 40; i++) {
+            edits.setRevenue(100 + i, i * 10L);
+            edits.setMinistryExpense(1000 + i, 20 + i, i * 5L);
+        }
+
+        assertFalse(edits.isEmpty());
+        assertEquals(40, edits.revenueCount());
+        assertEquals(40, edits.ministryExpenseCount());
+        assertEquals(139L, edits.revenueCode(39));
+        assertEquals(390L, edits.revenueAmount(39));
+        assertEquals(1017L, edits.ministryCode(17));
+        assertEquals(37L, edits.expenseCategoryCode(17));
+        assertEquals(85L, edits.ministryExpenseAmount(17));
+    }
+
+    @Test
+    public void testRejectsIndexPastCount() {
+        BudgetEdits edits = new BudgetEdits().setRevenue(1, 2);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> edits.revenueCode(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> edits.ministryCode(0));
+    }
+}
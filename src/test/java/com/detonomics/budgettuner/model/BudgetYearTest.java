@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class BudgetYearTest {
 
@@ -22,4 +23,40 @@ public class BudgetYearTest {
         assertEquals(mins, by.getMinistries());
         assertEquals(mes, by.getMinistryExpenses());
     }
+
+    @Test
+    public void listsAreUnmodifiableViews() {
+        ArrayList<ExpenseCategory> exps = new ArrayList<>(List.of(new ExpenseCategory(1, 21L, "Salaries", 10L)));
+        BudgetYear by = new BudgetYear(null, new ArrayList<>(), exps, new ArrayList<>(), new ArrayList<>());
+
+        exps.clear();
+        assertEquals(1, by.getExpenses().size());
+        assertSame(by.getExpenses(), by.getExpenses());
+        assertThrows(UnsupportedOperationException.class, () -> by.getExpenses().clear());
+    }
+
+    @Test
+    public void indexesGroupAndLookUpByID() {
+        RevenueCategory root = new RevenueCategory(1, 11L, "Taxes", 30L, 0);
+        RevenueCategory vat = new RevenueCategory(2, 111L, "VAT", 20L, 1);
+        RevenueCategory income = new RevenueCategory(3, 112L, "Income", 10L, 1);
+        ExpenseCategory salaries = new ExpenseCategory(7, 21L, "Salaries", 15L);
+        Ministry ministry = new Ministry(5, 1001L, "Ministry", 15L, 0L, 15L);
+        MinistryExpense line1 = new MinistryExpense(1, 5, 7, 10L);
+        MinistryExpense line2 = new MinistryExpense(2, 5, 7, 5L);
+        MinistryExpense other = new MinistryExpense(3, 6, 7, 1L);
+
+        BudgetYear by = new BudgetYear(null, List.of(root, vat, income), List.of(salaries), List.of(ministry),
+                List.of(line1, other, line2));
+
+        assertEquals(List.of(root), by.getRevenueRoots());
+        assertEquals(List.of(vat, income), by.getRevenueChildren(1));
+        assertTrue(by.getRevenueChildren(2).isEmpty());
+        assertSame(salaries, by.getExpenseCategory(7));
+        assertNull(by.getExpenseCategory(8));
+        assertSame(ministry, by.getMinistry(5));
+        assertEquals(List.of(line1, line2), by.getMinistryExpenses(5));
+        assertTrue(by.getMinistryExpenses(9).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> by.getMinistryExpenses(5).clear());
+    }
 }
@@ -0,0 +1,169 @@
+package com.detonomics.budgettuner.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.detonomics.budgettuner.model.BudgetEdits;
+import com.detonomics.budgettuner.model.Summary;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncBudgetDataServiceTest {
+
+    private BudgetDataService dataService;
+    private Queue<Runnable> queued;
+    private AsyncBudgetDataService async;
+
+    @BeforeEach
+    void setUp() {
+        dataService = mock(BudgetDataService.class);
+        queued = new ArrayDeque<>();
+        // Tasks run only when the test drains the queue.
+        Executor manual = queued::add;
+        async = new AsyncBudgetDataService(dataService, manual);
+    }
+
+    private void runQueued() {
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+    }
+
+    @Test
+    void testIdenticalReadsInFlightAreCoalesced() throws Exception {
+        List<Summary> summaries = List.of(new Summary(1, "Προϋπολογισμός 2024", "EUR", "el", "2024-01-01", 2024,
+                10, 8, 2, 0));
+        when(dataService.loadAllSummaries()).thenReturn(summaries);
+
+        CompletableFuture<List<Summary>> first = async.loadAllSummaries();
+        CompletableFuture<List<Summary>> second = async.loadAllSummaries();
+        assertEquals(1, queued.size());
+        runQueued();
+
+        assertSame(summaries, first.get());
+        assertSame(summaries, second.get());
+        assertEquals(1, async.coalescedReads());
+        verify(dataService, times(1)).loadAllSummaries();
+
+        // A read after completion is a new call.
+        async.loadAllSummaries();
+        runQueued();
+        verify(dataService, times(2)).loadAllSummaries();
+    }
+
+    @Test
+    void testCancellingEveryCallerSkipsTheCall() {
+        CompletableFuture<List<Summary>> first = async.loadAllSummaries();
+        CompletableFuture<List<Summary>> second = async.loadAllSummaries();
+
+        first.cancel(false);
+        assertFalse(second.isDone());
+        second.cancel(false);
+        runQueued();
+
+        verify(dataService, never()).loadAllSummaries();
+    }
+
+    @Test
+    void testFailuresReachEveryCaller() {
+        when(dataService.loadBudgetYear(7)).thenThrow(new IllegalStateException("missing"));
+
+        CompletableFuture<?> first = async.loadBudgetYear(7);
+        CompletableFuture<?> second = async.loadBudgetYear(7);
+        runQueued();
+
+        ExecutionException error = assertThrows(ExecutionException.class, first::get);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    void testErrorsCompleteTheReadAndReleaseTheKey() throws Exception {
+        when(dataService.loadBudgetYear(7)).thenThrow(new UnsatisfiedLinkError("no sqlite")).thenReturn(null);
+
+        CompletableFuture<?> first = async.loadBudgetYear(7);
+        runQueued();
+        ExecutionException error = assertThrows(ExecutionException.class, first::get);
+        assertTrue(error.getCause() instanceof UnsatisfiedLinkError);
+
+        CompletableFuture<?> retry = async.loadBudgetYear(7);
+        assertEquals(1, queued.size());
+        runQueued();
+        assertTrue(retry.isDone());
+        verify(dataService, times(2)).loadBudgetYear(7);
+    }
+
+    @Test
+    void testReadsAfterAWriteDoNotJoinEarlierReads() {
+        CompletableFuture<List<Summary>> before = async.loadAllSummaries();
+        CompletableFuture<Void> delete = async.deleteBudget(3);
+        // Run the delete first; the earlier read is still queued.
+        Runnable read = queued.poll();
+        queued.poll().run();
+        assertTrue(delete.isDone());
+
+        CompletableFuture<List<Summary>> after = async.loadAllSummaries();
+        read.run();
+        assertTrue(before.isDone());
+        assertFalse(after.isDone());
+        runQueued();
+
+        verify(dataService).deleteBudget(3);
+        verify(dataService, times(2)).loadAllSummaries();
+    }
+
+    @Test
+    void testScenarioSaveIsAWrite() throws Exception {
+        BudgetModificationService modificationService = mock(BudgetModificationService.class);
+        BudgetEdits edits = new BudgetEdits();
+        when(modificationService.cloneBudgetWithEdits(1, "Σενάριο", edits)).thenReturn(4);
+
+        CompletableFuture<List<Summary>> before = async.loadAllSummaries();
+        CompletableFuture<Integer> save = async.cloneBudgetWithEdits(modificationService, 1, "Σενάριο", edits);
+        Runnable read = queued.poll();
+        queued.poll().run();
+        assertEquals(4, save.get());
+
+        CompletableFuture<List<Summary>> after = async.loadAllSummaries();
+        read.run();
+        assertTrue(before.isDone());
+        assertFalse(after.isDone());
+        runQueued();
+
+        verify(dataService, times(2)).loadAllSummaries();
+    }
+
+    @Test
+    void testLazyServiceIsResolvedOnceOnTheWorker() throws Exception {
+        int[] resolved = new int[1];
+        AsyncBudgetDataService lazy = new AsyncBudgetDataService(() -> {
+            resolved[0]++;
+            return dataService;
+        }, queued::add);
+        when(dataService.loadBudgetYears()).thenReturn(new ArrayList<>(List.of(2024)));
+
+        CompletableFuture<ArrayList<Integer>> years = lazy.loadBudgetYears();
+        assertEquals(0, resolved[0]);
+        runQueued();
+        lazy.loadStatistics();
+        runQueued();
+
+        assertEquals(List.of(2024), years.get());
+        assertEquals(1, resolved[0]);
+    }
+}
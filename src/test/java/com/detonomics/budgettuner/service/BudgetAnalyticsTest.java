@@ -0,0 +1,125 @@
+package com.detonomics.budgettuner.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Ministry;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.Summary;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BudgetAnalyticsTest {
+
+    private BudgetAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        BudgetYear b2023 = new BudgetYear(
+                new Summary(1, "Προϋπολογισμός 2023", "EUR", "el", "2023-01-01", 2023, 1000, 800, 200, 0),
+                new ArrayList<>(List.of(new RevenueCategory(1, 11, "Φόροι", 600, 0),
+                        new RevenueCategory(2, 111, "ΦΠΑ", 400, 1),
+                        new RevenueCategory(3, 15, "Δάνεια", 400, 0))),
+                new ArrayList<>(List.of(new ExpenseCategory(1, 21, "Παροχές", 500),
+                        new ExpenseCategory(2, 22, "Τόκοι", 300))),
+                new ArrayList<>(List.of(new Ministry(1, 1001, "Υγείας", 800, 0, 800))), new ArrayList<>());
+        BudgetYear b2024 = new BudgetYear(
+                new Summary(2, "Προϋπολογισμός 2024", "EUR", "el", "2024-01-01", 2024, 1100, 1000, 100, 0),
+                new ArrayList<>(List.of(new RevenueCategory(4, 11, "Φόροι", 750, 0),
+                        new RevenueCategory(5, 13, "Μεταβιβάσεις", 350, 0))),
+                new ArrayList<>(List.of(new ExpenseCategory(3, 21, "Παροχές", 600),
+                        new ExpenseCategory(4, 22, "Τόκοι", 400))),
+                new ArrayList<>(List.of(new Ministry(2, 1001, "Υγείας", 1000, 0, 1000))), new ArrayList<>());
+        analytics = new BudgetAnalytics(BudgetSnapshot.of(List.of(b2023, b2024)));
+    }
+
+    @Test
+    void testCompareMatchesTopLevelCodes() {
+        List<BudgetAnalytics.LineComparison> lines = analytics.compare(AnalysisType.REVENUE, 1, 2);
+
+        assertEquals(List.of(11L, 13L, 15L), lines.stream().map(BudgetAnalytics.LineComparison::code).toList());
+        BudgetAnalytics.LineComparison taxes = lines.get(0);
+        assertEquals(600, taxes.firstAmount());
+        assertEquals(750, taxes.secondAmount());
+        assertEquals(150, taxes.difference());
+        assertEquals(25.0, taxes.percentChange().getAsDouble(), 1e-9);
+
+        BudgetAnalytics.LineComparison transfers = lines.get(1);
+        assertFalse(transfers.inFirst());
+        assertTrue(transfers.inSecond());
+        assertEquals("Μεταβιβάσεις", transfers.name());
+        assertTrue(transfers.percentChange().isEmpty());
+    }
+
+    @Test
+    void testCompareWithMissingBudgetListsOneSide() {
+        List<BudgetAnalytics.LineComparison> lines = analytics.compare(AnalysisType.MINISTRY, 1, 99);
+
+        assertEquals(1, lines.size());
+        assertEquals(800, lines.get(0).firstAmount());
+        assertFalse(lines.get(0).inSecond());
+    }
+
+    @Test
+    void testTopRanksLinesWithShares() {
+        List<BudgetAnalytics.Line> top = analytics.top(AnalysisType.EXPENSE, 2, 1);
+
+        assertEquals(1, top.size());
+        assertEquals("Παροχές", top.get(0).name());
+        assertEquals(0.6, top.get(0).share(), 1e-9);
+        assertEquals(List.of(600L, 400L),
+                analytics.ranked(AnalysisType.EXPENSE, 2).stream().map(BudgetAnalytics.Line::amount).toList());
+        assertTrue(analytics.top(AnalysisType.EXPENSE, 99, 5).isEmpty());
+    }
+
+    @Test
+    void testCompareAllLinesIncludesSubCategories() {
+        List<BudgetAnalytics.LineComparison> lines = analytics.compareAllLines(AnalysisType.REVENUE, 1, 2);
+
+        assertEquals(List.of(11L, 13L, 15L, 111L),
+                lines.stream().map(BudgetAnalytics.LineComparison::code).toList());
+        assertEquals(400, lines.get(3).firstAmount());
+        assertFalse(lines.get(3).inSecond());
+    }
+
+    @Test
+    void testRankedIsStableAcrossManyLines() {
+        ArrayList<ExpenseCategory> expenses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            expenses.add(new ExpenseCategory(i + 1, 1000 + i, "Κατηγορία " + i, (i * 37) % 50));
+        }
+        BudgetYear budget = new BudgetYear(
+                new Summary(3, "Προϋπολογισμός 2025", "EUR", "el", "2025-01-01", 2025, 0, 0, 0, 0),
+                new ArrayList<>(), expenses, new ArrayList<>(), new ArrayList<>());
+        BudgetAnalytics many = new BudgetAnalytics(BudgetSnapshot.of(List.of(budget)));
+
+        List<BudgetAnalytics.Line> ranked = many.ranked(AnalysisType.EXPENSE, 3);
+
+        assertEquals(200, ranked.size());
+        for (int i = 1; i < ranked.size(); i++) {
+            BudgetAnalytics.Line previous = ranked.get(i - 1);
+            BudgetAnalytics.Line line = ranked.get(i);
+            assertTrue(previous.amount() > line.amount()
+                    || previous.amount() == line.amount() && previous.code() < line.code());
+        }
+    }
+
+    @Test
+    void testGrowthRates() {
+        assertEquals(2, analytics.findBudgetID(2024, "Προϋπολογισμός 2024"));
+        assertEquals(-1, analytics.findBudgetID(2025, "Προϋπολογισμός 2025"));
+        assertEquals(1000, analytics.budgetTotal(AnalysisType.MINISTRY, 2));
+        assertEquals(10.0, analytics.growthRate(AnalysisType.REVENUE, 1, 2).getAsDouble(), 1e-9);
+        assertEquals(25.0, analytics.growthRate(AnalysisType.EXPENSE, 1, 2).getAsDouble(), 1e-9);
+        assertTrue(analytics.growthRate(AnalysisType.EXPENSE, 1, 99).isEmpty());
+        assertEquals(100.0 / 3, analytics.lineGrowthRate(AnalysisType.EXPENSE, 22, 1, 2).getAsDouble(), 1e-9);
+        assertTrue(analytics.lineGrowthRate(AnalysisType.REVENUE, 13, 1, 2).isEmpty());
+    }
+}
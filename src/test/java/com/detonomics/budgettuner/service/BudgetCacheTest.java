@@ -0,0 +1,159 @@
+package com.detonomics.budgettuner.service;
+
+import com.detonomics.budgettuner.model.BudgetTotals;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.MinistryExpense;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.Summary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetCacheTest {
+
+    private static BudgetYear budget(final int id, final int revenueRows) {
+        Summary summary = new Summary(id, "T" + id, "EUR", "el", "2025", 2020 + id, 0, 0, 0, 0);
+        ArrayList<RevenueCategory> revenues = new ArrayList<>();
+        for (int i = 0; i < revenueRows; i++) {
+            revenues.add(new RevenueCategory(i, 1000 + i, "R", 1, 0));
+        }
+        ArrayList<MinistryExpense> ministryExpenses = new ArrayList<>();
+        ministryExpenses.add(new MinistryExpense(id * 100, id, id, 5));
+        return new BudgetYear(summary, revenues, new ArrayList<>(), new ArrayList<>(), ministryExpenses);
+    }
+
+    @Test
+    void testReadThroughCountsHitsAndMisses() {
+        BudgetCache cache = new BudgetCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        BudgetYear first = cache.getBudgetYear(1, id -> {
+            loads.incrementAndGet();
+            return budget(id, 3);
+        });
+        BudgetYear second = cache.getBudgetYear(1, id -> fail("Should be served from cache"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        BudgetCacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(5, stats.weight(), "Summary, three revenues and one ministry expense");
+    }
+
+    @Test
+    void testMissingBudgetIsNotCached() {
+        BudgetCache cache = new BudgetCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.getBudgetYear(7, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.getBudgetYear(7, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().budgets());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedByWeight() {
+        BudgetCache cache = new BudgetCache(25);
+        cache.getBudgetYear(1, id -> budget(id, 8)); // weight 10
+        cache.getBudgetYear(2, id -> budget(id, 8));
+        cache.getBudgetYear(1, id -> fail("Cached")); // 1 becomes most recent
+        cache.getBudgetYear(3, id -> budget(id, 8)); // pushes total to 30
+
+        assertNotNull(cache.peekBudgetYear(1));
+        assertNull(cache.peekBudgetYear(2), "Least recently used budget is evicted");
+        assertNotNull(cache.peekBudgetYear(3));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(20, cache.stats().weight());
+    }
+
+    @Test
+    void testOversizedBudgetIsServedButNotCached() {
+        BudgetCache cache = new BudgetCache(5);
+        assertNotNull(cache.getBudgetYear(1, id -> budget(id, 10)));
+        assertEquals(0, cache.stats().budgets());
+    }
+
+    @Test
+    void testBulkLookupLoadsOnlyMisses() {
+        BudgetCache cache = new BudgetCache();
+        cache.getBudgetYear(2, id -> budget(id, 1));
+        List<List<Integer>> requested = new ArrayList<>();
+
+        Map<Integer, BudgetYear> result = cache.getBudgetYears(List.of(3, 2, 99, 1), ids -> {
+            requested.add(ids);
+            Map<Integer, BudgetYear> loaded = new HashMap<>();
+            for (int id : ids) {
+                if (id != 99) {
+                    loaded.put(id, budget(id, 1));
+                }
+            }
+            return loaded;
+        });
+
+        assertEquals(List.of(List.of(3, 99, 1)), requested);
+        assertEquals(List.of(3, 2, 1), new ArrayList<>(result.keySet()));
+        assertNotNull(cache.peekBudgetYear(3));
+    }
+
+    @Test
+    void testInvalidationScopes() {
+        BudgetCache cache = new BudgetCache();
+        cache.getBudgetYear(1, id -> budget(id, 1));
+        cache.getBudgetYear(2, id -> budget(id, 1));
+        List<Summary> summaries = cache.getSummaries(() -> List.of(budget(1, 0).getSummary()));
+        cache.getBudgetTotals(() -> List.of(new BudgetTotals(2021, 1, 1, 0)));
+
+        cache.invalidateBudgetContents(1);
+        assertNull(cache.peekBudgetYear(1));
+        assertNotNull(cache.peekBudgetYear(2));
+        assertSame(summaries, cache.getSummaries(() -> fail("Header did not change")));
+
+        cache.invalidateBudget(2);
+        assertNull(cache.peekBudgetYear(2));
+        assertTrue(cache.getSummaries(List::of).isEmpty());
+        assertTrue(cache.getBudgetTotals(List::of).isEmpty());
+
+        cache.getBudgetYear(3, id -> budget(id, 1));
+        cache.invalidateBudgetsWhere(b -> b.getMinistryExpenses().get(0).getMinistryExpenseID() == 300);
+        assertNull(cache.peekBudgetYear(3));
+        assertEquals(0, cache.stats().weight());
+    }
+
+    @Test
+    void testLoadRacingAnInvalidationIsNotCached() {
+        BudgetCache cache = new BudgetCache();
+
+        BudgetYear stale = cache.getBudgetYear(1, id -> {
+            // A writer commits while this read is still in flight.
+            cache.invalidateBudget(id);
+            return budget(id, 1);
+        });
+
+        assertNotNull(stale);
+        assertNull(cache.peekBudgetYear(1), "Pre-write state must not be cached");
+    }
+
+    @Test
+    void testPeekSummaryUsesCachedList() {
+        BudgetCache cache = new BudgetCache();
+        assertNull(cache.peekSummary(4));
+        cache.getSummaries(() -> List.of(budget(4, 0).getSummary()));
+        assertEquals(4, cache.peekSummary(4).getBudgetID());
+        assertEquals(0, cache.stats().budgets());
+    }
+}
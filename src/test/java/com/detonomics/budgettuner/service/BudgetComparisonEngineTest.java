@@ -0,0 +1,122 @@
+package com.detonomics.budgettuner.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.RevenueCategory;
+import com.detonomics.budgettuner.model.Summary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BudgetComparisonEngineTest {
+
+    private BudgetSnapshot snapshot;
+
+    private static BudgetYear budget(final int id, final int year, final List<RevenueCategory> revenues,
+            final List<ExpenseCategory> expenses) {
+        Summary summary = new Summary(id, "Προϋπολογισμός " + year, "EUR", "el", year + "-01-01", year, 0, 0, 0, 0);
+        return new BudgetYear(summary, new ArrayList<>(revenues), new ArrayList<>(expenses), new ArrayList<>(),
+                new ArrayList<>());
+    }
+
+    @BeforeEach
+    void setUp() {
+        snapshot = BudgetSnapshot.of(List.of(
+                budget(1, 2021, List.of(new RevenueCategory(1, 11, "Φόροι", 100, 0),
+                        new RevenueCategory(2, 111, "ΦΠΑ", 60, 1)),
+                        List.of(new ExpenseCategory(1, 21, "Μισθοί", 100), new ExpenseCategory(2, 22, "Τόκοι", 50))),
+                budget(2, 2022, List.of(new RevenueCategory(3, 11, "Φόροι", 130, 0)),
+                        List.of(new ExpenseCategory(3, 21, "Μισθοί", 300), new ExpenseCategory(4, 23, "Παροχές", 10))),
+                budget(3, 2023, List.of(),
+                        List.of(new ExpenseCategory(5, 21, "Μισθοί", 200), new ExpenseCategory(6, 22, "Τόκοι", 20)))));
+    }
+
+    @Test
+    void testAlignsBudgetsByCode() {
+        ComparisonMatrix matrix = new BudgetComparisonEngine().compare(snapshot, AnalysisType.EXPENSE,
+                List.of(1, 2, 3, 99));
+
+        assertEquals(3, matrix.columnCount());
+        assertEquals(2022, matrix.year(1));
+        assertEquals("Προϋπολογισμός 2023", matrix.title(2));
+        assertEquals(3, matrix.rowCount());
+        assertEquals(List.of(21L, 22L, 23L), List.of(matrix.code(0), matrix.code(1), matrix.code(2)));
+        assertEquals(50, matrix.value(1, 0));
+        assertFalse(matrix.has(1, 1));
+        assertEquals(BudgetTimeSeries.MISSING, matrix.value(2, 0));
+        assertEquals("Παροχές", matrix.name(2));
+    }
+
+    @Test
+    void testComputesRowStatistics() {
+        ComparisonMatrix matrix = new BudgetComparisonEngine().compare(snapshot, AnalysisType.EXPENSE,
+                List.of(1, 2, 3));
+
+        assertEquals(100, matrix.min(0));
+        assertEquals(300, matrix.max(0));
+        assertEquals(200.0, matrix.mean(0), 1e-9);
+        assertEquals(Math.sqrt(20000.0 / 3), matrix.stddev(0), 1e-9);
+        assertEquals(100, matrix.change(0));
+        assertEquals(-30, matrix.change(1));
+        // Row 23 is missing from the first budget, so it has no change.
+        assertEquals(0, matrix.change(2));
+        assertArrayEquals(new int[] {0, 1}, matrix.rankedByChange());
+    }
+
+    @Test
+    void testRevenueKeepsTopLevelLines() {
+        ComparisonMatrix matrix = new BudgetComparisonEngine().compare(snapshot, AnalysisType.REVENUE,
+                List.of(2, 1));
+
+        assertEquals(1, matrix.rowCount());
+        assertEquals(11, matrix.code(0));
+        assertEquals(130, matrix.value(0, 0));
+        assertEquals(-30, matrix.change(0));
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        List<BudgetYear> budgets = new ArrayList<>();
+        for (int b = 1; b <= 8; b++) {
+            List<ExpenseCategory> expenses = new ArrayList<>();
+            for (int code = 0; code < 500; code++) {
+                if ((code + b) % 7 != 0) {
+                    expenses.add(new ExpenseCategory(b * 1000 + code, code, "Κωδικός " + code, code * b % 97));
+                }
+            }
+            budgets.add(budget(b, 2020 + b, List.of(), expenses));
+        }
+        BudgetSnapshot wide = BudgetSnapshot.of(budgets);
+        List<Integer> ids = List.of(1, 2, 3, 4, 5, 6, 7, 8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ComparisonMatrix sequential = new BudgetComparisonEngine(Runnable::run, 1)
+                    .compare(wide, AnalysisType.EXPENSE, ids);
+            ComparisonMatrix parallel = new BudgetComparisonEngine(executor, 4, 16)
+                    .compare(wide, AnalysisType.EXPENSE, ids);
+
+            assertEquals(sequential.rowCount(), parallel.rowCount());
+            for (int r = 0; r < sequential.rowCount(); r++) {
+                for (int c = 0; c < ids.size(); c++) {
+                    assertEquals(sequential.value(r, c), parallel.value(r, c));
+                }
+                assertEquals(sequential.stddev(r), parallel.stddev(r), 0.0);
+            }
+            assertArrayEquals(sequential.rankedByChange(), parallel.rankedByChange());
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BudgetComparisonEngine(Runnable::run, 0));
+    }
+}
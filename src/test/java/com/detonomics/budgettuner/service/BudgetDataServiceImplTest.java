@@ -95,6 +95,51 @@ class BudgetDataServiceImplTest {
         verify(budgetYearDao).loadBudgetYear(budgetId);
     }
 
+    @Test
+    void testLoadBudgetYearIsCachedUntilWrite() {
+        Summary summary = new Summary(1, "Title", "EUR", "el_GR", "2024-01-01", 2024, 1000L, 1000L, 0L, 0L);
+        BudgetYear budget = new BudgetYear(summary, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>());
+        when(budgetYearDao.loadBudgetYear(1)).thenReturn(budget);
+
+        service.loadBudgetYear(1);
+        service.loadBudgetYear(1);
+        assertEquals(summary, service.loadSummary(1));
+        verify(budgetYearDao, times(1)).loadBudgetYear(1);
+        verify(summaryDao, never()).loadSummary(1);
+
+        service.setRevenueAmount(1, 100L, 5L);
+        service.loadBudgetYear(1);
+        verify(budgetYearDao, times(2)).loadBudgetYear(1);
+        assertEquals(1, service.getCacheStats().hits());
+        assertEquals(1, service.getCacheStats().invalidations());
+    }
+
+    @Test
+    void testLoadAnalyticsIsReusedUntilWrite() {
+        when(budgetTotalsDao.loadSnapshot()).thenAnswer(invocation -> BudgetSnapshot.of(List.of()));
+
+        BudgetAnalytics first = service.loadAnalytics();
+        assertSame(first, service.loadAnalytics());
+        verify(budgetTotalsDao, times(1)).loadSnapshot();
+
+        service.deleteBudget(5);
+        assertNotSame(first, service.loadAnalytics());
+        verify(budgetTotalsDao, times(2)).loadSnapshot();
+    }
+
+    @Test
+    void testLoadBudgetYearsByID() {
+        Summary summary = new Summary(1, "Title", "EUR", "el_GR", "2024-01-01", 2024, 1000L, 1000L, 0L, 0L);
+        BudgetYear budget = new BudgetYear(summary, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>());
+        java.util.Map<Integer, BudgetYear> expected = java.util.Map.of(1, budget);
+        when(budgetYearDao.loadBudgetYearsByID(List.of(1, 2))).thenReturn(expected);
+
+        assertEquals(expected, service.loadBudgetYearsByID(List.of(1, 2)));
+        verify(budgetYearDao).loadBudgetYearsByID(List.of(1, 2));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void testInsertNewBudgetYear() throws Exception {
@@ -103,7 +148,7 @@ class BudgetDataServiceImplTest {
 
         service.insertNewBudgetYear(pdfPath, logger);
 
-        verify(budgetYearDao).insertNewBudgetYear(eq(pdfPath), any(Consumer.class));
+        verify(budgetYearDao).insertNewBudgetYear(eq(pdfPath), eq(false), any(Consumer.class));
     }
 
     @Test
@@ -11,6 +11,7 @@ import com.detonomics.budgettuner.dao.MinistryDao;
 import com.detonomics.budgettuner.dao.MinistryExpenseDao;
 import com.detonomics.budgettuner.dao.RevenueCategoryDao;
 import com.detonomics.budgettuner.dao.SummaryDao;
+import com.detonomics.budgettuner.model.BudgetEdits;
 import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.util.DatabaseManager;
 import java.nio.file.Path;
@@ -65,7 +66,11 @@ public class BudgetModificationServiceImplTest {
                                 "CREATE TABLE IF NOT EXISTS Ministries (ministry_id INTEGER PRIMARY KEY, code TEXT, name TEXT, regular_budget INTEGER, public_investment_budget INTEGER, total_budget INTEGER, budget_id INTEGER)");
                 dbManager.executeUpdate(
                                 "CREATE TABLE IF NOT EXISTS MinistryExpenses (ministry_expense_id INTEGER PRIMARY KEY, ministry_id INTEGER, expense_category_id INTEGER, amount INTEGER)");
-
+                try {
+                        dbManager.migrateSchema();
+                } catch (java.sql.SQLException e) {
+                        throw new RuntimeException(e);
+                }
         }
 
         @Test
@@ -97,6 +102,57 @@ public class BudgetModificationServiceImplTest {
                 assertEquals(1000L, newBudget.getRevenues().get(0).getAmount());
         }
 
+        @Test
+        void testCloneBudget_RemapsReferencesPastExistingIDs() {
+                dbManager.executeUpdate(
+                                "INSERT INTO Budgets (budget_id, budget_year, source_title) VALUES (1, 2025, 'Original')");
+                dbManager.executeUpdate(
+                                "INSERT INTO Budgets (budget_id, budget_year, source_title) VALUES (2, 2024, 'Other')");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (5, '1', 'Root', 300, NULL, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (9, '11', 'Child', 300, 5, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, parent_id, budget_id) VALUES (20, '1', 'Other', 1, NULL, 2)");
+                dbManager.executeUpdate(
+                                "INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) VALUES (3, '21', 'E1', 30, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) VALUES (4, '22', 'E2', 40, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO Ministries (ministry_id, code, name, total_budget, budget_id) VALUES (7, '1001', 'M1', 50, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO Ministries (ministry_id, code, name, total_budget, budget_id) VALUES (8, '1002', 'M2', 20, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) VALUES (7, 3, 30)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) VALUES (7, 4, 20)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_id, expense_category_id, amount) VALUES (8, 4, 20)");
+
+                int newID = service.cloneBudget(1, "Copy");
+                BudgetYear copy = budgetYearDao.loadBudgetYear(newID);
+
+                assertEquals(2, copy.getRevenues().size());
+                int rootID = copy.getRevenues().stream().filter(r -> r.getCode() == 1L).findFirst()
+                                .orElseThrow().getRevenueID();
+                assertTrue(rootID > 20, "Cloned keys must not collide with other budgets");
+                assertEquals(0, copy.getRevenues().stream().filter(r -> r.getCode() == 1L).findFirst()
+                                .orElseThrow().getParentID());
+                assertEquals(rootID, copy.getRevenues().stream().filter(r -> r.getCode() == 11L).findFirst()
+                                .orElseThrow().getParentID());
+
+                assertEquals(3, copy.getMinistryExpenses().size());
+                java.util.Map<Integer, Long> ministryCodes = new java.util.HashMap<>();
+                copy.getMinistries().forEach(m -> ministryCodes.put(m.getMinistryID(), m.getCode()));
+                java.util.Map<Integer, Long> expenseCodes = new java.util.HashMap<>();
+                copy.getExpenses().forEach(e -> expenseCodes.put(e.getExpenseID(), e.getCode()));
+                java.util.List<String> lines = copy.getMinistryExpenses().stream()
+                                .map(me -> ministryCodes.get(me.getMinistryID()) + ":"
+                                                + expenseCodes.get(me.getExpenseCategoryID()))
+                                .sorted().toList();
+                assertEquals(java.util.List.of("1001:21", "1001:22", "1002:22"), lines);
+        }
+
         @Test
         void testCloneBudget_NotFound() {
                 IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
@@ -152,4 +208,146 @@ public class BudgetModificationServiceImplTest {
                 // Check Cascading (Budget Total)
                 assertEquals(800L, updatedBudget.getSummary().getTotalExpenses());
         }
+
+        @Test
+        void testMalformedMinistryKeysAreRejected() {
+                seedTwoMinistries();
+
+                for (String key : new String[] {"1001", "1001:21:5", "1001:abc", ":21" }) {
+                        assertThrows(IllegalArgumentException.class,
+                                        () -> service.updateBudgetAmounts(1, Map.of(100L, 2000L), Map.of(key, 900L)),
+                                        key);
+                }
+
+                BudgetYear unchanged = budgetYearDao.loadBudgetYear(1);
+                assertEquals(1000L, unchanged.getSummary().getTotalRevenues());
+                assertEquals(300L, unchanged.getMinistryExpenses().get(0).getAmount());
+        }
+
+        @Test
+        void testUpdateBudgetAmountsInvalidatesSharedCache() {
+                dbManager.executeUpdate(
+                                "INSERT INTO Budgets (budget_id, budget_year, source_title, total_revenue, total_expenses) VALUES (1, 2025, 'Original', 1000, 0)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, budget_id) VALUES (1, '100', 'Rev', 1000, 1)");
+
+                BudgetCache cache = new BudgetCache();
+                BudgetDataServiceImpl dataService = new BudgetDataServiceImpl(budgetYearDao, revenueCategoryDao,
+                                expenseCategoryDao, ministryDao, ministryExpenseDao, summaryDao,
+                                new com.detonomics.budgettuner.dao.BudgetTotalsDao(dbManager),
+                                new com.detonomics.budgettuner.dao.SqlSequenceDao(dbManager), cache);
+                BudgetModificationServiceImpl cachedService = new BudgetModificationServiceImpl(dbManager,
+                                budgetYearDao, revenueCategoryDao, expenseCategoryDao, ministryDao,
+                                ministryExpenseDao, summaryDao, cache);
+
+                assertEquals(1000L, dataService.loadBudgetYear(1).getSummary().getTotalRevenues());
+                assertEquals(1, dataService.loadAllSummaries().size());
+
+                cachedService.updateBudgetAmounts(1, Map.of(100L, 2500L), Map.of());
+
+                assertEquals(2500L, dataService.loadBudgetYear(1).getSummary().getTotalRevenues());
+                assertEquals(2500L, dataService.loadAllSummaries().get(0).getTotalRevenues());
+        }
+
+        private void seedTwoMinistries() {
+                dbManager.executeUpdate(
+                                "INSERT INTO Budgets (budget_id, budget_year, source_title, total_revenue, total_expenses) VALUES (1, 2025, 'Original', 1000, 1000)");
+                dbManager.executeUpdate(
+                                "INSERT INTO RevenueCategories (revenue_category_id, code, name, amount, budget_id) VALUES (1, '100', 'Rev', 1000, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) VALUES (1, '21', 'Salaries', 600, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO ExpenseCategories (expense_category_id, code, name, amount, budget_id) VALUES (2, '23', 'Transfers', 400, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO Ministries (ministry_id, code, name, regular_budget, total_budget, budget_id) VALUES (1, '1001', 'A', 500, 500, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO Ministries (ministry_id, code, name, regular_budget, total_budget, budget_id) VALUES (2, '1002', 'B', 500, 500, 1)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_expense_id, ministry_id, expense_category_id, amount) VALUES (1, 1, 1, 300)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_expense_id, ministry_id, expense_category_id, amount) VALUES (2, 1, 2, 200)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_expense_id, ministry_id, expense_category_id, amount) VALUES (3, 2, 1, 300)");
+                dbManager.executeUpdate(
+                                "INSERT INTO MinistryExpenses (ministry_expense_id, ministry_id, expense_category_id, amount) VALUES (4, 2, 2, 200)");
+        }
+
+        @Test
+        void testApplyBudgetEdits_AccumulatesDeltasAcrossLines() {
+                seedTwoMinistries();
+
+                BudgetEdits edits = new BudgetEdits()
+                                .setMinistryExpense(1001, 21, 350)
+                                .setMinistryExpense(1002, 21, 250)
+                                .setMinistryExpense(1002, 23, 260)
+                                .setMinistryExpense(1002, 23, 280)
+                                .setRevenue(100, 1500);
+
+                service.applyBudgetEdits(1, edits);
+
+                BudgetYear updated = budgetYearDao.loadBudgetYear(1);
+                Map<Integer, Long> lines = new HashMap<>();
+                updated.getMinistryExpenses().forEach(me -> lines.put(me.getMinistryExpenseID(), me.getAmount()));
+                assertEquals(Map.of(1, 350L, 2, 200L, 3, 250L, 4, 280L), lines);
+
+                Map<Long, Long> ministries = new HashMap<>();
+                updated.getMinistries().forEach(m -> ministries.put(m.getCode(), m.getTotalBudget()));
+                assertEquals(Map.of(1001L, 550L, 1002L, 530L), ministries);
+                updated.getMinistries().forEach(m -> assertEquals(m.getTotalBudget(), m.getRegularBudget()));
+
+                Map<Long, Long> categories = new HashMap<>();
+                updated.getExpenses().forEach(ec -> categories.put(ec.getCode(), ec.getAmount()));
+                assertEquals(Map.of(21L, 600L, 23L, 480L), categories);
+
+                assertEquals(1080L, updated.getSummary().getTotalExpenses());
+                assertEquals(1500L, updated.getSummary().getTotalRevenues());
+        }
+
+        @Test
+        void testApplyBudgetEdits_UnknownLineWritesNothing() {
+                seedTwoMinistries();
+
+                BudgetEdits edits = new BudgetEdits()
+                                .setRevenue(100, 1500)
+                                .setMinistryExpense(1001, 21, 350)
+                                .setMinistryExpense(1001, 99, 10);
+
+                IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                                () -> service.applyBudgetEdits(1, edits));
+                assertTrue(ex.getMessage().contains("1001:99"));
+
+                BudgetYear unchanged = budgetYearDao.loadBudgetYear(1);
+                assertEquals(1000L, unchanged.getRevenues().get(0).getAmount());
+                unchanged.getMinistryExpenses().stream()
+                                .filter(me -> me.getMinistryExpenseID() == 1)
+                                .forEach(me -> assertEquals(300L, me.getAmount()));
+                assertEquals(1000L, unchanged.getSummary().getTotalExpenses());
+        }
+
+        @Test
+        void testCloneBudgetWithEdits_AppliesEditsToTheClone() {
+                seedTwoMinistries();
+
+                int newID = service.cloneBudgetWithEdits(1, "Scenario",
+                                new BudgetEdits().setMinistryExpense(1001, 21, 350));
+
+                BudgetYear clone = budgetYearDao.loadBudgetYear(newID);
+                assertEquals("Scenario", clone.getSummary().getSourceTitle());
+                assertEquals(1050L, clone.getSummary().getTotalExpenses());
+                assertEquals(1000L, budgetYearDao.loadBudgetYear(1).getSummary().getTotalExpenses());
+        }
+
+        @Test
+        void testCloneBudgetWithEdits_UnknownLineLeavesNoClone() {
+                seedTwoMinistries();
+
+                BudgetEdits edits = new BudgetEdits()
+                                .setMinistryExpense(1001, 21, 350)
+                                .setMinistryExpense(1001, 99, 10);
+
+                IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                                () -> service.cloneBudgetWithEdits(1, "Scenario", edits));
+                assertTrue(ex.getMessage().contains("1001:99"));
+                assertEquals(1, summaryDao.loadAllSummaries().size());
+        }
 }
@@ -0,0 +1,71 @@
+package com.detonomics.budgettuner.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BudgetServicesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String dbPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dbFile = tempDir.resolve("BudgetDB.db");
+        try (InputStream in = getClass().getResourceAsStream("/com/detonomics/budgettuner/database/BudgetDB.db")) {
+            Files.copy(in, dbFile);
+        }
+        dbPath = dbFile.toString();
+    }
+
+    @Test
+    void testOpensDatabaseOnFirstUse() {
+        List<String> log = new ArrayList<>();
+        try (BudgetServices services = new BudgetServices(dbPath, 0, log::add)) {
+            assertFalse(services.isOpen());
+            assertTrue(log.isEmpty());
+
+            BudgetDataService dataService = services.dataService();
+
+            assertTrue(services.isOpen());
+            assertEquals(1, log.stream().filter(line -> line.startsWith("Database settings")).count());
+            assertSame(dataService, services.dataService());
+            assertFalse(dataService.loadAllSummaries().isEmpty());
+        }
+    }
+
+    @Test
+    void testModificationServiceSharesTheDatabase() {
+        List<String> log = new ArrayList<>();
+        try (BudgetServices services = new BudgetServices(dbPath, 0, log::add)) {
+            BudgetModificationService modificationService = services.modificationService();
+            services.dataService();
+
+            assertSame(modificationService, services.modificationService());
+            assertEquals(1, log.stream().filter(line -> line.startsWith("Database settings")).count());
+        }
+    }
+
+    @Test
+    void testClosedServicesAreNotBuilt() {
+        BudgetServices services = new BudgetServices(dbPath, 0, message -> {
+        });
+        services.close();
+
+        assertThrows(IllegalStateException.class, services::dataService);
+        assertFalse(services.isOpen());
+    }
+}
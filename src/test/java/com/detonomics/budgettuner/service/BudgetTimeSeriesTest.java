@@ -0,0 +1,100 @@
+package com.detonomics.budgettuner.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.ExpenseCategory;
+import com.detonomics.budgettuner.model.Summary;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BudgetTimeSeriesTest {
+
+    private BudgetAnalytics analytics;
+
+    private static BudgetYear budget(final int id, final int year, final String title,
+            final List<ExpenseCategory> expenses) {
+        long total = expenses.stream().mapToLong(ExpenseCategory::getAmount).sum();
+        Summary summary = new Summary(id, title, "EUR", "el", year + "-01-01", year, 1000, total, 1000 - total, 0);
+        return new BudgetYear(summary, new ArrayList<>(), new ArrayList<>(expenses), new ArrayList<>(),
+                new ArrayList<>());
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Budgets are listed out of order; the scenario of 2021 shares its year.
+        analytics = new BudgetAnalytics(BudgetSnapshot.of(List.of(
+                budget(3, 2023, "Προϋπολογισμός 2023", List.of(new ExpenseCategory(5, 21, "Παροχές", 400),
+                        new ExpenseCategory(6, 22, "Τόκοι", 90))),
+                budget(1, 2021, "Προϋπολογισμός 2021", List.of(new ExpenseCategory(1, 21, "Μισθοί", 100))),
+                budget(4, 2021, "Σενάριο", List.of(new ExpenseCategory(7, 21, "Μισθοί", 150))),
+                budget(2, 2022, "Προϋπολογισμός 2022", List.of(new ExpenseCategory(3, 21, "Μισθοί", 200),
+                        new ExpenseCategory(4, 22, "Τόκοι", 80))))));
+    }
+
+    @Test
+    void testPointsAreOrderedByYearThenBudget() {
+        BudgetTimeSeries all = analytics.timeSeries();
+
+        assertEquals(4, all.pointCount());
+        assertEquals(List.of(1, 4, 2, 3), List.of(all.budgetID(0), all.budgetID(1), all.budgetID(2),
+                all.budgetID(3)));
+        assertArrayEquals(new long[] {21, 22}, all.codes(AnalysisType.EXPENSE));
+        assertNull(all.series(AnalysisType.EXPENSE, 23));
+
+        BudgetTimeSeries.Series interest = all.series(AnalysisType.EXPENSE, 22);
+        assertFalse(interest.has(0));
+        assertEquals(BudgetTimeSeries.MISSING, interest.value(1));
+        assertEquals(80, interest.value(2));
+        assertEquals("Τόκοι", interest.name());
+        assertEquals("Παροχές", all.series(AnalysisType.EXPENSE, 21).name());
+        assertSame(all, analytics.timeSeries());
+    }
+
+    @Test
+    void testOriginalBudgetsLeaveOutScenarios() {
+        BudgetTimeSeries original = analytics.originalTimeSeries();
+
+        assertEquals(3, original.pointCount());
+        assertArrayEquals(new long[] {100, 200, 400}, original.series(AnalysisType.EXPENSE, 21).values());
+        assertEquals(490, original.totalExpenses().value(2));
+        assertEquals(510, original.budgetResult().value(2));
+    }
+
+    @Test
+    void testYearOverYearSkipsSameYearScenarios() {
+        BudgetTimeSeries.Series salaries = analytics.timeSeries().series(AnalysisType.EXPENSE, 21);
+
+        assertTrue(salaries.yearOverYear(0).isEmpty());
+        assertTrue(salaries.yearOverYear(1).isEmpty());
+        // 2022 is compared with the latest 2021 budget, the scenario.
+        assertEquals(50, salaries.yearOverYear(2).getAsLong());
+        assertEquals(200, salaries.yearOverYear(3).getAsLong());
+        assertTrue(analytics.timeSeries().series(AnalysisType.EXPENSE, 22).yearOverYear(2).isEmpty());
+    }
+
+    @Test
+    void testCagrAndRollingAverage() {
+        BudgetTimeSeries original = analytics.originalTimeSeries();
+
+        assertEquals(100.0, original.series(AnalysisType.EXPENSE, 21).cagr().getAsDouble(), 1e-9);
+        assertEquals(12.5, original.series(AnalysisType.EXPENSE, 22).cagr().getAsDouble(), 1e-9);
+
+        double[] averages = original.series(AnalysisType.EXPENSE, 22).rollingAverage(2);
+        assertTrue(Double.isNaN(averages[0]));
+        assertEquals(80.0, averages[1], 1e-9);
+        assertEquals(85.0, averages[2], 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> original.series(AnalysisType.EXPENSE, 22).rollingAverage(0));
+    }
+}
@@ -1,20 +1,35 @@
 package com.detonomics.budgettuner.service;
 
+import com.detonomics.budgettuner.util.ingestion.ArtifactCache;
 import com.detonomics.budgettuner.util.ingestion.IPdfToText;
 import com.detonomics.budgettuner.util.ingestion.ITextToJson;
 import com.detonomics.budgettuner.util.ingestion.IJsonToSQLite;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class IngestBudgetPdfTest {
@@ -55,4 +70,130 @@ class IngestBudgetPdfTest {
         // Verify Step 3: JSON to Database
         verify(jsonToSQLite, times(1)).processAndStoreBudget(anyString());
     }
+
+    @TempDir
+    Path tempDir;
+
+    private Path pdf;
+    private ArtifactCache cache;
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        if (pdf != null) {
+            Files.deleteIfExists(processed(".txt"));
+            Files.deleteIfExists(processed(".json"));
+        }
+    }
+
+    private Path processed(final String extension) {
+        String name = pdf.getFileName().toString();
+        return Path.of("data/processed", name.substring(0, name.lastIndexOf('.')) + extension);
+    }
+
+    private void prepareCachedPipeline() throws Exception {
+        prepareCachedPipeline(true);
+    }
+
+    /* Stages that write their outputs like the real ones do. */
+    private void prepareCachedPipeline(final boolean parserWritesJson) throws Exception {
+        pdf = Files.writeString(tempDir.resolve("IngestCacheTest" + System.nanoTime() + ".pdf"), "%PDF budget",
+                StandardCharsets.UTF_8);
+        cache = new ArtifactCache(tempDir.resolve("cache"), 1024 * 1024);
+        when(pdfToText.version()).thenReturn("extractor/1");
+        when(textToJson.version()).thenReturn("prompt/1");
+        doAnswer(invocation -> {
+            Files.createDirectories(processed(".txt").getParent());
+            Files.writeString(processed(".txt"), "extracted", StandardCharsets.UTF_8);
+            return null;
+        }).when(pdfToText).extractAndSaveText(pdf.toString());
+        if (parserWritesJson) {
+            doAnswer(invocation -> {
+                Files.writeString(invocation.<Path>getArgument(1), "{\"budget\":1}", StandardCharsets.UTF_8);
+                return null;
+            }).when(textToJson).textFileToJson(any(Path.class), any(Path.class));
+        }
+    }
+
+    private void run(final boolean force) throws Exception {
+        ingestBudgetPdf.process(pdf.toString(), pdfToText, textToJson, jsonToSQLite, cache, force, log -> {
+        });
+    }
+
+    @Test
+    void testUnchangedPdfSkipsExtractionAndParsing() throws Exception {
+        prepareCachedPipeline();
+        run(false);
+        Files.delete(processed(".json"));
+
+        List<String> log = new ArrayList<>();
+        ingestBudgetPdf.process(pdf.toString(), pdfToText, textToJson, jsonToSQLite, cache, false, log::add);
+
+        verify(pdfToText, times(1)).extractAndSaveText(anyString());
+        verify(textToJson, times(1)).textFileToJson(any(Path.class), any(Path.class));
+        verify(jsonToSQLite, times(2)).processAndStoreBudget(processed(".json").toAbsolutePath().toString());
+        assertEquals("{\"budget\":1}", Files.readString(processed(".json"), StandardCharsets.UTF_8));
+        assertTrue(log.stream().anyMatch(line -> line.contains("cached JSON")));
+    }
+
+    @Test
+    void testRetryAfterDatabaseFailureReusesJson() throws Exception {
+        prepareCachedPipeline();
+        doThrow(new IllegalStateException("database locked")).doNothing()
+                .when(jsonToSQLite).processAndStoreBudget(anyString());
+
+        assertThrows(IllegalStateException.class, () -> run(false));
+        run(false);
+
+        verify(pdfToText, times(1)).extractAndSaveText(anyString());
+        verify(textToJson, times(1)).textFileToJson(any(Path.class), any(Path.class));
+        verify(jsonToSQLite, times(2)).processAndStoreBudget(anyString());
+    }
+
+    @Test
+    void testNewPromptVersionReusesTextOnly() throws Exception {
+        prepareCachedPipeline();
+        run(false);
+        when(textToJson.version()).thenReturn("prompt/2");
+
+        run(false);
+
+        verify(pdfToText, times(1)).extractAndSaveText(anyString());
+        verify(textToJson, times(2)).textFileToJson(eq(processed(".txt")), eq(processed(".json")));
+    }
+
+    @Test
+    void testForceRerunsEveryStage() throws Exception {
+        prepareCachedPipeline();
+        run(false);
+
+        run(true);
+
+        verify(pdfToText, times(2)).extractAndSaveText(anyString());
+        verify(textToJson, times(2)).textFileToJson(any(Path.class), any(Path.class));
+    }
+
+    @Test
+    void testMissingJsonIsNotCached() throws Exception {
+        prepareCachedPipeline(false);
+        run(false);
+
+        run(false);
+
+        verify(pdfToText, times(1)).extractAndSaveText(anyString());
+        verify(textToJson, times(2)).textFileToJson(any(Path.class), any(Path.class));
+    }
+
+    @Test
+    void testStaleJsonIsNotCachedWhenModelReturnsNothing() throws Exception {
+        prepareCachedPipeline(false);
+        Files.createDirectories(processed(".json").getParent());
+        Files.writeString(processed(".json"), "{\"budget\":\"stale\"}", StandardCharsets.UTF_8);
+
+        run(false);
+        assertFalse(Files.exists(processed(".json")));
+        run(false);
+
+        verify(textToJson, times(2)).textFileToJson(any(Path.class), any(Path.class));
+        assertEquals("extracted".length(), cache.size());
+    }
 }
@@ -6,10 +6,16 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.List;
+import com.detonomics.budgettuner.dao.BudgetSnapshot;
+import com.detonomics.budgettuner.model.AnalysisType;
+import com.detonomics.budgettuner.model.BudgetYear;
 import com.detonomics.budgettuner.model.RevenueCategory;
 import com.detonomics.budgettuner.model.ExpenseCategory;
 import com.detonomics.budgettuner.model.Ministry;
 import com.detonomics.budgettuner.model.MinistryExpense;
+import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.service.BudgetAnalytics;
 
 public class BudgetFormatterTest {
 
@@ -28,43 +34,50 @@ public class BudgetFormatterTest {
     }
 
     @Test
-    public void testGetFormattedComparativeRevenues() {
-        ArrayList<RevenueCategory> revenues1 = new ArrayList<>();
-        ArrayList<RevenueCategory> revenues2 = new ArrayList<>();
-
-        // Test Empty
+    public void testGetFormattedComparisonOfEmptyTables() {
         assertEquals("Δεν υπάρχουν καταγεγραμμένα έσοδα.",
-                BudgetFormatter.getFormattedComparativeRevenues(revenues1, revenues2, 2024, 2025));
+                BudgetFormatter.getFormattedComparison(AnalysisType.REVENUE, List.of(), 2024, 2025));
+        assertEquals("Δεν υπάρχουν καταγεγραμμένα έξοδα.",
+                BudgetFormatter.getFormattedComparison(AnalysisType.EXPENSE, List.of(), 2024, 2025));
+        assertEquals("Δεν υπάρχουν καταγεγραμμένοι φορείς.",
+                BudgetFormatter.getFormattedComparison(AnalysisType.MINISTRY, List.of(), 2024, 2025));
+    }
 
-        // Test with data
+    @Test
+    public void testGetFormattedComparisonOfRevenues() {
+        ArrayList<RevenueCategory> revenues1 = new ArrayList<>();
+        ArrayList<RevenueCategory> revenues2 = new ArrayList<>();
         revenues1.add(new RevenueCategory(1, 1001L, "Rev1", 5000L, 0));
         revenues2.add(new RevenueCategory(2, 1001L, "Rev1", 6000L, 0));
         revenues1.add(new RevenueCategory(3, 1002L, "Rev2", 1000L, 0)); // Only in year 1
         revenues2.add(new RevenueCategory(4, 1003L, "Rev3", 2000L, 0)); // Only in year 2
+        BudgetAnalytics analytics = new BudgetAnalytics(BudgetSnapshot.of(List.of(
+                budget(1, 2024, revenues1, new ArrayList<>(), new ArrayList<>()),
+                budget(2, 2025, revenues2, new ArrayList<>(), new ArrayList<>()))));
 
-        String out = BudgetFormatter.getFormattedComparativeRevenues(revenues1, revenues2, 2024, 2025);
+        String out = BudgetFormatter.getFormattedComparison(AnalysisType.REVENUE,
+                analytics.compareAllLines(AnalysisType.REVENUE, 1, 2), 2024, 2025);
 
         assertTrue(out.contains("Rev1"));
         assertTrue(out.contains("5.000 €"));
         assertTrue(out.contains("6.000 €"));
         assertTrue(out.contains("Rev2"));
         assertTrue(out.contains("Rev3"));
+        assertTrue(out.indexOf("Rev1") < out.indexOf("Rev2") && out.indexOf("Rev2") < out.indexOf("Rev3"));
     }
 
     @Test
-    public void testGetFormattedComparativeExpenditures() {
+    public void testGetFormattedComparisonOfExpenditures() {
         ArrayList<ExpenseCategory> expenses1 = new ArrayList<>();
         ArrayList<ExpenseCategory> expenses2 = new ArrayList<>();
-
-        // Test Empty
-        assertEquals("Δεν υπάρχουν καταγεγραμμένα έξοδα.",
-                BudgetFormatter.getFormattedComparativeExpenditures(expenses1, expenses2, 2024, 2025));
-
-        // Test with data
         expenses1.add(new ExpenseCategory(1, 1001L, "Exp1", 5000L));
         expenses2.add(new ExpenseCategory(2, 1001L, "Exp1", 6000L));
+        BudgetAnalytics analytics = new BudgetAnalytics(BudgetSnapshot.of(List.of(
+                budget(1, 2024, new ArrayList<>(), expenses1, new ArrayList<>()),
+                budget(2, 2025, new ArrayList<>(), expenses2, new ArrayList<>()))));
 
-        String out = BudgetFormatter.getFormattedComparativeExpenditures(expenses1, expenses2, 2024, 2025);
+        String out = BudgetFormatter.getFormattedComparison(AnalysisType.EXPENSE,
+                analytics.compareAllLines(AnalysisType.EXPENSE, 1, 2), 2024, 2025);
 
         assertTrue(out.contains("Exp1"));
         assertTrue(out.contains("5.000 €")); // Year 1 amount
@@ -72,25 +85,29 @@ public class BudgetFormatterTest {
     }
 
     @Test
-    public void testGetFormattedComparativeMinistries() {
+    public void testGetFormattedComparisonOfMinistries() {
         ArrayList<Ministry> mins1 = new ArrayList<>();
         ArrayList<Ministry> mins2 = new ArrayList<>();
-
-        // Test Empty
-        assertEquals("Δεν υπάρχουν καταγεγραμμένοι φορείς.",
-                BudgetFormatter.getFormattedComparativeMinistries(mins1, mins2, 2024, 2025));
-
-        // Test with data
         mins1.add(new Ministry(1, 1001L, "Ministry A", 100L, 200L, 300L));
         mins2.add(new Ministry(2, 1001L, "Ministry A", 150L, 250L, 400L));
+        BudgetAnalytics analytics = new BudgetAnalytics(BudgetSnapshot.of(List.of(
+                budget(1, 2024, new ArrayList<>(), new ArrayList<>(), mins1),
+                budget(2, 2025, new ArrayList<>(), new ArrayList<>(), mins2))));
 
-        String out = BudgetFormatter.getFormattedComparativeMinistries(mins1, mins2, 2024, 2025);
+        String out = BudgetFormatter.getFormattedComparison(AnalysisType.MINISTRY,
+                analytics.compareAllLines(AnalysisType.MINISTRY, 1, 2), 2024, 2025);
 
         assertTrue(out.contains("Ministry A"));
         assertTrue(out.contains("300 €")); // Year 1 total
         assertTrue(out.contains("400 €")); // Year 2 total
     }
 
+    private static BudgetYear budget(final int budgetID, final int year, final ArrayList<RevenueCategory> revenues,
+            final ArrayList<ExpenseCategory> expenses, final ArrayList<Ministry> ministries) {
+        Summary summary = new Summary(budgetID, "Budget " + year, "EUR", "el", year + "-01-01", year, 0, 0, 0, 0);
+        return new BudgetYear(summary, revenues, expenses, ministries, new ArrayList<>());
+    }
+
     @Test
     public void testGetFormattedRevenues() {
         ArrayList<RevenueCategory> revenues = new ArrayList<>();
@@ -198,6 +215,28 @@ public class BudgetFormatterTest {
         assertTrue(out.contains("1.500 €")); // Should be aggregated (1000 + 500)
     }
 
+    @Test
+    public void testIndexedBudgetsFormatLikeTheirLists() {
+        List<Ministry> ministries = List.of(new Ministry(1, 1001L, "Ministry A", 0, 0, 0),
+                new Ministry(2, 1002L, "Ministry B", 0, 0, 0));
+        List<ExpenseCategory> categories = List.of(new ExpenseCategory(1, 10L, "Salaries", 0),
+                new ExpenseCategory(2, 20L, "Grants", 0));
+        List<MinistryExpense> lines1 = List.of(new MinistryExpense(1, 1, 1, 1000L),
+                new MinistryExpense(2, 2, 2, 700L), new MinistryExpense(3, 2, 9, 50L));
+        List<MinistryExpense> lines2 = List.of(new MinistryExpense(4, 1, 1, 1200L));
+        BudgetYear budget1 = new BudgetYear(new Summary(1, "A", "EUR", "el", "2024-01-01", 2024, 0, 0, 0, 0),
+                List.of(), categories, ministries, lines1);
+        BudgetYear budget2 = new BudgetYear(new Summary(2, "B", "EUR", "el", "2025-01-01", 2025, 0, 0, 0, 0),
+                List.of(), categories, ministries, lines2);
+
+        assertEquals(BudgetFormatter.getFormattedMinistryExpenses(ministries, categories, lines1),
+                BudgetFormatter.getFormattedMinistryExpenses(budget1));
+        assertEquals(BudgetFormatter.getFormattedComparativeMinistryExpenses(ministries, categories, lines1,
+                ministries, categories, lines2, 2024, 2025),
+                BudgetFormatter.getFormattedComparativeMinistryExpenses(budget1, budget2));
+        assertTrue(BudgetFormatter.getFormattedMinistryExpenses(budget1).contains("Άγνωστη Κατηγορία (9)"));
+    }
+
     @Test
     public void testPrintSideBySide() {
         ByteArrayOutputStream outContent = new ByteArrayOutputStream();
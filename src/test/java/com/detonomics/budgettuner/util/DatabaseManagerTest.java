@@ -27,6 +27,7 @@ public class DatabaseManagerTest {
 
     @AfterEach
     public void tearDown() throws Exception {
+        dbManager.close();
         // Clean up the test database file
         File dbFile = new File(testDbPath);
         if (dbFile.exists()) {
@@ -99,4 +100,227 @@ public class DatabaseManagerTest {
 
         assertTrue(results.isEmpty());
     }
+
+    @Test
+    public void testReaderConnectionsAreReused() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+
+        for (int i = 0; i < 5; i++) {
+            dbManager.executeQuery("SELECT * FROM test_table");
+        }
+
+        PoolStats stats = dbManager.getReadPoolStats();
+        assertEquals(1, stats.misses(), "Only the first query should open a connection");
+        assertEquals(4, stats.hits());
+        assertEquals(0, stats.leased());
+        assertEquals(1, stats.idle());
+    }
+
+    @Test
+    public void testWriterConnectionIsReusedAcrossTransactions() throws Exception {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+        dbManager.inTransaction(conn -> {
+            dbManager.executeUpdate(conn, "INSERT INTO test_table (name) VALUES (?)", "a");
+        });
+
+        PoolStats stats = dbManager.getWritePoolStats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.maxSize());
+    }
+
+    @Test
+    public void testFailedTransactionRollsBackAndReleasesWriter() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+
+        assertThrows(java.sql.SQLException.class, () -> dbManager.inTransaction((java.util.function.Consumer<java.sql.Connection>) conn -> {
+            dbManager.executeUpdate(conn, "INSERT INTO test_table (name) VALUES (?)", "a");
+            throw new IllegalStateException("boom");
+        }));
+
+        assertTrue(dbManager.executeQuery("SELECT * FROM test_table").isEmpty());
+        assertEquals(1, dbManager.executeUpdate("INSERT INTO test_table (name) VALUES (?)", "b"));
+        assertEquals(0, dbManager.getWritePoolStats().leased());
+    }
+
+    @Test
+    public void testStatementsWithoutConnectionJoinOpenTransaction() throws Exception {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+
+        int seen = dbManager.inTransaction(conn -> {
+            dbManager.executeUpdate("INSERT INTO test_table (name) VALUES (?)", "a");
+            return dbManager.executeQuery("SELECT * FROM test_table").size();
+        });
+
+        assertEquals(1, seen, "Uncommitted row should be visible inside the transaction");
+        assertEquals(1, dbManager.executeQuery("SELECT * FROM test_table").size());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolExhausted() throws Exception {
+        ConnectionPool pool = new ConnectionPool("test",
+                () -> java.sql.DriverManager.getConnection("jdbc:sqlite:" + testDbPath), 1, 60_000, 50);
+        java.sql.Connection leased = pool.borrow();
+        try {
+            assertThrows(java.sql.SQLException.class, pool::borrow);
+            assertEquals(1, pool.stats().waits());
+        } finally {
+            pool.release(leased);
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testDefaultProfileEnablesWal() {
+        PragmaReport report = dbManager.runSelfCheck();
+
+        assertTrue(report.isHealthy(), "Unexpected mismatches: " + report.mismatches());
+        assertEquals("wal", report.effective().get("journal_mode"));
+        assertEquals("1", report.effective().get("synchronous"));
+        assertEquals("2", report.effective().get("temp_store"));
+    }
+
+    @Test
+    public void testCustomProfileIsAppliedToEveryConnection() {
+        dbManager.close();
+        PragmaProfile profile = new PragmaProfile("delete", "full", 0, 2048, "file", 1234);
+        dbManager = new DatabaseManager(testDbPath, 2, profile);
+
+        PragmaReport report = dbManager.runSelfCheck();
+        assertTrue(report.isHealthy(), "Unexpected mismatches: " + report.mismatches());
+        assertEquals("delete", report.effective().get("journal_mode"));
+        assertEquals("-2048", report.effective().get("cache_size"));
+        assertEquals("1234", report.effective().get("busy_timeout"));
+    }
+
+    @Test
+    public void testProfileRejectsUnknownValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PragmaProfile("WAL; DROP TABLE x", "NORMAL", 0, 0, "MEMORY", 0));
+    }
+
+    @Test
+    public void testCheckpointSucceedsInWalMode() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+        dbManager.executeUpdate("INSERT INTO test_table (name) VALUES (?)", "a");
+
+        assertTrue(dbManager.checkpoint());
+    }
+
+    @Test
+    public void testRepeatedStatementsHitTheCache() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT, value INTEGER)");
+        StatementCacheStats before = dbManager.getStatementCacheStats();
+
+        for (int i = 0; i < 10; i++) {
+            dbManager.executeUpdate("INSERT INTO test_table (name, value) VALUES (?, ?)", "n" + i, i);
+        }
+        List<Map<String, Object>> rows = dbManager.executeQuery("SELECT name FROM test_table WHERE value = ?", 7);
+        rows = dbManager.executeQuery("SELECT name FROM test_table WHERE value = ?", 3);
+
+        StatementCacheStats after = dbManager.getStatementCacheStats();
+        assertEquals(2, after.misses() - before.misses(), "One compile per distinct SQL text");
+        assertEquals(10, after.hits() - before.hits());
+        assertEquals(1, rows.size());
+        assertEquals("n3", rows.get(0).get("name"), "Parameters must be rebound on reuse");
+    }
+
+    @Test
+    public void testStatementCacheEvictsAndClosesWithConnection() throws Exception {
+        java.sql.Connection raw = java.sql.DriverManager.getConnection("jdbc:sqlite:" + testDbPath);
+        StatementCachingConnection.Counters counters = new StatementCachingConnection.Counters();
+        StatementCachingConnection conn = new StatementCachingConnection(raw, 2, counters);
+
+        for (String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3")) {
+            try (java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.executeQuery().close();
+            }
+        }
+        assertEquals(2, conn.cachedStatementCount());
+        assertEquals(1, counters.snapshot().evictions());
+
+        java.sql.PreparedStatement first = conn.prepareStatement("SELECT 3");
+        java.sql.PreparedStatement second = conn.prepareStatement("SELECT 3");
+        assertNotSame(first, second, "Busy cached statements must not be shared");
+        second.close();
+        first.close();
+
+        conn.close();
+        assertEquals(0, conn.cachedStatementCount());
+        assertTrue(raw.isClosed());
+    }
+
+    @Test
+    public void testSchemaChangeInvalidatesCachedStatements() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT)");
+        dbManager.executeUpdate("INSERT INTO test_table (name) VALUES (?)", "a");
+        assertEquals(2, dbManager.executeQuery("SELECT * FROM test_table").get(0).size());
+
+        dbManager.executeUpdate("ALTER TABLE test_table ADD COLUMN value INTEGER");
+
+        Map<String, Object> row = dbManager.executeQuery("SELECT * FROM test_table").get(0);
+        assertEquals(3, row.size(), "Cached SELECT * must pick up the new column");
+        assertTrue(row.containsKey("value"));
+    }
+
+    @Test
+    public void testQueryMapsRowsInOrder() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, name TEXT, value INTEGER)");
+        dbManager.executeUpdate("INSERT INTO test_table (name, value) VALUES (?, ?)", "a", 1);
+        dbManager.executeUpdate("INSERT INTO test_table (name, value) VALUES (?, ?)", "b", null);
+
+        List<String> rows = dbManager.query("SELECT name, value FROM test_table ORDER BY id",
+                (rs, rowNum) -> rowNum + ":" + rs.getString(1) + "=" + rs.getLong(2));
+
+        assertEquals(List.of("0:a=1", "1:b=0"), rows);
+    }
+
+    @Test
+    public void testExtractReadsWholeResultSet() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, value INTEGER)");
+        dbManager.executeUpdate("INSERT INTO test_table (value) VALUES (?)", 5);
+        dbManager.executeUpdate("INSERT INTO test_table (value) VALUES (?)", 7);
+
+        long sum = dbManager.extract("SELECT value FROM test_table", rs -> {
+            long total = 0;
+            while (rs.next()) {
+                total += rs.getLong(1);
+            }
+            return total;
+        });
+
+        assertEquals(12L, sum);
+        assertThrows(RuntimeException.class,
+                () -> dbManager.extract("SELECT missing FROM test_table", rs -> null));
+    }
+
+    @Test
+    public void testForEachRowVisitsEveryRow() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, value INTEGER)");
+        for (int i = 1; i <= 500; i++) {
+            dbManager.executeUpdate("INSERT INTO test_table (value) VALUES (?)", i);
+        }
+
+        long[] sum = new long[1];
+        dbManager.forEachRow("SELECT value FROM test_table", 16, rs -> sum[0] += rs.getLong(1));
+
+        assertEquals(500L * 501 / 2, sum[0]);
+        assertEquals(0, dbManager.getReadPoolStats().leased());
+    }
+
+    @Test
+    public void testStreamHoldsReaderUntilClosed() {
+        dbManager.executeUpdate("CREATE TABLE test_table (id INTEGER PRIMARY KEY, value INTEGER)");
+        for (int i = 1; i <= 10; i++) {
+            dbManager.executeUpdate("INSERT INTO test_table (value) VALUES (?)", i);
+        }
+
+        try (java.util.stream.Stream<Integer> values = dbManager.stream(
+                "SELECT value FROM test_table ORDER BY id", DatabaseManager.DEFAULT_FETCH_SIZE,
+                (rs, rowNum) -> rs.getInt(1))) {
+            assertEquals(1, dbManager.getReadPoolStats().leased());
+            assertEquals(List.of(1, 2, 3), values.limit(3).toList());
+        }
+        assertEquals(0, dbManager.getReadPoolStats().leased(), "Closing the stream must release the reader");
+    }
 }
@@ -0,0 +1,46 @@
+package com.detonomics.budgettuner.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongIntMapTest {
+
+    @Test
+    public void testPutReplacesAndPutIfAbsentKeepsFirst() {
+        LongIntMap map = new LongIntMap(4);
+
+        map.put(42L, 1);
+        map.put(42L, 2);
+        assertFalse(map.putIfAbsent(42L, 3));
+        assertTrue(map.putIfAbsent(-7L, 4));
+
+        assertEquals(2, map.getOrDefault(42L, -1));
+        assertEquals(4, map.getOrDefault(-7L, -1));
+        assertEquals(-1, map.getOrDefault(0L, -1));
+        assertTrue(map.containsKey(-7L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testGrowsPastExpectedSize() {
+        LongIntMap map = new LongIntMap(0);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextInt(2_000) * 1_000_003L;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.getOrDefault(key, -1)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.detonomics.budgettuner.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SceneSwitchMetricsTest {
+
+    @Test
+    void testSeparatesBuiltAndReusedSwitches() {
+        SceneSwitchMetrics metrics = new SceneSwitchMetrics();
+        metrics.record("budget-view.fxml", 40_000_000L, false);
+        metrics.record("budget-view.fxml", 2_000_000L, true);
+        metrics.record("budget-view.fxml", 4_000_000L, true);
+
+        assertEquals(1, metrics.switches("budget-view.fxml", false));
+        assertEquals(2, metrics.switches("budget-view.fxml", true));
+        assertEquals(40.0, metrics.meanMillis("budget-view.fxml", false), 1e-9);
+        assertEquals(3.0, metrics.meanMillis("budget-view.fxml", true), 1e-9);
+        assertEquals(0, metrics.switches("welcome-view.fxml", true));
+        assertEquals(0.0, metrics.meanMillis("welcome-view.fxml", false), 0.0);
+
+        String report = metrics.report();
+        assertTrue(report.contains("budget-view.fxml"));
+        assertTrue(report.contains("max"));
+    }
+}
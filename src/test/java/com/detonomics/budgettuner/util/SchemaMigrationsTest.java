@@ -0,0 +1,99 @@
+package com.detonomics.budgettuner.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SchemaMigrationsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    public void setUp() {
+        dbManager = new DatabaseManager(tempDir.resolve("migrations.db").toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dbManager.close();
+    }
+
+    private void createLegacySchema() {
+        dbManager.executeUpdate("CREATE TABLE RevenueCategories (revenue_category_id INTEGER PRIMARY KEY, "
+                + "budget_id INTEGER, code TEXT, name TEXT, amount REAL, parent_id INTEGER)");
+        dbManager.executeUpdate("CREATE TABLE ExpenseCategories (expense_category_id INTEGER PRIMARY KEY, "
+                + "budget_id INTEGER, code TEXT, name TEXT, amount REAL)");
+        dbManager.executeUpdate("CREATE TABLE Ministries (ministry_id INTEGER PRIMARY KEY, budget_id INTEGER, "
+                + "code TEXT, name TEXT, regular_budget REAL, public_investment_budget REAL, total_budget REAL)");
+        dbManager.executeUpdate("CREATE TABLE MinistryExpenses (ministry_expense_id INTEGER PRIMARY KEY, "
+                + "ministry_id INTEGER, expense_category_id INTEGER, amount REAL)");
+    }
+
+    private int userVersion() {
+        return ((Number) dbManager.executeQuery("PRAGMA user_version").get(0).get("user_version")).intValue();
+    }
+
+    @Test
+    public void testMigrateUpgradesLegacySchema() throws Exception {
+        createLegacySchema();
+        dbManager.executeUpdate("INSERT INTO RevenueCategories (budget_id, code, name, amount) VALUES (1, '0011', 'A', 5)");
+
+        assertEquals(1, dbManager.migrateSchema());
+        assertEquals(SchemaMigrations.LATEST_VERSION, userVersion());
+
+        List<Map<String, Object>> rows = dbManager.executeQuery(
+                "SELECT name FROM RevenueCategories WHERE budget_id = ? AND code_num = ?", 1, 11L);
+        assertEquals(1, rows.size());
+
+        List<Map<String, Object>> indexes = dbManager.executeQuery(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND name LIKE 'idx_%'");
+        assertEquals(5, indexes.size());
+    }
+
+    @Test
+    public void testCodeLookupUsesIndex() throws Exception {
+        createLegacySchema();
+        dbManager.migrateSchema();
+
+        String plan = dbManager.executeQuery(
+                "EXPLAIN QUERY PLAN SELECT revenue_category_id FROM RevenueCategories "
+                        + "WHERE budget_id = ? AND code_num = ?", 1, 11L)
+                .toString();
+        assertTrue(plan.contains("idx_RevenueCategories_budget_code"), plan);
+    }
+
+    @Test
+    public void testMigrateIsIdempotent() throws Exception {
+        createLegacySchema();
+        assertEquals(1, dbManager.migrateSchema());
+        assertEquals(0, dbManager.migrateSchema());
+        assertEquals(SchemaMigrations.LATEST_VERSION, userVersion());
+    }
+
+    @Test
+    public void testEmptyDatabaseStaysUnversioned() throws Exception {
+        assertEquals(0, dbManager.migrateSchema());
+        assertEquals(0, userVersion());
+    }
+
+    @Test
+    public void testGeneratedColumnFollowsCodeUpdates() throws Exception {
+        createLegacySchema();
+        dbManager.migrateSchema();
+        dbManager.executeUpdate("INSERT INTO Ministries (budget_id, code, name, total_budget) VALUES (1, '1001', 'M', 10)");
+        dbManager.executeUpdate("UPDATE Ministries SET code = '1002'");
+
+        assertEquals(1, dbManager.executeQuery("SELECT 1 FROM Ministries WHERE code_num = 1002").size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.detonomics.budgettuner.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.SoftReference;
+import org.junit.jupiter.api.Test;
+
+class ViewCacheTest {
+
+    @Test
+    void testKeepsViewsBeyondStrongCapacity() {
+        ViewCache<String> cache = new ViewCache<>(2);
+        cache.put("a.fxml", "A");
+        cache.put("b.fxml", "B");
+        cache.put("c.fxml", "C");
+
+        assertEquals("A", cache.get("a.fxml"));
+        assertEquals("C", cache.get("c.fxml"));
+        assertNull(cache.get("d.fxml"));
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0, cache.reclaimed());
+    }
+
+    @Test
+    void testReclaimedViewsAreRebuilt() {
+        // Simulate memory pressure: demoted views are reclaimed at once.
+        ViewCache<String> cache = new ViewCache<>(2, view -> {
+            SoftReference<String> ref = new SoftReference<>(view);
+            ref.clear();
+            return ref;
+        });
+        cache.put("a.fxml", "A");
+        cache.put("b.fxml", "B");
+        cache.get("a.fxml");
+        cache.put("c.fxml", "C");
+
+        // b was the least recently used.
+        assertFalse(cache.contains("b.fxml"));
+        assertTrue(cache.contains("a.fxml"));
+        assertNull(cache.get("b.fxml"));
+        assertEquals(1, cache.reclaimed());
+
+        assertTrue(cache.putIfAbsent("b.fxml", "B2"));
+        assertFalse(cache.putIfAbsent("b.fxml", "B3"));
+        assertEquals("B2", cache.get("b.fxml"));
+    }
+
+    @Test
+    void testRejectsEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new ViewCache<String>(0));
+    }
+}
@@ -2,6 +2,7 @@
 package com.detonomics.budgettuner.util;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 // import static org.mockito.Mockito.when;
@@ -15,9 +16,13 @@ import com.detonomics.budgettuner.controller.ComparisonController;
 import com.detonomics.budgettuner.controller.ComparisonDetailsController;
 import com.detonomics.budgettuner.controller.IngestController;
 import com.detonomics.budgettuner.controller.WelcomeController;
+import com.detonomics.budgettuner.service.AsyncBudgetDataService;
 import com.detonomics.budgettuner.service.BudgetDataService;
 import com.detonomics.budgettuner.service.BudgetModificationService;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import javafx.application.Platform;
@@ -121,6 +126,22 @@ class ViewManagerTest {
         assertTrue(c instanceof String);
     }
 
+    @Test
+    void testUnhandledLoadFailuresGoToTheErrorHandler() {
+        ViewManager vm = new ViewManager(mock(Stage.class), new AsyncBudgetDataService(budgetDataService),
+                budgetModificationService, Runnable::run);
+        List<Throwable> errors = new ArrayList<>();
+        vm.setErrorHandler(errors::add);
+        IllegalStateException failure = new IllegalStateException("database closed");
+
+        vm.load(CompletableFuture.failedFuture(failure), value -> fail("Loaded a failed request"));
+
+        assertEquals(1, errors.size());
+        assertEquals("Error loading data: database closed", errors.get(0).getMessage());
+        assertSame(failure, errors.get(0).getCause());
+        vm.shutdown();
+    }
+
     private void assertEquals(Object expected, Object actual) {
         org.junit.jupiter.api.Assertions.assertEquals(expected, actual);
     }
@@ -0,0 +1,74 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArtifactCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file(final String name, final String content) throws Exception {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStoreThenRestore() throws Exception {
+        ArtifactCache cache = new ArtifactCache(dir.resolve("cache"), 1024);
+        cache.store("k1", file("a.txt", "budget text"));
+
+        Path target = dir.resolve("out").resolve("a.txt");
+        assertTrue(cache.restore("k1", target));
+        assertEquals("budget text", Files.readString(target, StandardCharsets.UTF_8));
+        assertFalse(cache.restore("k2", target));
+    }
+
+    @Test
+    public void testKeysDependOnEveryPartAndItsPosition() throws Exception {
+        String hash = ArtifactCache.sha256(file("a.pdf", "pdf bytes"));
+
+        assertEquals(ArtifactCache.key(hash, "v1"), ArtifactCache.key(hash, "v1"));
+        assertNotEquals(ArtifactCache.key(hash, "v1"), ArtifactCache.key(hash, "v2"));
+        assertNotEquals(ArtifactCache.key("ab", "c"), ArtifactCache.key("a", "bc"));
+        assertNotEquals(hash, ArtifactCache.sha256(file("b.pdf", "other bytes")));
+        assertEquals(64, hash.length());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondBound() throws Exception {
+        Path cacheDir = dir.resolve("cache");
+        ArtifactCache cache = new ArtifactCache(cacheDir, 25);
+        cache.store("old", file("1", "0123456789"));
+        cache.store("used", file("2", "0123456789"));
+        Files.setLastModifiedTime(cacheDir.resolve("old"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(cacheDir.resolve("used"), FileTime.fromMillis(2_000));
+        assertTrue(cache.restore("used", dir.resolve("copy")));
+
+        cache.store("new", file("3", "0123456789"));
+
+        assertFalse(Files.exists(cacheDir.resolve("old")));
+        assertTrue(Files.exists(cacheDir.resolve("used")));
+        assertTrue(Files.exists(cacheDir.resolve("new")));
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void testKeepsNewEntryLargerThanBound() throws Exception {
+        ArtifactCache cache = new ArtifactCache(dir.resolve("cache"), 4);
+        cache.store("small", file("1", "abc"));
+        cache.store("large", file("2", "0123456789"));
+
+        assertFalse(cache.restore("small", dir.resolve("copy")));
+        assertTrue(cache.restore("large", dir.resolve("copy")));
+    }
+}
@@ -0,0 +1,55 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.detonomics.budgettuner.util.ingestion.BudgetTextSections.Section;
+
+import org.junit.jupiter.api.Test;
+
+public class BudgetTextSectionsTest {
+
+    @Test
+    public void testLocatesEverySection() {
+        BudgetTextSections sections = BudgetTextSections.locate(SampleBudgetText.build(3));
+
+        assertTrue(sections.get(Section.SUMMARY).startsWith("ΚΡΑΤΙΚΟΣ ΠΡΟΫΠΟΛΟΓΙΣΜΟΣ 2026\n"));
+        assertTrue(sections.get(Section.REVENUE).startsWith("Ανάλυση Εσόδων\n11 Κατηγορία εσόδων 1"));
+        assertFalse(sections.get(Section.REVENUE).contains("ΠΙΣΤΩΣΕΙΣ"));
+        assertEquals(10, sections.get(Section.EXPENSES).lines().count());
+        assertTrue(sections.get(Section.EXPENSES).endsWith("29 Κατηγορία εξόδων 9 18000000"));
+    }
+
+    @Test
+    public void testRepeatedHeadingsExtendTheSameSection() {
+        String ministries = BudgetTextSections.locate(SampleBudgetText.build(3)).get(Section.MINISTRIES);
+
+        assertEquals(3, ministries.lines().filter(line -> line.startsWith("ΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ")).count());
+        assertEquals(3 * 4, ministries.lines().count());
+    }
+
+    @Test
+    public void testSummaryKeepsTheStartOfTheDocument() {
+        String summary = BudgetTextSections.locate(SampleBudgetText.build(100)).get(Section.SUMMARY);
+
+        assertEquals(BudgetTextSections.SUMMARY_MIN_LINES, summary.lines().count());
+        assertTrue(summary.contains("ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ ΚΑΤΗΓΟΡΙΑ ΔΑΠΑΝΗΣ"));
+    }
+
+    @Test
+    public void testHeadingsIgnoreCaseAndAccents() {
+        assertEquals(Section.EXPENSES, BudgetTextSections.headingOf("Πιστώσεις κατά μείζονα κατηγορία δαπάνης"));
+        assertEquals(Section.REVENUE, BudgetTextSections.headingOf("ΕΣΟΔΑ ΚΡΑΤΙΚΟΥ ΠΡΟΫΠΟΛΟΓΙΣΜΟΥ 2026"));
+        assertEquals(Section.MINISTRIES, BudgetTextSections.headingOf("Πιστώσεις συνολικά κατά φορέα"));
+        assertNull(BudgetTextSections.headingOf("1001 ΠΡΟΕΔΡΙΑ ΤΗΣ ΔΗΜΟΚΡΑΤΙΑΣ 4.638.000"));
+        assertNull(BudgetTextSections.headingOf("Ανάλυση εσόδων " + "x".repeat(200)));
+    }
+
+    @Test
+    public void testMissingSectionGivesNull() {
+        assertNull(BudgetTextSections.locate("Ανάλυση Εσόδων\n11 Φόροι 100\nΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ ΚΑΤΑ ΦΟΡΕΑ\n1001 Χ 1"));
+        assertNull(BudgetTextSections.locate(""));
+    }
+}
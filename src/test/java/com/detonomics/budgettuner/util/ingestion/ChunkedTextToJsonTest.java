@@ -0,0 +1,162 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChunkedTextToJsonTest {
+
+    private static final RetryPolicy NO_WAIT = new RetryPolicy(3, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private Path input(final String text) throws IOException {
+        return Files.writeString(dir.resolve("budget.txt"), text, StandardCharsets.UTF_8);
+    }
+
+    private static JsonToSQLite.BudgetFile read(final Path json) throws IOException {
+        return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(json.toFile(), JsonToSQLite.BudgetFile.class);
+    }
+
+    @Test
+    public void testMergesConcurrentSectionCallsAgainstStubServer() throws Exception {
+        Path out = dir.resolve("budget.json");
+        try (StubModelServer server = new StubModelServer(SampleBudgetText::reply, text -> 300, 0)) {
+            new ChunkedTextToJson(server.model(), 4, NO_WAIT).textFileToJson(input(SampleBudgetText.build(20)), out);
+
+            assertEquals(4, server.requests());
+            assertTrue(server.maxInFlight() > 1, "section calls should overlap");
+        }
+
+        JsonToSQLite.BudgetFile budget = read(out);
+        assertEquals(2026, budget.getMetadata().getBudgetYear());
+        assertEquals(62_000_000_000L, budget.getBudgetSummary().getTotalRevenue());
+        assertEquals("111", budget.getRevenueAnalysis().getFirst().getChildren().getFirst().getCode());
+        assertEquals(1, budget.getExpenseAnalysis().size());
+        assertEquals("ΥΠΟΥΡΓΕΙΟ 1", budget.getDistributionByMinistry().getFirst().getMinistryBody());
+    }
+
+    @Test
+    public void testSendsEachSectionWithItsOwnPrompt() throws Exception {
+        List<String> texts = new CopyOnWriteArrayList<>();
+        ExtractionModel model = (instructions, text) -> {
+            texts.add(text);
+            return SampleBudgetText.reply(instructions, text);
+        };
+
+        new ChunkedTextToJson(model, 2, NO_WAIT).textFileToJson(input(SampleBudgetText.build(300)),
+                dir.resolve("budget.json"));
+
+        assertEquals(4, texts.size());
+        assertTrue(texts.stream().anyMatch(text -> text.startsWith("ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ")));
+        assertTrue(texts.stream().noneMatch(text -> text.contains("Ανάλυση Εσόδων")
+                && text.contains("1300 ΥΠΟΥΡΓΕΙΟ 300")));
+    }
+
+    @Test
+    public void testRetriesFailedAndIncompleteReplies() throws Exception {
+        AtomicInteger revenueCalls = new AtomicInteger();
+        ExtractionModel model = (instructions, text) -> {
+            if (instructions.contains("\"revenueAnalysis\"")) {
+                switch (revenueCalls.incrementAndGet()) {
+                    case 1:
+                        throw new IOException("connection reset");
+                    case 2:
+                        return "{\"somethingElse\": []}";
+                    default:
+                        break;
+                }
+            }
+            return SampleBudgetText.reply(instructions, text);
+        };
+        Path out = dir.resolve("budget.json");
+
+        new ChunkedTextToJson(model, 4, NO_WAIT).textFileToJson(input(SampleBudgetText.build(5)), out);
+
+        assertEquals(3, revenueCalls.get());
+        assertEquals("11", read(out).getRevenueAnalysis().getFirst().getCode());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ExtractionModel model = (instructions, text) -> {
+            if (instructions.contains("\"expenseAnalysis\"")) {
+                calls.incrementAndGet();
+                return "not json";
+            }
+            return SampleBudgetText.reply(instructions, text);
+        };
+        Path out = dir.resolve("budget.json");
+
+        IOException e = assertThrows(IOException.class, () -> new ChunkedTextToJson(model, 4, NO_WAIT)
+                .textFileToJson(input(SampleBudgetText.build(5)), out));
+
+        assertTrue(e.getMessage().contains("EXPENSES"));
+        assertEquals(3, calls.get());
+        assertFalse(Files.exists(out));
+    }
+
+    @Test
+    public void testRetriesModelExceptionsAndReportsThemToTheLogger() throws Exception {
+        AtomicInteger summaryCalls = new AtomicInteger();
+        ExtractionModel model = (instructions, text) -> {
+            if (instructions.contains("\"budgetSummary\"") && summaryCalls.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("Bad request");
+            }
+            return SampleBudgetText.reply(instructions, text);
+        };
+        List<String> log = new CopyOnWriteArrayList<>();
+        Path out = dir.resolve("budget.json");
+
+        new ChunkedTextToJson(model, 4, NO_WAIT, log::add).textFileToJson(input(SampleBudgetText.build(5)), out);
+
+        assertEquals(2, summaryCalls.get());
+        assertTrue(log.stream().anyMatch(line -> line.contains("SUMMARY") && line.contains("Bad request")));
+        assertTrue(log.contains("Saved to " + out.toAbsolutePath()));
+    }
+
+    @Test
+    public void testFallsBackToWholeDocumentWithoutHeadings() throws Exception {
+        List<String> instructionsSent = new CopyOnWriteArrayList<>();
+        ExtractionModel model = (instructions, text) -> {
+            instructionsSent.add(instructions);
+            return SampleBudgetText.reply(instructions, text);
+        };
+        Path out = dir.resolve("budget.json");
+
+        new ChunkedTextToJson(model, 4, NO_WAIT).textFileToJson(input("Προϋπολογισμός χωρίς πίνακες\n1 2 3"), out);
+
+        assertEquals(1, instructionsSent.size());
+        assertFalse(instructionsSent.getFirst().contains("**TASK**"));
+        assertEquals(1, read(out).getDistributionByMinistry().size());
+    }
+
+    @Test
+    public void testVersionDiffersFromWholeDocumentParser() {
+        assertFalse(new ChunkedTextToJson().version().equals(new TextToJson().version()));
+    }
+
+    @Test
+    public void testVersionCoversFallbackPrompt() {
+        // Unsectioned text is parsed with TextToJson's prompt, so its version keys the cache too.
+        assertTrue(new ChunkedTextToJson().version().contains("TextToJson/prompt-" + TextToJson.PROMPT_VERSION));
+    }
+}
@@ -0,0 +1,59 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Write text-only PDFs of arbitrary length, laid out like the ministry
+ * tables of a budget document, for extraction tests and benchmarks.
+ */
+public final class GeneratedPdf {
+
+    private static final float MARGIN = 50;
+    private static final float LEADING = 14;
+    private static final float FONT_SIZE = 10;
+
+    private GeneratedPdf() {
+    }
+
+    /**
+     * Write a document to disk.
+     *
+     * @param path         Target file
+     * @param pages        Number of pages
+     * @param linesPerPage Text lines on each page
+     * @throws IOException If the document cannot be written
+     */
+    public static void write(final Path path, final int pages, final int linesPerPage) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, PDRectangle.A4.getHeight() - MARGIN);
+                    content.showText("Page " + p + "   MINISTRY " + (1000 + p));
+                    for (int line = 1; line < linesPerPage; line++) {
+                        content.newLine();
+                        content.showText(line(p, line));
+                    }
+                    content.endText();
+                }
+            }
+            document.save(path.toFile());
+        }
+    }
+
+    private static String line(final int page, final int line) {
+        long amount = (page * 7919L + line * 104_729L) % 1_000_000_000L;
+        return String.format("%d   Expense line %d of page %d   %,d", 20 + line, line, page, amount);
+    }
+}
@@ -1,6 +1,12 @@
 package com.detonomics.budgettuner.util.ingestion;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PdfToTextTest {
@@ -62,4 +68,51 @@ public class PdfToTextTest {
         String expected = "Text";
         assertEquals(expected, pdfToText.cleanText(input));
     }
+
+    @Test
+    public void testPageRangesCoverEveryPageInOrder() {
+        List<PdfToText.PageRange> ranges = PdfToText.pageRanges(100, 3);
+
+        assertEquals(List.of(new PdfToText.PageRange(1, 34), new PdfToText.PageRange(35, 67),
+                new PdfToText.PageRange(68, 100)), ranges);
+    }
+
+    @Test
+    public void testPageRangesKeepSmallDocumentsWhole() {
+        assertEquals(List.of(new PdfToText.PageRange(1, 12)), PdfToText.pageRanges(12, 8));
+        assertEquals(2, PdfToText.pageRanges(16, 8).size());
+        assertEquals(1, PdfToText.pageRanges(0, 4).size());
+    }
+
+    @Test
+    public void testRejectsNonPositiveWorkerCount() {
+        assertThrows(IllegalArgumentException.class, () -> new PdfToText(0));
+    }
+
+    @Test
+    public void testParallelExtractionMatchesSerial(@TempDir final Path dir) throws Exception {
+        Path pdf = dir.resolve("budget.pdf");
+        GeneratedPdf.write(pdf, 40, 20);
+
+        String serial = new PdfToText(1).extractTextFromFile(pdf.toString());
+        String parallel = new PdfToText(4).extractTextFromFile(pdf.toString());
+
+        assertEquals(serial, parallel);
+        assertTrue(parallel.startsWith("Page 1 MINISTRY 1001\n"));
+        assertTrue(parallel.contains("Page 40 MINISTRY 1040"));
+        assertEquals(40 * 20, parallel.lines().count());
+    }
+
+    @Test
+    public void testExtractAndSaveTextStreamsToFile(@TempDir final Path dir) throws Exception {
+        Path pdf = dir.resolve("budget.pdf");
+        GeneratedPdf.write(pdf, 20, 10);
+        PdfToText pdfToText = new PdfToText(2);
+
+        Path text = pdfToText.extractAndSaveText(pdf.toString(), dir.resolve("processed"));
+
+        assertEquals(dir.resolve("processed").resolve("budget.txt"), text);
+        assertEquals(pdfToText.extractTextFromFile(pdf.toString()),
+                Files.readString(text, StandardCharsets.UTF_8));
+    }
 }
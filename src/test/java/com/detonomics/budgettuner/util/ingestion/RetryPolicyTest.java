@@ -0,0 +1,35 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testDelaysGrowExponentiallyWithJitterUpToTheCap() {
+        RetryPolicy policy = new RetryPolicy(10, 1_000, 5_000);
+        for (int i = 0; i < 100; i++) {
+            long first = policy.delayMillis(1);
+            long second = policy.delayMillis(2);
+            long late = policy.delayMillis(40);
+            assertTrue(first >= 500 && first <= 1_000, "first " + first);
+            assertTrue(second >= 1_000 && second <= 2_000, "second " + second);
+            assertTrue(late >= 2_500 && late <= 5_000, "late " + late);
+        }
+    }
+
+    @Test
+    public void testZeroDelaysForTests() {
+        assertEquals(0, new RetryPolicy(3, 0, 0).delayMillis(3));
+    }
+
+    @Test
+    public void testRejectsInvalidSchedules() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(3, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(3, 2_000, 1_000));
+    }
+}
@@ -0,0 +1,104 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+/**
+ * Budget text laid out like an extracted state budget, with the section
+ * headings {@link BudgetTextSections} looks for, and canned model replies
+ * for each section prompt.
+ */
+public final class SampleBudgetText {
+
+    private SampleBudgetText() {
+    }
+
+    /**
+     * Build a document with nine revenue codes.
+     *
+     * @param ministries Number of ministries in the ministry tables
+     * @return Cleaned budget text
+     */
+    public static String build(final int ministries) {
+        return build(ministries, 9);
+    }
+
+    /**
+     * Build a document.
+     *
+     * @param ministries   Number of ministries in the ministry tables
+     * @param revenueCodes Number of rows in the revenue table
+     * @return Cleaned budget text
+     */
+    public static String build(final int ministries, final int revenueCodes) {
+        StringBuilder text = new StringBuilder()
+                .append("ΚΡΑΤΙΚΟΣ ΠΡΟΫΠΟΛΟΓΙΣΜΟΣ 2026\n")
+                .append("Αθήνα, 21 Νοεμβρίου 2025\n")
+                .append("Σύνολο εσόδων 62.000.000.000\n")
+                .append("Σύνολο εξόδων 70.000.000.000\n")
+                .append("Ανάλυση Εσόδων\n");
+        for (int i = 1; i <= revenueCodes; i++) {
+            text.append("1").append(i).append(" Κατηγορία εσόδων ").append(i).append(' ')
+                    .append(i * 1_000_000).append('\n');
+        }
+        text.append("ΠΙΣΤΩΣΕΙΣ ΚΑΤΑ ΜΕΙΖΟΝΑ ΚΑΤΗΓΟΡΙΑ ΔΑΠΑΝΗΣ\n");
+        for (int i = 1; i <= 9; i++) {
+            text.append("2").append(i).append(" Κατηγορία εξόδων ").append(i).append(' ')
+                    .append(i * 2_000_000).append('\n');
+        }
+        for (String kind : new String[] {"ΣΥΝΟΛΟ", "ΤΑΚΤΙΚΟΣ", "ΔΗΜΟΣΙΩΝ ΕΠΕΝΔΥΣΕΩΝ"}) {
+            text.append("ΠΙΣΤΩΣΕΙΣ ΣΥΝΟΛΙΚΑ ΚΑΤΑ ΦΟΡΕΑ - ").append(kind).append('\n');
+            for (int m = 1; m <= ministries; m++) {
+                text.append(1000 + m).append(" ΥΠΟΥΡΓΕΙΟ ").append(m);
+                for (int c = 1; c <= 9; c++) {
+                    text.append(' ').append(m * 1_000 + c);
+                }
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Answer a section prompt with a fixed, schema-conforming reply; any other
+     * prompt gets a whole-document reply.
+     *
+     * @param instructions System instructions sent to the model
+     * @param text         Text sent to the model
+     * @return Reply text, wrapped in a markdown fence like real replies often are
+     */
+    public static String reply(final String instructions, final String text) {
+        String json;
+        if (!instructions.contains("**TASK**")) {
+            json = "{" + summary() + "," + revenue() + "," + expenses() + "," + ministries() + "}";
+        } else if (instructions.contains("\"budgetSummary\"")) {
+            json = "{" + summary() + "}";
+        } else if (instructions.contains("\"revenueAnalysis\"")) {
+            json = "{" + revenue() + "}";
+        } else if (instructions.contains("\"expenseAnalysis\"")) {
+            json = "{" + expenses() + "}";
+        } else {
+            json = "{" + ministries() + "}";
+        }
+        return "```json\n" + json + "\n```";
+    }
+
+    private static String summary() {
+        return "\"metadata\":{\"sourceTitle\":\"Προϋπολογισμός 2026\",\"sourceDate\":\"2025-11-21\","
+                + "\"budgetYear\":2026,\"currency\":\"EUR\",\"locale\":\"Greece\",\"missingFields\":[]},"
+                + "\"budgetSummary\":{\"totalRevenue\":62000000000,\"totalExpenses\":70000000000,"
+                + "\"stateBudgetBalance\":-8000000000,\"coverageWithCashReserves\":8000000000}";
+    }
+
+    private static String revenue() {
+        return "\"revenueAnalysis\":[{\"code\":\"11\",\"name\":\"Φόροι\",\"amount\":1000000,"
+                + "\"children\":[{\"code\":\"111\",\"name\":\"ΦΠΑ\",\"amount\":1000000,\"children\":[]}]}]";
+    }
+
+    private static String expenses() {
+        return "\"expenseAnalysis\":[{\"code\":\"21\",\"name\":\"Παροχές σε εργαζομένους\",\"amount\":2000000}]";
+    }
+
+    private static String ministries() {
+        return "\"distributionByMinistry\":[{\"code\":\"1001\",\"ministryBody\":\"ΥΠΟΥΡΓΕΙΟ 1\","
+                + "\"totalFromMajorCategories\":[{\"code\":\"21\",\"name\":\"Παροχές σε εργαζομένους\","
+                + "\"amount\":1001}],\"regularBudget\":1001,\"publicInvestmentBudget\":0,\"total\":1001}]";
+    }
+}
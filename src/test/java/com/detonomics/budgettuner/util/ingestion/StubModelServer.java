@@ -0,0 +1,201 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Local HTTP server speaking the Gemini {@code generateContent} protocol, so
+ * the real client can be exercised offline. Replies come from a function of
+ * the system instructions and the user text; latency and failures can be
+ * injected. Every request is answered on its own connection, which is closed
+ * afterwards, so the server only needs plain sockets.
+ */
+public final class StubModelServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ServerSocket server;
+    private final ExecutorService connections;
+    private final BiFunction<String, String, String> replies;
+    private final ToLongFunction<String> latencyMillis;
+    private final AtomicInteger failuresLeft;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Start a server on a free local port.
+     *
+     * @param replies       Reply text for (instructions, text)
+     * @param latencyMillis Time to spend on a request, given its text
+     * @param failures      Number of initial requests answered with HTTP 503
+     * @throws IOException If the server cannot bind
+     */
+    public StubModelServer(final BiFunction<String, String, String> replies,
+            final ToLongFunction<String> latencyMillis, final int failures) throws IOException {
+        this.replies = replies;
+        this.latencyMillis = latencyMillis;
+        this.failuresLeft = new AtomicInteger(failures);
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.connections = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-model");
+            t.setDaemon(true);
+            return t;
+        });
+        connections.execute(this::accept);
+    }
+
+    /**
+     * Get the base URL to pass to {@link GeminiModel}.
+     *
+     * @return Base URL of the server
+     */
+    public String baseUrl() {
+        return "http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort() + "/";
+    }
+
+    /**
+     * Build a real Gemini client pointed at this server.
+     *
+     * @return Model client
+     */
+    public GeminiModel model() {
+        return new GeminiModel("stub-key", TextToJson.MODEL, baseUrl());
+    }
+
+    /**
+     * Get the number of requests received, failed ones included.
+     *
+     * @return Request count
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    /**
+     * Get the largest number of requests served at the same time.
+     *
+     * @return Peak concurrency
+     */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                // Closed by close()
+            }
+        }
+    }
+
+    private void handle(final Socket socket) {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            JsonNode request = MAPPER.readTree(readBody(in));
+            String instructions = request.path("systemInstruction").path("parts").path(0).path("text").asText();
+            String text = request.path("contents").path(0).path("parts").path(0).path("text").asText();
+            Thread.sleep(latencyMillis.applyAsLong(text));
+
+            OutputStream out = socket.getOutputStream();
+            if (failuresLeft.getAndDecrement() > 0) {
+                send(out, "503 Service Unavailable",
+                        "{\"error\":{\"code\":503,\"message\":\"overloaded\",\"status\":\"UNAVAILABLE\"}}");
+                return;
+            }
+            ObjectNode response = MAPPER.createObjectNode();
+            ObjectNode content = response.putArray("candidates").addObject().putObject("content");
+            content.put("role", "model");
+            content.putArray("parts").addObject().put("text", replies.apply(instructions, text));
+            send(out, "200 OK", MAPPER.writeValueAsString(response));
+        } catch (IOException e) {
+            // The client gave up on the request
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /* Skip the request line and headers, then read a sized or chunked body. */
+    private static byte[] readBody(final InputStream in) throws IOException {
+        int length = -1;
+        boolean chunked = false;
+        readLine(in);
+        for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+            String header = line.toLowerCase(Locale.ROOT);
+            if (header.startsWith("content-length:")) {
+                length = Integer.parseInt(header.substring("content-length:".length()).trim());
+            } else if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        if (!chunked) {
+            return in.readNBytes(Math.max(length, 0));
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int size = Integer.parseInt(readLine(in).split(";")[0].trim(), 16);
+        while (size > 0) {
+            body.write(in.readNBytes(size));
+            readLine(in);
+            size = Integer.parseInt(readLine(in).split(";")[0].trim(), 16);
+        }
+        return body.toByteArray();
+    }
+
+    private static String readLine(final InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = in.read();
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+            c = in.read();
+        }
+        if (c == -1 && line.isEmpty()) {
+            throw new IOException("Connection closed");
+        }
+        return line.toString();
+    }
+
+    private static void send(final OutputStream out, final String status, final String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + "\r\nContent-Type: application/json\r\nContent-Length: "
+                + bytes.length + "\r\nConnection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        connections.shutdownNow();
+    }
+}
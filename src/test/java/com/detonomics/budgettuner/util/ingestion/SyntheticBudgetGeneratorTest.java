@@ -0,0 +1,163 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.detonomics.budgettuner.dao.BudgetYearDao;
+import com.detonomics.budgettuner.dao.ExpenseCategoryDao;
+import com.detonomics.budgettuner.dao.MinistryDao;
+import com.detonomics.budgettuner.dao.MinistryExpenseDao;
+import com.detonomics.budgettuner.dao.RevenueCategoryDao;
+import com.detonomics.budgettuner.dao.SummaryDao;
+import com.detonomics.budgettuner.model.BudgetYear;
+import com.detonomics.budgettuner.model.Summary;
+import com.detonomics.budgettuner.util.DatabaseManager;
+import com.detonomics.budgettuner.util.ingestion.JsonToSQLite.BudgetFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyntheticBudgetGeneratorTest {
+
+    private static final SyntheticBudgetShape SMALL = new SyntheticBudgetShape(2030, 2, 5, 4, 3, 2, 2, 3, 7);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameSeedGivesSameBudget() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String first = mapper.writeValueAsString(new SyntheticBudgetGenerator(SMALL).budgetFile(2030));
+        String second = mapper.writeValueAsString(new SyntheticBudgetGenerator(SMALL).budgetFile(2030));
+        assertEquals(first, second);
+
+        BudgetFile scenario = new SyntheticBudgetGenerator(SMALL).budgetFile(2030, 1);
+        BudgetFile original = mapper.readValue(first, BudgetFile.class);
+        assertEquals(original.getRevenueAnalysis().get(0).getCode(), scenario.getRevenueAnalysis().get(0).getCode());
+        assertNotEquals(original.getBudgetSummary().getTotalRevenue(), scenario.getBudgetSummary().getTotalRevenue());
+    }
+
+    @Test
+    void testAggregatesEqualTheSumOfTheirParts() {
+        BudgetFile budget = new SyntheticBudgetGenerator(SMALL).budgetFile(2031);
+
+        long totalRevenue = 0;
+        for (JsonToSQLite.RevenueCategory root : budget.getRevenueAnalysis()) {
+            assertTreeAddsUp(root);
+            totalRevenue += root.getAmount();
+        }
+        assertEquals(totalRevenue, budget.getBudgetSummary().getTotalRevenue());
+
+        long totalExpenses = 0;
+        for (JsonToSQLite.ExpenseCategory expense : budget.getExpenseAnalysis()) {
+            long spent = budget.getDistributionByMinistry().stream()
+                    .flatMap(m -> m.getTotalFromMajorCategories().stream())
+                    .filter(item -> item.getCode().equals(expense.getCode()))
+                    .mapToLong(JsonToSQLite.MinistryExpenseItem::getAmount).sum();
+            assertEquals(spent, expense.getAmount());
+            totalExpenses += spent;
+        }
+        assertEquals(totalExpenses, budget.getBudgetSummary().getTotalExpenses());
+        assertEquals(5, budget.getDistributionByMinistry().size());
+    }
+
+    private static void assertTreeAddsUp(final JsonToSQLite.RevenueCategory category) {
+        if (category.getChildren().isEmpty()) {
+            return;
+        }
+        long sum = 0;
+        for (JsonToSQLite.RevenueCategory child : category.getChildren()) {
+            assertTreeAddsUp(child);
+            sum += child.getAmount();
+        }
+        assertEquals(sum, category.getAmount());
+    }
+
+    @Test
+    void testDatabaseHoldsOriginalsAndScenarios() throws Exception {
+        Path dbFile = tempDir.resolve("synthetic.db");
+        SyntheticBudgetGenerator generator = new SyntheticBudgetGenerator(SMALL);
+        assertEquals(5, generator.writeDatabase(dbFile.toString()));
+
+        try (DatabaseManager db = new DatabaseManager(dbFile.toString())) {
+            SummaryDao summaryDao = new SummaryDao(db);
+            RevenueCategoryDao revenueDao = new RevenueCategoryDao(db);
+            BudgetYearDao budgetYearDao = new BudgetYearDao(db, summaryDao, revenueDao, new ExpenseCategoryDao(db),
+                    new MinistryDao(db), new MinistryExpenseDao(db));
+
+            List<Summary> summaries = summaryDao.loadAllSummaries();
+            assertEquals(5, summaries.size());
+            assertEquals(3, summaries.stream().filter(s -> s.getSourceTitle().startsWith("Σενάριο")).count());
+
+            BudgetYear budget = budgetYearDao.loadBudgetYear(summaries.get(0).getBudgetID());
+            assertEquals(SMALL.revenueCategoriesPerBudget(), budget.getRevenues().size());
+            assertEquals(4, budget.getExpenses().size());
+            assertEquals(5, budget.getMinistries().size());
+            assertEquals(20, budget.getMinistryExpenses().size());
+        }
+    }
+
+    @Test
+    void testJsonIngestsToTheSameRowsAsTheDirectWrite() throws Exception {
+        SyntheticBudgetShape shape = new SyntheticBudgetShape(2030, 2, 3, 2, 2, 2, 1, 0, 11);
+        SyntheticBudgetGenerator generator = new SyntheticBudgetGenerator(shape);
+        Path direct = tempDir.resolve("direct.db");
+        Path ingested = tempDir.resolve("ingested.db");
+
+        generator.writeDatabase(direct.toString());
+        JsonToSQLite loader = new JsonToSQLite(ingested.toString());
+        for (Path file : generator.writeJson(tempDir.resolve("json"))) {
+            loader.processAndStoreBudget(file.toString());
+        }
+
+        for (String table : List.of("RevenueCategories", "ExpenseCategories", "Ministries", "MinistryExpenses")) {
+            String sql = "SELECT COUNT(*) || ':' || SUM(amount) FROM " + table;
+            if ("Ministries".equals(table)) {
+                sql = "SELECT COUNT(*) || ':' || SUM(total_budget) FROM Ministries";
+            }
+            assertEquals(query(ingested, sql), query(direct, sql), table);
+        }
+        String budgets = "SELECT group_concat(source_title || total_revenue, ',') FROM Budgets";
+        assertEquals(query(ingested, budgets), query(direct, budgets));
+    }
+
+    @Test
+    void testExistingTitlesLeaveTheDatabaseUnchanged() throws Exception {
+        Path dbFile = tempDir.resolve("twice.db");
+        SyntheticBudgetGenerator generator = new SyntheticBudgetGenerator(SMALL);
+        generator.writeDatabase(dbFile.toString());
+        String counts = "SELECT (SELECT COUNT(*) FROM Budgets) || ':' || (SELECT COUNT(*) FROM MinistryExpenses)";
+        String before = query(dbFile, counts);
+
+        assertThrows(SQLException.class, () -> generator.writeDatabase(dbFile.toString()));
+        assertEquals(before, query(dbFile, counts));
+    }
+
+    @Test
+    void testShapeOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticBudgetShape(2030, 0, 1, 1, 1, 1, 0, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticBudgetShape(2030, 1, 1, 1, 1, 10, 0, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticBudgetShape(2030, 1, 1, 1, 1, 2, 17, 0, 1));
+        assertEquals(3 + 9 + 27, new SyntheticBudgetShape(2030, 1, 1, 1, 3, 3, 2, 0, 1).revenueCategoriesPerBudget());
+    }
+
+    private static String query(final Path dbFile, final String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.detonomics.budgettuner.util.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class WhitespaceNormalizerTest {
+
+    /* The regex pipeline the normalizer replaces. */
+    private static String reference(final String text) {
+        return text.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .map(line -> line.replaceAll("\\s+", " "))
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    public void testNormalizesLinesAndWhitespace() {
+        assertEquals("Line 1\nLine 2\nΥΠΟΥΡΓΕΙΟ Οικονομικών 1.234",
+                WhitespaceNormalizer.normalize("  Line 1 \r\n\r\n\t Line \t 2\n\n ΥΠΟΥΡΓΕΙΟ   Οικονομικών\t1.234 \n"));
+    }
+
+    @Test
+    public void testKeepsInnerControlCharactersLikeTheRegex() {
+        String text = "\u0001a \u0001  b\u0002\n\u0003\n";
+        assertEquals(reference(text), WhitespaceNormalizer.normalize(text));
+    }
+
+    @Test
+    public void testMatchesRegexPipelineOnRandomText() {
+        String alphabet = "ab Α\t\n\r\f\u000B\u0001\u00A0 ";
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(reference(text.toString()), WhitespaceNormalizer.normalize(text.toString()),
+                    () -> "input: " + text.toString().replace("\n", "\\n").replace("\r", "\\r"));
+        }
+    }
+
+    @Test
+    public void testChunkedWritesMatchSingleWrite() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("  row ").append(i).append("\t\t amount  ").append(i * 31).append(" \r\n\n");
+        }
+        StringWriter out = new StringWriter();
+        try (WhitespaceNormalizer normalizer = new WhitespaceNormalizer(out)) {
+            for (int i = 0; i < text.length(); i += 7) {
+                normalizer.write(text.toString(), i, Math.min(7, text.length() - i));
+            }
+        }
+        assertEquals(reference(text.toString()), out.toString());
+    }
+}